@@ -22,6 +22,7 @@ package it.unibz.inf.ontop.owlapi;
 
 import com.google.common.base.Joiner;
 import com.google.common.io.CharStreams;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.owlapi.OntopOWLFactory;
 import it.unibz.inf.ontop.owlapi.OntopOWLReasoner;
@@ -37,8 +38,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -178,4 +181,19 @@ public class MetaMappingVirtualABoxTest {
 		runTests(p);
 	}
 
+	@Test
+	public void testParallelExpansionWithSnapshot() throws Exception {
+		File snapshotDirectory = Files.createTempDirectory("metamapping").toFile();
+
+		Properties p = new Properties();
+		p.setProperty(OntopMappingSQLSettings.META_MAPPING_EXPANSION_PARALLELISM, "3");
+		p.setProperty(OntopMappingSQLSettings.SNAPSHOT_DIRECTORY, snapshotDirectory.getAbsolutePath());
+
+		runTests(p);
+		assertTrue(new File(snapshotDirectory, "metamapping.snapshot").exists());
+
+		// the values of the templates are now read from the snapshot
+		runTests(p);
+	}
+
 }
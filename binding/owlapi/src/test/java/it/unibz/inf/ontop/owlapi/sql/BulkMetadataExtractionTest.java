@@ -0,0 +1,90 @@
+package it.unibz.inf.ontop.owlapi.sql;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.RDBMetadata;
+import it.unibz.inf.ontop.dbschema.RDBMetadataExtractionTools;
+import it.unibz.inf.ontop.dbschema.RelationID;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The bulk and parallel extraction modes must produce the same metadata as the sequential one
+ *
+ * On H2, only the bulk reading of the columns and the relation-by-relation reading of the keys are exercised.
+ * The catalog queries for the keys (Oracle, PostgreSQL and MySQL) are tested by AbstractConstraintTest (docker-tests).
+ */
+public class BulkMetadataExtractionTest {
+
+    private static final String URL = "jdbc:h2:mem:bulkmetadata";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+
+    private Connection sqlConnection;
+    private TypeFactory typeFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        sqlConnection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Statement s = sqlConnection.createStatement()) {
+            s.execute("CREATE TABLE company (id INT PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE)");
+            s.execute("CREATE TABLE employee (id INT, company INT, email VARCHAR(100) UNIQUE, " +
+                    "PRIMARY KEY (id, company), FOREIGN KEY (company) REFERENCES company(id))");
+            s.execute("CREATE TABLE project (id INT PRIMARY KEY, leader INT, company INT, " +
+                    "FOREIGN KEY (leader, company) REFERENCES employee(id, company))");
+        }
+        typeFactory = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(URL)
+                .jdbcDriver("org.h2.Driver")
+                .build()
+                .getTypeFactory();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Statement s = sqlConnection.createStatement()) {
+            s.execute("DROP ALL OBJECTS DELETE FILES");
+        }
+        sqlConnection.close();
+    }
+
+    @Test
+    public void testFullMetadata() throws Exception {
+        RDBMetadata sequential = RDBMetadataExtractionTools.createMetadata(sqlConnection, typeFactory);
+        RDBMetadataExtractionTools.loadMetadata(sequential, sqlConnection, null);
+
+        RDBMetadata bulk = RDBMetadataExtractionTools.createMetadata(sqlConnection, typeFactory);
+        RDBMetadataExtractionTools.loadMetadata(bulk, sqlConnection, null, true, 3,
+                () -> DriverManager.getConnection(URL, USER, PASSWORD));
+
+        assertEquals(sequential.toString(), bulk.toString());
+        assertEquals(sequential.printKeys(), bulk.printKeys());
+    }
+
+    @Test
+    public void testMappedRelations() throws Exception {
+        RDBMetadata sequential = RDBMetadataExtractionTools.createMetadata(sqlConnection, typeFactory);
+        Set<RelationID> realTables = ImmutableSet.of(
+                sequential.getQuotedIDFactory().createRelationID(null, "company"),
+                sequential.getQuotedIDFactory().createRelationID("PUBLIC", "employee"),
+                sequential.getQuotedIDFactory().createRelationID(null, "project"));
+        RDBMetadataExtractionTools.loadMetadata(sequential, sqlConnection, realTables);
+
+        RDBMetadata parallel = RDBMetadataExtractionTools.createMetadata(sqlConnection, typeFactory);
+        RDBMetadataExtractionTools.loadMetadata(parallel, sqlConnection, realTables, true, 2,
+                () -> DriverManager.getConnection(URL, USER, PASSWORD));
+
+        assertEquals(3, parallel.getDatabaseRelations().size());
+        assertEquals(sequential.toString(), parallel.toString());
+        assertEquals(sequential.printKeys(), parallel.printKeys());
+    }
+}
@@ -0,0 +1,116 @@
+package it.unibz.inf.ontop.owlapi.sql;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.DatabaseRelationDefinition;
+import it.unibz.inf.ontop.dbschema.QuotedIDFactory;
+import it.unibz.inf.ontop.dbschema.RDBMetadata;
+import it.unibz.inf.ontop.dbschema.RDBMetadataExtractionTools;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+/**
+ * The lazy metadata only reads the relations that are looked up
+ */
+public class LazyMetadataExtractionTest {
+
+    private static final String URL = "jdbc:h2:mem:lazymetadata";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+
+    private Connection sqlConnection;
+    private TypeFactory typeFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        sqlConnection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Statement s = sqlConnection.createStatement()) {
+            s.execute("CREATE TABLE company (id INT PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE)");
+            s.execute("CREATE TABLE employee (id INT, company INT, email VARCHAR(100) UNIQUE, " +
+                    "PRIMARY KEY (id, company), FOREIGN KEY (company) REFERENCES company(id))");
+            s.execute("CREATE TABLE project (id INT PRIMARY KEY, leader INT, company INT, " +
+                    "FOREIGN KEY (leader, company) REFERENCES employee(id, company))");
+        }
+        typeFactory = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(URL)
+                .jdbcDriver("org.h2.Driver")
+                .build()
+                .getTypeFactory();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Statement s = sqlConnection.createStatement()) {
+            s.execute("DROP ALL OBJECTS DELETE FILES");
+        }
+        sqlConnection.close();
+    }
+
+    private RDBMetadata createLazyMetadata() throws Exception {
+        return RDBMetadataExtractionTools.createLazyMetadata(sqlConnection, typeFactory,
+                () -> DriverManager.getConnection(URL, USER, PASSWORD));
+    }
+
+    @Test
+    public void testOnlyLookedUpRelations() throws Exception {
+        RDBMetadata lazy = createLazyMetadata();
+        QuotedIDFactory idfac = lazy.getQuotedIDFactory();
+        assertTrue(lazy.getDatabaseRelations().isEmpty());
+
+        DatabaseRelationDefinition employee = lazy.getDatabaseRelation(idfac.createRelationID(null, "employee"));
+        assertNotNull(employee);
+        assertEquals(3, employee.getAttributes().size());
+        assertEquals(2, employee.getUniqueConstraints().size());
+        // the referenced relation has not been loaded yet
+        assertTrue(employee.getForeignKeys().isEmpty());
+        assertEquals(1, lazy.getDatabaseRelations().size());
+
+        DatabaseRelationDefinition company = lazy.getDatabaseRelation(idfac.createRelationID("PUBLIC", "company"));
+        assertNotNull(company);
+        assertEquals(1, employee.getForeignKeys().size());
+        assertEquals(company, employee.getForeignKeys().get(0).getReferencedRelation());
+        assertEquals(2, lazy.getDatabaseRelations().size());
+
+        assertNull(lazy.getDatabaseRelation(idfac.createRelationID(null, "unknown")));
+        assertEquals(2, lazy.getDatabaseRelations().size());
+    }
+
+    @Test
+    public void testSameMetadataAsEager() throws Exception {
+        RDBMetadata eager = RDBMetadataExtractionTools.createMetadata(sqlConnection, typeFactory);
+        QuotedIDFactory idfac = eager.getQuotedIDFactory();
+        ImmutableSet<String> tables = ImmutableSet.of("company", "employee", "project");
+        RDBMetadataExtractionTools.loadMetadata(eager, sqlConnection, tables.stream()
+                .map(t -> idfac.createRelationID(null, t))
+                .collect(ImmutableCollectors.toSet()));
+
+        RDBMetadata lazy = createLazyMetadata();
+        for (String table : tables)
+            assertNotNull(lazy.getRelation(idfac.createRelationID(null, table)));
+        lazy.freeze();
+
+        assertEquals(eager.toString(), lazy.toString());
+        assertEquals(eager.printKeys(), lazy.printKeys());
+    }
+
+    @Test
+    public void testFrozen() throws Exception {
+        RDBMetadata lazy = createLazyMetadata();
+        QuotedIDFactory idfac = lazy.getQuotedIDFactory();
+        assertNotNull(lazy.getDatabaseRelation(idfac.createRelationID(null, "project")));
+        lazy.freeze();
+
+        assertNotNull(lazy.getDatabaseRelation(idfac.createRelationID(null, "project")));
+        assertNull(lazy.getDatabaseRelation(idfac.createRelationID(null, "employee")));
+        assertTrue(lazy.getDatabaseRelation(idfac.createRelationID(null, "project")).getForeignKeys().isEmpty());
+    }
+}
@@ -0,0 +1,159 @@
+package it.unibz.inf.ontop.owlapi.sql;
+
+import it.unibz.inf.ontop.dbschema.RDBMetadata;
+import it.unibz.inf.ontop.dbschema.RDBMetadataExtractionTools;
+import it.unibz.inf.ontop.dbschema.RDBMetadataSnapshots;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RDBMetadataSnapshotTest {
+
+    private static final String URL = "jdbc:h2:mem:snapshot";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+
+    private Connection sqlConnection;
+    private TypeFactory typeFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        sqlConnection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Statement s = sqlConnection.createStatement()) {
+            s.execute("CREATE TABLE \"company\" (id INT PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE)");
+            s.execute("CREATE TABLE employee (id INT, company INT, email VARCHAR(100), " +
+                    "PRIMARY KEY (id, company), FOREIGN KEY (company) REFERENCES \"company\"(id))");
+        }
+        typeFactory = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(URL)
+                .jdbcDriver("org.h2.Driver")
+                .build()
+                .getTypeFactory();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Statement s = sqlConnection.createStatement()) {
+            s.execute("DROP ALL OBJECTS DELETE FILES");
+        }
+        sqlConnection.close();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(sqlConnection, typeFactory);
+        RDBMetadataExtractionTools.loadMetadata(metadata, sqlConnection, null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RDBMetadataSnapshots.write(metadata, "key", null, out);
+
+        Optional<RDBMetadata> restored = RDBMetadataSnapshots.read(new ByteArrayInputStream(out.toByteArray()),
+                "key", sqlConnection, typeFactory);
+        assertTrue(restored.isPresent());
+        assertEquals(metadata.getDatabaseRelations().toString(), restored.get().getDatabaseRelations().toString());
+        assertEquals(metadata.printKeys(), restored.get().printKeys());
+        assertEquals(metadata.toString(), restored.get().toString());
+    }
+
+    @Test
+    public void testOtherKey() throws Exception {
+        RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(sqlConnection, typeFactory);
+        RDBMetadataExtractionTools.loadMetadata(metadata, sqlConnection, null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RDBMetadataSnapshots.write(metadata, "key", null, out);
+
+        assertFalse(RDBMetadataSnapshots.read(new ByteArrayInputStream(out.toByteArray()),
+                "other key", sqlConnection, typeFactory).isPresent());
+    }
+
+    @Test
+    public void testSchemaFingerprint() throws Exception {
+        RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(sqlConnection, typeFactory);
+        RDBMetadataExtractionTools.loadMetadata(metadata, sqlConnection, null);
+
+        String fingerprint = RDBMetadataSnapshots.getSchemaFingerprint(sqlConnection, metadata);
+        assertEquals(fingerprint, RDBMetadataSnapshots.getSchemaFingerprint(sqlConnection, metadata));
+
+        // not a relation of the metadata
+        try (Statement s = sqlConnection.createStatement()) {
+            s.execute("CREATE TABLE department (id INT PRIMARY KEY)");
+        }
+        assertEquals(fingerprint, RDBMetadataSnapshots.getSchemaFingerprint(sqlConnection, metadata));
+    }
+
+    @Test
+    public void testRelationListFingerprint() throws Exception {
+        String fingerprint = RDBMetadataSnapshots.getRelationListFingerprint(sqlConnection);
+        assertEquals(fingerprint, RDBMetadataSnapshots.getRelationListFingerprint(sqlConnection));
+
+        try (Statement s = sqlConnection.createStatement()) {
+            s.execute("CREATE TABLE department (id INT PRIMARY KEY)");
+        }
+        assertNotEquals(fingerprint, RDBMetadataSnapshots.getRelationListFingerprint(sqlConnection));
+    }
+
+    @Test
+    public void testColumnType() throws Exception {
+        checkSnapshotRejectedAfter("ALTER TABLE employee ALTER COLUMN email VARCHAR(200)");
+    }
+
+    @Test
+    public void testColumnNullability() throws Exception {
+        checkSnapshotRejectedAfter("ALTER TABLE employee ALTER COLUMN email SET NOT NULL");
+    }
+
+    @Test
+    public void testNewColumn() throws Exception {
+        checkSnapshotRejectedAfter("ALTER TABLE employee ADD COLUMN phone VARCHAR(20)");
+    }
+
+    @Test
+    public void testUniqueConstraint() throws Exception {
+        checkSnapshotRejectedAfter("ALTER TABLE employee ADD CONSTRAINT uc_email UNIQUE (email)");
+    }
+
+    @Test
+    public void testForeignKey() throws Exception {
+        try (Statement s = sqlConnection.createStatement()) {
+            s.execute("CREATE TABLE department (id INT PRIMARY KEY)");
+            s.execute("ALTER TABLE employee ADD COLUMN department INT");
+        }
+        checkSnapshotRejectedAfter("ALTER TABLE employee ADD CONSTRAINT fk_department " +
+                "FOREIGN KEY (department) REFERENCES department(id)");
+    }
+
+    /**
+     * The fingerprint of the relations of the snapshot is checked when reading it
+     */
+    private void checkSnapshotRejectedAfter(String alterStatement) throws Exception {
+        RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(sqlConnection, typeFactory);
+        RDBMetadataExtractionTools.loadMetadata(metadata, sqlConnection, null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RDBMetadataSnapshots.write(metadata, "key",
+                RDBMetadataSnapshots.getSchemaFingerprint(sqlConnection, metadata), out);
+        assertTrue(RDBMetadataSnapshots.read(new ByteArrayInputStream(out.toByteArray()),
+                "key", sqlConnection, typeFactory).isPresent());
+
+        try (Statement s = sqlConnection.createStatement()) {
+            s.execute(alterStatement);
+        }
+        assertFalse(RDBMetadataSnapshots.read(new ByteArrayInputStream(out.toByteArray()),
+                "key", sqlConnection, typeFactory).isPresent());
+    }
+}
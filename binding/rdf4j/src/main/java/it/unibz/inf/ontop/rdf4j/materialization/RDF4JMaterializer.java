@@ -1,9 +1,11 @@
 package it.unibz.inf.ontop.rdf4j.materialization;
 
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
+import it.unibz.inf.ontop.materialization.MaterializationChunk;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
 import it.unibz.inf.ontop.rdf4j.materialization.impl.DefaultRDF4JMaterializer;
 import it.unibz.inf.ontop.rdf4j.query.MaterializationGraphQuery;
@@ -27,6 +29,18 @@ public interface RDF4JMaterializer {
     MaterializationGraphQuery materialize(@Nonnull ImmutableSet<IRI> selectedVocabulary)
             throws RepositoryException;
 
+    /**
+     * Splits the materialization of a class/property into chunks (see OntopRDFMaterializer.getChunks())
+     */
+    ImmutableList<MaterializationChunk> getChunks(@Nonnull IRI classOrProperty)
+            throws RepositoryException;
+
+    /**
+     * Materializes one chunk of a class/property
+     */
+    MaterializationGraphQuery materialize(@Nonnull MaterializationChunk chunk)
+            throws RepositoryException;
+
     /**
      * Default implementation
      */
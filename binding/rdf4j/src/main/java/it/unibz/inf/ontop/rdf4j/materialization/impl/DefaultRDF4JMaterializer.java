@@ -28,6 +28,7 @@ import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
+import it.unibz.inf.ontop.materialization.MaterializationChunk;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
 import it.unibz.inf.ontop.materialization.OntopRDFMaterializer;
 import it.unibz.inf.ontop.materialization.impl.DefaultOntopRDFMaterializer;
@@ -90,6 +91,20 @@ public class DefaultRDF4JMaterializer implements RDF4JMaterializer {
 		}
 	}
 
+	@Override
+	public ImmutableList<MaterializationChunk> getChunks(@Nonnull IRI classOrProperty) throws RepositoryException {
+		try {
+			return materializer.getChunks(classOrProperty);
+		} catch (OntopQueryAnsweringException | OntopConnectionException e) {
+			throw new RepositoryException(e);
+		}
+	}
+
+	@Override
+	public MaterializationGraphQuery materialize(@Nonnull MaterializationChunk chunk) throws RepositoryException {
+		return new DefaultMaterializedGraphQuery(materializer.materialize(chunk));
+	}
+
 	@Override
 	public ImmutableSet<IRI> getClasses() {
 		return materializer.getClasses();
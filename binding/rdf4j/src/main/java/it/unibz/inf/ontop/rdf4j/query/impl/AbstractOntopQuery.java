@@ -20,6 +20,8 @@
 package it.unibz.inf.ontop.rdf4j.query.impl;
 
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
@@ -109,6 +111,29 @@ public abstract class AbstractOntopQuery implements Query {
         this.queryTimeout = maxQueryTime;
     }
 
+    /**
+     * Mapped onto the query timeout of the OntopStatement (in seconds, 0 for no limit)
+     */
+    @Override
+    public void setMaxExecutionTime(int maxExecTime) {
+        this.queryTimeout = maxExecTime;
+    }
+
+    @Override
+    public int getMaxExecutionTime() {
+        return this.queryTimeout;
+    }
+
+    /**
+     * With the query timeout (if any)
+     */
+    protected OntopStatement createStatement() throws OntopConnectionException {
+        OntopStatement stm = conn.createStatement();
+        if (queryTimeout > 0)
+            stm.setQueryTimeout(queryTimeout);
+        return stm;
+    }
+
     //all code below is copy-pasted from org.eclipse.rdf4j.repository.sparql.query.SPARQLOperation
     protected String getQueryString() {
         if (bindings.size() == 0)
@@ -128,6 +153,20 @@ public abstract class AbstractOntopQuery implements Query {
         return select + where;
     }
 
+    /**
+     * Without the bindings
+     */
+    protected String getInitialQueryString() {
+        return queryString;
+    }
+
+    /**
+     * Without the bindings
+     */
+    protected ParsedQuery getInitialParsedQuery() {
+        return initialParsedQuery;
+    }
+
     protected ParsedQuery getParsedQuery() {
         // NB: no binding at construction time
         if (bindings.size() == 0)
@@ -32,6 +32,9 @@ import org.eclipse.rdf4j.query.QueryEvaluationException;
 
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class OntopBooleanQuery extends AbstractOntopQuery implements BooleanQuery {
 
 
@@ -47,7 +50,7 @@ public class OntopBooleanQuery extends AbstractOntopQuery implements BooleanQuer
 	public boolean evaluate() throws QueryEvaluationException {
 		AskQuery query = factory.createAskQuery(getQueryString(), getParsedQuery());
 
-		try (OntopStatement stm = conn.createStatement();
+		try (OntopStatement stm = createStatement();
 			 BooleanResultSet rs = stm.execute(query)) {
 			return rs.getValue();
 
@@ -56,13 +59,41 @@ public class OntopBooleanQuery extends AbstractOntopQuery implements BooleanQuer
 		}
 	}
 
-    @Override
-    public void setMaxExecutionTime(int maxExecTime) {
-        throw new UnsupportedOperationException();
-    }
+	/**
+	 * Non-blocking variant of evaluate(): the reformulation and the evaluation
+	 * take place in the query execution service of Ontop.
+	 */
+	public CompletableFuture<Boolean> evaluateAsync() {
+		try {
+			AskQuery query = factory.createAskQuery(getQueryString(), getParsedQuery());
+			OntopStatement stm = createStatement();
 
-    @Override
-    public int getMaxExecutionTime() {
-        throw new UnsupportedOperationException();
-    }
+			CompletableFuture<BooleanResultSet> execution = stm.executeAsync(query);
+			CompletableFuture<Boolean> result = execution
+					.thenApply(rs -> {
+						try {
+							return rs.getValue();
+						} catch (OntopConnectionException e) {
+							throw new CompletionException(new QueryEvaluationException(e));
+						}
+					});
+			result.whenComplete((r, e) -> {
+				if (result.isCancelled())
+					execution.cancel(true);
+				try {
+					stm.close();
+				} catch (OntopConnectionException ex) {
+					// Ignored: the value has already been extracted
+				}
+			});
+			return result;
+
+		} catch (Exception e) {
+			CompletableFuture<Boolean> failedResult = new CompletableFuture<>();
+			failedResult.completeExceptionally(e instanceof QueryEvaluationException
+					? e
+					: new QueryEvaluationException(e));
+			return failedResult;
+		}
+	}
 }
\ No newline at end of file
@@ -26,19 +26,19 @@ import it.unibz.inf.ontop.answering.resultset.SimpleGraphResultSet;
 import it.unibz.inf.ontop.spec.ontology.Assertion;
 
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
 
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
 import it.unibz.inf.ontop.answering.reformulation.input.SPARQLQueryUtility;
 import it.unibz.inf.ontop.rdf4j.utils.RDF4JHelper;
+
+import javax.annotation.Nullable;
+
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.query.GraphQuery;
 import org.eclipse.rdf4j.query.GraphQueryResult;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
-import org.eclipse.rdf4j.query.algebra.evaluation.iterator.CollectionIteration;
 import org.eclipse.rdf4j.query.impl.GraphQueryResultImpl;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.rio.RDFHandler;
@@ -68,32 +68,29 @@ public class OntopGraphQuery extends AbstractOntopQuery implements GraphQuery {
 			return null;
 	}
 
+	/**
+	 * The statements are converted lazily: the result must be closed (closes the statement as well).
+	 */
     @Override
 	public GraphQueryResult evaluate() throws QueryEvaluationException {
 		ParsedQuery parsedQuery = getParsedQuery();
 		GraphSPARQLQuery query = isConstruct
 				? inputQueryFactory.createConstructQuery(getQueryString(), parsedQuery)
 				: inputQueryFactory.createDescribeQuery(getQueryString(), parsedQuery);
-		try (
-				OntopStatement stm = conn.createStatement();
-				SimpleGraphResultSet res = stm.execute(query)
-		){
-			
-			Map<String, String> namespaces = new HashMap<>();
-			List<Statement> results = new LinkedList<>();
-			if (res != null) {
-				while (res.hasNext()) {
-					Assertion as = res.next();
-					Statement st = createStatement(as);
-					if (st!=null)
-						results.add(st);
+		OntopStatement stm = null;
+		try {
+			stm = createStatement();
+			SimpleGraphResultSet res = stm.execute(query);
+			return new GraphQueryResultImpl(new HashMap<>(), new StatementIteration(stm, res));
+
+		} catch (Exception e) {
+			if (stm != null) {
+				try {
+					stm.close();
+				} catch (Exception e1) {
+					e.addSuppressed(e1);
 				}
 			}
-			
-			//return new GraphQueryResultImpl(namespaces, results.iterator());
-            return new GraphQueryResultImpl(namespaces, new CollectionIteration<>(results));
-			
-		} catch (Exception e) {
 			throw new QueryEvaluationException(e);
 		}
 	}
@@ -109,13 +106,45 @@ public class OntopGraphQuery extends AbstractOntopQuery implements GraphQuery {
 		}
 	}
 
-    @Override
-    public void setMaxExecutionTime(int maxExecTime) {
-        throw new UnsupportedOperationException();
-    }
+	private class StatementIteration extends LookAheadIteration<Statement, QueryEvaluationException> {
+		private final OntopStatement stm;
+		@Nullable
+		private final SimpleGraphResultSet res;
 
-    @Override
-    public int getMaxExecutionTime() {
-        throw new UnsupportedOperationException();
-    }
+		private StatementIteration(OntopStatement stm, @Nullable SimpleGraphResultSet res) {
+			this.stm = stm;
+			this.res = res;
+		}
+
+		@Override
+		protected Statement getNextElement() throws QueryEvaluationException {
+			if (res == null)
+				return null;
+			try {
+				while (res.hasNext()) {
+					Statement st = createStatement(res.next());
+					if (st != null)
+						return st;
+				}
+				return null;
+			} catch (Exception e) {
+				throw new QueryEvaluationException(e);
+			}
+		}
+
+		@Override
+		protected void handleClose() throws QueryEvaluationException {
+			try {
+				super.handleClose();
+			} finally {
+				try {
+					if (res != null)
+						res.close();
+					stm.close();
+				} catch (Exception e) {
+					throw new QueryEvaluationException(e);
+				}
+			}
+		}
+	}
 }
@@ -20,31 +20,61 @@ package it.unibz.inf.ontop.rdf4j.query.impl;
  * #L%
  */
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
 import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
-import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
+import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import org.apache.commons.rdf.api.RDF;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.query.TupleQueryResultHandler;
 import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 public class OntopTupleQuery extends AbstractOntopQuery implements TupleQuery {
 
+	private static final Logger log = LoggerFactory.getLogger(OntopTupleQuery.class);
+
 	private final RDF4JInputQueryFactory factory;
+	private final TermFactory termFactory;
+	private final RDF rdfFactory;
+
+	/**
+	 * Executable queries reformulated once for the bindings (indexed by the names of the bound variables).
+	 * Empty when the query cannot be prepared for these bindings.
+	 */
+	private final Map<ImmutableSet<String>, Optional<IQ>> preparedQueries = new HashMap<>();
 
 	public OntopTupleQuery(String queryString, ParsedQuery parsedQuery, String baseIRI, OntopConnection conn,
-						   RDF4JInputQueryFactory factory) {
+						   RDF4JInputQueryFactory factory, TermFactory termFactory, RDF rdfFactory) {
 		super(queryString, baseIRI, parsedQuery, conn);
 		this.factory = factory;
+		this.termFactory = termFactory;
+		this.rdfFactory = rdfFactory;
 	}
 
     @Override
@@ -53,12 +83,11 @@ public class OntopTupleQuery extends AbstractOntopQuery implements TupleQuery {
 		OntopStatement stm;
 		long start = System.currentTimeMillis();
 		try {
-			stm = conn.createStatement();
-			if(this.queryTimeout > 0)
-				stm.setQueryTimeout(this.queryTimeout);
+			stm = createStatement();
 			try {
-				SelectQuery inputQuery = factory.createSelectQuery(getQueryString(), getParsedQuery());
-				res = stm.execute(inputQuery);
+				res = (bindings.size() > 0)
+						? executeWithBindings(stm)
+						: stm.execute(factory.createSelectQuery(getQueryString(), getParsedQuery()));
 			} catch (OntopQueryAnsweringException e) {
 				long end = System.currentTimeMillis();
 				if (this.queryTimeout > 0 && (end - start) >= this.queryTimeout * 1000){
@@ -78,6 +107,117 @@ public class OntopTupleQuery extends AbstractOntopQuery implements TupleQuery {
 		}
 	}
 
+	/**
+	 * The query is reformulated only once for a given set of bound variables.
+	 * Only the values are bound at each evaluation.
+	 *
+	 * Falls back to the substitution of the bindings in the query string when it cannot be prepared.
+	 */
+	private TupleResultSet executeWithBindings(OntopStatement stm) throws OntopQueryAnsweringException,
+			OntopConnectionException {
+		Optional<ImmutableMap<Variable, RDFConstant>> parameters = convertBindings();
+		if (parameters.isPresent()) {
+			Optional<IQ> preparedQuery = getPreparedQuery(stm, parameters.get().keySet().stream()
+					.map(Variable::getName)
+					.collect(ImmutableCollectors.toSet()));
+			if (preparedQuery.isPresent()) {
+				try {
+					return stm.executePrepared(preparedQuery.get(), parameters.get());
+				} catch (OntopUnsupportedInputQueryException e) {
+					log.debug("Cannot bind the parameters to the prepared query: {}", e.getMessage());
+				}
+			}
+		}
+		return stm.execute(factory.createSelectQuery(getQueryString(), getParsedQuery()));
+	}
+
+	private Optional<IQ> getPreparedQuery(OntopStatement stm, ImmutableSet<String> parameterNames)
+			throws OntopReformulationException {
+		Optional<IQ> preparedQuery = preparedQueries.get(parameterNames);
+		if (preparedQuery == null) {
+			preparedQuery = Optional.empty();
+			Optional<SelectQuery> templateQuery = SelectQueryTemplates.createTemplate(getInitialParsedQuery(), parameterNames)
+					.map(q -> factory.createSelectQuery(getInitialQueryString(), q));
+			if (templateQuery.isPresent()) {
+				try {
+					preparedQuery = Optional.of(stm.getExecutableQuery(templateQuery.get()));
+				} catch (OntopUnsupportedInputQueryException e) {
+					log.debug("Cannot prepare the query: {}", e.getMessage());
+				}
+			}
+			preparedQueries.put(parameterNames, preparedQuery);
+		}
+		return preparedQuery;
+	}
+
+	/**
+	 * Returns empty if a value is not supported (e.g. a blank node)
+	 */
+	private Optional<ImmutableMap<Variable, RDFConstant>> convertBindings() {
+		ImmutableMap.Builder<Variable, RDFConstant> parameterBuilder = ImmutableMap.builder();
+		for (String name : bindings.getBindingNames()) {
+			Value value = bindings.getValue(name);
+			RDFConstant constant;
+			if (value instanceof IRI)
+				constant = termFactory.getConstantIRI(rdfFactory.createIRI(value.stringValue()));
+			else if (value instanceof Literal) {
+				Literal literal = (Literal) value;
+				constant = literal.getLanguage()
+						.map(l -> termFactory.getRDFLiteralConstant(literal.getLabel(), l))
+						.orElseGet(() -> termFactory.getRDFLiteralConstant(literal.getLabel(),
+								rdfFactory.createIRI(literal.getDatatype().stringValue())));
+			}
+			else
+				return Optional.empty();
+			parameterBuilder.put(termFactory.getVariable(name), constant);
+		}
+		return Optional.of(parameterBuilder.build());
+	}
+
+	/**
+	 * Non-blocking variant of evaluate(): the reformulation and the evaluation
+	 * take place in the query execution service of Ontop.
+	 *
+	 * The result is pulled by the consumer (back-pressure).
+	 * Cancelling the future cancels the underlying statement.
+	 */
+	public CompletableFuture<TupleQueryResult> evaluateAsync() {
+		try {
+			OntopStatement stm = createStatement();
+			SelectQuery inputQuery = factory.createSelectQuery(getQueryString(), getParsedQuery());
+
+			CompletableFuture<TupleResultSet> execution = stm.executeAsync(inputQuery);
+			CompletableFuture<TupleQueryResult> result = execution
+					.thenApply(res -> {
+						try {
+							return new OntopTupleQueryResult(res, res.getSignature());
+						} catch (OntopConnectionException e) {
+							throw new CompletionException(new QueryEvaluationException(e));
+						}
+					});
+			result.whenComplete((r, e) -> {
+				if (result.isCancelled())
+					execution.cancel(true);
+				// On success, the statement remains open for the consumer of the result
+				if (e != null) {
+					try {
+						stm.close();
+					} catch (OntopConnectionException ex) {
+						log.warn("Cannot close the statement: " + ex.getMessage());
+					}
+				}
+			});
+			return result;
+
+		} catch (Exception e) {
+			CompletableFuture<TupleQueryResult> failedResult = new CompletableFuture<>();
+			failedResult.completeExceptionally(e instanceof QueryEvaluationException
+					? e
+					: new QueryEvaluationException(e));
+			return failedResult;
+		}
+	}
+
     @Override
 	public void evaluate(TupleQueryResultHandler handler) 
 			throws QueryEvaluationException, TupleQueryResultHandlerException {
@@ -88,14 +228,4 @@ public class OntopTupleQuery extends AbstractOntopQuery implements TupleQuery {
 		}
 		handler.endQueryResult();
 	}
-
-    @Override
-    public void setMaxExecutionTime(int maxExecTime) {
-        throw new UnsupportedOperationException("not implemented");
-    }
-
-    @Override
-    public int getMaxExecutionTime() {
-        throw new UnsupportedOperationException("not implemented");
-    }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package it.unibz.inf.ontop.rdf4j.query.impl;
+
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.rdf4j.query.algebra.*;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Builds the template of a SELECT query for some bindings: the bound variables become parameters.
+ *
+ * The bindings are then applied to the results of the template (as equalities).
+ * This is only equivalent to substituting the bound variables in the query when the query is made of
+ * triple patterns, joins and filters (no OPTIONAL, UNION, MINUS, aggregation or slicing)
+ * and when each bound variable appears in a triple pattern.
+ *
+ * In the template, the parameters are added to the projection.
+ */
+class SelectQueryTemplates {
+
+    private SelectQueryTemplates() {
+    }
+
+    static Optional<ParsedTupleQuery> createTemplate(ParsedQuery parsedQuery, ImmutableSet<String> parameterNames) {
+        if (!(parsedQuery instanceof ParsedTupleQuery))
+            return Optional.empty();
+
+        TupleExpr template = parsedQuery.getTupleExpr().clone();
+
+        TupleExpr projectionCandidate = ((template instanceof Distinct) || (template instanceof Reduced))
+                ? ((UnaryTupleOperator) template).getArg()
+                : template;
+        if (!(projectionCandidate instanceof Projection))
+            return Optional.empty();
+
+        Projection projection = (Projection) projectionCandidate;
+        ProjectionElemList projectionElemList = projection.getProjectionElemList();
+        if (projectionElemList.getElements().stream()
+                .anyMatch(e -> parameterNames.contains(e.getTargetName())
+                        && (!e.getTargetName().equals(e.getSourceName()))))
+            return Optional.empty();
+
+        Set<String> patternVariables = new HashSet<>();
+        if (!collectPatternVariables(projection.getArg(), parameterNames, patternVariables)
+                || (!patternVariables.containsAll(parameterNames)))
+            return Optional.empty();
+
+        Set<String> projectedNames = projectionElemList.getTargetNames();
+        parameterNames.stream()
+                .filter(n -> !projectedNames.contains(n))
+                .forEach(n -> projectionElemList.addElement(new ProjectionElem(n)));
+
+        ParsedTupleQuery templateQuery = new ParsedTupleQuery(parsedQuery.getSourceString(), template);
+        templateQuery.setDataset(parsedQuery.getDataset());
+        return Optional.of(templateQuery);
+    }
+
+    /**
+     * Returns false if the expression is not supported
+     */
+    private static boolean collectPatternVariables(TupleExpr expression, ImmutableSet<String> parameterNames,
+                                                   Set<String> patternVariables) {
+        if (expression instanceof StatementPattern) {
+            ((StatementPattern) expression).getVarList().stream()
+                    .filter(v -> !v.hasValue())
+                    .map(Var::getName)
+                    .forEach(patternVariables::add);
+            return true;
+        }
+        else if (expression instanceof Join) {
+            Join join = (Join) expression;
+            return collectPatternVariables(join.getLeftArg(), parameterNames, patternVariables)
+                    && collectPatternVariables(join.getRightArg(), parameterNames, patternVariables);
+        }
+        else if (expression instanceof Filter) {
+            return collectPatternVariables(((Filter) expression).getArg(), parameterNames, patternVariables);
+        }
+        else if (expression instanceof Extension) {
+            Extension extension = (Extension) expression;
+            return extension.getElements().stream()
+                    .noneMatch(e -> parameterNames.contains(e.getName()))
+                    && collectPatternVariables(extension.getArg(), parameterNames, patternVariables);
+        }
+        else
+            return false;
+    }
+}
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.rdf4j.repository;
 
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulationListener;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
 
@@ -11,4 +12,14 @@ public interface OntopRepository extends org.eclipse.rdf4j.repository.Repository
     static OntopRepository defaultRepository(OntopSystemConfiguration configuration) {
         return new OntopVirtualRepository(configuration);
     }
+
+    /**
+     * For monitoring purposes: the listener is notified of the duration of each phase of the processing
+     * of the queries (e.g. ReformulationMetrics, which can then be registered as an MXBean).
+     *
+     * Can be called before the initialization of the repository.
+     */
+    void addReformulationListener(QueryReformulationListener listener);
+
+    void removeReformulationListener(QueryReformulationListener listener);
 }
@@ -21,16 +21,20 @@ package it.unibz.inf.ontop.rdf4j.repository.impl;
  */
 
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.rdf4j.query.impl.OntopBooleanQuery;
 import it.unibz.inf.ontop.rdf4j.query.impl.OntopGraphQuery;
 import it.unibz.inf.ontop.rdf4j.query.impl.OntopTupleQuery;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
+import org.apache.commons.rdf.api.RDF;
 import org.eclipse.rdf4j.IsolationLevel;
 import org.eclipse.rdf4j.IsolationLevels;
-import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.iteration.ExceptionConvertingIteration;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.NamespaceImpl;
 import org.eclipse.rdf4j.model.impl.ValueFactoryImpl;
@@ -55,6 +59,9 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 	private OntopRepository repository;
 	private OntopConnection ontopConnection;
 	private final RDF4JInputQueryFactory inputQueryFactory;
+	private final TermFactory termFactory;
+	private final RDF rdfFactory;
+	private final StatementCountCache statementCountCache;
 	private boolean isOpen;
     private boolean isActive;
     private RDFParser rdfParser;
@@ -62,10 +69,14 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 
 	
 	OntopRepositoryConnection(OntopRepository rep, OntopConnection connection,
-							  RDF4JInputQueryFactory inputQueryFactory) {
+							  RDF4JInputQueryFactory inputQueryFactory, TermFactory termFactory, RDF rdfFactory,
+							  StatementCountCache statementCountCache) {
 		this.repository = rep;
 		this.ontopConnection = connection;
 		this.inputQueryFactory = inputQueryFactory;
+		this.termFactory = termFactory;
+		this.rdfFactory = rdfFactory;
+		this.statementCountCache = statementCountCache;
 		this.isOpen = true;
 		this.isActive = false;
 		this.rdfParser = Rio.createParser(RDFFormat.RDFXML, this.repository.getValueFactory());
@@ -175,18 +186,16 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
             throws RepositoryException, RDFHandlerException {
         //Exports all statements with a specific subject, predicate
         //and/or object from the repository, optionally from the specified contexts.
-        RepositoryResult<Statement> stms = getStatements(subj, pred, obj, includeInferred, contexts);
-
-        handler.startRDF();
-        // handle
-        if (stms != null) {
+        try (RepositoryResult<Statement> stms = getStatements(subj, pred, obj, includeInferred, contexts)) {
+            handler.startRDF();
+            // handle
             while (stms.hasNext()) {
                 Statement st = stms.next();
                 if (st != null)
                     handler.handleStatement(st);
             }
+            handler.endRDF();
         }
-        handler.endRDF();
 
     }
 
@@ -235,6 +244,10 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 		return this.repository;
 	}
 
+	/**
+	 * The statements are read lazily from the underlying CONSTRUCT query:
+	 * the result must be closed to release the statement.
+	 */
 	@Override
     public RepositoryResult<Statement> getStatements(Resource subj, org.eclipse.rdf4j.model.IRI pred,
                                                      Value obj, boolean includeInferred, Resource... contexts)
@@ -242,37 +255,22 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 		//Gets all statements with a specific subject, 
 		//predicate and/or object from the repository.
 		//The result is optionally restricted to the specified set of named contexts. 
-		
-		//construct query for it
-		StringBuilder queryString = new StringBuilder("CONSTRUCT {");
+		if (!isDefaultContext(contexts))
+			return new RepositoryResult<>(new EmptyIteration<>());
 
-		StringBuilder spo = subj == null ? new StringBuilder("?s ") : RenderUtils.toSPARQL(subj, new StringBuilder());
-
-		spo = pred == null ? spo.append( " ?p ") : RenderUtils.toSPARQL(pred, spo);
-
-		spo = obj == null ? spo.append( " ?o ") : RenderUtils.toSPARQL(obj, spo);
+		//construct query for it
+		String spo = renderTriplePattern(subj, pred, obj);
+		String queryString = "CONSTRUCT {" + spo + "} WHERE {" + spo + "}";
 
-		queryString.append(spo).append("} WHERE {").append(spo).append("}");
-		
 		//execute construct query
 		try {
-			List<Statement> list = new LinkedList<Statement>();
-			
-			if (contexts.length == 0 || (contexts.length > 0 && contexts[0] == null)) {
-					GraphQuery query = prepareGraphQuery(QueryLanguage.SPARQL,
-							queryString.toString());
-					GraphQueryResult result = query.evaluate();
-
-					// System.out.println("result: "+result.hasNext());
-					while (result.hasNext())
-						list.add(result.next());
-					// result.close();
-			}
-			CloseableIteration<Statement, RepositoryException> iter = new CloseableIteratorIteration<Statement, RepositoryException>(
-					list.iterator());
-			RepositoryResult<Statement> repoResult = new RepositoryResult<Statement>(iter);
-
-			return repoResult;
+			GraphQueryResult result = prepareGraphQuery(QueryLanguage.SPARQL, queryString).evaluate();
+			return new RepositoryResult<>(new ExceptionConvertingIteration<Statement, RepositoryException>(result) {
+				@Override
+				protected RepositoryException convert(Exception e) {
+					return new RepositoryException(e);
+				}
+			});
 		} catch (MalformedQueryException e) {
 			throw new RepositoryException(e);
 
@@ -282,6 +280,23 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 		}
 	}
 
+	/**
+	 * Only the default context is supported
+	 */
+	private static boolean isDefaultContext(Resource... contexts) {
+		return contexts.length == 0 || contexts[0] == null;
+	}
+
+	private static String renderTriplePattern(Resource subj, org.eclipse.rdf4j.model.IRI pred, Value obj) {
+		StringBuilder spo = subj == null ? new StringBuilder("?s ") : RenderUtils.toSPARQL(subj, new StringBuilder());
+
+		spo = pred == null ? spo.append( " ?p ") : RenderUtils.toSPARQL(pred, spo);
+
+		spo = obj == null ? spo.append( " ?o ") : RenderUtils.toSPARQL(obj, spo);
+
+		return spo.toString();
+	}
+
 	@Override
     public ValueFactory getValueFactory() {
 		//Gets a ValueFactory for this OntopRepositoryConnection.
@@ -297,21 +312,24 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
                 .getObject(), includeInferred, contexts);
 	}
 
+	/**
+	 * Evaluated as an ASK query, so that the evaluation stops at the first match
+	 */
 	@Override
     public boolean hasStatement(Resource subj, org.eclipse.rdf4j.model.IRI pred, Value obj,
                                 boolean includeInferred, Resource... contexts) throws RepositoryException {
 		//Checks whether the repository contains statements with a specific subject, 
 		//predicate and/or object, optionally in the specified contexts. 
-		    RepositoryResult<Statement> stIter = getStatements(subj, pred,
-                     obj, includeInferred, contexts);
-             try {
-                 return stIter.hasNext();
-             } finally {
-                 stIter.close();
-             }
-         }
-
+		if (!isDefaultContext(contexts))
+			return false;
 
+		String queryString = "ASK {" + renderTriplePattern(subj, pred, obj) + "}";
+		try {
+			return prepareBooleanQuery(QueryLanguage.SPARQL, queryString).evaluate();
+		} catch (MalformedQueryException | QueryEvaluationException e) {
+			throw new RepositoryException(e);
+		}
+	}
 
 	@Override
     public boolean isAutoCommit() throws RepositoryException {
@@ -323,10 +341,13 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 		}
 	}
 
+	/**
+	 * Evaluated as an ASK query (stops at the first statement). Cached like the counts.
+	 */
 	@Override
     public boolean isEmpty() throws RepositoryException {
 		//Returns true if this repository does not contain any (explicit) statements. 
-		return size() == 0;
+		return statementCountCache.get("ASK", () -> hasStatement(null, null, null, false) ? 1 : 0) == 0;
 	}
 
 	@Override
@@ -403,7 +424,8 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 		ParsedQuery q = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, baseIRI);
 		
 		if (q instanceof ParsedTupleQuery)
-			return new OntopTupleQuery(queryString, q, baseIRI, ontopConnection, inputQueryFactory);
+			return new OntopTupleQuery(queryString, q, baseIRI, ontopConnection, inputQueryFactory, termFactory,
+					rdfFactory);
 		else if (q instanceof ParsedBooleanQuery)
 			return new OntopBooleanQuery(queryString, q, baseIRI, ontopConnection, inputQueryFactory);
 		else if (q instanceof ParsedGraphQuery)
@@ -434,7 +456,8 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 				: baseIRI.isEmpty() ? null : baseIRI ;
 		ParsedQuery q = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
 
-		return new OntopTupleQuery(queryString, q, safeBaseIRI, ontopConnection, inputQueryFactory);
+		return new OntopTupleQuery(queryString, q, safeBaseIRI, ontopConnection, inputQueryFactory, termFactory,
+				rdfFactory);
 	}
 
 	@Override
@@ -544,7 +567,27 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 	@Override
     public long size(Resource... contexts) throws RepositoryException {
 		//Returns the number of (explicit) statements that are in the specified contexts in this repository. 
-		return 0;
+		if (!isDefaultContext(contexts))
+			return 0;
+		return count(null, null, null);
+	}
+
+	/**
+	 * Number of distinct statements matching the pattern (e.g. the cardinality of a predicate).
+	 *
+	 * The statements are counted by the DB (the count is pushed into the native query)
+	 * and the count is cached for the TTL of the repository.
+	 */
+	public long count(Resource subj, org.eclipse.rdf4j.model.IRI pred, Value obj) throws RepositoryException {
+		String queryString = "SELECT DISTINCT * WHERE {" + renderTriplePattern(subj, pred, obj) + "}";
+		return statementCountCache.get(queryString, () -> {
+			try (OntopStatement stm = ontopConnection.createStatement()) {
+				ParsedQuery parsedQuery = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, null);
+				return stm.getTupleCount(inputQueryFactory.createSelectQuery(queryString, parsedQuery));
+			} catch (Exception e) {
+				throw new RepositoryException(e);
+			}
+		});
 	}
 
 
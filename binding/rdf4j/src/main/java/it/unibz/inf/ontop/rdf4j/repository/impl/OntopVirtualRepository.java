@@ -21,11 +21,14 @@ package it.unibz.inf.ontop.rdf4j.repository.impl;
  */
 
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulationListener;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
+import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
+import org.apache.commons.rdf.api.RDF;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
@@ -35,6 +38,8 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 public class OntopVirtualRepository implements OntopRepository {
 
@@ -47,10 +52,18 @@ public class OntopVirtualRepository implements OntopRepository {
 	@Nullable
 	private OntopQueryEngine queryEngine;
 	private final RDF4JInputQueryFactory inputQueryFactory;
+	private final TermFactory termFactory;
+	private final RDF rdfFactory;
+	private final StatementCountCache statementCountCache;
+	// Registered on the query engine once initialized
+	private final List<QueryReformulationListener> reformulationListeners = new ArrayList<>();
 
 	public OntopVirtualRepository(OntopSystemConfiguration configuration) {
 		this.configuration = configuration;
 		inputQueryFactory = configuration.getInjector().getInstance(RDF4JInputQueryFactory.class);
+		termFactory = configuration.getTermFactory();
+		rdfFactory = configuration.getRdfFactory();
+		statementCountCache = new StatementCountCache(configuration.getSettings().getStatementCountCacheTTL());
 	}
 
 	/**
@@ -63,7 +76,8 @@ public class OntopVirtualRepository implements OntopRepository {
 	@Override
 	public RepositoryConnection getConnection() throws RepositoryException {
 		try {
-			return new OntopRepositoryConnection(this, getOntopConnection(), inputQueryFactory);
+			return new OntopRepositoryConnection(this, getOntopConnection(), inputQueryFactory, termFactory,
+					rdfFactory, statementCountCache);
 		} catch (Exception e) {
 			logger.error("Error creating repo connection: " + e.getMessage());
 			throw new RepositoryException(e);
@@ -81,7 +95,11 @@ public class OntopVirtualRepository implements OntopRepository {
 		initialized = true;
 		try {
 
-			queryEngine = configuration.loadQueryEngine();
+			OntopQueryEngine engine = configuration.loadQueryEngine();
+			synchronized (reformulationListeners) {
+				reformulationListeners.forEach(engine::addReformulationListener);
+				queryEngine = engine;
+			}
 			queryEngine.connect();
 		}
 		catch (Exception e){
@@ -104,6 +122,24 @@ public class OntopVirtualRepository implements OntopRepository {
 
 	}
 
+	@Override
+	public void addReformulationListener(QueryReformulationListener listener) {
+		synchronized (reformulationListeners) {
+			reformulationListeners.add(listener);
+			if (queryEngine != null)
+				queryEngine.addReformulationListener(listener);
+		}
+	}
+
+	@Override
+	public void removeReformulationListener(QueryReformulationListener listener) {
+		synchronized (reformulationListeners) {
+			reformulationListeners.remove(listener);
+			if (queryEngine != null)
+				queryEngine.removeReformulationListener(listener);
+		}
+	}
+
 	@Override
 	public boolean isWritable() throws RepositoryException {
 		return false;
@@ -117,6 +153,7 @@ public class OntopVirtualRepository implements OntopRepository {
 	@Override
 	public void shutDown() throws RepositoryException {
 		initialized = false;
+		statementCountCache.clear();
 		try {
 			queryEngine.close();
 		} catch (Exception e) {
@@ -0,0 +1,71 @@
+package it.unibz.inf.ontop.rdf4j.repository.impl;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement counts (size of the repository, cardinality of a triple pattern) shared by all the connections
+ * of a repository, so that the monitoring tools polling them do not trigger a COUNT query each time.
+ *
+ * The counts expire after the TTL. The number of cached counts (one per triple pattern) is bounded.
+ * Concurrent misses on the same entry only trigger one COUNT query.
+ */
+class StatementCountCache {
+
+    private static final long MAX_SIZE = 10000;
+
+    @FunctionalInterface
+    interface CountSupplier {
+        long get() throws RepositoryException;
+    }
+
+    // Null when disabled
+    @Nullable
+    private final Cache<String, Long> cache;
+
+    /**
+     * @param ttl in seconds (0 disables the cache)
+     */
+    StatementCountCache(int ttl) {
+        this(ttl, MAX_SIZE, Ticker.systemTicker());
+    }
+
+    StatementCountCache(int ttl, long maxSize, Ticker ticker) {
+        this.cache = ttl <= 0
+                ? null
+                : CacheBuilder.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                    .ticker(ticker)
+                    .build();
+    }
+
+    long get(String key, CountSupplier supplier) throws RepositoryException {
+        if (cache == null)
+            return supplier.get();
+
+        try {
+            return cache.get(key, supplier::get);
+        }
+        catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RepositoryException)
+                throw (RepositoryException) e.getCause();
+            throw new RepositoryException(e.getCause());
+        }
+        catch (ExecutionException e) {
+            throw new RepositoryException(e.getCause());
+        }
+    }
+
+    void clear() {
+        if (cache != null)
+            cache.invalidateAll();
+    }
+}
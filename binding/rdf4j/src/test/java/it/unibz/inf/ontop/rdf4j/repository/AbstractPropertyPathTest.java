@@ -0,0 +1,24 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+/**
+ * Property paths of arbitrary length (+, *) over a chain a -> b -> c -> d -> e and a cycle x -> y -> z -> x
+ */
+public abstract class AbstractPropertyPathTest extends AbstractRDF4JTest {
+
+    protected static final String CREATE_DB_FILE = "/property-path/property-path-create.sql";
+    protected static final String OBDA_FILE = "/property-path/property-path.obda";
+    protected static final String NODE_PREFIX = "http://example.org/node/";
+    protected static final String PREFIX = "PREFIX ex: <http://example.org/>\n";
+
+    /**
+     * Local names of the nodes bound to the variable
+     */
+    protected ImmutableList<String> getNodes(String queryString, String variable) {
+        return runQuery(PREFIX + queryString, variable).stream()
+                .map(v -> v.substring(NODE_PREFIX.length()))
+                .collect(ImmutableCollectors.toList());
+    }
+}
@@ -1,6 +1,9 @@
 package it.unibz.inf.ontop.rdf4j.repository;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.TupleQuery;
@@ -16,6 +19,7 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Properties;
 import java.util.UUID;
 
 public class AbstractRDF4JTest {
@@ -25,9 +29,15 @@ public class AbstractRDF4JTest {
     private static final String PASSWORD = "";
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRDF4JTest.class);
     private static Connection SQL_CONNECTION;
+    private static OntopRepository REPOSITORY;
     private static RepositoryConnection REPO_CONNECTION;
 
     protected static void initOBDA(String dbScriptRelativePath, String obdaRelativePath) throws SQLException, IOException {
+        initOBDA(dbScriptRelativePath, obdaRelativePath, new Properties());
+    }
+
+    protected static void initOBDA(String dbScriptRelativePath, String obdaRelativePath, Properties properties)
+            throws SQLException, IOException {
 
         String jdbcUrl = URL_PREFIX + UUID.randomUUID().toString();
 
@@ -53,15 +63,16 @@ public class AbstractRDF4JTest {
                 .jdbcUrl(jdbcUrl)
                 .jdbcUser(USER)
                 .jdbcPassword(PASSWORD)
+                .properties(properties)
                 .enableTestMode()
                 .build();
 
-        OntopRepository repo = OntopRepository.defaultRepository(config);
-        repo.initialize();
+        REPOSITORY = OntopRepository.defaultRepository(config);
+        REPOSITORY.initialize();
         /*
          * Prepare the data connection for querying.
          */
-        REPO_CONNECTION = repo.getConnection();
+        REPO_CONNECTION = REPOSITORY.getConnection();
     }
 
     protected static void initR2RML(String dbScriptRelativePath, String r2rmlRelativePath) throws SQLException, IOException {
@@ -93,12 +104,16 @@ public class AbstractRDF4JTest {
                 .enableTestMode()
                 .build();
 
-        OntopRepository repo = OntopRepository.defaultRepository(config);
-        repo.initialize();
+        REPOSITORY = OntopRepository.defaultRepository(config);
+        REPOSITORY.initialize();
         /*
          * Prepare the data connection for querying.
          */
-        REPO_CONNECTION = repo.getConnection();
+        REPO_CONNECTION = REPOSITORY.getConnection();
+    }
+
+    protected static OntopRepository getRepository() {
+        return REPOSITORY;
     }
 
     protected static void release() throws SQLException {
@@ -107,7 +122,12 @@ public class AbstractRDF4JTest {
     }
 
     protected int runQueryAndCount(String queryString) {
+        return runQueryAndCount(queryString, ImmutableMap.of());
+    }
+
+    protected int runQueryAndCount(String queryString, ImmutableMap<String, Value> bindings) {
         TupleQuery query = REPO_CONNECTION.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
+        bindings.forEach(query::setBinding);
 
         TupleQueryResult result = query.evaluate();
         int count = 0;
@@ -120,6 +140,18 @@ public class AbstractRDF4JTest {
         return count;
     }
 
+    /**
+     * String values of the variable, in the order of the results
+     */
+    protected ImmutableList<String> runQuery(String queryString, String variable) {
+        ImmutableList.Builder<String> builder = ImmutableList.builder();
+        try (TupleQueryResult result = evaluate(queryString)) {
+            while (result.hasNext())
+                builder.add(result.next().getValue(variable).stringValue());
+        }
+        return builder.build();
+    }
+
     protected TupleQueryResult evaluate(String queryString) {
         TupleQuery query = REPO_CONNECTION.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
         return query.evaluate();
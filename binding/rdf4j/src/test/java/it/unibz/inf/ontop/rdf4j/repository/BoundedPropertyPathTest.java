@@ -0,0 +1,58 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Recursive query bounded by ontop.propertyPath.maxLength: the longer paths are truncated
+ */
+public class BoundedPropertyPathTest extends AbstractPropertyPathTest {
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSettings.PROPERTY_PATH_MAX_LENGTH, "2");
+        initOBDA(CREATE_DB_FILE, OBDA_FILE, properties);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testTruncatedPath() {
+        assertEquals(ImmutableList.of("b", "c"),
+                getNodes("SELECT ?o WHERE { <" + NODE_PREFIX + "a> ex:next+ ?o } ORDER BY ?o", "o"));
+    }
+
+    @Test
+    public void testZeroOrMore() {
+        assertEquals(ImmutableList.of("a", "b", "c"),
+                getNodes("SELECT ?o WHERE { <" + NODE_PREFIX + "a> ex:next* ?o } ORDER BY ?o", "o"));
+    }
+
+    @Test
+    public void testCycle() {
+        assertEquals(ImmutableList.of("y", "z"),
+                getNodes("SELECT ?o WHERE { <" + NODE_PREFIX + "x> ex:next+ ?o } ORDER BY ?o", "o"));
+    }
+
+    /**
+     * 7 pairs in the chain and 6 in the cycle
+     */
+    @Test
+    public void testAllPairs() {
+        assertEquals(13, runQueryAndCount(PREFIX + "SELECT ?s ?o WHERE { ?s ex:next+ ?o }"));
+    }
+
+}
@@ -0,0 +1,81 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Property paths of arbitrary length evaluated with a recursive query (no bound on the length of the paths)
+ */
+public class PropertyPathTest extends AbstractPropertyPathTest {
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(CREATE_DB_FILE, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testOneOrMore() {
+        assertEquals(ImmutableList.of("b", "c", "d", "e"),
+                getNodes("SELECT ?o WHERE { <" + NODE_PREFIX + "a> ex:next+ ?o } ORDER BY ?o", "o"));
+    }
+
+    @Test
+    public void testZeroOrMore() {
+        assertEquals(ImmutableList.of("a", "b", "c", "d", "e"),
+                getNodes("SELECT ?o WHERE { <" + NODE_PREFIX + "a> ex:next* ?o } ORDER BY ?o", "o"));
+    }
+
+    @Test
+    public void testInverse() {
+        assertEquals(ImmutableList.of("a", "b", "c", "d"),
+                getNodes("SELECT ?s WHERE { ?s ex:next+ <" + NODE_PREFIX + "e> } ORDER BY ?s", "s"));
+    }
+
+    @Test
+    public void testBothEndpointsBound() {
+        assertEquals(1, runQueryAndCount(PREFIX + "SELECT * WHERE { <" + NODE_PREFIX + "a> ex:next+ <"
+                + NODE_PREFIX + "e> }"));
+        assertEquals(0, runQueryAndCount(PREFIX + "SELECT * WHERE { <" + NODE_PREFIX + "e> ex:next+ <"
+                + NODE_PREFIX + "a> }"));
+    }
+
+    /**
+     * The recursion must terminate and the start node is reachable from itself
+     */
+    @Test
+    public void testCycle() {
+        assertEquals(ImmutableList.of("x", "y", "z"),
+                getNodes("SELECT ?o WHERE { <" + NODE_PREFIX + "x> ex:next+ ?o } ORDER BY ?o", "o"));
+    }
+
+    /**
+     * No duplicate: 10 pairs in the chain and 9 in the cycle
+     */
+    @Test
+    public void testAllPairs() {
+        assertEquals(19, runQueryAndCount(PREFIX + "SELECT ?s ?o WHERE { ?s ex:next+ ?o }"));
+    }
+
+    /**
+     * The recursive query is embedded into the parameterized query
+     */
+    @Test
+    public void testPreparedQuery() {
+        assertEquals(4, runQueryAndCount(PREFIX + "SELECT ?s WHERE { ?s ex:next+ ?o }",
+                ImmutableMap.of("o", SimpleValueFactory.getInstance().createIRI(NODE_PREFIX + "e"))));
+    }
+}
@@ -16,7 +16,10 @@
 package it.unibz.inf.ontop.rdf4j.repository;
 
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.impl.URIImpl;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
 import org.eclipse.rdf4j.query.*;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.junit.After;
@@ -141,6 +144,67 @@ public class RDF4JBindingsTest {
         assertEquals(100, count);
     }
 
+    @Test
+    public void testSelectBindingsReused() throws Exception {
+        String queryString
+                = "PREFIX : <http://www.semanticweb.org/ontologies/2013/7/untitled-ontology-150#> "
+                + "SELECT ?v1 WHERE {?x :hasVal1 ?v1.}";
+
+        TupleQuery query = conn.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
+        for (int i = 1; i <= 3; i++) {
+            query.setBinding("x", new URIImpl("http://www.semanticweb.org/ontologies/2013/7/untitled-ontology-150#Class1-" + i));
+            TupleQueryResult result = query.evaluate();
+            assertTrue(result.hasNext());
+            BindingSet bindingSet = result.next();
+            assertEquals(String.valueOf(i), bindingSet.getValue("v1").stringValue());
+            assertFalse(bindingSet.hasBinding("x"));
+            assertFalse(result.hasNext());
+            result.close();
+        }
+
+        query.setBinding("x", new URIImpl("http://www.semanticweb.org/ontologies/2013/7/untitled-ontology-150#Class1-107"));
+        assertEquals(0, count(query.evaluate()));
+
+        query.setBinding("x", new URIImpl("http://www.semanticweb.org/ontologies/2013/7/untitled-ontology-150#Class2-1"));
+        assertEquals(0, count(query.evaluate()));
+    }
+
+    @Test
+    public void testSelectLiteralBindings() throws Exception {
+        String queryString
+                = "PREFIX : <http://www.semanticweb.org/ontologies/2013/7/untitled-ontology-150#> "
+                + "SELECT * WHERE {?x :hasVal1 ?v1.}";
+
+        TupleQuery query = conn.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
+        ValueFactory valueFactory = SimpleValueFactory.getInstance();
+        query.setBinding("v1", valueFactory.createLiteral("5", XMLSchema.INTEGER));
+        assertEquals(1, count(query.evaluate()));
+
+        query.setBinding("v1", valueFactory.createLiteral("5"));
+        assertEquals(0, count(query.evaluate()));
+    }
+
+    @Test
+    public void testSelectBindingsOptional() throws Exception {
+        String queryString
+                = "PREFIX : <http://www.semanticweb.org/ontologies/2013/7/untitled-ontology-150#> "
+                + "SELECT * WHERE {?x :hasVal1 ?v1. OPTIONAL { ?x :hasVal2 ?v2 } }";
+
+        TupleQuery query = conn.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
+        query.setBinding("x", new URIImpl("http://www.semanticweb.org/ontologies/2013/7/untitled-ontology-150#Class1-1"));
+        assertEquals(1, count(query.evaluate()));
+    }
+
+    private static int count(TupleQueryResult result) {
+        int count = 0;
+        while (result.hasNext()) {
+            result.next();
+            count++;
+        }
+        result.close();
+        return count;
+    }
+
     @Test
     public void testConstructBindings() throws Exception {
         String queryString
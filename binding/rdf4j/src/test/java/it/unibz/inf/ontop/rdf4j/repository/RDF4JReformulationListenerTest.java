@@ -0,0 +1,51 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import it.unibz.inf.ontop.answering.reformulation.ReformulationPhase;
+import it.unibz.inf.ontop.answering.reformulation.impl.ReformulationMetrics;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Per-phase metrics of the queries evaluated through the repository
+ */
+public class RDF4JReformulationListenerTest extends AbstractRDF4JTest {
+
+    private static final String CREATE_DB_FILE = "/opt-bind/opt-bind-create.sql";
+    private static final String OBDA_FILE = "/opt-bind/opt-bind.obda";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(CREATE_DB_FILE, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testMetrics() {
+        ReformulationMetrics metrics = new ReformulationMetrics();
+        getRepository().addReformulationListener(metrics);
+
+        assertEquals(1, runQueryAndCount("SELECT * WHERE { ?s rdfs:label ?label }"));
+        assertEquals(1, runQueryAndCount("SELECT ?s WHERE { ?s rdfs:label \"testdata\" }"));
+
+        for (ReformulationPhase phase : new ReformulationPhase[] {ReformulationPhase.TRANSLATION,
+                ReformulationPhase.NATIVE_QUERY_GENERATION, ReformulationPhase.EXECUTION})
+            assertEquals(phase.name(), 2L, (long) metrics.getCounts().get(phase.name()));
+        assertTrue(metrics.getTotalTimes().get(ReformulationPhase.TRANSLATION.name()) > 0);
+        assertTrue(metrics.getTotalOutputSizes().get(ReformulationPhase.NATIVE_QUERY_GENERATION.name()) > 0);
+
+        getRepository().removeReformulationListener(metrics);
+        runQueryAndCount("SELECT ?label WHERE { ?s rdfs:label ?label }");
+        assertEquals(2L, (long) metrics.getCounts().get(ReformulationPhase.TRANSLATION.name()));
+    }
+}
@@ -0,0 +1,64 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Recursive queries disabled: the paths are unrolled into a union of joins of length at most 3
+ */
+public class UnrolledPropertyPathTest extends AbstractPropertyPathTest {
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSettings.PROPERTY_PATH_RECURSION, "false");
+        properties.setProperty(OntopReformulationSettings.PROPERTY_PATH_UNROLLING_LENGTH, "3");
+        initOBDA(CREATE_DB_FILE, OBDA_FILE, properties);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testTruncatedPath() {
+        assertEquals(ImmutableList.of("b", "c", "d"),
+                getNodes("SELECT ?o WHERE { <" + NODE_PREFIX + "a> ex:next+ ?o } ORDER BY ?o", "o"));
+    }
+
+    @Test
+    public void testZeroOrMore() {
+        assertEquals(ImmutableList.of("a", "b", "c", "d"),
+                getNodes("SELECT ?o WHERE { <" + NODE_PREFIX + "a> ex:next* ?o } ORDER BY ?o", "o"));
+    }
+
+    @Test
+    public void testInverse() {
+        assertEquals(ImmutableList.of("b", "c", "d"),
+                getNodes("SELECT ?s WHERE { ?s ex:next+ <" + NODE_PREFIX + "e> } ORDER BY ?s", "s"));
+    }
+
+    @Test
+    public void testCycle() {
+        assertEquals(ImmutableList.of("x", "y", "z"),
+                getNodes("SELECT ?o WHERE { <" + NODE_PREFIX + "x> ex:next+ ?o } ORDER BY ?o", "o"));
+    }
+
+    /**
+     * 9 pairs in the chain and 9 in the cycle
+     */
+    @Test
+    public void testAllPairs() {
+        assertEquals(18, runQueryAndCount(PREFIX + "SELECT ?s ?o WHERE { ?s ex:next+ ?o }"));
+    }
+}
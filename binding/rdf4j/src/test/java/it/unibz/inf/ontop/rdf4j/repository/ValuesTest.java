@@ -0,0 +1,67 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * VALUES blocks with several rows, rendered as an inline relation in the SQL query (H2)
+ */
+public class ValuesTest extends AbstractRDF4JTest {
+
+    private static final String CREATE_DB_FILE = "/values/values-create.sql";
+    private static final String OBDA_FILE = "/values/values.obda";
+    private static final String PREFIX = "PREFIX ex: <http://example.org/>\n";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(CREATE_DB_FILE, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testLiterals() {
+        assertEquals(ImmutableList.of("30", "50"),
+                runQuery(PREFIX + "SELECT ?age WHERE {\n" +
+                        "  ?p ex:name ?name ; ex:age ?age .\n" +
+                        "  VALUES ?name { \"Alice\" \"Carol\" \"Dave\" }\n" +
+                        "} ORDER BY ?age", "age"));
+    }
+
+    @Test
+    public void testSeveralVariables() {
+        assertEquals(ImmutableList.of("Alice"),
+                runQuery(PREFIX + "SELECT ?name WHERE {\n" +
+                        "  ?p ex:name ?name ; ex:age ?age .\n" +
+                        "  VALUES (?p ?age) { (<http://example.org/person/1> 30) (<http://example.org/person/2> 41) }\n" +
+                        "}", "name"));
+    }
+
+    @Test
+    public void testUndef() {
+        assertEquals(ImmutableList.of("Alice", "Bob"),
+                runQuery(PREFIX + "SELECT ?name WHERE {\n" +
+                        "  ?p ex:name ?name ; ex:age ?age .\n" +
+                        "  VALUES (?name ?age) { (\"Alice\" UNDEF) (UNDEF 40) }\n" +
+                        "} ORDER BY ?name", "name"));
+    }
+
+    @Test
+    public void testCrossProduct() {
+        assertEquals(6, runQueryAndCount(PREFIX + "SELECT ?p ?x WHERE {\n" +
+                "  ?p ex:age ?age .\n" +
+                "  FILTER (?age > 35)\n" +
+                "  VALUES ?x { \"a\" \"b\" \"c\" }\n" +
+                "}"));
+    }
+}
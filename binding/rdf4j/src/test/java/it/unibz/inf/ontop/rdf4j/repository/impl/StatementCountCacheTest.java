@@ -0,0 +1,92 @@
+package it.unibz.inf.ontop.rdf4j.repository.impl;
+
+import com.google.common.base.Ticker;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class StatementCountCacheTest {
+
+    @Test
+    public void testExpiration() {
+        FakeTicker ticker = new FakeTicker();
+        StatementCountCache cache = new StatementCountCache(10, 100, ticker);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(1, cache.get("p", calls::incrementAndGet));
+        ticker.advance(9, TimeUnit.SECONDS);
+        assertEquals(1, cache.get("p", calls::incrementAndGet));
+
+        ticker.advance(2, TimeUnit.SECONDS);
+        assertEquals(2, cache.get("p", calls::incrementAndGet));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testMaxSize() {
+        StatementCountCache cache = new StatementCountCache(10, 2, Ticker.systemTicker());
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++)
+            cache.get("p" + i, calls::incrementAndGet);
+        // At most 2 entries are retained
+        cache.get("p0", calls::incrementAndGet);
+        assertEquals(11, calls.get());
+    }
+
+    @Test
+    public void testDisabled() {
+        StatementCountCache cache = new StatementCountCache(0);
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get("p", calls::incrementAndGet);
+        cache.get("p", calls::incrementAndGet);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testClear() {
+        StatementCountCache cache = new StatementCountCache(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get("p", calls::incrementAndGet);
+        cache.clear();
+        cache.get("p", calls::incrementAndGet);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testFailure() {
+        StatementCountCache cache = new StatementCountCache(10);
+        RepositoryException exception = new RepositoryException("Count failed");
+        try {
+            cache.get("p", () -> {
+                throw exception;
+            });
+            fail();
+        } catch (RepositoryException e) {
+            assertSame(exception, e);
+        }
+        // Not cached
+        assertEquals(3, cache.get("p", () -> 3));
+    }
+
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        void advance(long time, TimeUnit unit) {
+            nanos.addAndGet(unit.toNanos(time));
+        }
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    }
+}
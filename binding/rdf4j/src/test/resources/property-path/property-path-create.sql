@@ -0,0 +1,11 @@
+CREATE TABLE edge (
+    src character varying(10) NOT NULL,
+    dst character varying(10) NOT NULL
+);
+INSERT INTO edge VALUES ('a', 'b');
+INSERT INTO edge VALUES ('b', 'c');
+INSERT INTO edge VALUES ('c', 'd');
+INSERT INTO edge VALUES ('d', 'e');
+INSERT INTO edge VALUES ('x', 'y');
+INSERT INTO edge VALUES ('y', 'z');
+INSERT INTO edge VALUES ('z', 'x');
@@ -0,0 +1,8 @@
+CREATE TABLE person (
+    id integer NOT NULL,
+    name character varying(20) NOT NULL,
+    age integer NOT NULL
+);
+INSERT INTO person VALUES (1, 'Alice', 30);
+INSERT INTO person VALUES (2, 'Bob', 40);
+INSERT INTO person VALUES (3, 'Carol', 50);
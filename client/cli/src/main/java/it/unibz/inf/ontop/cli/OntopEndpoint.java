@@ -23,6 +23,27 @@ public class OntopEndpoint extends OntopMappingOntologyRelatedCommand {
             description = "lazy initialization")
     private boolean lazy = false;
 
+    @Option(type = OptionType.COMMAND, name = {"--max-concurrent-queries"}, title = "max concurrent queries",
+            description = "maximum number of queries evaluated concurrently (0 for no limit)")
+    private int maxConcurrentQueries = 0;
+
+    @Option(type = OptionType.COMMAND, name = {"--max-queued-queries"}, title = "max queued queries",
+            description = "maximum number of queries waiting to be evaluated (the next ones are rejected)")
+    private int maxQueuedQueries = 100;
+
+    @Option(type = OptionType.COMMAND, name = {"--queue-timeout"}, title = "queue timeout",
+            description = "maximum waiting time (in seconds) before a queued query is rejected")
+    private int queueTimeout = 10;
+
+    @Option(type = OptionType.COMMAND, name = {"--query-timeout"}, title = "query timeout",
+            description = "maximum execution time (in seconds) of a query (0 for no timeout)")
+    private int queryTimeout = 0;
+
+    @Option(type = OptionType.COMMAND, name = {"--write-stall-timeout"}, title = "write stall timeout",
+            description = "maximum time (in seconds) a write of the results can be blocked by a client " +
+                    "that does not read them, after which the DB connection of the query is released")
+    private int writeStallTimeout = 60;
+
     @Override
     public void run() {
         String[] args = {
@@ -31,7 +52,12 @@ public class OntopEndpoint extends OntopMappingOntologyRelatedCommand {
                 "--properties=" + this.propertiesFile,
                 "--port=" + this.port,
                 "--cors-allowed-origins=" + this.corsAllowedOrigins,
-                "--lazy=" + this.lazy
+                "--lazy=" + this.lazy,
+                "--max-concurrent-queries=" + this.maxConcurrentQueries,
+                "--max-queued-queries=" + this.maxQueuedQueries,
+                "--queue-timeout=" + this.queueTimeout,
+                "--query-timeout=" + this.queryTimeout,
+                "--write-stall-timeout=" + this.writeStallTimeout
         };
 
         SpringApplication.run(OntopEndpointApplication.class, args);
@@ -25,10 +25,14 @@ import com.github.rvesse.airline.annotations.Command;
 import com.github.rvesse.airline.annotations.Option;
 import com.github.rvesse.airline.annotations.OptionType;
 import com.github.rvesse.airline.annotations.restrictions.AllowedValues;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration.Builder;
+import it.unibz.inf.ontop.materialization.MaterializationChunk;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
 import it.unibz.inf.ontop.rdf4j.materialization.RDF4JMaterializer;
 import org.apache.commons.rdf.api.IRI;
@@ -46,9 +50,20 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.commons.io.FilenameUtils.removeExtension;
@@ -76,6 +91,7 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
     private static final int TRIPLE_LIMIT_PER_FILE = 500000;
     private static final String RDF_XML = "rdfxml";
     private static final String TURTLE = "turtle";
+    private static final String CHECKPOINT_FILE = "materialization.checkpoint";
 
 
     @Option(type = OptionType.COMMAND, override = true, name = {"-o", "--output"},
@@ -99,6 +115,22 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             description = "All the SQL results of one big query will be stored in memory. Not recommended. Default: false.")
     private boolean noStream = false;
 
+    @Option(type = OptionType.COMMAND, name = {"--parallelism"}, title = "number of threads",
+            description = "Number of classes/properties materialized concurrently, each one with its own connection." +
+                    " With --separate-files, their files are written concurrently (only with an output prefix)." +
+                    " Default: 1.")
+    private int parallelism = 1;
+
+    @Option(type = OptionType.COMMAND, name = {"--chunks"}, title = "materialize by chunks",
+            description = "Materializes each class/property by chunks (one per mapping assertion, after optimization)" +
+                    " written into separate files. Completed chunks are recorded in a checkpoint file." +
+                    " Requires --separate-files and an output prefix. Default: false.")
+    private boolean chunked = false;
+
+    @Option(type = OptionType.COMMAND, name = {"--resume"}, title = "resume an interrupted materialization",
+            description = "Skips the chunks recorded as completed in the checkpoint file. Implies --chunks. Default: false.")
+    private boolean resume = false;
+
     private boolean doStreamResults = true;
 
     public OntopMaterialize() {
@@ -106,6 +138,12 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
 
     @Override
     public void run() {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("--parallelism must be positive");
+        if (resume)
+            chunked = true;
+        if (chunked && ((!separate) || outputFile == null))
+            throw new IllegalArgumentException("--chunks requires --separate-files and an output prefix");
 
         //   Streaming is necessary to materialize large RDF graphs without
         //   storing all the SQL results of one big query in memory.
@@ -131,18 +169,35 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             OntopSQLOWLAPIConfiguration materializerConfiguration = createAndInitConfigurationBuilder()
                     .ontology(ontology)
                     .build();
-            materializer = RDF4JMaterializer.defaultMaterializer(
-                    materializerConfiguration,
-                    MaterializationParams.defaultBuilder()
-                            .enableDBResultsStreaming(doStreamResults)
-                            .build()
-            );
-        } catch (OBDASpecificationException | OWLOntologyCreationException e) {
+            MaterializationParams.Builder<?> paramsBuilder = MaterializationParams.defaultBuilder()
+                    .enableDBResultsStreaming(doStreamResults)
+                    // With separate files, the parallelism is across files
+                    .degreeOfParallelism(separate ? 1 : parallelism);
+            if (chunked)
+                paramsBuilder.specificationFingerprint(getSpecificationFingerprint());
+            materializer = RDF4JMaterializer.defaultMaterializer(materializerConfiguration, paramsBuilder.build());
+        } catch (OBDASpecificationException | OWLOntologyCreationException | IOException e) {
             throw new RuntimeException(e);
         }
         return materializer;
     }
 
+    /**
+     * Hash of the input files (mapping, ontology, properties) and of the reasoning option:
+     * the checkpointed chunks are not skipped anymore when one of them has changed
+     */
+    private String getSpecificationFingerprint() throws IOException {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (String file : new String[] { mappingFile, owlFile, propertiesFile }) {
+            if (file != null)
+                hasher.putBytes(Files.readAllBytes(Paths.get(file)));
+            hasher.putByte((byte) 0);
+        }
+        return hasher.putBoolean(disableReasoning)
+                .hash()
+                .toString();
+    }
+
     private OWLOntology loadOntology() throws OWLOntologyCreationException {
         if (owlFile != null) {
             OWLOntology ontology = OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(new File(owlFile));
@@ -181,31 +236,60 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
     }
 
     private void runWithSeparateFiles(RDF4JMaterializer materializer, OutputSpec outputSpec) {
+        // The standard output cannot be shared by concurrent writers
+        ExecutorService executor = Executors.newFixedThreadPool(outputSpec.prefix.isPresent() ? parallelism : 1);
         try {
-            materializeClassesByFile(materializer, outputSpec);
-            materializePropertiesByFile(materializer, outputSpec);
+            Optional<Checkpoint> checkpoint = chunked
+                    ? Optional.of(new Checkpoint(outputSpec.getCheckpointPath(), resume))
+                    : Optional.empty();
+
+            List<Future<?>> futures = new ArrayList<>();
+            futures.addAll(materializeByFile(materializer, materializer.getClasses(), PredicateType.CLASS,
+                    outputSpec, executor, checkpoint));
+            futures.addAll(materializeByFile(materializer, materializer.getProperties(), PredicateType.PROPERTY,
+                    outputSpec, executor, checkpoint));
+            for (Future<?> future : futures) {
+                future.get();
+            }
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
-    private void materializeClassesByFile(RDF4JMaterializer materializer, OutputSpec outputSpec) throws Exception {
-        ImmutableSet<IRI> classes = materializer.getClasses();
-        int total = classes.size();
-        AtomicInteger i = new AtomicInteger();
-        for (IRI c : classes) {
-            serializePredicate(materializer, c, PredicateType.CLASS, i.incrementAndGet(), total, outputSpec);
-        }
-    }
-
-    private void materializePropertiesByFile(RDF4JMaterializer materializer, OutputSpec outputSpec) throws Exception {
-        ImmutableSet<IRI> properties = materializer.getProperties();
-
-        int total = properties.size();
+    /**
+     * With a checkpoint, one task per chunk that has not been completed yet. Otherwise, one task per predicate.
+     */
+    private List<Future<?>> materializeByFile(RDF4JMaterializer materializer, ImmutableSet<IRI> predicates,
+                                              PredicateType predicateType, OutputSpec outputSpec,
+                                              ExecutorService executor, Optional<Checkpoint> checkpoint) {
+        int total = predicates.size();
         AtomicInteger i = new AtomicInteger();
-        for (IRI p : properties) {
-            serializePredicate(materializer, p, PredicateType.PROPERTY, i.incrementAndGet(), total, outputSpec);
+        List<Future<?>> futures = new ArrayList<>();
+        for (IRI predicate : predicates) {
+            int index = i.incrementAndGet();
+            if (checkpoint.isPresent()) {
+                for (MaterializationChunk chunk : materializer.getChunks(predicate)) {
+                    if (checkpoint.get().isCompleted(chunk)) {
+                        System.err.println(String.format("Skipping the completed %s", chunk));
+                        continue;
+                    }
+                    futures.add(executor.submit(() -> {
+                        serializeChunk(materializer, chunk, predicateType, index, total, outputSpec);
+                        checkpoint.get().markAsCompleted(chunk);
+                        return null;
+                    }));
+                }
+            }
+            else {
+                futures.add(executor.submit(() -> {
+                    serializePredicate(materializer, predicate, predicateType, index, total, outputSpec);
+                    return null;
+                }));
+            }
         }
+        return futures;
     }
 
     /**
@@ -214,20 +298,41 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
     private void serializePredicate(RDF4JMaterializer materializer, IRI predicateIRI,
                                     PredicateType predicateType, int index, int total,
                                     OutputSpec outputSpec) throws Exception {
-        final long startTime = System.currentTimeMillis();
+        System.err.println(String.format("Materializing %s (%d/%d)", predicateIRI, index, total));
 
+        GraphQueryResult result = materializer.materialize(ImmutableSet.of(predicateIRI)).evaluate();
+        serializeIntoFiles(result, getFileSubstring(predicateIRI, predicateType), outputSpec);
+    }
 
-        System.err.println(String.format("Materializing %s (%d/%d)", predicateIRI, index, total));
+    /**
+     * Serializes the triples of a chunk into one or multiple file (distinct from the ones of the other chunks).
+     */
+    private void serializeChunk(RDF4JMaterializer materializer, MaterializationChunk chunk,
+                                PredicateType predicateType, int index, int total,
+                                OutputSpec outputSpec) throws Exception {
+        System.err.println(String.format("Materializing %s (%d/%d)", chunk, index, total));
+
+        String fileSubstring = getFileSubstring(chunk.getClassOrProperty(), predicateType)
+                + "chunk" + chunk.getIndex() + "_";
+        // Partial output of an interrupted run: would otherwise be duplicated or left with outdated triples
+        outputSpec.deleteFiles(fileSubstring);
+
+        GraphQueryResult result = materializer.materialize(chunk).evaluate();
+        serializeIntoFiles(result, fileSubstring, outputSpec);
+    }
+
+    private static String getFileSubstring(IRI predicateIRI, PredicateType predicateType) {
+        return predicateIRI.toString().replaceAll("[^a-zA-Z0-9]", "_") + predicateType.getCode() + "_";
+    }
+
+    private void serializeIntoFiles(GraphQueryResult result, String fileSubstring, OutputSpec outputSpec)
+            throws IOException {
+        final long startTime = System.currentTimeMillis();
         System.err.println("Starts writing triples into files.");
 
         int tripleCount = 0;
         int fileCount = 0;
 
-        String fileSubstring = predicateIRI.toString().replaceAll("[^a-zA-Z0-9]", "_")
-                + predicateType.getCode() + "_";
-
-        GraphQueryResult result = materializer.materialize(ImmutableSet.of(predicateIRI)).evaluate();
-
         while (result.hasNext()) {
             BufferedWriter writer = outputSpec.createWriter(Optional.of(fileSubstring + fileCount));
             tripleCount += serializeTripleBatch(
@@ -308,6 +413,21 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             return new BufferedWriter(new OutputStreamWriter(System.out, "UTF-8"));
         }
 
+        /**
+         * Deletes the files created by createWriter(Optional.of(prefixExtension + ...))
+         */
+        private void deleteFiles(String prefixExtension) throws IOException {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(prefix.get()),
+                    prefixExtension + "*" + getSuffix())) {
+                for (Path file : files)
+                    Files.delete(file);
+            }
+        }
+
+        private Path getCheckpointPath() {
+            return Paths.get(prefix.get(), CHECKPOINT_FILE);
+        }
+
         private String getSuffix() {
             switch (format) {
                 case RDF_XML:
@@ -332,4 +452,40 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             }
         }
     }
+
+    /**
+     * Completed chunks, recorded in a file (one line per chunk)
+     */
+    private static class Checkpoint {
+        private final Path path;
+        private final Set<String> completedChunks;
+
+        private Checkpoint(Path path, boolean resume) throws IOException {
+            this.path = path;
+            this.completedChunks = ConcurrentHashMap.newKeySet();
+            if (resume && Files.exists(path))
+                completedChunks.addAll(Files.readAllLines(path, StandardCharsets.UTF_8));
+            else
+                Files.write(path, ImmutableList.of(), StandardCharsets.UTF_8);
+        }
+
+        private boolean isCompleted(MaterializationChunk chunk) {
+            return completedChunks.contains(getKey(chunk));
+        }
+
+        private synchronized void markAsCompleted(MaterializationChunk chunk) throws IOException {
+            String key = getKey(chunk);
+            Files.write(path, ImmutableList.of(key), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            completedChunks.add(key);
+        }
+
+        /**
+         * The number of chunks and the fingerprint of the chunk (which covers the input files) are included so that
+         * the chunks of an outdated checkpoint (e.g. the mapping has changed since) are not skipped
+         */
+        private static String getKey(MaterializationChunk chunk) {
+            return chunk.getClassOrProperty().getIRIString() + " " + chunk.getIndex() + "/" + chunk.getChunkCount()
+                    + " " + chunk.getFingerprint();
+        }
+    }
 }
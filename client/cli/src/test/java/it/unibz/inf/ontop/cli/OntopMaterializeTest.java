@@ -1,9 +1,29 @@
 package it.unibz.inf.ontop.cli;
 
+import com.google.common.collect.ImmutableList;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.rules.ExternalResource;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
 public class OntopMaterializeTest {
 
     @ClassRule
@@ -104,6 +124,108 @@ public class OntopMaterializeTest {
         Ontop.main(argv);
     }
 
+    @Test
+    public void testOntopMaterializeByChunks() throws Exception {
+        Path outputDirectory = Paths.get("src/test/resources/output/chunks/");
+        deleteDirectory(outputDirectory);
+        Files.createDirectories(outputDirectory);
+        Path checkpoint = outputDirectory.resolve("materialization.checkpoint");
+
+        String referenceFile = "src/test/resources/output/exampleBooks.materialized.chunks-reference.ttl";
+        Ontop.main("materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "turtle", "-o", referenceFile);
+        Model reference = parse(ImmutableList.of(Paths.get(referenceFile)));
+        assertFalse(reference.isEmpty());
+
+        String[] argv = {"materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "turtle", "-o", outputDirectory.toString() + "/",  "--separate-files", "--chunks",
+                "--parallelism", "4"
+        };
+        Ontop.main(argv);
+
+        List<Path> chunkFiles = getChunkFiles(outputDirectory);
+        assertEquals(reference, parse(chunkFiles));
+        List<String> completedChunks = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+        assertFalse(completedChunks.isEmpty());
+
+        String[] resumeArgv = {"materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "turtle", "-o", outputDirectory.toString() + "/",  "--separate-files", "--resume"
+        };
+        // Nothing to do
+        Ontop.main(resumeArgv);
+        assertEquals(completedChunks, Files.readAllLines(checkpoint, StandardCharsets.UTF_8));
+        assertEquals(chunkFiles, getChunkFiles(outputDirectory));
+        assertEquals(reference, parse(getChunkFiles(outputDirectory)));
+
+        // Simulates a run interrupted while writing the last chunk: not recorded, with a partial output
+        String unfinishedChunk = completedChunks.get(completedChunks.size() - 1);
+        Files.write(checkpoint, completedChunks.subList(0, completedChunks.size() - 1), StandardCharsets.UTF_8);
+        Path partialFile = getChunkFiles(outputDirectory).stream()
+                .filter(p -> isFileOfChunk(p, unfinishedChunk))
+                .findFirst()
+                .get();
+        Files.write(partialFile, ImmutableList.of("<http://example.org/partial> <http://example.org/p> \"partial\" ."),
+                StandardCharsets.UTF_8);
+
+        Ontop.main(resumeArgv);
+        assertEquals(completedChunks.size(), Files.readAllLines(checkpoint, StandardCharsets.UTF_8).size());
+        assertEquals(reference, parse(getChunkFiles(outputDirectory)));
+    }
+
+    private static List<Path> getChunkFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> p.getFileName().toString().endsWith(".ttl"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Checkpoint entry: IRI index/count fingerprint
+     */
+    private static boolean isFileOfChunk(Path file, String checkpointEntry) {
+        String[] parts = checkpointEntry.split(" ");
+        String index = parts[1].substring(0, parts[1].indexOf('/'));
+        return file.getFileName().toString()
+                .matches(Pattern.quote(parts[0].replaceAll("[^a-zA-Z0-9]", "_")) + "[CP]_chunk" + index + "_\\d+\\.ttl");
+    }
+
+    private static Model parse(List<Path> files) throws IOException {
+        Model model = new LinkedHashModel();
+        for (Path file : files) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                model.addAll(Rio.parse(reader, "", RDFFormat.TURTLE));
+            }
+        }
+        return model;
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory))
+            return;
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testOntopMaterializeSeparatefilesInParallel (){
+        String[] argv = {"materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "turtle", "-o", "src/test/resources/output/",  "--separate-files", "--parallelism", "4",
+        };
+        Ontop.main(argv);
+    }
+
 
 
 }
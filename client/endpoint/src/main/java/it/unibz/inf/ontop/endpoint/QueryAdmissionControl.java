@@ -0,0 +1,104 @@
+package it.unibz.inf.ontop.endpoint;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of queries evaluated concurrently (each of them holds a DB connection).
+ *
+ * The queries above the limit wait in a bounded queue. A queued query keeps its request thread
+ * parked for at most the queue timeout: the queue bound (max-queued-queries) therefore also bounds
+ * the number of request threads that can be held waiting. When the queue is full or the wait
+ * exceeds the queue timeout, the query is rejected (503).
+ */
+@Component
+public class QueryAdmissionControl {
+
+    private final int maxConcurrentQueries;
+    private final int maxQueuedQueries;
+    private final int queueTimeout;
+    private final Semaphore permits;
+    private final AtomicInteger queuedQueries = new AtomicInteger();
+
+    /**
+     * @param maxConcurrentQueries 0 for no limit
+     * @param queueTimeout in seconds
+     */
+    @Autowired
+    public QueryAdmissionControl(@Value("${max-concurrent-queries:0}") int maxConcurrentQueries,
+                                 @Value("${max-queued-queries:100}") int maxQueuedQueries,
+                                 @Value("${queue-timeout:10}") int queueTimeout) {
+        this.maxConcurrentQueries = maxConcurrentQueries;
+        this.maxQueuedQueries = maxQueuedQueries;
+        this.queueTimeout = queueTimeout;
+        this.permits = new Semaphore(Math.max(maxConcurrentQueries, 1), true);
+    }
+
+    /**
+     * Blocks the calling thread while the query is queued (at most the queue timeout).
+     *
+     * The ticket must be closed once the query and its results have been released
+     */
+    public Ticket admit() throws RejectedQueryException {
+        if (maxConcurrentQueries <= 0)
+            return new Ticket(false);
+
+        if (permits.tryAcquire())
+            return new Ticket(true);
+
+        if (queuedQueries.incrementAndGet() > maxQueuedQueries) {
+            queuedQueries.decrementAndGet();
+            throw new RejectedQueryException("Too many queries are waiting to be evaluated");
+        }
+        try {
+            if (!permits.tryAcquire(queueTimeout, TimeUnit.SECONDS))
+                throw new RejectedQueryException("Timeout while waiting for a query slot");
+            return new Ticket(true);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedQueryException("Interrupted while waiting for a query slot");
+        }
+        finally {
+            queuedQueries.decrementAndGet();
+        }
+    }
+
+    /**
+     * Suggested delay (in seconds) before retrying a rejected query
+     */
+    public int getRetryAfter() {
+        return Math.max(queueTimeout, 1);
+    }
+
+
+    public class Ticket implements AutoCloseable {
+        private final AtomicBoolean acquired;
+
+        private Ticket(boolean acquired) {
+            this.acquired = new AtomicBoolean(acquired);
+        }
+
+        /**
+         * Idempotent
+         */
+        @Override
+        public void close() {
+            if (acquired.compareAndSet(true, false))
+                permits.release();
+        }
+    }
+
+
+    public static class RejectedQueryException extends RuntimeException {
+        private RejectedQueryException(String message) {
+            super(message);
+        }
+    }
+}
@@ -5,12 +5,16 @@ import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import it.unibz.inf.ontop.utils.VersionInfo;
 import org.eclipse.rdf4j.query.BooleanQuery;
 import org.eclipse.rdf4j.query.GraphQuery;
+import org.eclipse.rdf4j.query.GraphQueryResult;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.Query;
 import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
 import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.query.resultio.BooleanQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
 import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLBooleanJSONWriter;
 import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLResultsJSONWriter;
 import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLBooleanXMLWriter;
@@ -22,22 +26,24 @@ import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFWriter;
 import org.eclipse.rdf4j.rio.rdfxml.RDFXMLWriter;
 import org.eclipse.rdf4j.rio.turtle.TurtleWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 import static org.springframework.http.HttpHeaders.ACCEPT;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
@@ -47,14 +53,21 @@ import static org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED_VAL
 public class SparqlQueryController {
 
     private final Repository repository;
+    private final QueryAdmissionControl admissionControl;
+    // in seconds (0 for no timeout)
+    private final int queryTimeout;
     private volatile boolean initialized = false;
 
     @Autowired
     public SparqlQueryController(@Value("${ontology}") String owlFile,
                                  @Value("${mapping}") String mappingFile,
                                  @Value("${properties}") String propertiesFile,
-                                 @Value("${lazy:false}") boolean lazy) {
+                                 @Value("${lazy:false}") boolean lazy,
+                                 @Value("${query-timeout:0}") int queryTimeout,
+                                 QueryAdmissionControl admissionControl) {
         this.repository = setupVirtualRepository(mappingFile, owlFile, propertiesFile, lazy);
+        this.admissionControl = admissionControl;
+        this.queryTimeout = queryTimeout;
     }
 
     private Repository setupVirtualRepository(String mappings, String ontology, String properties, boolean lazy) throws RepositoryException {
@@ -86,7 +99,7 @@ public class SparqlQueryController {
             method = {RequestMethod.GET}
     )
     @ResponseBody
-    public HttpEntity<String> query_get(
+    public ResponseEntity<StreamingResponseBody> query_get(
             @RequestHeader(ACCEPT) String accept,
             @RequestParam(value = "query") String query,
             @RequestParam(value = "default-graph-uri", required = false) String[] defaultGraphUri,
@@ -98,7 +111,7 @@ public class SparqlQueryController {
             method = RequestMethod.POST,
             consumes = APPLICATION_FORM_URLENCODED_VALUE)
     @ResponseBody
-    public HttpEntity<String> query_post_URL_encoded(
+    public ResponseEntity<StreamingResponseBody> query_post_URL_encoded(
             @RequestHeader(ACCEPT) String accept,
             @RequestParam(value = "query") String query,
             @RequestParam(value = "default-graph-uri", required = false) String[] defaultGraphUri,
@@ -110,7 +123,7 @@ public class SparqlQueryController {
             method = RequestMethod.POST,
             consumes = "application/sparql-query")
     @ResponseBody
-    public HttpEntity<String> query_post_directly(
+    public ResponseEntity<StreamingResponseBody> query_post_directly(
             @RequestHeader(ACCEPT) String accept,
             @RequestBody String query,
             @RequestParam(value = "default-graph-uri", required = false) String[] defaultGraphUri,
@@ -118,8 +131,8 @@ public class SparqlQueryController {
         return execQuery(accept, query, defaultGraphUri, namedGraphUri);
     }
 
-    private ResponseEntity<String> execQuery(String accept,
-                                             String query, String[] defaultGraphUri, String[] namedGraphUri) {
+    private ResponseEntity<StreamingResponseBody> execQuery(String accept,
+                                                            String query, String[] defaultGraphUri, String[] namedGraphUri) {
         if (!initialized) {
             synchronized (this) {
                 if (!initialized) {
@@ -130,90 +143,145 @@ public class SparqlQueryController {
         }
 
         HttpHeaders headers = new HttpHeaders();
-        HttpStatus status = HttpStatus.OK;
-
-        RepositoryConnection connection = repository.getConnection();
-        Query q = connection.prepareQuery(QueryLanguage.SPARQL, query);
-        ByteArrayOutputStream bao = new ByteArrayOutputStream();
-        final String result;
-
-        if (q instanceof TupleQuery) {
-            TupleQuery selectQuery = (TupleQuery) q;
-
-            if ("*/*".equals(accept) || accept.contains("json")) {
-                headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+json");
-                selectQuery.evaluate(new SPARQLResultsJSONWriter(bao));
-                result = bao.toString();
-            } else if (accept.contains("xml")) {
-                headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+xml");
-                selectQuery.evaluate(new SPARQLResultsXMLWriter(bao));
-                result = bao.toString();
-            } else if (accept.contains("csv")) {
-                headers.set(HttpHeaders.CONTENT_TYPE, "text/sparql-results+csv");
-                selectQuery.evaluate(new SPARQLResultsCSVWriter(bao));
-                result = bao.toString();
-            } else if (accept.contains("tsv")) {
-                headers.set(HttpHeaders.CONTENT_TYPE, "text/sparql-results+tsv");
-                selectQuery.evaluate(new SPARQLResultsTSVWriter(bao));
-                result = bao.toString();
-            } else {
-                result = "";
-                status = HttpStatus.BAD_REQUEST;
-                //throw new IllegalArgumentException("unsupported ACCEPT : " + accept);
-            }
 
-        } else if (q instanceof BooleanQuery) {
-            BooleanQuery askQuery = (BooleanQuery) q;
-            boolean b = askQuery.evaluate();
-
-            if ("*/*".equals(accept) || accept.contains("json")) {
-                headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+json");
-                BooleanQueryResultWriter writer = new SPARQLBooleanJSONWriter(bao);
-                writer.handleBoolean(b);
-                result = bao.toString();
-            } else if (accept.contains("xml")) {
-                headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+xml");
-                BooleanQueryResultWriter writer = new SPARQLBooleanXMLWriter(bao);
-                writer.handleBoolean(b);
-                result = bao.toString();
-            } else if (accept.contains("text")) {
-                headers.set(HttpHeaders.CONTENT_TYPE, "text/boolean");
-                BooleanQueryResultWriter writer = new BooleanTextWriter(bao);
-                writer.handleBoolean(b);
-                result = bao.toString();
-            } else {
-                result = "";
-                status = HttpStatus.BAD_REQUEST;
-                //throw new IllegalArgumentException("unsupported ACCEPT : " + accept);
+        QueryAdmissionControl.Ticket ticket = admissionControl.admit();
+        RepositoryConnection connection;
+        try {
+            connection = repository.getConnection();
+        } catch (RuntimeException e) {
+            ticket.close();
+            throw e;
+        }
+        // releases the connection and then the query slot
+        Runnable release = () -> {
+            try {
+                connection.close();
+            } finally {
+                ticket.close();
             }
-        } else if (q instanceof GraphQuery) {
-            GraphQuery graphQuery = (GraphQuery) q;
-            if ("*/*".equals(accept) || accept.contains("turtle")) {
-                headers.set(HttpHeaders.CONTENT_TYPE, "text/turtle");
-                graphQuery.evaluate(new TurtleWriter(bao));
-                result = bao.toString();
-            } else if (accept.contains("json")) {
-                headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
-                graphQuery.evaluate(new org.eclipse.rdf4j.rio.rdfjson.RDFJSONWriter(bao, RDFFormat.JSONLD));
-                result = bao.toString();
-            } else if (accept.contains("xml")) {
-                headers.set(HttpHeaders.CONTENT_TYPE, "application/rdf+xml");
-                graphQuery.evaluate(new RDFXMLWriter(bao));
-                result = bao.toString();
+        };
+
+        try {
+            Query q = connection.prepareQuery(QueryLanguage.SPARQL, query);
+            if (queryTimeout > 0)
+                q.setMaxExecutionTime(queryTimeout);
+
+            if (q instanceof TupleQuery) {
+                TupleQuery selectQuery = (TupleQuery) q;
+                final Function<OutputStream, TupleQueryResultWriter> writerFactory;
+
+                if ("*/*".equals(accept) || accept.contains("json")) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+json");
+                    writerFactory = SPARQLResultsJSONWriter::new;
+                } else if (accept.contains("xml")) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+xml");
+                    writerFactory = SPARQLResultsXMLWriter::new;
+                } else if (accept.contains("csv")) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, "text/sparql-results+csv");
+                    writerFactory = SPARQLResultsCSVWriter::new;
+                } else if (accept.contains("tsv")) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, "text/sparql-results+tsv");
+                    writerFactory = SPARQLResultsTSVWriter::new;
+                } else {
+                    //throw new IllegalArgumentException("unsupported ACCEPT : " + accept);
+                    release.run();
+                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+                }
+
+                TupleQueryResult result = selectQuery.evaluate();
+                return stream(headers, release, out -> {
+                    try {
+                        QueryResults.report(result, writerFactory.apply(out));
+                    } finally {
+                        result.close();
+                    }
+                });
+
+            } else if (q instanceof BooleanQuery) {
+                BooleanQuery askQuery = (BooleanQuery) q;
+                final Function<OutputStream, BooleanQueryResultWriter> writerFactory;
+
+                if ("*/*".equals(accept) || accept.contains("json")) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+json");
+                    writerFactory = SPARQLBooleanJSONWriter::new;
+                } else if (accept.contains("xml")) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+xml");
+                    writerFactory = SPARQLBooleanXMLWriter::new;
+                } else if (accept.contains("text")) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, "text/boolean");
+                    writerFactory = BooleanTextWriter::new;
+                } else {
+                    //throw new IllegalArgumentException("unsupported ACCEPT : " + accept);
+                    release.run();
+                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+                }
+
+                boolean b = askQuery.evaluate();
+                release.run();
+                StreamingResponseBody body = out -> writerFactory.apply(out).handleBoolean(b);
+                return new ResponseEntity<>(body, headers, HttpStatus.OK);
+
+            } else if (q instanceof GraphQuery) {
+                GraphQuery graphQuery = (GraphQuery) q;
+                final Function<OutputStream, RDFWriter> writerFactory;
+
+                if ("*/*".equals(accept) || accept.contains("turtle")) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, "text/turtle");
+                    writerFactory = TurtleWriter::new;
+                } else if (accept.contains("json")) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
+                    writerFactory = out -> new org.eclipse.rdf4j.rio.rdfjson.RDFJSONWriter(out, RDFFormat.JSONLD);
+                } else if (accept.contains("xml")) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, "application/rdf+xml");
+                    writerFactory = RDFXMLWriter::new;
+                } else {
+                    //throw new IllegalArgumentException("unsupported ACCEPT : " + accept);
+                    release.run();
+                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+                }
+
+                GraphQueryResult result = graphQuery.evaluate();
+                return stream(headers, release, out -> {
+                    try {
+                        QueryResults.report(result, writerFactory.apply(out));
+                    } finally {
+                        result.close();
+                    }
+                });
+
+            } else if (q instanceof Update) {
+                //else if (q instanceof Update)
+                release.run();
+                return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
             } else {
-                //throw new IllegalArgumentException("unsupported ACCEPT : " + accept);
-                result = "";
-                status = HttpStatus.BAD_REQUEST;
+                release.run();
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
             }
-        } else if (q instanceof Update) {
-            //else if (q instanceof Update)
-            result = "";
-            status = HttpStatus.NOT_IMPLEMENTED;
-        } else {
-            result = "";
-            status = HttpStatus.BAD_REQUEST;
+        } catch (RuntimeException e) {
+            // e.g. malformed query or evaluation failure: nothing has been sent yet
+            release.run();
+            throw e;
         }
-        return new ResponseEntity<>(result, headers, status);
+    }
+
+    /**
+     * The query has already been evaluated, so that the evaluation errors are still reported with a proper status.
+     *
+     * The results are written directly onto the response output stream (chunked transfer encoding).
+     * The connection is released once the results have been written or as soon as writing them fails
+     * (e.g. when the client disconnects, or when it stops reading for longer than server.connection-timeout).
+     * It is always released by the writing thread.
+     */
+    private static ResponseEntity<StreamingResponseBody> stream(HttpHeaders headers, Runnable release,
+                                                                StreamingResponseBody body) {
+        StreamingResponseBody closingBody = out -> {
+            try {
+                body.writeTo(out);
+            } finally {
+                release.run();
+            }
+        };
+        return new ResponseEntity<>(closingBody, headers, HttpStatus.OK);
     }
 
 
@@ -227,6 +295,16 @@ public class SparqlQueryController {
         return new ResponseEntity<>(message, headers, status);
     }
 
+    @ExceptionHandler({QueryAdmissionControl.RejectedQueryException.class})
+    public ResponseEntity<String> handleRejectedQueryException(Exception ex) {
+        String message = ex.getMessage();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CONTENT_TYPE, "text/plain; charset=UTF-8");
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(admissionControl.getRetryAfter()));
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        return new ResponseEntity<>(message, headers, status);
+    }
+
     @ExceptionHandler({RepositoryException.class, Exception.class})
     public ResponseEntity<String> handleRepositoryException(Exception ex) {
         ex.printStackTrace();
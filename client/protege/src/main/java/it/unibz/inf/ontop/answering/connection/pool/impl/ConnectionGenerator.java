@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.answering.connection.pool.impl;
 
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import it.unibz.inf.ontop.answering.connection.pool.ConnectionWaitHistogram;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
 import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
 
@@ -21,6 +22,7 @@ import java.sql.SQLException;
 public class ConnectionGenerator implements JDBCConnectionPool {
 
     private final OntopSystemSQLSettings settings;
+    private final ConnectionWaitHistogram waitHistogram = new ConnectionWaitHistogram();
 
     @Inject
     private ConnectionGenerator(OntopSystemSQLSettings settings) {
@@ -37,6 +39,19 @@ public class ConnectionGenerator implements JDBCConnectionPool {
      */
     @Override
     public Connection getConnection() throws SQLException {
-        return LocalJDBCConnectionUtils.createConnection(settings);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Connection connection = LocalJDBCConnectionUtils.createConnection(settings);
+            success = true;
+            return connection;
+        } finally {
+            waitHistogram.record(System.nanoTime() - start, success);
+        }
+    }
+
+    @Override
+    public ConnectionWaitHistogram getWaitHistogram() {
+        return waitHistogram;
     }
 }
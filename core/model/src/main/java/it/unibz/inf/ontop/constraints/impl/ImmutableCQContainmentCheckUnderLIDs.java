@@ -4,12 +4,17 @@ import com.google.common.collect.*;
 import it.unibz.inf.ontop.constraints.*;
 import it.unibz.inf.ontop.model.atom.AtomPredicate;
 import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ImmutableCQContainmentCheckUnderLIDs<P extends AtomPredicate> implements ImmutableCQContainmentCheck<P> {
 
-    private final Map<ImmutableList<DataAtom<P>>, ImmutableSet<DataAtom<P>>> chaseCache = new HashMap<>();
+    /**
+     * Thread-safe: the TMappings of independent predicates may be computed in parallel
+     */
+    private final Map<ImmutableList<DataAtom<P>>, ImmutableSet<DataAtom<P>>> chaseCache = new ConcurrentHashMap<>();
 
     private final LinearInclusionDependencies<P> dependencies;
 
@@ -27,7 +32,7 @@ public class ImmutableCQContainmentCheckUnderLIDs<P extends AtomPredicate> imple
             ImmutableHomomorphismIterator iterator = new ImmutableHomomorphismIterator(
                     builder.build(),
                     cq2.getAtoms(),
-                    chaseCache.computeIfAbsent(cq1.getAtoms(), dependencies::chaseAllAtoms));
+                    chase(cq1.getAtoms()));
             return iterator.hasNext();
         }
         return false;
@@ -37,6 +42,29 @@ public class ImmutableCQContainmentCheckUnderLIDs<P extends AtomPredicate> imple
          return new ImmutableHomomorphismIterator(
                 base,
                 from,
-                chaseCache.computeIfAbsent(to, dependencies::chaseAllAtoms));
+                chase(to));
+    }
+
+    /**
+     * Predicates of the atoms obtained by chasing the given atoms.
+     *
+     * A homomorphism from a list of atoms into the chase of the given atoms can only exist
+     * if the predicates of the former are among the returned predicates.
+     */
+    public ImmutableSet<P> getChasedPredicates(ImmutableList<DataAtom<P>> atoms) {
+        return chase(atoms).stream()
+                .map(DataAtom::getPredicate)
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    private ImmutableSet<DataAtom<P>> chase(ImmutableList<DataAtom<P>> atoms) {
+        ImmutableSet<DataAtom<P>> chasedAtoms = chaseCache.get(atoms);
+        if (chasedAtoms != null)
+            return chasedAtoms;
+
+        // The chase relies on a variable generator, which is not thread-safe
+        synchronized (dependencies) {
+            return chaseCache.computeIfAbsent(atoms, dependencies::chaseAllAtoms);
+        }
     }
 }
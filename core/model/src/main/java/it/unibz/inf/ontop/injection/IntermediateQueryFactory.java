@@ -61,7 +61,16 @@ public interface IntermediateQueryFactory {
 
     TrueNode createTrueNode();
 
+    ValuesNode createValuesNode(@Assisted("orderedVariables") ImmutableList<Variable> orderedVariables,
+                                @Assisted("values") ImmutableList<ImmutableList<Constant>> values);
+
     DistinctNode createDistinctNode();
+    TransitiveClosureNode createTransitiveClosureNode(@Assisted("sourceVariable") Variable sourceVariable,
+                                                      @Assisted("targetVariable") Variable targetVariable);
+    TransitiveClosureNode createTransitiveClosureNode(@Assisted("sourceVariable") Variable sourceVariable,
+                                                      @Assisted("targetVariable") Variable targetVariable,
+                                                      @Assisted("sourceSeed") Optional<GroundTerm> sourceSeed,
+                                                      @Assisted("targetSeed") Optional<GroundTerm> targetSeed);
     SliceNode createSliceNode(@Assisted("offset") long offset, @Assisted("limit") long limit);
     SliceNode createSliceNode(long offset);
 
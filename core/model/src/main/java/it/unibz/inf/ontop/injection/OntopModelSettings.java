@@ -12,6 +12,14 @@ public interface OntopModelSettings {
 
     boolean isTestModeEnabled();
 
+    /**
+     * If enabled, the TermFactory returns the same instance for structurally equal
+     * variables, constants and functional terms (weak hash-consing).
+     *
+     * Saves memory and speeds up the equality checks, at the price of a lookup at creation time.
+     */
+    boolean isTermInterningEnabled();
+
     /**
      * Not for end-users!
      *
@@ -44,4 +52,5 @@ public interface OntopModelSettings {
 
     String CARDINALITY_MODE = "ontop.cardinalityMode";
     String TEST_MODE = "ontop.testMode";
+    String TERM_INTERNING = "ontop.termInterning";
 }
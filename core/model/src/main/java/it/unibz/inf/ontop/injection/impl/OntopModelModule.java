@@ -98,7 +98,9 @@ public class OntopModelModule extends OntopAbstractModule {
                 NativeNode.class,
                 EmptyNode.class,
                 TrueNode.class,
+                ValuesNode.class,
                 DistinctNode.class,
+                TransitiveClosureNode.class,
                 SliceNode.class,
                 OrderByNode.class,
                 OrderByNode.OrderComparator.class,
@@ -18,6 +18,7 @@ public class OntopModelSettingsImpl implements OntopModelSettings {
     private final Properties properties;
     private final CardinalityPreservationMode cardinalityMode;
     private final boolean testMode;
+    private final boolean termInterning;
 
     /**
      * Beware: immutable class!
@@ -39,6 +40,7 @@ public class OntopModelSettingsImpl implements OntopModelSettings {
 
         cardinalityMode = extractCardinalityMode(properties);
         testMode = extractBoolean(properties, OntopModelSettings.TEST_MODE);
+        termInterning = extractBoolean(properties, OntopModelSettings.TERM_INTERNING);
     }
 
     private static CardinalityPreservationMode extractCardinalityMode(Properties properties)
@@ -107,6 +109,11 @@ public class OntopModelSettingsImpl implements OntopModelSettings {
         return testMode;
     }
 
+    @Override
+    public boolean isTermInterningEnabled() {
+        return termInterning;
+    }
+
     /**
      * Returns the boolean value of the given key.
      */
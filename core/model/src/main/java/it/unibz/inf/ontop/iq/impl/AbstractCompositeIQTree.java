@@ -35,6 +35,11 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
     // Non final
     private boolean hasBeenSuccessfullyValidate;
 
+    /**
+     * LAZY (0 if not computed yet)
+     */
+    private int hashCode;
+
     protected final IQTreeTools iqTreeTools;
     protected final IntermediateQueryFactory iqFactory;
 
@@ -107,9 +112,34 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
                 && isEquivalentTo((CompositeIQTree) o);
     }
 
+    /**
+     * Structural (consistent with isEquivalentTo()) and cached
+     */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        if (hashCode == 0) {
+            int result = computeNodeHashCode(rootNode);
+            for (IQTree child : children)
+                result = 31 * result + computeStructuralHashCode(child);
+            hashCode = result;
+        }
+        return hashCode;
+    }
+
+    /**
+     * Leaf trees do not have a structural hashCode()
+     */
+    static int computeStructuralHashCode(IQTree tree) {
+        return (tree instanceof AbstractCompositeIQTree)
+                ? tree.hashCode()
+                : computeNodeHashCode(tree.getRootNode());
+    }
+
+    /**
+     * Query nodes do not override hashCode(): only relies on what is compared by isEquivalentTo()
+     */
+    private static int computeNodeHashCode(QueryNode node) {
+        return 31 * node.getClass().getName().hashCode() + node.getLocalVariables().hashCode();
     }
 
     @Override
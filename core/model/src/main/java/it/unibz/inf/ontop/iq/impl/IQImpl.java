@@ -28,6 +28,11 @@ public class IQImpl implements IQ {
     @Nullable
     private VariableGenerator variableGenerator;
 
+    /**
+     * Lazy (0 if not computed yet)
+     */
+    private int hashCode;
+
     @AssistedInject
     private IQImpl(@Assisted DistinctVariableOnlyDataAtom projectionAtom, @Assisted IQTree tree,
                    IntermediateQueryFactory iqFactory,
@@ -99,8 +104,13 @@ public class IQImpl implements IQ {
                 && tree.isEquivalentTo(((IQ) otherObject).getTree());
     }
 
+    /**
+     * Structural and cached
+     */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        if (hashCode == 0)
+            hashCode = 31 * projectionAtom.hashCode() + AbstractCompositeIQTree.computeStructuralHashCode(tree);
+        return hashCode;
     }
 }
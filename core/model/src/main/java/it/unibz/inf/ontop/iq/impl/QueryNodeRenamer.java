@@ -96,11 +96,29 @@ public class QueryNodeRenamer implements HomogeneousQueryNodeTransformer {
         return trueNode.clone();
     }
 
+    @Override
+    public ValuesNode transform(ValuesNode valuesNode) {
+        return iqFactory.createValuesNode(
+                valuesNode.getOrderedVariables().stream()
+                        .map(renamingSubstitution::applyToVariable)
+                        .collect(ImmutableCollectors.toList()),
+                valuesNode.getValues());
+    }
+
     @Override
     public DistinctNode transform(DistinctNode distinctNode) {
         return iqFactory.createDistinctNode();
     }
 
+    @Override
+    public TransitiveClosureNode transform(TransitiveClosureNode transitiveClosureNode) {
+        return iqFactory.createTransitiveClosureNode(
+                renamingSubstitution.applyToVariable(transitiveClosureNode.getSourceVariable()),
+                renamingSubstitution.applyToVariable(transitiveClosureNode.getTargetVariable()),
+                transitiveClosureNode.getSourceSeed(),
+                transitiveClosureNode.getTargetSeed());
+    }
+
     @Override
     public SliceNode transform(SliceNode sliceNode) {
         return sliceNode.clone();
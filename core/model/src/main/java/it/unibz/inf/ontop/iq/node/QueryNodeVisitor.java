@@ -28,8 +28,12 @@ public interface QueryNodeVisitor {
 
     void visit(TrueNode trueNode);
 
+    void visit(ValuesNode valuesNode);
+
     void visit(DistinctNode distinctNode);
 
+    void visit(TransitiveClosureNode transitiveClosureNode);
+
     void visit(SliceNode sliceNode);
 
     void visit(OrderByNode orderByNode);
@@ -0,0 +1,43 @@
+package it.unibz.inf.ontop.iq.node;
+
+import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
+import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.model.term.GroundTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+
+import java.util.Optional;
+
+/**
+ * Transitive closure of the binary relation produced by its child (paths of length one or more).
+ *
+ * The child must project exactly the source and the target variables.
+ * The result has set semantics (no duplicates).
+ *
+ * An endpoint may be bound to a ground term (seed): only the paths starting (resp. ending) at it are
+ * computed, instead of filtering the whole closure.
+ *
+ * See IntermediateQueryFactory for creating a new instance.
+ */
+public interface TransitiveClosureNode extends UnaryOperatorNode {
+
+    Variable getSourceVariable();
+
+    Variable getTargetVariable();
+
+    /**
+     * Ground term the source variable is bound to
+     */
+    Optional<GroundTerm> getSourceSeed();
+
+    /**
+     * Ground term the target variable is bound to
+     */
+    Optional<GroundTerm> getTargetSeed();
+
+    @Override
+    TransitiveClosureNode clone();
+
+    @Override
+    TransitiveClosureNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer)
+            throws QueryNodeTransformationException;
+}
@@ -0,0 +1,33 @@
+package it.unibz.inf.ontop.iq.node;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.iq.LeafIQTree;
+import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
+import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.model.term.Variable;
+
+/**
+ * Inline relation: a list of tuples of constants (rows).
+ *
+ * The i-th constant of each row is the value of the i-th ordered variable.
+ * NULL constants are allowed (unbound values).
+ *
+ * See IntermediateQueryFactory for creating a new instance.
+ */
+public interface ValuesNode extends LeafIQTree {
+
+    /**
+     * The order matters for the rows
+     */
+    ImmutableList<Variable> getOrderedVariables();
+
+    ImmutableList<ImmutableList<Constant>> getValues();
+
+    @Override
+    ValuesNode clone();
+
+    @Override
+    ValuesNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer)
+            throws QueryNodeTransformationException;
+}
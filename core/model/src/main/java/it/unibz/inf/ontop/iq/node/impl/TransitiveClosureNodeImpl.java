@@ -0,0 +1,454 @@
+package it.unibz.inf.ontop.iq.node.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQProperties;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.exception.InvalidIntermediateQueryException;
+import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
+import it.unibz.inf.ontop.iq.impl.IQTreeTools;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.transform.IQTreeVisitingTransformer;
+import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.iq.visit.IQVisitor;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+
+public class TransitiveClosureNodeImpl extends QueryNodeImpl implements TransitiveClosureNode {
+
+    private static final String TRANSITIVE_CLOSURE_NODE_STR = "TRANSITIVE_CLOSURE";
+
+    private final Variable sourceVariable;
+    private final Variable targetVariable;
+    private final Optional<GroundTerm> sourceSeed;
+    private final Optional<GroundTerm> targetSeed;
+    private final IntermediateQueryFactory iqFactory;
+    private final SubstitutionFactory substitutionFactory;
+    private final TermFactory termFactory;
+    private final IQTreeTools iqTreeTools;
+
+    @AssistedInject
+    private TransitiveClosureNodeImpl(@Assisted("sourceVariable") Variable sourceVariable,
+                                      @Assisted("targetVariable") Variable targetVariable,
+                                      IntermediateQueryFactory iqFactory, SubstitutionFactory substitutionFactory,
+                                      TermFactory termFactory, IQTreeTools iqTreeTools) {
+        this(sourceVariable, targetVariable, Optional.empty(), Optional.empty(), iqFactory, substitutionFactory,
+                termFactory, iqTreeTools);
+    }
+
+    @AssistedInject
+    private TransitiveClosureNodeImpl(@Assisted("sourceVariable") Variable sourceVariable,
+                                      @Assisted("targetVariable") Variable targetVariable,
+                                      @Assisted("sourceSeed") Optional<GroundTerm> sourceSeed,
+                                      @Assisted("targetSeed") Optional<GroundTerm> targetSeed,
+                                      IntermediateQueryFactory iqFactory, SubstitutionFactory substitutionFactory,
+                                      TermFactory termFactory, IQTreeTools iqTreeTools) {
+        this.sourceVariable = sourceVariable;
+        this.targetVariable = targetVariable;
+        this.sourceSeed = sourceSeed;
+        this.targetSeed = targetSeed;
+        this.iqFactory = iqFactory;
+        this.substitutionFactory = substitutionFactory;
+        this.termFactory = termFactory;
+        this.iqTreeTools = iqTreeTools;
+    }
+
+    @Override
+    public Variable getSourceVariable() {
+        return sourceVariable;
+    }
+
+    @Override
+    public Variable getTargetVariable() {
+        return targetVariable;
+    }
+
+    @Override
+    public Optional<GroundTerm> getSourceSeed() {
+        return sourceSeed;
+    }
+
+    @Override
+    public Optional<GroundTerm> getTargetSeed() {
+        return targetSeed;
+    }
+
+    /**
+     * When the child defines the source and the target as RDF terms of the same (constant) type,
+     * the closure is computed over their lexical values and the RDF terms are lifted above it.
+     *
+     * If the types differ, no path longer than one exists.
+     *
+     * The seeds are replaced by their lexical values. A seed of another type matches no path.
+     */
+    @Override
+    public IQTree normalizeForOptimization(IQTree child, VariableGenerator variableGenerator,
+                                           IQProperties currentIQProperties) {
+        IQTree newChild = child.normalizeForOptimization(variableGenerator);
+        if (newChild.isDeclaredAsEmpty())
+            return iqFactory.createEmptyNode(newChild.getVariables());
+
+        QueryNode childRoot = newChild.getRootNode();
+        if (childRoot instanceof ConstructionNode) {
+            ImmutableSubstitution<ImmutableTerm> childSubstitution = ((ConstructionNode) childRoot).getSubstitution();
+
+            Optional<ImmutableFunctionalTerm> sourceDefinition = extractRDFDefinition(childSubstitution.get(sourceVariable));
+            Optional<ImmutableFunctionalTerm> targetDefinition = extractRDFDefinition(childSubstitution.get(targetVariable));
+
+            if (sourceDefinition.isPresent() && targetDefinition.isPresent()) {
+                ImmutableTerm sourceType = sourceDefinition.get().getTerm(1);
+                ImmutableTerm targetType = targetDefinition.get().getTerm(1);
+
+                if (!sourceType.equals(targetType))
+                    return iqFactory.createUnaryIQTree(iqFactory.createDistinctNode(), filterBySeeds(newChild))
+                            .normalizeForOptimization(variableGenerator);
+
+                Optional<Optional<GroundTerm>> lexicalSourceSeed = extractLexicalSeed(sourceSeed, sourceType);
+                Optional<Optional<GroundTerm>> lexicalTargetSeed = extractLexicalSeed(targetSeed, sourceType);
+
+                if (lexicalSourceSeed.isPresent() && lexicalTargetSeed.isPresent()) {
+                    if (isIncompatibleSeed(sourceSeed, lexicalSourceSeed.get())
+                            || isIncompatibleSeed(targetSeed, lexicalTargetSeed.get()))
+                        return iqFactory.createEmptyNode(newChild.getVariables());
+
+                    return liftRDFTypes(sourceDefinition.get().getTerm(0), targetDefinition.get().getTerm(0),
+                            sourceType, lexicalSourceSeed.get(), lexicalTargetSeed.get(),
+                            ((UnaryIQTree) newChild).getChild(), variableGenerator, currentIQProperties);
+                }
+            }
+        }
+        return iqFactory.createUnaryIQTree(this, newChild, currentIQProperties.declareNormalizedForOptimization());
+    }
+
+    /**
+     * RDF constants are treated as RDF functional terms with ground arguments.
+     * Only type constants are accepted.
+     */
+    private Optional<ImmutableFunctionalTerm> extractRDFDefinition(ImmutableTerm definition) {
+        if (definition instanceof RDFConstant) {
+            RDFConstant constant = (RDFConstant) definition;
+            return Optional.of(termFactory.getRDFFunctionalTerm(
+                    termFactory.getDBStringConstant(constant.getValue()),
+                    termFactory.getRDFTermTypeConstant(constant.getType())));
+        }
+        return Optional.ofNullable(definition)
+                .filter(d -> d instanceof ImmutableFunctionalTerm)
+                .map(d -> (ImmutableFunctionalTerm) d)
+                .filter(d -> d.getFunctionSymbol() instanceof RDFTermFunctionSymbol)
+                .filter(d -> d.getTerm(1) instanceof RDFTermTypeConstant);
+    }
+
+    /**
+     * Returns empty if the seed cannot be converted into a lexical value.
+     * The inner optional is empty if there is no seed or if the seed is of another type.
+     */
+    private Optional<Optional<GroundTerm>> extractLexicalSeed(Optional<GroundTerm> seed, ImmutableTerm typeTerm) {
+        if (!seed.isPresent())
+            return Optional.of(Optional.empty());
+
+        return extractRDFDefinition(seed.get())
+                .filter(d -> d.getTerm(0) instanceof GroundTerm)
+                .map(d -> d.getTerm(1).equals(typeTerm)
+                        ? Optional.of((GroundTerm) d.getTerm(0))
+                        : Optional.<GroundTerm>empty());
+    }
+
+    private static boolean isIncompatibleSeed(Optional<GroundTerm> seed, Optional<GroundTerm> lexicalSeed) {
+        return seed.isPresent() && !lexicalSeed.isPresent();
+    }
+
+    private IQTree filterBySeeds(IQTree tree) {
+        ImmutableList<ImmutableExpression> equalities = Stream.of(
+                    sourceSeed.map(s -> termFactory.getStrictEquality(sourceVariable, s)),
+                    targetSeed.map(s -> termFactory.getStrictEquality(targetVariable, s)))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(ImmutableCollectors.toList());
+
+        return equalities.isEmpty()
+                ? tree
+                : iqFactory.createUnaryIQTree(iqFactory.createFilterNode(termFactory.getConjunction(equalities)), tree);
+    }
+
+    private IQTree liftRDFTypes(ImmutableTerm sourceLexicalTerm, ImmutableTerm targetLexicalTerm, ImmutableTerm typeTerm,
+                                Optional<GroundTerm> lexicalSourceSeed, Optional<GroundTerm> lexicalTargetSeed,
+                                IQTree grandChild, VariableGenerator variableGenerator,
+                                IQProperties currentIQProperties) {
+        Variable sourceLexicalVariable = variableGenerator.generateNewVariableFromVar(sourceVariable);
+        Variable targetLexicalVariable = variableGenerator.generateNewVariableFromVar(targetVariable);
+
+        IQTree lexicalChild = iqFactory.createUnaryIQTree(
+                iqFactory.createConstructionNode(ImmutableSet.of(sourceLexicalVariable, targetLexicalVariable),
+                        substitutionFactory.getSubstitution(
+                                sourceLexicalVariable, sourceLexicalTerm,
+                                targetLexicalVariable, targetLexicalTerm)),
+                grandChild)
+                .normalizeForOptimization(variableGenerator);
+
+        IQTree newClosureTree = iqFactory.createUnaryIQTree(
+                iqFactory.createTransitiveClosureNode(sourceLexicalVariable, targetLexicalVariable,
+                        lexicalSourceSeed, lexicalTargetSeed),
+                lexicalChild, currentIQProperties.declareNormalizedForOptimization());
+
+        ConstructionNode constructionNode = iqFactory.createConstructionNode(
+                ImmutableSet.of(sourceVariable, targetVariable),
+                substitutionFactory.<ImmutableTerm>getSubstitution(
+                        sourceVariable, termFactory.getRDFFunctionalTerm(sourceLexicalVariable, typeTerm),
+                        targetVariable, termFactory.getRDFFunctionalTerm(targetLexicalVariable, typeTerm)));
+
+        return iqFactory.createUnaryIQTree(constructionNode, newClosureTree,
+                currentIQProperties.declareNormalizedForOptimization());
+    }
+
+    @Override
+    public IQTree applyDescendingSubstitution(ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution,
+                                              Optional<ImmutableExpression> constraint, IQTree child) {
+        return applyDescendingSubstitutionWithoutOptimizing(descendingSubstitution, child);
+    }
+
+    /**
+     * An endpoint mapped to a ground term becomes a seed of the closure (and is projected away),
+     * so that only the paths starting (resp. ending) at it are computed.
+     *
+     * Injective renamings are propagated to the child.
+     * Other substitutions cannot go through the closure: they are enforced by a filter above it.
+     */
+    @Override
+    public IQTree applyDescendingSubstitutionWithoutOptimizing(
+            ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution, IQTree child) {
+
+        ImmutableSubstitution<? extends VariableOrGroundTerm> reducedSubstitution = descendingSubstitution
+                .reduceDomainToIntersectionWith(ImmutableSet.of(sourceVariable, targetVariable));
+
+        if (reducedSubstitution.isEmpty())
+            return iqFactory.createUnaryIQTree(this, child);
+
+        ImmutableTerm newSource = reducedSubstitution.applyToVariable(sourceVariable);
+        ImmutableTerm newTarget = reducedSubstitution.applyToVariable(targetVariable);
+
+        boolean isSourceSeeded = (!sourceSeed.isPresent()) && (newSource instanceof GroundTerm);
+        boolean isTargetSeeded = (!targetSeed.isPresent()) && (newTarget instanceof GroundTerm);
+        if (isSourceSeeded || isTargetSeeded)
+            return applySeeds(reducedSubstitution, child,
+                    isSourceSeeded ? Optional.of((GroundTerm) newSource) : sourceSeed,
+                    isTargetSeeded ? Optional.of((GroundTerm) newTarget) : targetSeed);
+
+        if ((newSource instanceof Variable) && (newTarget instanceof Variable) && (!newSource.equals(newTarget)))
+            return iqFactory.createUnaryIQTree(
+                    iqFactory.createTransitiveClosureNode((Variable) newSource, (Variable) newTarget,
+                            sourceSeed, targetSeed),
+                    child.applyDescendingSubstitutionWithoutOptimizing(reducedSubstitution));
+
+        ImmutableSet<Variable> newProjectedVariables = iqTreeTools.computeNewProjectedVariables(reducedSubstitution,
+                ImmutableSet.of(sourceVariable, targetVariable));
+
+        // New variables are provided by the first closure variable mapped to them
+        ImmutableMap<Variable, Variable> newVariableProviders = reducedSubstitution.getImmutableMap().entrySet().stream()
+                .filter(e -> e.getValue() instanceof Variable)
+                .filter(e -> !e.getValue().equals(sourceVariable) && !e.getValue().equals(targetVariable))
+                .collect(ImmutableCollectors.toMap(
+                        e -> (Variable) e.getValue(),
+                        Map.Entry::getKey,
+                        (v1, v2) -> v1));
+
+        ImmutableList<ImmutableExpression> equalities = reducedSubstitution.getImmutableMap().entrySet().stream()
+                .filter(e -> !e.getKey().equals(newVariableProviders.get(e.getValue())))
+                .map(e -> termFactory.getStrictEquality(e.getKey(),
+                        Optional.<ImmutableTerm>ofNullable(newVariableProviders.get(e.getValue()))
+                                .orElse(e.getValue())))
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableSubstitution<ImmutableTerm> renaming = substitutionFactory.getSubstitution(
+                newVariableProviders.entrySet().stream()
+                        .collect(ImmutableCollectors.toMap(
+                                Map.Entry::getKey,
+                                e -> (ImmutableTerm) e.getValue())));
+
+        IQTree closureTree = iqFactory.createUnaryIQTree(this, child);
+        IQTree filteredTree = equalities.isEmpty()
+                ? closureTree
+                : iqFactory.createUnaryIQTree(
+                        iqFactory.createFilterNode(termFactory.getConjunction(equalities)),
+                        closureTree);
+
+        return iqFactory.createUnaryIQTree(
+                iqFactory.createConstructionNode(newProjectedVariables, renaming),
+                filteredTree);
+    }
+
+    /**
+     * The seeded variables are projected away. The rest of the substitution is applied above the seeded closure.
+     */
+    private IQTree applySeeds(ImmutableSubstitution<? extends VariableOrGroundTerm> substitution, IQTree child,
+                              Optional<GroundTerm> newSourceSeed, Optional<GroundTerm> newTargetSeed) {
+        IQTree seededTree = iqFactory.createUnaryIQTree(
+                iqFactory.createTransitiveClosureNode(sourceVariable, targetVariable, newSourceSeed, newTargetSeed),
+                child);
+
+        ImmutableSet<Variable> remainingVariables = Stream.of(sourceVariable, targetVariable)
+                .filter(v -> !(substitution.applyToVariable(v) instanceof GroundTerm))
+                .collect(ImmutableCollectors.toSet());
+
+        IQTree projectedTree = iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(remainingVariables),
+                seededTree);
+
+        ImmutableSubstitution<? extends VariableOrGroundTerm> remainingSubstitution = substitution
+                .reduceDomainToIntersectionWith(remainingVariables);
+
+        return remainingSubstitution.isEmpty()
+                ? projectedTree
+                : projectedTree.applyDescendingSubstitutionWithoutOptimizing(remainingSubstitution);
+    }
+
+    @Override
+    public VariableNullability getVariableNullability(IQTree child) {
+        return child.getVariableNullability();
+    }
+
+    @Override
+    public boolean isConstructed(Variable variable, IQTree child) {
+        return child.isConstructed(variable);
+    }
+
+    @Override
+    public boolean isDistinct(IQTree child) {
+        return true;
+    }
+
+    /**
+     * Blocking
+     */
+    @Override
+    public IQTree liftIncompatibleDefinitions(Variable variable, IQTree child) {
+        return iqFactory.createUnaryIQTree(this, child);
+    }
+
+    /**
+     * A constraint on the pairs of the closure says nothing about the pairs of the child
+     */
+    @Override
+    public IQTree propagateDownConstraint(ImmutableExpression constraint, IQTree child) {
+        return iqFactory.createUnaryIQTree(this, child);
+    }
+
+    @Override
+    public IQTree acceptTransformer(IQTree tree, IQTreeVisitingTransformer transformer, IQTree child) {
+        return transformer.transformTransitiveClosure(tree, this, child);
+    }
+
+    @Override
+    public <T> T acceptVisitor(IQVisitor<T> visitor, IQTree child) {
+        return visitor.visitTransitiveClosure(this, child);
+    }
+
+    @Override
+    public void validateNode(IQTree child) throws InvalidIntermediateQueryException {
+        if (sourceVariable.equals(targetVariable))
+            throw new InvalidIntermediateQueryException("The source and the target variables of " + this
+                    + " must be distinct");
+
+        if (!child.getVariables().equals(ImmutableSet.of(sourceVariable, targetVariable)))
+            throw new InvalidIntermediateQueryException("The child of " + this
+                    + " must project exactly the source and the target variables, not " + child.getVariables());
+    }
+
+    /**
+     * Source values (resp. target values) are source values (resp. target values) of the child
+     */
+    @Override
+    public ImmutableSet<ImmutableSubstitution<NonVariableTerm>> getPossibleVariableDefinitions(IQTree child) {
+        return child.getPossibleVariableDefinitions();
+    }
+
+    /**
+     * Set semantics: the distincts of the child have no effect
+     */
+    @Override
+    public IQTree removeDistincts(IQTree child, IQProperties iqProperties) {
+        return iqFactory.createUnaryIQTree(this, child.removeDistincts(), iqProperties.declareDistinctRemovalWithoutEffect());
+    }
+
+    @Override
+    public ImmutableSet<ImmutableSet<Variable>> inferUniqueConstraints(IQTree child) {
+        return ImmutableSet.of(ImmutableSet.of(sourceVariable, targetVariable));
+    }
+
+    @Override
+    public void acceptVisitor(QueryNodeVisitor visitor) {
+        visitor.visit(this);
+    }
+
+    @Override
+    public TransitiveClosureNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer)
+            throws QueryNodeTransformationException {
+        return transformer.transform(this);
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocalVariables() {
+        return ImmutableSet.of(sourceVariable, targetVariable);
+    }
+
+    @Override
+    public boolean isVariableNullable(IntermediateQuery query, Variable variable) {
+        return query.getFirstChild(this)
+                .map(c -> c.isVariableNullable(query, variable))
+                .orElseThrow(() -> new InvalidIntermediateQueryException("A transitive closure node must have a child"));
+    }
+
+    @Override
+    public boolean isSyntacticallyEquivalentTo(QueryNode node) {
+        return (node instanceof TransitiveClosureNode)
+                && ((TransitiveClosureNode) node).getSourceVariable().equals(sourceVariable)
+                && ((TransitiveClosureNode) node).getTargetVariable().equals(targetVariable)
+                && ((TransitiveClosureNode) node).getSourceSeed().equals(sourceSeed)
+                && ((TransitiveClosureNode) node).getTargetSeed().equals(targetSeed);
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocallyRequiredVariables() {
+        return getLocalVariables();
+    }
+
+    @Override
+    public ImmutableSet<Variable> getRequiredVariables(IntermediateQuery query) {
+        return getLocallyRequiredVariables();
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocallyDefinedVariables() {
+        return ImmutableSet.of();
+    }
+
+    @Override
+    public boolean isEquivalentTo(QueryNode queryNode) {
+        return isSyntacticallyEquivalentTo(queryNode);
+    }
+
+    @Override
+    public String toString() {
+        return TRANSITIVE_CLOSURE_NODE_STR + " " + sourceVariable + " -> " + targetVariable
+                + sourceSeed.map(s -> " FROM " + s).orElse("")
+                + targetSeed.map(s -> " TO " + s).orElse("");
+    }
+
+    @Override
+    public TransitiveClosureNode clone() {
+        return iqFactory.createTransitiveClosureNode(sourceVariable, targetVariable, sourceSeed, targetSeed);
+    }
+}
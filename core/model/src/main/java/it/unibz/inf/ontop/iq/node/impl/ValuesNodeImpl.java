@@ -0,0 +1,344 @@
+package it.unibz.inf.ontop.iq.node.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.exception.InvalidIntermediateQueryException;
+import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
+import it.unibz.inf.ontop.iq.impl.IQTreeTools;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.transform.IQTreeVisitingTransformer;
+import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.iq.visit.IQVisitor;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.CoreUtilsFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+
+public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
+
+    private static final String PREFIX = "VALUES ";
+    private final ImmutableList<Variable> orderedVariables;
+    private final ImmutableSet<Variable> projectedVariables;
+    private final ImmutableList<ImmutableList<Constant>> values;
+    private final CoreUtilsFactory coreUtilsFactory;
+    private final SubstitutionFactory substitutionFactory;
+    private final TermFactory termFactory;
+
+    // LAZY
+    @Nullable
+    private VariableNullability variableNullability;
+    @Nullable
+    private Boolean isDistinct;
+
+    @AssistedInject
+    private ValuesNodeImpl(@Assisted("orderedVariables") ImmutableList<Variable> orderedVariables,
+                           @Assisted("values") ImmutableList<ImmutableList<Constant>> values,
+                           IQTreeTools iqTreeTools, IntermediateQueryFactory iqFactory,
+                           CoreUtilsFactory coreUtilsFactory, SubstitutionFactory substitutionFactory,
+                           TermFactory termFactory) {
+        super(iqTreeTools, iqFactory);
+        this.orderedVariables = orderedVariables;
+        this.projectedVariables = ImmutableSet.copyOf(orderedVariables);
+        this.values = values;
+        this.coreUtilsFactory = coreUtilsFactory;
+        this.substitutionFactory = substitutionFactory;
+        this.termFactory = termFactory;
+    }
+
+    @Override
+    public ImmutableList<Variable> getOrderedVariables() {
+        return orderedVariables;
+    }
+
+    @Override
+    public ImmutableList<ImmutableList<Constant>> getValues() {
+        return values;
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocalVariables() {
+        return projectedVariables;
+    }
+
+    @Override
+    public ImmutableSet<Variable> getVariables() {
+        return projectedVariables;
+    }
+
+    @Override
+    public ImmutableSet<Variable> getKnownVariables() {
+        return projectedVariables;
+    }
+
+    @Override
+    public void acceptVisitor(QueryNodeVisitor visitor) {
+        visitor.visit(this);
+    }
+
+    @Override
+    public ValuesNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer)
+            throws QueryNodeTransformationException {
+        return transformer.transform(this);
+    }
+
+    @Override
+    public IQTree acceptTransformer(IQTreeVisitingTransformer transformer) {
+        return transformer.transformValues(this);
+    }
+
+    @Override
+    public <T> T acceptVisitor(IQVisitor<T> visitor) {
+        return visitor.visitValues(this);
+    }
+
+    /**
+     * No row: empty.
+     * One row: construction node over a true node (the constants can then be lifted).
+     * Several rows: the columns having the same non-null constant in every row are lifted.
+     */
+    @Override
+    public IQTree normalizeForOptimization(VariableGenerator variableGenerator) {
+        if (values.isEmpty())
+            return iqFactory.createEmptyNode(projectedVariables);
+
+        if (values.size() == 1) {
+            if (orderedVariables.isEmpty())
+                return iqFactory.createTrueNode();
+            return iqFactory.createUnaryIQTree(
+                    iqFactory.createConstructionNode(projectedVariables, extractSubstitution(values.get(0))),
+                    iqFactory.createTrueNode());
+        }
+
+        ImmutableList<Integer> constantColumns = IntStream.range(0, orderedVariables.size())
+                .filter(this::isConstantColumn)
+                .boxed()
+                .collect(ImmutableCollectors.toList());
+
+        if (constantColumns.isEmpty() || constantColumns.size() == orderedVariables.size())
+            return this;
+
+        ImmutableSubstitution<ImmutableTerm> substitution = substitutionFactory.getSubstitution(
+                constantColumns.stream()
+                        .collect(ImmutableCollectors.toMap(
+                                orderedVariables::get,
+                                i -> (ImmutableTerm) values.get(0).get(i))));
+
+        ValuesNode newValuesNode = projectAwayColumns(ImmutableSet.copyOf(constantColumns));
+
+        return iqFactory.createUnaryIQTree(
+                iqFactory.createConstructionNode(projectedVariables, substitution),
+                newValuesNode);
+    }
+
+    private boolean isConstantColumn(int index) {
+        Constant firstValue = values.get(0).get(index);
+        return (!firstValue.isNull())
+                && values.stream().allMatch(r -> r.get(index).equals(firstValue));
+    }
+
+    private ImmutableSubstitution<ImmutableTerm> extractSubstitution(ImmutableList<Constant> row) {
+        return substitutionFactory.getSubstitution(IntStream.range(0, orderedVariables.size())
+                .boxed()
+                .collect(ImmutableCollectors.toMap(
+                        orderedVariables::get,
+                        i -> (ImmutableTerm) row.get(i))));
+    }
+
+    private ValuesNode projectAwayColumns(ImmutableSet<Integer> removedColumns) {
+        ImmutableList<Integer> keptColumns = IntStream.range(0, orderedVariables.size())
+                .filter(i -> !removedColumns.contains(i))
+                .boxed()
+                .collect(ImmutableCollectors.toList());
+
+        return iqFactory.createValuesNode(
+                keptColumns.stream()
+                        .map(orderedVariables::get)
+                        .collect(ImmutableCollectors.toList()),
+                values.stream()
+                        .map(r -> keptColumns.stream()
+                                .map(r::get)
+                                .collect(ImmutableCollectors.toList()))
+                        .collect(ImmutableCollectors.toList()));
+    }
+
+    /**
+     * Variables replaced by constants or by other variables of the node filter the rows.
+     *
+     * Ground functional terms cannot be compared to the constants at this stage: they give a filter
+     * on top of the node.
+     */
+    @Override
+    public IQTree applyDescendingSubstitutionWithoutOptimizing(
+            ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution) {
+
+        ImmutableMap<Variable, GroundFunctionalTerm> functionalFragment = descendingSubstitution.getImmutableMap()
+                .entrySet().stream()
+                .filter(e -> e.getValue() instanceof GroundFunctionalTerm)
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getKey,
+                        e -> (GroundFunctionalTerm) e.getValue()));
+
+        ImmutableList<VariableOrGroundTerm> targets = orderedVariables.stream()
+                .map(v -> functionalFragment.containsKey(v)
+                        ? v
+                        : (VariableOrGroundTerm) descendingSubstitution.applyToVariable(v))
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableList<Variable> newOrderedVariables = targets.stream()
+                .filter(t -> t instanceof Variable)
+                .map(t -> (Variable) t)
+                .distinct()
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableList<Integer> firstOccurrences = newOrderedVariables.stream()
+                .map(targets::indexOf)
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableList<ImmutableList<Constant>> newValues = values.stream()
+                .filter(r -> isCompatible(r, targets))
+                .map(r -> firstOccurrences.stream()
+                        .map(r::get)
+                        .collect(ImmutableCollectors.toList()))
+                .collect(ImmutableCollectors.toList());
+
+        ValuesNode newValuesNode = iqFactory.createValuesNode(newOrderedVariables, newValues);
+        if (functionalFragment.isEmpty())
+            return newValuesNode;
+
+        ImmutableExpression condition = termFactory.getConjunction(functionalFragment.entrySet().stream()
+                .map(e -> termFactory.getStrictEquality(e.getKey(), e.getValue())))
+                .get();
+
+        ImmutableSet<Variable> newProjectedVariables = newValuesNode.getVariables().stream()
+                .filter(v -> !functionalFragment.containsKey(v))
+                .collect(ImmutableCollectors.toSet());
+
+        return iqFactory.createUnaryIQTree(
+                iqFactory.createConstructionNode(newProjectedVariables),
+                iqFactory.createUnaryIQTree(iqFactory.createFilterNode(condition), newValuesNode));
+    }
+
+    /**
+     * NULLs are never compatible
+     */
+    private static boolean isCompatible(ImmutableList<Constant> row, ImmutableList<VariableOrGroundTerm> targets) {
+        for (int i = 0; i < targets.size(); i++) {
+            VariableOrGroundTerm target = targets.get(i);
+            Constant value = row.get(i);
+            if (target instanceof Constant) {
+                if (value.isNull() || !value.equals(target))
+                    return false;
+            }
+            else {
+                int firstIndex = targets.indexOf(target);
+                if ((firstIndex < i) && (value.isNull() || !value.equals(row.get(firstIndex))))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isSyntacticallyEquivalentTo(QueryNode node) {
+        return isEquivalentTo(node);
+    }
+
+    @Override
+    public boolean isEquivalentTo(QueryNode queryNode) {
+        if (!(queryNode instanceof ValuesNode))
+            return false;
+        ValuesNode other = (ValuesNode) queryNode;
+        return orderedVariables.equals(other.getOrderedVariables())
+                && values.equals(other.getValues());
+    }
+
+    @Override
+    public boolean isVariableNullable(IntermediateQuery query, Variable variable) {
+        return getVariableNullability().isPossiblyNullable(variable);
+    }
+
+    @Override
+    public ValuesNode clone() {
+        return iqFactory.createValuesNode(orderedVariables, values);
+    }
+
+    @Override
+    public String toString() {
+        return PREFIX + orderedVariables + " " + values;
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocallyRequiredVariables() {
+        return ImmutableSet.of();
+    }
+
+    @Override
+    public ImmutableSet<Variable> getRequiredVariables(IntermediateQuery query) {
+        return getLocallyRequiredVariables();
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocallyDefinedVariables() {
+        return projectedVariables;
+    }
+
+    @Override
+    public boolean isDistinct() {
+        if (isDistinct == null)
+            isDistinct = ImmutableSet.copyOf(values).size() == values.size();
+        return isDistinct;
+    }
+
+    @Override
+    public boolean isDeclaredAsEmpty() {
+        return false;
+    }
+
+    @Override
+    public synchronized VariableNullability getVariableNullability() {
+        if (variableNullability == null) {
+            ImmutableSet<ImmutableSet<Variable>> nullableGroups = IntStream.range(0, orderedVariables.size())
+                    .filter(i -> values.stream().anyMatch(r -> r.get(i).isNull()))
+                    .mapToObj(orderedVariables::get)
+                    .map(ImmutableSet::of)
+                    .collect(ImmutableCollectors.toSet());
+
+            variableNullability = coreUtilsFactory.createVariableNullability(nullableGroups, projectedVariables);
+        }
+        return variableNullability;
+    }
+
+    @Override
+    public void validate() throws InvalidIntermediateQueryException {
+        if (projectedVariables.size() != orderedVariables.size())
+            throw new InvalidIntermediateQueryException("Duplicated variables in " + orderedVariables);
+
+        Optional<ImmutableList<Constant>> invalidRow = values.stream()
+                .filter(r -> r.size() != orderedVariables.size())
+                .findAny();
+        if (invalidRow.isPresent())
+            throw new InvalidIntermediateQueryException("The row " + invalidRow.get()
+                    + " does not match the variables " + orderedVariables);
+    }
+
+    @Override
+    public ImmutableSet<ImmutableSet<Variable>> inferUniqueConstraints() {
+        return (isDistinct() && !projectedVariables.isEmpty())
+                ? ImmutableSet.of(projectedVariables)
+                : ImmutableSet.of();
+    }
+}
@@ -17,12 +17,14 @@ public interface IQTreeVisitingTransformer extends IQTreeTransformer {
     IQTree transformExtensionalData(ExtensionalDataNode rootNode);
     IQTree transformEmpty(EmptyNode rootNode);
     IQTree transformTrue(TrueNode rootNode);
+    IQTree transformValues(ValuesNode rootNode);
     IQTree transformNonStandardLeafNode(LeafIQTree rootNode);
 
     IQTree transformConstruction(IQTree tree, ConstructionNode rootNode, IQTree child);
     IQTree transformAggregation(IQTree tree, AggregationNode aggregationNode, IQTree child);
     IQTree transformFilter(IQTree tree, FilterNode rootNode, IQTree child);
     IQTree transformDistinct(IQTree tree, DistinctNode rootNode, IQTree child);
+    IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child);
     IQTree transformSlice(IQTree tree, SliceNode rootNode, IQTree child);
     IQTree transformOrderBy(IQTree tree, OrderByNode rootNode, IQTree child);
     IQTree transformNonStandardUnaryNode(IQTree tree, UnaryOperatorNode rootNode, IQTree child);
@@ -31,6 +31,11 @@ public class DefaultIdentityIQTreeVisitingTransformer implements IQTreeVisitingT
         return node;
     }
 
+    @Override
+    public IQTree transformValues(ValuesNode node) {
+        return node;
+    }
+
     @Override
     public IQTree transformNonStandardLeafNode(LeafIQTree leafNode) {
         return leafNode;
@@ -56,6 +61,11 @@ public class DefaultIdentityIQTreeVisitingTransformer implements IQTreeVisitingT
         return tree;
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child) {
+        return tree;
+    }
+
     @Override
     public IQTree transformSlice(IQTree tree, SliceNode rootNode, IQTree child) {
         return tree;
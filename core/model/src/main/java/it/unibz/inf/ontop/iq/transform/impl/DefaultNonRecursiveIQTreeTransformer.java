@@ -31,6 +31,11 @@ public abstract class DefaultNonRecursiveIQTreeTransformer implements IQTreeVisi
         return transformLeaf(node);
     }
 
+    @Override
+    public IQTree transformValues(ValuesNode node) {
+        return transformLeaf(node);
+    }
+
     @Override
     public IQTree transformNonStandardLeafNode(LeafIQTree leafNode) {
         return transformLeaf(leafNode);
@@ -56,6 +61,11 @@ public abstract class DefaultNonRecursiveIQTreeTransformer implements IQTreeVisi
         return transformUnaryNode(tree, rootNode, child);
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child) {
+        return transformUnaryNode(tree, rootNode, child);
+    }
+
     @Override
     public IQTree transformSlice(IQTree tree, SliceNode sliceNode, IQTree child) {
         return transformUnaryNode(tree, sliceNode, child);
@@ -44,6 +44,11 @@ public abstract class DefaultRecursiveIQTreeVisitingTransformer implements IQTre
         return transformLeaf(node);
     }
 
+    @Override
+    public IQTree transformValues(ValuesNode node) {
+        return transformLeaf(node);
+    }
+
     @Override
     public IQTree transformNonStandardLeafNode(LeafIQTree leafNode) {
         return transformLeaf(leafNode);
@@ -69,6 +74,11 @@ public abstract class DefaultRecursiveIQTreeVisitingTransformer implements IQTre
         return transformUnaryNode(rootNode, child);
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child) {
+        return transformUnaryNode(rootNode, child);
+    }
+
     @Override
     public IQTree transformSlice(IQTree tree, SliceNode sliceNode, IQTree child) {
         return transformUnaryNode(sliceNode, child);
@@ -40,6 +40,11 @@ public class HomogeneousIQTreeVisitingTransformer extends DefaultRecursiveIQTree
         return node.acceptNodeTransformer(nodeTransformer);
     }
 
+    @Override
+    public IQTree transformValues(ValuesNode node) {
+        return node.acceptNodeTransformer(nodeTransformer);
+    }
+
     @Override
     public IQTree transformNonStandardLeafNode(LeafIQTree leafNode) {
         return leafNode.acceptNodeTransformer(nodeTransformer);
@@ -65,6 +70,11 @@ public class HomogeneousIQTreeVisitingTransformer extends DefaultRecursiveIQTree
         return transformUnaryNode(rootNode.acceptNodeTransformer(nodeTransformer), child);
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child) {
+        return transformUnaryNode(rootNode.acceptNodeTransformer(nodeTransformer), child);
+    }
+
     @Override
     public IQTree transformSlice(IQTree tree, SliceNode sliceNode, IQTree child) {
         return transformUnaryNode(sliceNode.acceptNodeTransformer(nodeTransformer), child);
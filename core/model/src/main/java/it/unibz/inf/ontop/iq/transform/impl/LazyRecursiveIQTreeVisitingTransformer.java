@@ -33,6 +33,11 @@ public abstract class LazyRecursiveIQTreeVisitingTransformer implements IQTreeVi
         return node;
     }
 
+    @Override
+    public IQTree transformValues(ValuesNode node) {
+        return node;
+    }
+
     @Override
     public IQTree transformNonStandardLeafNode(LeafIQTree leafNode) {
         return leafNode;
@@ -52,6 +57,9 @@ public abstract class LazyRecursiveIQTreeVisitingTransformer implements IQTreeVi
     @Override
     public IQTree transformDistinct(IQTree tree, DistinctNode rootNode, IQTree child) { return transformUnaryNode(tree, rootNode, child); }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child) { return transformUnaryNode(tree, rootNode, child); }
+
     @Override
     public IQTree transformSlice(IQTree tree, SliceNode sliceNode, IQTree child) { return transformUnaryNode(tree, sliceNode, child); }
 
@@ -53,11 +53,19 @@ public class IdentityQueryNodeTransformer implements HomogeneousQueryNodeTransfo
     @Override
     public TrueNode transform(TrueNode trueNode) { return trueNode; }
 
+    @Override
+    public ValuesNode transform(ValuesNode valuesNode) { return valuesNode; }
+
     @Override
     public DistinctNode transform(DistinctNode distinctNode) {
         return distinctNode;
     }
 
+    @Override
+    public TransitiveClosureNode transform(TransitiveClosureNode transitiveClosureNode) {
+        return transitiveClosureNode;
+    }
+
     @Override
     public SliceNode transform(SliceNode sliceNode) {
         return sliceNode;
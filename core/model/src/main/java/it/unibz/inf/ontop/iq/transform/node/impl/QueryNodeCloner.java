@@ -55,11 +55,21 @@ public class QueryNodeCloner implements HomogeneousQueryNodeTransformer {
         return trueNode.clone();
     }
 
+    @Override
+    public ValuesNode transform(ValuesNode valuesNode) {
+        return valuesNode.clone();
+    }
+
     @Override
     public DistinctNode transform(DistinctNode distinctNode) {
         return distinctNode.clone();
     }
 
+    @Override
+    public TransitiveClosureNode transform(TransitiveClosureNode transitiveClosureNode) {
+        return transitiveClosureNode.clone();
+    }
+
     @Override
     public SliceNode transform(SliceNode sliceNode) {
         return sliceNode.clone();
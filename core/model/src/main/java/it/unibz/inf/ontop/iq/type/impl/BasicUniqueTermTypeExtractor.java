@@ -94,6 +94,26 @@ public class BasicUniqueTermTypeExtractor implements UniqueTermTypeExtractor {
             return Optional.empty();
         }
 
+        /**
+         * Only if all the non-null values of the variable have the same type
+         */
+        @Override
+        public Optional<TermType> visitValues(ValuesNode node) {
+            int index = node.getOrderedVariables().indexOf(variable);
+            if (index < 0)
+                return Optional.empty();
+
+            ImmutableSet<TermType> types = node.getValues().stream()
+                    .map(r -> r.get(index).getOptionalType())
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(ImmutableCollectors.toSet());
+
+            return types.size() == 1
+                    ? Optional.of(types.iterator().next())
+                    : Optional.empty();
+        }
+
         @Override
         public Optional<TermType> visitNative(NativeNode nativeNode) {
             return Optional.ofNullable(nativeNode.getTypeMap().get(variable));
@@ -128,6 +148,11 @@ public class BasicUniqueTermTypeExtractor implements UniqueTermTypeExtractor {
             return child.acceptVisitor(this);
         }
 
+        @Override
+        public Optional<TermType> visitTransitiveClosure(TransitiveClosureNode rootNode, IQTree child) {
+            return child.acceptVisitor(this);
+        }
+
         @Override
         public Optional<TermType> visitSlice(SliceNode sliceNode, IQTree child) {
             return child.acceptVisitor(this);
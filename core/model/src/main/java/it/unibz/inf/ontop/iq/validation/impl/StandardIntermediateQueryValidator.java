@@ -153,6 +153,15 @@ public class StandardIntermediateQueryValidator implements IntermediateQueryVali
             }
         }
 
+        @Override
+        public void visit(ValuesNode valuesNode) {
+            if (query.getChildren(valuesNode).size() != 0) {
+                throw new InvalidIntermediateQueryException("VALUES node " + valuesNode
+                        + " has a child.\n" + query);
+            }
+            valuesNode.validate();
+        }
+
         @Override
         public void visit(DistinctNode distinctNode) {
             if (query.getChildren(distinctNode).size() != 1) {
@@ -161,6 +170,14 @@ public class StandardIntermediateQueryValidator implements IntermediateQueryVali
             }
         }
 
+        @Override
+        public void visit(TransitiveClosureNode transitiveClosureNode) {
+            if (query.getChildren(transitiveClosureNode).size() != 1) {
+                throw new InvalidIntermediateQueryException("Transitive closure node " + transitiveClosureNode
+                        + " must have ONE and ONLY ONE child.\n" + query);
+            }
+        }
+
         @Override
         public void visit(SliceNode sliceNode) {
             if (query.getChildren(sliceNode).size() != 1) {
@@ -12,6 +12,7 @@ public interface IQVisitor<T> {
     T visitExtensionalData(ExtensionalDataNode dataNode);
     T visitEmpty(EmptyNode node);
     T visitTrue(TrueNode node);
+    T visitValues(ValuesNode node);
     T visitNative(NativeNode nativeNode);
     T visitNonStandardLeafNode(LeafIQTree leafNode);
 
@@ -19,6 +20,7 @@ public interface IQVisitor<T> {
     T visitAggregation(AggregationNode aggregationNode, IQTree child);
     T visitFilter(FilterNode rootNode, IQTree child);
     T visitDistinct(DistinctNode rootNode, IQTree child);
+    T visitTransitiveClosure(TransitiveClosureNode rootNode, IQTree child);
     T visitSlice(SliceNode sliceNode, IQTree child);
     T visitOrderBy(OrderByNode rootNode, IQTree child);
     T visitNonStandardUnaryNode(UnaryOperatorNode rootNode, IQTree child);
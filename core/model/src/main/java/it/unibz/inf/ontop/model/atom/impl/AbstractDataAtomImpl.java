@@ -25,6 +25,9 @@ public abstract class AbstractDataAtomImpl<P extends AtomPredicate>
     @Nullable
     private String string;
 
+    // Lazy (cache), 0 if not computed yet
+    private int hashCode;
+
     protected AbstractDataAtomImpl(P predicate, ImmutableList<? extends VariableOrGroundTerm> variableOrGroundTerms) {
         this.predicate = predicate;
         this.arguments = variableOrGroundTerms;
@@ -91,21 +94,31 @@ public abstract class AbstractDataAtomImpl<P extends AtomPredicate>
     }
 
     /**
-     * TODO: improve
+     * Structural
      */
     @Override
     public boolean equals(Object other) {
+        if (this == other)
+            return true;
         if (other instanceof DataAtom) {
-            return toString().equals(other.toString());
+            DataAtom otherAtom = (DataAtom) other;
+            return ((!(other instanceof AbstractDataAtomImpl)) || (hashCode() == other.hashCode()))
+                    && predicate.equals(otherAtom.getPredicate())
+                    && arguments.equals(otherAtom.getArguments());
         }
         else {
             return false;
         }
     }
 
+    /**
+     * Structural and cached (immutable)
+     */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        if (hashCode == 0)
+            hashCode = 31 * predicate.hashCode() + arguments.hashCode();
+        return hashCode;
     }
 
     /**
@@ -50,7 +50,14 @@ public abstract class AbstractR2RMLSafeIRIEncodeFunctionSymbol extends AbstractT
         // Query element: percent-encoding except if in iunreserved
         // TODO: this implementation seems to ignore the ucschar range. Check if it is a problem
         // TODO: redundant with R2RMLIRISafeEncoder. Which one shall we choose?
-        return termFactory.getDBStringConstant(iriEncoder.encodeQueryElement(constant.getValue()));
+        return termFactory.getDBStringConstant(encode(constant.getValue()));
+    }
+
+    /**
+     * Same encoding as the simplification of the functional term applied to a constant
+     */
+    public String encode(String value) {
+        return iriEncoder.encodeQueryElement(value);
     }
 
     @Override
@@ -45,11 +45,13 @@ public class DBConstantImpl extends AbstractNonNullConstant implements DBConstan
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return 31 * value.hashCode() + termType.hashCode();
     }
 
     @Override
     public boolean equals(Object other) {
+        if (this == other)
+            return true;
         if (other instanceof DBConstant) {
             DBConstant otherConstant = (DBConstant) other;
             return otherConstant.getType().equals(termType)
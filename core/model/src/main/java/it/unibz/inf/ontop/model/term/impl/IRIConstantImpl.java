@@ -50,7 +50,7 @@ public class IRIConstantImpl extends AbstractNonNullConstant implements IRIConst
 			return false;
 		}
 		IRIConstantImpl uri2 = (IRIConstantImpl) obj;
-		return this.identifier == uri2.identifier;
+		return this.identifier == uri2.identifier && this.iri.equals(uri2.iri);
 	}
 
 	@Override
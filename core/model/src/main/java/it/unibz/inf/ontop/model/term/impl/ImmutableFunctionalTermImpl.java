@@ -28,6 +28,11 @@ public abstract class ImmutableFunctionalTermImpl implements ImmutableFunctional
      */
     private String string;
 
+    /**
+     * Lazy cache for hashCode() (0 if not computed yet)
+     */
+    private int hashCode;
+
     protected ImmutableFunctionalTermImpl(FunctionSymbol functor, TermFactory termFactory, ImmutableTerm... terms) {
         this(functor, ImmutableList.copyOf(terms), termFactory);
     }
@@ -105,22 +110,31 @@ public abstract class ImmutableFunctionalTermImpl implements ImmutableFunctional
     }
 
     /**
-     * A bit hacky: only for the functional term
-     * that derives from ImmutableFunctionalTermImpl
+     * Structural (no rendering of the terms)
      */
     @Override
     public boolean equals(Object other) {
+        if (this == other)
+            return true;
         if (other instanceof ImmutableFunctionalTerm) {
-            return toString().equals(other.toString());
+            ImmutableFunctionalTerm otherTerm = (ImmutableFunctionalTerm) other;
+            return ((!(other instanceof ImmutableFunctionalTermImpl)) || (hashCode() == other.hashCode()))
+                    && functionSymbol.equals(otherTerm.getFunctionSymbol())
+                    && terms.equals(otherTerm.getTerms());
         }
         else {
             return false;
         }
     }
 
+    /**
+     * Structural and cached (immutable)
+     */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        if (hashCode == 0)
+            hashCode = 31 * functionSymbol.hashCode() + terms.hashCode();
+        return hashCode;
     }
 
     @Override
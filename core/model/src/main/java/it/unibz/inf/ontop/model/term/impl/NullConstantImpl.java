@@ -52,6 +52,17 @@ public class NullConstantImpl extends AbstractNonFunctionalTerm implements Const
         return nullLexicalValue;
     }
 
+    @Override
+    public boolean equals(Object other) {
+        return (other instanceof NullConstantImpl)
+                && nullLexicalValue.equals(((NullConstantImpl) other).nullLexicalValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return nullLexicalValue.hashCode();
+    }
+
     @Override
     public IncrementalEvaluation evaluateStrictEq(ImmutableTerm otherTerm, VariableNullability variableNullability) {
         return IncrementalEvaluation.declareIsNull();
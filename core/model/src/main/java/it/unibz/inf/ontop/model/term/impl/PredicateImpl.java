@@ -56,7 +56,8 @@ public class PredicateImpl implements Predicate {
 			return false;
 		}
 		PredicateImpl pred2 = (PredicateImpl) obj;
-		return this.identifier == pred2.identifier;
+		// The identifier is only a hash: the names are compared in case of collision
+		return this.identifier == pred2.identifier && this.name.equals(pred2.name);
 	}
 
 	@Override
@@ -63,12 +63,14 @@ public class RDFLiteralConstantImpl extends AbstractNonNullConstant implements R
 			return false;
 		}
 		RDFLiteralConstantImpl value2 = (RDFLiteralConstantImpl) obj;
-		return this.hashCode() == value2.hashCode();
+		// The datatype matters: "5"^^xsd:integer is not "5"^^xsd:string
+		return this.value.equals(value2.value)
+				&& this.termType.equals(value2.termType);
 	}
 
 	@Override
-	public int hashCode() {		
-		return string.hashCode();
+	public int hashCode() {
+		return 31 * value.hashCode() + termType.hashCode();
 	}
 
 	@Override
@@ -44,6 +44,7 @@ import org.apache.commons.rdf.api.RDF;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 @Singleton
@@ -64,6 +65,11 @@ public class TermFactoryImpl implements TermFactory {
 	private final RDFTermTypeConstant iriTypeConstant, bnodeTypeConstant;
 	private final RDF rdfFactory;
 	private final ImmutableExpression.Evaluation positiveEvaluation, negativeEvaluation, nullEvaluation;
+	/**
+	 * Null if interning is disabled
+	 */
+	@Nullable
+	private final TermInterner termInterner;
 
 	@Inject
 	private TermFactoryImpl(TypeFactory typeFactory, FunctionSymbolFactory functionSymbolFactory,
@@ -75,6 +81,7 @@ public class TermFactoryImpl implements TermFactory {
 		this.dbFunctionSymbolFactory = dbFunctionSymbolFactory;
 		this.coreUtilsFactory = coreUtilsFactory;
 		this.rdfFactory = rdfFactory;
+		this.termInterner = settings.isTermInterningEnabled() ? new TermInterner() : null;
 
 		DBTypeFactory dbTypeFactory = typeFactory.getDBTypeFactory();
 
@@ -89,7 +96,8 @@ public class TermFactoryImpl implements TermFactory {
 				.orElse(null);
 		this.provenanceConstant = new DBConstantImpl("ontop-provenance-constant", dbTypeFactory.getDBStringType());
 		this.immutabilityTools = new ImmutabilityTools(this);
-		this.termTypeConstantMap = new HashMap<>();
+		// Shared by the concurrent queries
+		this.termTypeConstantMap = new ConcurrentHashMap<>();
 		this.isTestModeEnabled = settings.isTestModeEnabled();
 		this.iriTypeConstant = getRDFTermTypeConstant(typeFactory.getIRITermType());
 		this.bnodeTypeConstant = getRDFTermTypeConstant(typeFactory.getBlankNodeType());
@@ -101,14 +109,23 @@ public class TermFactoryImpl implements TermFactory {
 				ImmutableExpression.Evaluation.BooleanValue.NULL, valueNull);
 	}
 
+	/**
+	 * When interning is enabled, returns the canonical instance among the structurally equal terms
+	 */
+	private <T extends ImmutableTerm> T intern(T term) {
+		return termInterner == null
+				? term
+				: termInterner.intern(term);
+	}
+
 	@Override
 	public IRIConstant getConstantIRI(IRI iri) {
-		return new IRIConstantImpl(iri, typeFactory);
+		return intern(new IRIConstantImpl(iri, typeFactory));
 	}
 
 	@Override
 	public RDFLiteralConstant getRDFLiteralConstant(String value, RDFDatatype type) {
-		return new RDFLiteralConstantImpl(value, type);
+		return intern(new RDFLiteralConstantImpl(value, type));
 	}
 
 	@Override
@@ -128,7 +145,7 @@ public class TermFactoryImpl implements TermFactory {
 
 	@Override
 	public RDFLiteralConstant getRDFLiteralConstant(String value, String language) {
-		return new RDFLiteralConstantImpl(value, language.toLowerCase(), typeFactory);
+		return intern(new RDFLiteralConstantImpl(value, language.toLowerCase(), typeFactory));
 	}
 
 	@Override
@@ -161,7 +178,7 @@ public class TermFactoryImpl implements TermFactory {
 
 	@Override
 	public DBConstant getDBConstant(String value, DBTermType termType) {
-		return new DBConstantImpl(value, termType);
+		return intern(new DBConstantImpl(value, termType));
 	}
 
 	@Override
@@ -176,7 +193,7 @@ public class TermFactoryImpl implements TermFactory {
 
 	@Override
 	public Variable getVariable(String name) {
-		return new VariableImpl(name);
+		return intern(new VariableImpl(name));
 	}
 
 	@Override
@@ -218,21 +235,21 @@ public class TermFactoryImpl implements TermFactory {
 	public ImmutableExpression getImmutableExpression(BooleanFunctionSymbol functor,
 													  ImmutableList<? extends ImmutableTerm> arguments) {
 		if (GroundTermTools.areGroundTerms(arguments)) {
-			return new GroundExpressionImpl(functor, (ImmutableList<GroundTerm>)arguments, this);
+			return intern(new GroundExpressionImpl(functor, (ImmutableList<GroundTerm>)arguments, this));
 		}
 		else {
-			return new NonGroundExpressionImpl(functor, arguments, this);
+			return intern(new NonGroundExpressionImpl(functor, arguments, this));
 		}
 	}
 
 	@Override
 	public ImmutableExpression getImmutableExpression(Expression expression) {
 		if (GroundTermTools.isGroundTerm(expression)) {
-			return new GroundExpressionImpl(expression.getFunctionSymbol(),
-					(ImmutableList<? extends GroundTerm>)(ImmutableList<?>)convertTerms(expression), this);
+			return intern(new GroundExpressionImpl(expression.getFunctionSymbol(),
+					(ImmutableList<? extends GroundTerm>)(ImmutableList<?>)convertTerms(expression), this));
 		}
 		else {
-			return new NonGroundExpressionImpl(expression.getFunctionSymbol(), convertTerms(expression), this);
+			return intern(new NonGroundExpressionImpl(expression.getFunctionSymbol(), convertTerms(expression), this));
 		}
 	}
 
@@ -395,11 +412,11 @@ public class TermFactoryImpl implements TermFactory {
 		}
 
 		if (GroundTermTools.areGroundTerms(terms)) {
-			return new GroundFunctionalTermImpl((ImmutableList<? extends GroundTerm>)terms, functor, this);
+			return intern(new GroundFunctionalTermImpl((ImmutableList<? extends GroundTerm>)terms, functor, this));
 		}
 		else {
 			// Default constructor
-			return new NonGroundFunctionalTermImpl(functor, terms, this);
+			return intern(new NonGroundFunctionalTermImpl(functor, terms, this));
 		}
 	}
 
@@ -410,12 +427,12 @@ public class TermFactoryImpl implements TermFactory {
 
 	@Override
 	public NonGroundFunctionalTerm getNonGroundFunctionalTerm(FunctionSymbol functor, ImmutableTerm... terms) {
-		return new NonGroundFunctionalTermImpl(this, functor, terms);
+		return intern(new NonGroundFunctionalTermImpl(this, functor, terms));
 	}
 
 	@Override
 	public NonGroundFunctionalTerm getNonGroundFunctionalTerm(FunctionSymbol functor, ImmutableList<ImmutableTerm> terms) {
-		return new NonGroundFunctionalTermImpl(functor, terms, this);
+		return intern(new NonGroundFunctionalTermImpl(functor, terms, this));
 	}
 
 	@Override
@@ -730,7 +747,7 @@ public class TermFactoryImpl implements TermFactory {
 	
 	@Override
 	public BNode getConstantBNode(String name) {
-		return new BNodeConstantImpl(name, typeFactory);
+		return intern(new BNodeConstantImpl(name, typeFactory));
 	}
 
 	@Override
@@ -0,0 +1,29 @@
+package it.unibz.inf.ontop.model.term.impl;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+
+/**
+ * Hash-consing of immutable terms: returns a canonical instance among the structurally equal terms.
+ *
+ * Weak (canonical instances not referenced anymore can be garbage-collected) and thread-safe.
+ *
+ * A canonical instance is only returned if it is of the same class as the given term
+ * (e.g. a ground and a non-ground functional term are never interchanged).
+ */
+class TermInterner {
+
+    private final Interner<ImmutableTerm> interner;
+
+    TermInterner() {
+        this.interner = Interners.newWeakInterner();
+    }
+
+    <T extends ImmutableTerm> T intern(T term) {
+        ImmutableTerm canonicalTerm = interner.intern(term);
+        return canonicalTerm.getClass().equals(term.getClass())
+                ? (T) canonicalTerm
+                : term;
+    }
+}
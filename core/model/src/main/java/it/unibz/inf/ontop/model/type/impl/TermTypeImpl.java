@@ -2,7 +2,6 @@ package it.unibz.inf.ontop.model.type.impl;
 import it.unibz.inf.ontop.model.type.TermType;
 import it.unibz.inf.ontop.model.type.TermTypeAncestry;
 
-import java.util.Optional;
 
 public class TermTypeImpl implements TermType {
 
@@ -10,6 +9,11 @@ public class TermTypeImpl implements TermType {
     private final boolean isAbstract;
     private final String name;
 
+    /**
+     * Lazy cache for hashCode() (0 if not computed yet)
+     */
+    private int hashCode;
+
     protected TermTypeImpl(String name, TermTypeAncestry parentAncestry, boolean isAbstract) {
         this.name = name;
         this.isAbstract = isAbstract;
@@ -69,11 +73,11 @@ public class TermTypeImpl implements TermType {
      */
     @Override
     public boolean equals(Object other) {
-        return Optional.ofNullable(other)
-                .filter(o -> (o instanceof TermType))
-                .map(o -> (TermType) o)
-                .filter(o -> o.toString().equals(toString()))
-                .isPresent();
+        if (this == other)
+            return true;
+        return (other instanceof TermType)
+                && ((!(other instanceof TermTypeImpl)) || (hashCode() == other.hashCode()))
+                && other.toString().equals(toString());
     }
 
     @Override
@@ -81,8 +85,13 @@ public class TermTypeImpl implements TermType {
         return name;
     }
 
+    /**
+     * Cached: toString() may not be cheap (e.g. for language tags)
+     */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        if (hashCode == 0)
+            hashCode = toString().hashCode();
+        return hashCode;
     }
 }
@@ -0,0 +1,90 @@
+package it.unibz.inf.ontop.model.term;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import org.junit.Test;
+
+import static it.unibz.inf.ontop.OntopModelTestingTools.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Equality and hashCode of terms, atoms and IQs must not depend on their string rendering.
+ */
+public class StructuralEqualityTest {
+
+    private static final Variable X = TERM_FACTORY.getVariable("x");
+    private static final Variable Y = TERM_FACTORY.getVariable("y");
+    private static final AtomPredicate ANS1 = ATOM_FACTORY.getRDFAnswerPredicate(1);
+    private static final AtomPredicate ANS2 = ATOM_FACTORY.getRDFAnswerPredicate(2);
+
+    @Test
+    public void testFunctionalTerms() {
+        ImmutableFunctionalTerm term1 = TERM_FACTORY.getIRIFunctionalTerm(X, true);
+        ImmutableFunctionalTerm term2 = TERM_FACTORY.getIRIFunctionalTerm(X, true);
+        ImmutableFunctionalTerm term3 = TERM_FACTORY.getIRIFunctionalTerm(Y, true);
+
+        assertEquals(term1, term2);
+        assertEquals(term1.hashCode(), term2.hashCode());
+        assertNotEquals(term1, term3);
+
+        ImmutableExpression expression1 = TERM_FACTORY.getStrictEquality(term1, term3);
+        ImmutableExpression expression2 = TERM_FACTORY.getStrictEquality(term2, term3);
+        assertEquals(expression1, expression2);
+        assertEquals(expression1.hashCode(), expression2.hashCode());
+        assertNotEquals(expression1, TERM_FACTORY.getStrictEquality(term3, term1));
+    }
+
+    @Test
+    public void testDBConstants() {
+        DBTermType stringType = TYPE_FACTORY.getDBTypeFactory().getDBStringType();
+        DBConstant constant1 = TERM_FACTORY.getDBConstant("a", stringType);
+        DBConstant constant2 = TERM_FACTORY.getDBConstant("a", stringType);
+
+        assertEquals(constant1, constant2);
+        assertEquals(constant1.hashCode(), constant2.hashCode());
+        assertNotEquals(constant1, TERM_FACTORY.getDBConstant("a",
+                TYPE_FACTORY.getDBTypeFactory().getDBLargeIntegerType()));
+    }
+
+    @Test
+    public void testAtoms() {
+        DataAtom atom1 = ATOM_FACTORY.getDataAtom(ANS2, X, Y);
+        DataAtom atom2 = ATOM_FACTORY.getDataAtom(ANS2, X, Y);
+
+        assertEquals(atom1, atom2);
+        assertEquals(atom1.hashCode(), atom2.hashCode());
+        assertNotEquals(atom1, ATOM_FACTORY.getDataAtom(ANS2, Y, X));
+    }
+
+    @Test
+    public void testIQs() {
+        IQ iq1 = createIQ(X);
+        IQ iq2 = createIQ(X);
+
+        assertEquals(iq1, iq2);
+        assertEquals(iq1.hashCode(), iq2.hashCode());
+        assertEquals(iq1.getTree(), iq2.getTree());
+        assertEquals(iq1.getTree().hashCode(), iq2.getTree().hashCode());
+        assertNotEquals(iq1, createIQ(Y));
+    }
+
+    private static IQ createIQ(Variable filteredVariable) {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1,
+                ImmutableList.of(X));
+        IQTree child = IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createFilterNode(TERM_FACTORY.getDBIsNotNull(filteredVariable)),
+                IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(),
+                        ImmutableList.of(
+                                IQ_FACTORY.createIntensionalDataNode(ATOM_FACTORY.getDataAtom(ANS2, X, Y)),
+                                IQ_FACTORY.createIntensionalDataNode(ATOM_FACTORY.getDataAtom(ANS1, Y)))));
+        return IQ_FACTORY.createIQ(projectionAtom,
+                IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createConstructionNode(ImmutableSet.of(X)), child));
+    }
+}
@@ -0,0 +1,60 @@
+package it.unibz.inf.ontop.model.term;
+
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.injection.OntopModelSettings;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static it.unibz.inf.ontop.OntopModelTestingTools.TERM_FACTORY;
+import static org.junit.Assert.*;
+
+public class TermInterningTest {
+
+    private static final TermFactory INTERNING_TERM_FACTORY;
+
+    static {
+        Properties properties = new Properties();
+        properties.setProperty(OntopModelSettings.TERM_INTERNING, "true");
+        INTERNING_TERM_FACTORY = OntopModelConfiguration.defaultBuilder()
+                .properties(properties)
+                .build()
+                .getTermFactory();
+    }
+
+    @Test
+    public void testVariablesAndConstants() {
+        assertSame(INTERNING_TERM_FACTORY.getVariable("x"), INTERNING_TERM_FACTORY.getVariable("x"));
+        assertSame(INTERNING_TERM_FACTORY.getDBStringConstant("a"), INTERNING_TERM_FACTORY.getDBStringConstant("a"));
+        assertNotSame(INTERNING_TERM_FACTORY.getDBStringConstant("a"), INTERNING_TERM_FACTORY.getDBStringConstant("b"));
+    }
+
+    @Test
+    public void testFunctionalTerms() {
+        Variable x = INTERNING_TERM_FACTORY.getVariable("x");
+        ImmutableFunctionalTerm term1 = INTERNING_TERM_FACTORY.getIRIFunctionalTerm(x, true);
+        ImmutableFunctionalTerm term2 = INTERNING_TERM_FACTORY.getIRIFunctionalTerm(
+                INTERNING_TERM_FACTORY.getVariable("x"), true);
+        assertSame(term1, term2);
+
+        ImmutableExpression expression1 = INTERNING_TERM_FACTORY.getDBIsNotNull(term1);
+        ImmutableExpression expression2 = INTERNING_TERM_FACTORY.getDBIsNotNull(term2);
+        assertSame(expression1, expression2);
+    }
+
+    @Test
+    public void testLiteralsOfDifferentDatatypes() {
+        RDFLiteralConstant integerLiteral = INTERNING_TERM_FACTORY.getRDFLiteralConstant("5", XSD.INTEGER);
+        RDFLiteralConstant stringLiteral = INTERNING_TERM_FACTORY.getRDFLiteralConstant("5", XSD.STRING);
+        assertNotEquals(integerLiteral, stringLiteral);
+        assertEquals(XSD.STRING, stringLiteral.getType().getIRI());
+        assertSame(integerLiteral, INTERNING_TERM_FACTORY.getRDFLiteralConstant("5", XSD.INTEGER));
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertNotSame(TERM_FACTORY.getVariable("x"), TERM_FACTORY.getVariable("x"));
+        assertEquals(TERM_FACTORY.getVariable("x"), TERM_FACTORY.getVariable("x"));
+    }
+}
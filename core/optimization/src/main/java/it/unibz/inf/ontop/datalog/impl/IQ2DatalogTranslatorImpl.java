@@ -40,6 +40,7 @@ import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.*;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /***
@@ -469,6 +470,9 @@ public class IQ2DatalogTranslatorImpl implements IQ2DatalogTranslator {
             body.add(bodyAtom);
             return body;
 
+        } else if (node instanceof ValuesNode) {
+            return getAtomFrom(convertIntoUnionTree((ValuesNode) node), heads, subQueryProjectionAtoms, isNested);
+
         } else if (node instanceof TrueNode) {
 
             /**
@@ -494,6 +498,33 @@ public class IQ2DatalogTranslatorImpl implements IQ2DatalogTranslator {
 
     }
 
+    /**
+     * Datalog has no inline relation: one union branch per row
+     */
+    private IQTree convertIntoUnionTree(ValuesNode valuesNode) {
+        ImmutableList<Variable> orderedVariables = valuesNode.getOrderedVariables();
+
+        ImmutableList<IQTree> branches = valuesNode.getValues().stream()
+                .map(r -> substitutionFactory.getSubstitution(IntStream.range(0, orderedVariables.size())
+                        .boxed()
+                        .collect(ImmutableCollectors.toMap(
+                                orderedVariables::get,
+                                i -> (ImmutableTerm) r.get(i)))))
+                .map(s -> iqFactory.createUnaryIQTree(
+                        iqFactory.createConstructionNode(valuesNode.getVariables(), s),
+                        iqFactory.createTrueNode()))
+                .collect(ImmutableCollectors.toList());
+
+        switch (branches.size()) {
+            case 0:
+                return iqFactory.createEmptyNode(valuesNode.getVariables());
+            case 1:
+                return branches.get(0);
+            default:
+                return iqFactory.createNaryIQTree(iqFactory.createUnionNode(valuesNode.getVariables()), branches);
+        }
+    }
+
     private List<Function> getAtomsFromJoinNode(InnerJoinNode node, IQTree tree, Queue<RuleHead> heads,
                                                 Map<QueryNode, DataAtom> subQueryProjectionAtoms,
                                                 boolean isNested) {
@@ -63,6 +63,10 @@ public class OntopOptimizationModule extends OntopAbstractModule {
         bindFromSettings(UnionFlattener.class);
         bindFromSettings(PushDownBooleanExpressionOptimizer.class);
         bindFromSettings(PushUpBooleanExpressionOptimizer.class);
+        bindFromSettings(PushDownBooleanExpressionIQOptimizer.class);
+        bindFromSettings(PushUpBooleanExpressionIQOptimizer.class);
+        bindFromSettings(ProjectionShrinkingIQOptimizer.class);
+        bindFromSettings(FlattenUnionIQOptimizer.class);
         bindFromSettings(TermTypeTermLifter.class);
         bindFromSettings(OrderBySimplifier.class);
         bindFromSettings(AggregationSimplifier.class);
@@ -0,0 +1,10 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+/**
+ * IQ counterpart of FlattenUnionOptimizer.
+ *
+ * Merges the union nodes having union nodes as children.
+ * Contrary to UnionFlattener, does not lift unions above construction nodes.
+ */
+public interface FlattenUnionIQOptimizer extends IQOptimizer {
+}
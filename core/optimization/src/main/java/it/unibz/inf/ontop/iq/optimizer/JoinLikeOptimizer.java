@@ -1,7 +1,19 @@
 package it.unibz.inf.ontop.iq.optimizer;
 
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+
 /**
  *
  */
 public interface JoinLikeOptimizer extends IntermediateQueryOptimizer {
+
+    /**
+     * The self-join and left join elimination rely on the executors of the IntermediateQuery and are not ported
+     * to IQTree: when the tree contains an inner join or a left join, it is converted into an IntermediateQuery
+     * for the fixed point and back at the end, and the binding lifting between two rounds of the fixed point
+     * (IQ normalization) converts the query back and forth. Trees without join-like nodes are not converted.
+     */
+    IQ optimize(IQ query, ExecutorRegistry executorRegistry) throws EmptyQueryException;
 }
@@ -0,0 +1,9 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+/**
+ * IQ counterpart of ProjectionShrinkingOptimizer.
+ *
+ * Removes from the construction and union nodes the variables that are not used above them.
+ */
+public interface ProjectionShrinkingIQOptimizer extends IQOptimizer {
+}
@@ -0,0 +1,15 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import it.unibz.inf.ontop.iq.IQTree;
+
+/**
+ * IQ counterpart of PushDownBooleanExpressionOptimizer.
+ *
+ * Pushes the conditions of the filter and join nodes down to the children projecting all their variables.
+ * Conditions are propagated through construction nodes (after applying their substitution),
+ * to the children of unions and to the left child of left joins.
+ */
+public interface PushDownBooleanExpressionIQOptimizer extends IQOptimizer {
+
+    IQTree optimize(IQTree tree);
+}
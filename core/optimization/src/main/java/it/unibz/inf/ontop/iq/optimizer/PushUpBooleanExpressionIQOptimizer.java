@@ -0,0 +1,19 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import it.unibz.inf.ontop.iq.IQTree;
+
+/**
+ * IQ counterpart of PushUpBooleanExpressionOptimizer (without propagation above unions).
+ *
+ * Lifts the conditions of the filter and inner join nodes as high as possible,
+ * until reaching a union, an aggregation, a distinct, a slice or the root
+ * (the condition is then attached below their top-most construction nodes),
+ * or the right child of a left join (the condition is then added to the left join).
+ */
+public interface PushUpBooleanExpressionIQOptimizer extends IQOptimizer {
+
+    /**
+     * Does not change the projected variables of the tree
+     */
+    IQTree optimize(IQTree tree);
+}
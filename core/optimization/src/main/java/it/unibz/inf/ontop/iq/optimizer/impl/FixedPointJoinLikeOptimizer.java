@@ -3,11 +3,16 @@ package it.unibz.inf.ontop.iq.optimizer.impl;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.node.LeftJoinNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
 import it.unibz.inf.ontop.iq.optimizer.InnerJoinOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.JoinLikeOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.LeftJoinOptimizer;
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
 import it.unibz.inf.ontop.iq.tools.IQConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +65,29 @@ public class FixedPointJoinLikeOptimizer implements JoinLikeOptimizer {
         return query;
     }
 
+    /**
+     * Without any inner join or left join node, none of the optimizers applies: the conversion is skipped.
+     */
+    @Override
+    public IQ optimize(IQ query, ExecutorRegistry executorRegistry) throws EmptyQueryException {
+        if (!containsJoinLikeNode(query.getTree()))
+            return query.normalizeForOptimization();
+
+        IntermediateQuery intermediateQuery = optimize(iqConverter.convert(query, executorRegistry));
+        return iqConverter.convert(intermediateQuery).normalizeForOptimization();
+    }
+
+    private static boolean containsJoinLikeNode(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+        return (rootNode instanceof InnerJoinNode)
+                || (rootNode instanceof LeftJoinNode)
+                || tree.getChildren().stream()
+                    .anyMatch(FixedPointJoinLikeOptimizer::containsJoinLikeNode);
+    }
+
+    /**
+     * Round trip through the IQ (normalization)
+     */
     private IntermediateQuery liftBinding(IntermediateQuery query) throws EmptyQueryException {
         IQ iq = iqConverter.convert(query);
         return iqConverter.convert(iq.normalizeForOptimization(), query.getExecutorRegistry());
@@ -0,0 +1,60 @@
+package it.unibz.inf.ontop.iq.optimizer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.iq.optimizer.FlattenUnionIQOptimizer;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+@Singleton
+public class FlattenUnionIQOptimizerImpl implements FlattenUnionIQOptimizer {
+
+    private final IntermediateQueryFactory iqFactory;
+    private final TreeTransformer transformer;
+
+    @Inject
+    private FlattenUnionIQOptimizerImpl(IntermediateQueryFactory iqFactory) {
+        this.iqFactory = iqFactory;
+        this.transformer = new TreeTransformer(iqFactory);
+    }
+
+    @Override
+    public IQ optimize(IQ query) {
+        IQTree tree = query.getTree();
+        IQTree newTree = tree.acceptTransformer(transformer);
+        return newTree.equals(tree)
+                ? query
+                : iqFactory.createIQ(query.getProjectionAtom(), newTree);
+    }
+
+
+    private static class TreeTransformer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        private TreeTransformer(IntermediateQueryFactory iqFactory) {
+            super(iqFactory);
+        }
+
+        /**
+         * The children of a union project at least the variables of the union,
+         * so the children of a child union can be directly attached to the parent union.
+         */
+        @Override
+        public IQTree transformUnion(IQTree tree, UnionNode rootNode, ImmutableList<IQTree> children) {
+            ImmutableList<IQTree> newChildren = children.stream()
+                    .map(t -> t.acceptTransformer(this))
+                    .flatMap(t -> (t.getRootNode() instanceof UnionNode)
+                            ? t.getChildren().stream()
+                            : ImmutableList.of(t).stream())
+                    .collect(ImmutableCollectors.toList());
+
+            return newChildren.equals(children)
+                    ? tree
+                    : iqFactory.createNaryIQTree(rootNode, newChildren);
+        }
+    }
+}
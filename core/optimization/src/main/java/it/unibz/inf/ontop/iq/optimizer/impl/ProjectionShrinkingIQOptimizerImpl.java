@@ -0,0 +1,147 @@
+package it.unibz.inf.ontop.iq.optimizer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.*;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.optimizer.ProjectionShrinkingIQOptimizer;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.stream.Stream;
+
+/**
+ * Top-down: each subtree receives the set of variables required by its ancestors.
+ *
+ * Does not go below distinct nodes and keeps all the grouping variables of aggregation nodes,
+ * so as to preserve the cardinality of the answers.
+ */
+@Singleton
+public class ProjectionShrinkingIQOptimizerImpl implements ProjectionShrinkingIQOptimizer {
+
+    private final IntermediateQueryFactory iqFactory;
+
+    @Inject
+    private ProjectionShrinkingIQOptimizerImpl(IntermediateQueryFactory iqFactory) {
+        this.iqFactory = iqFactory;
+    }
+
+    @Override
+    public IQ optimize(IQ query) {
+        IQTree tree = query.getTree();
+        IQTree newTree = shrink(tree, query.getProjectionAtom().getVariables());
+        return newTree.equals(tree)
+                ? query
+                : iqFactory.createIQ(query.getProjectionAtom(), newTree);
+    }
+
+    private IQTree shrink(IQTree tree, ImmutableSet<Variable> retainedVariables) {
+        QueryNode rootNode = tree.getRootNode();
+
+        if (rootNode instanceof ConstructionNode) {
+            ConstructionNode constructionNode = (ConstructionNode) rootNode;
+            ImmutableSet<Variable> projectedVariables = Sets.intersection(constructionNode.getVariables(),
+                    retainedVariables).immutableCopy();
+
+            ConstructionNode newConstructionNode = projectedVariables.equals(constructionNode.getVariables())
+                    ? constructionNode
+                    : iqFactory.createConstructionNode(projectedVariables,
+                            constructionNode.getSubstitution().reduceDomainToIntersectionWith(projectedVariables));
+
+            IQTree child = ((UnaryIQTree) tree).getChild();
+            return iqFactory.createUnaryIQTree(newConstructionNode,
+                    shrink(child, getChildRetainedVariables(newConstructionNode.getVariables(),
+                            newConstructionNode.getSubstitution())));
+        }
+        if (rootNode instanceof UnionNode) {
+            ImmutableSet<Variable> projectedVariables = Sets.intersection(rootNode.getVariables(),
+                    retainedVariables).immutableCopy();
+            return iqFactory.createNaryIQTree(
+                    projectedVariables.equals(rootNode.getVariables())
+                            ? (UnionNode) rootNode
+                            : iqFactory.createUnionNode(projectedVariables),
+                    tree.getChildren().stream()
+                            .map(c -> shrink(c, projectedVariables))
+                            .collect(ImmutableCollectors.toList()));
+        }
+        if (rootNode instanceof AggregationNode) {
+            AggregationNode aggregationNode = (AggregationNode) rootNode;
+            return iqFactory.createUnaryIQTree(aggregationNode,
+                    shrink(((UnaryIQTree) tree).getChild(),
+                            getChildRetainedVariables(aggregationNode.getVariables(),
+                                    aggregationNode.getSubstitution())));
+        }
+        if ((rootNode instanceof FilterNode) || (rootNode instanceof OrderByNode) || (rootNode instanceof SliceNode)) {
+            ImmutableSet<Variable> childRetainedVariables = Sets.union(retainedVariables,
+                    rootNode.getLocallyRequiredVariables()).immutableCopy();
+            return iqFactory.createUnaryIQTree((UnaryOperatorNode) rootNode,
+                    shrink(((UnaryIQTree) tree).getChild(), childRetainedVariables));
+        }
+        if (rootNode instanceof JoinLikeNode) {
+            ImmutableList<IQTree> children = tree.getChildren();
+            ImmutableSet<Variable> childRetainedVariables = Stream.concat(
+                    Stream.concat(retainedVariables.stream(), rootNode.getLocallyRequiredVariables().stream()),
+                    getSharedVariables(children))
+                    .collect(ImmutableCollectors.toSet());
+
+            ImmutableList<IQTree> newChildren = children.stream()
+                    .map(c -> shrink(c, childRetainedVariables))
+                    .collect(ImmutableCollectors.toList());
+
+            return (rootNode instanceof LeftJoinNode)
+                    ? iqFactory.createBinaryNonCommutativeIQTree((LeftJoinNode) rootNode,
+                            newChildren.get(0), newChildren.get(1))
+                    : iqFactory.createNaryIQTree((InnerJoinNode) rootNode, newChildren);
+        }
+        /*
+         * Distinct and other nodes: all the variables of the children are retained
+         */
+        if (tree instanceof UnaryIQTree) {
+            IQTree child = ((UnaryIQTree) tree).getChild();
+            return iqFactory.createUnaryIQTree((UnaryOperatorNode) rootNode, shrink(child, child.getVariables()));
+        }
+        if (tree instanceof BinaryNonCommutativeIQTree) {
+            IQTree leftChild = ((BinaryNonCommutativeIQTree) tree).getLeftChild();
+            IQTree rightChild = ((BinaryNonCommutativeIQTree) tree).getRightChild();
+            return iqFactory.createBinaryNonCommutativeIQTree((BinaryNonCommutativeOperatorNode) rootNode,
+                    shrink(leftChild, leftChild.getVariables()),
+                    shrink(rightChild, rightChild.getVariables()));
+        }
+        if (tree instanceof NaryIQTree) {
+            return iqFactory.createNaryIQTree((NaryOperatorNode) rootNode,
+                    tree.getChildren().stream()
+                            .map(c -> shrink(c, c.getVariables()))
+                            .collect(ImmutableCollectors.toList()));
+        }
+        // Leaves
+        return tree;
+    }
+
+    private ImmutableSet<Variable> getChildRetainedVariables(ImmutableSet<Variable> projectedVariables,
+                                                             ImmutableSubstitution<? extends ImmutableTerm> substitution) {
+        return Stream.concat(
+                projectedVariables.stream()
+                        .filter(v -> !substitution.getDomain().contains(v)),
+                substitution.getImmutableMap().values().stream()
+                        .flatMap(ImmutableTerm::getVariableStream))
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    /**
+     * Variables appearing in at least two children
+     */
+    private Stream<Variable> getSharedVariables(ImmutableList<IQTree> children) {
+        return children.stream()
+                .flatMap(c -> c.getVariables().stream())
+                .collect(ImmutableCollectors.toMultiset())
+                .entrySet().stream()
+                .filter(e -> e.getCount() > 1)
+                .map(e -> e.getElement());
+    }
+}
@@ -0,0 +1,201 @@
+package it.unibz.inf.ontop.iq.optimizer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.*;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.optimizer.PushDownBooleanExpressionIQOptimizer;
+import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Top-down: each conjunct of the condition of a filter or join (the provider) is sent to the children
+ * projecting all its variables (the candidates).
+ *
+ * A candidate accepts the conjunct if it is a filter or an inner join (the condition is merged),
+ * or if it can forward it to its own children (construction node, union or left join).
+ * The conjunct is kept by the provider when no candidate accepts it.
+ */
+@Singleton
+public class PushDownBooleanExpressionIQOptimizerImpl implements PushDownBooleanExpressionIQOptimizer {
+
+    private final IntermediateQueryFactory iqFactory;
+    private final TermFactory termFactory;
+
+    @Inject
+    private PushDownBooleanExpressionIQOptimizerImpl(IntermediateQueryFactory iqFactory, TermFactory termFactory) {
+        this.iqFactory = iqFactory;
+        this.termFactory = termFactory;
+    }
+
+    @Override
+    public IQ optimize(IQ query) {
+        IQTree tree = query.getTree();
+        IQTree newTree = optimize(tree);
+        return newTree.equals(tree)
+                ? query
+                : iqFactory.createIQ(query.getProjectionAtom(), newTree);
+    }
+
+    @Override
+    public IQTree optimize(IQTree tree) {
+        return pushDown(tree);
+    }
+
+    private IQTree pushDown(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+
+        if (rootNode instanceof FilterNode) {
+            Distribution distribution = distribute(((FilterNode) rootNode).getFilterCondition(), tree.getChildren());
+            IQTree newChild = pushDown(distribution.children.get(0));
+            return distribution.keptCondition
+                    .<IQTree>map(c -> iqFactory.createUnaryIQTree(iqFactory.createFilterNode(c), newChild))
+                    .orElse(newChild);
+        }
+        if (rootNode instanceof InnerJoinNode) {
+            Optional<ImmutableExpression> condition = ((InnerJoinNode) rootNode).getOptionalFilterCondition();
+            ImmutableList<IQTree> children = tree.getChildren();
+            if (condition.isPresent()) {
+                Distribution distribution = distribute(condition.get(), children);
+                return iqFactory.createNaryIQTree(
+                        iqFactory.createInnerJoinNode(distribution.keptCondition),
+                        pushDownChildren(distribution.children));
+            }
+            return iqFactory.createNaryIQTree((InnerJoinNode) rootNode, pushDownChildren(children));
+        }
+        if (rootNode instanceof LeftJoinNode) {
+            BinaryNonCommutativeIQTree leftJoinTree = (BinaryNonCommutativeIQTree) tree;
+            IQTree newLeftChild = pushDown(leftJoinTree.getLeftChild());
+            Optional<ImmutableExpression> condition = ((LeftJoinNode) rootNode).getOptionalFilterCondition();
+
+            // Only the right child is a candidate
+            if (condition.isPresent()) {
+                Distribution distribution = distribute(condition.get(), ImmutableList.of(leftJoinTree.getRightChild()));
+                return iqFactory.createBinaryNonCommutativeIQTree(
+                        iqFactory.createLeftJoinNode(distribution.keptCondition),
+                        newLeftChild, pushDown(distribution.children.get(0)));
+            }
+            return iqFactory.createBinaryNonCommutativeIQTree((LeftJoinNode) rootNode,
+                    newLeftChild, pushDown(leftJoinTree.getRightChild()));
+        }
+        if (tree instanceof UnaryIQTree)
+            return iqFactory.createUnaryIQTree((UnaryOperatorNode) rootNode,
+                    pushDown(((UnaryIQTree) tree).getChild()));
+        if (tree instanceof BinaryNonCommutativeIQTree)
+            return iqFactory.createBinaryNonCommutativeIQTree((BinaryNonCommutativeOperatorNode) rootNode,
+                    pushDown(((BinaryNonCommutativeIQTree) tree).getLeftChild()),
+                    pushDown(((BinaryNonCommutativeIQTree) tree).getRightChild()));
+        if (tree instanceof NaryIQTree)
+            return iqFactory.createNaryIQTree((NaryOperatorNode) rootNode, pushDownChildren(tree.getChildren()));
+        // Leaves
+        return tree;
+    }
+
+    private ImmutableList<IQTree> pushDownChildren(ImmutableList<IQTree> children) {
+        return children.stream()
+                .map(this::pushDown)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private Distribution distribute(ImmutableExpression condition, ImmutableList<IQTree> children) {
+        List<IQTree> newChildren = new ArrayList<>(children);
+        List<ImmutableExpression> keptConjuncts = new ArrayList<>();
+
+        condition.flattenAND()
+                .distinct()
+                .forEach(e -> {
+                    ImmutableSet<Variable> variables = e.getVariables();
+                    boolean accepted = false;
+                    for (int i = 0; i < newChildren.size(); i++) {
+                        IQTree child = newChildren.get(i);
+                        if (!child.getVariables().containsAll(variables))
+                            continue;
+                        Optional<IQTree> newChild = receive(child, e);
+                        if (newChild.isPresent()) {
+                            newChildren.set(i, newChild.get());
+                            accepted = true;
+                            // One recipient is enough (inner join or filter semantics)
+                            break;
+                        }
+                    }
+                    if (!accepted)
+                        keptConjuncts.add(e);
+                });
+
+        return new Distribution(
+                termFactory.getConjunction(keptConjuncts.stream()),
+                ImmutableList.copyOf(newChildren));
+    }
+
+    /**
+     * Returns empty if the tree cannot receive the expression
+     */
+    private Optional<IQTree> receive(IQTree tree, ImmutableExpression expression) {
+        QueryNode rootNode = tree.getRootNode();
+
+        if (rootNode instanceof FilterNode)
+            return Optional.of(iqFactory.createUnaryIQTree(
+                    iqFactory.createFilterNode(termFactory.getConjunction(
+                            ((FilterNode) rootNode).getFilterCondition(), expression)),
+                    ((UnaryIQTree) tree).getChild()));
+
+        if (rootNode instanceof InnerJoinNode)
+            return Optional.of(iqFactory.createNaryIQTree(
+                    iqFactory.createInnerJoinNode(termFactory.getConjunction(Stream.concat(
+                            ((InnerJoinNode) rootNode).getOptionalFilterCondition()
+                                    .map(ImmutableExpression::flattenAND)
+                                    .orElseGet(Stream::empty),
+                            Stream.of(expression))
+                            .distinct())),
+                    tree.getChildren()));
+
+        if (rootNode instanceof LeftJoinNode) {
+            BinaryNonCommutativeIQTree leftJoinTree = (BinaryNonCommutativeIQTree) tree;
+            IQTree leftChild = leftJoinTree.getLeftChild();
+            return leftChild.getVariables().containsAll(expression.getVariables())
+                    ? Optional.of(iqFactory.createBinaryNonCommutativeIQTree((LeftJoinNode) rootNode,
+                            receiveOrFilter(leftChild, expression), leftJoinTree.getRightChild()))
+                    : Optional.empty();
+        }
+
+        if (rootNode instanceof UnionNode)
+            return Optional.of(iqFactory.createNaryIQTree((UnionNode) rootNode,
+                    tree.getChildren().stream()
+                            .map(c -> receiveOrFilter(c, expression))
+                            .collect(ImmutableCollectors.toList())));
+
+        if (rootNode instanceof ConstructionNode) {
+            ConstructionNode constructionNode = (ConstructionNode) rootNode;
+            return Optional.of(iqFactory.createUnaryIQTree(constructionNode,
+                    receiveOrFilter(((UnaryIQTree) tree).getChild(),
+                            constructionNode.getSubstitution().applyToBooleanExpression(expression))));
+        }
+        return Optional.empty();
+    }
+
+    private IQTree receiveOrFilter(IQTree tree, ImmutableExpression expression) {
+        return receive(tree, expression)
+                .orElseGet(() -> iqFactory.createUnaryIQTree(iqFactory.createFilterNode(expression), tree));
+    }
+
+
+    private static class Distribution {
+        private final Optional<ImmutableExpression> keptCondition;
+        private final ImmutableList<IQTree> children;
+
+        private Distribution(Optional<ImmutableExpression> keptCondition, ImmutableList<IQTree> children) {
+            this.keptCondition = keptCondition;
+            this.children = children;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package it.unibz.inf.ontop.iq.optimizer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.*;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.optimizer.PushUpBooleanExpressionIQOptimizer;
+import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Bottom-up: the conditions of the filters and inner joins are removed from their provider
+ * and attached to the recipient once the propagation is blocked.
+ *
+ * Construction nodes on the way from the provider to the recipient see their projection extended
+ * with the variables of the propagated condition.
+ * The projected variables of the blocking subtrees are restored when needed.
+ */
+@Singleton
+public class PushUpBooleanExpressionIQOptimizerImpl implements PushUpBooleanExpressionIQOptimizer {
+
+    private final IntermediateQueryFactory iqFactory;
+    private final TermFactory termFactory;
+
+    @Inject
+    private PushUpBooleanExpressionIQOptimizerImpl(IntermediateQueryFactory iqFactory, TermFactory termFactory) {
+        this.iqFactory = iqFactory;
+        this.termFactory = termFactory;
+    }
+
+    @Override
+    public IQ optimize(IQ query) {
+        IQTree tree = query.getTree();
+        IQTree newTree = optimize(tree);
+        return newTree == tree
+                ? query
+                : iqFactory.createIQ(query.getProjectionAtom(), newTree);
+    }
+
+    @Override
+    public IQTree optimize(IQTree tree) {
+        return liftAndAttach(tree);
+    }
+
+    /**
+     * The subtree blocks the propagation: the lifted condition is attached below its top-most
+     * construction nodes and query modifiers.
+     */
+    private IQTree liftAndAttach(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+        if ((rootNode instanceof ConstructionNode) || (rootNode instanceof QueryModifierNode)) {
+            IQTree child = ((UnaryIQTree) tree).getChild();
+            IQTree newChild = liftAndAttach(child);
+            return newChild == child
+                    ? tree
+                    : iqFactory.createUnaryIQTree((UnaryOperatorNode) rootNode, newChild);
+        }
+
+        LiftedExpression lifted = lift(tree);
+        IQTree newTree = lifted.expression
+                .map(e -> attach(lifted.tree, e))
+                .orElse(lifted.tree);
+
+        return newTree.getVariables().equals(tree.getVariables())
+                ? newTree
+                : iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(tree.getVariables()), newTree);
+    }
+
+    private LiftedExpression lift(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+
+        if (rootNode instanceof FilterNode) {
+            LiftedExpression liftedChild = lift(((UnaryIQTree) tree).getChild());
+            return new LiftedExpression(liftedChild.tree,
+                    conjoin(Optional.of(((FilterNode) rootNode).getFilterCondition()), liftedChild.expression));
+        }
+        if (rootNode instanceof InnerJoinNode) {
+            ImmutableList<LiftedExpression> liftedChildren = tree.getChildren().stream()
+                    .map(this::lift)
+                    .collect(ImmutableCollectors.toList());
+
+            Optional<ImmutableExpression> expression = termFactory.getConjunction(Stream.concat(
+                    ((InnerJoinNode) rootNode).getOptionalFilterCondition()
+                            .map(Stream::of)
+                            .orElseGet(Stream::empty),
+                    liftedChildren.stream()
+                            .flatMap(l -> l.expression
+                                    .map(Stream::of)
+                                    .orElseGet(Stream::empty)))
+                    .flatMap(ImmutableExpression::flattenAND)
+                    .distinct());
+
+            if (!expression.isPresent())
+                return new LiftedExpression(tree, Optional.empty());
+
+            return new LiftedExpression(
+                    iqFactory.createNaryIQTree(iqFactory.createInnerJoinNode(),
+                            liftedChildren.stream()
+                                    .map(l -> l.tree)
+                                    .collect(ImmutableCollectors.toList())),
+                    expression);
+        }
+        if (rootNode instanceof LeftJoinNode) {
+            BinaryNonCommutativeIQTree leftJoinTree = (BinaryNonCommutativeIQTree) tree;
+            LiftedExpression liftedLeft = lift(leftJoinTree.getLeftChild());
+            // The left join is the recipient of the conditions coming from its right child
+            LiftedExpression liftedRight = lift(leftJoinTree.getRightChild());
+
+            if (!liftedLeft.expression.isPresent() && !liftedRight.expression.isPresent()
+                    && liftedLeft.tree == leftJoinTree.getLeftChild() && liftedRight.tree == leftJoinTree.getRightChild())
+                return new LiftedExpression(tree, Optional.empty());
+
+            Optional<ImmutableExpression> leftJoinCondition = conjoin(
+                    ((LeftJoinNode) rootNode).getOptionalFilterCondition(), liftedRight.expression);
+
+            return new LiftedExpression(
+                    iqFactory.createBinaryNonCommutativeIQTree(iqFactory.createLeftJoinNode(leftJoinCondition),
+                            liftedLeft.tree, liftedRight.tree),
+                    liftedLeft.expression);
+        }
+        if (rootNode instanceof ConstructionNode) {
+            ConstructionNode constructionNode = (ConstructionNode) rootNode;
+            IQTree child = ((UnaryIQTree) tree).getChild();
+            LiftedExpression liftedChild = lift(child);
+            if (!liftedChild.expression.isPresent())
+                return new LiftedExpression(
+                        liftedChild.tree == child
+                                ? tree
+                                : iqFactory.createUnaryIQTree(constructionNode, liftedChild.tree),
+                        Optional.empty());
+
+            ImmutableSet<Variable> projectedVariables = Sets.union(constructionNode.getVariables(),
+                    liftedChild.expression.get().getVariables()).immutableCopy();
+            ConstructionNode newConstructionNode = projectedVariables.equals(constructionNode.getVariables())
+                    ? constructionNode
+                    : iqFactory.createConstructionNode(projectedVariables, constructionNode.getSubstitution());
+
+            return new LiftedExpression(iqFactory.createUnaryIQTree(newConstructionNode, liftedChild.tree),
+                    liftedChild.expression);
+        }
+        /*
+         * Does not change the projected variables: the condition can go through
+         */
+        if (rootNode instanceof OrderByNode) {
+            IQTree child = ((UnaryIQTree) tree).getChild();
+            LiftedExpression liftedChild = lift(child);
+            return new LiftedExpression(
+                    liftedChild.tree == child
+                            ? tree
+                            : iqFactory.createUnaryIQTree((OrderByNode) rootNode, liftedChild.tree),
+                    liftedChild.expression);
+        }
+
+        /*
+         * Blocking nodes (unions, aggregations, distincts, slices, etc.)
+         */
+        if (tree instanceof UnaryIQTree) {
+            IQTree child = ((UnaryIQTree) tree).getChild();
+            IQTree newChild = liftAndAttach(child);
+            return new LiftedExpression(
+                    newChild == child
+                            ? tree
+                            : iqFactory.createUnaryIQTree((UnaryOperatorNode) rootNode, newChild),
+                    Optional.empty());
+        }
+        if (tree instanceof NaryIQTree) {
+            ImmutableList<IQTree> children = tree.getChildren();
+            ImmutableList<IQTree> newChildren = children.stream()
+                    .map(this::liftAndAttach)
+                    .collect(ImmutableCollectors.toList());
+            return new LiftedExpression(
+                    newChildren.equals(children)
+                            ? tree
+                            : iqFactory.createNaryIQTree((NaryOperatorNode) rootNode, newChildren),
+                    Optional.empty());
+        }
+        // Leaves
+        return new LiftedExpression(tree, Optional.empty());
+    }
+
+    private IQTree attach(IQTree tree, ImmutableExpression expression) {
+        QueryNode rootNode = tree.getRootNode();
+        if (rootNode instanceof InnerJoinNode) {
+            return iqFactory.createNaryIQTree(
+                    iqFactory.createInnerJoinNode(
+                            conjoin(((InnerJoinNode) rootNode).getOptionalFilterCondition(), Optional.of(expression))),
+                    tree.getChildren());
+        }
+        if (rootNode instanceof FilterNode) {
+            return iqFactory.createUnaryIQTree(
+                    iqFactory.createFilterNode(termFactory.getConjunction(
+                            ((FilterNode) rootNode).getFilterCondition(), expression)),
+                    ((UnaryIQTree) tree).getChild());
+        }
+        return iqFactory.createUnaryIQTree(iqFactory.createFilterNode(expression), tree);
+    }
+
+    private Optional<ImmutableExpression> conjoin(Optional<ImmutableExpression> expression1,
+                                                  Optional<ImmutableExpression> expression2) {
+        return termFactory.getConjunction(Stream.of(expression1, expression2)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .flatMap(ImmutableExpression::flattenAND)
+                .distinct());
+    }
+
+
+    private static class LiftedExpression {
+        private final IQTree tree;
+        private final Optional<ImmutableExpression> expression;
+
+        private LiftedExpression(IQTree tree, Optional<ImmutableExpression> expression) {
+            this.tree = tree;
+            this.expression = expression;
+        }
+    }
+}
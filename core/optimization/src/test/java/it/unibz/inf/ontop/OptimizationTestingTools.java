@@ -45,6 +45,10 @@ public class OptimizationTestingTools {
     public static final OptimizerFactory OPTIMIZER_FACTORY;
     public static final CoreUtilsFactory CORE_UTILS_FACTORY;
     public static final PushDownBooleanExpressionOptimizer PUSH_DOWN_BOOLEAN_EXPRESSION_OPTIMIZER;
+    public static final PushDownBooleanExpressionIQOptimizer PUSH_DOWN_BOOLEAN_EXPRESSION_IQ_OPTIMIZER;
+    public static final PushUpBooleanExpressionIQOptimizer PUSH_UP_BOOLEAN_EXPRESSION_IQ_OPTIMIZER;
+    public static final ProjectionShrinkingIQOptimizer PROJECTION_SHRINKING_IQ_OPTIMIZER;
+    public static final FlattenUnionIQOptimizer FLATTEN_UNION_IQ_OPTIMIZER;
     public static final ImmutabilityTools IMMUTABILITY_TOOLS;
     public static final IQConverter IQ_CONVERTER;
     public static final DBConstant TRUE, FALSE;
@@ -117,6 +121,10 @@ public class OptimizationTestingTools {
         IQ_CONVERTER = injector.getInstance(IQConverter.class);
         UNION_AND_BINDING_LIFT_OPTIMIZER = injector.getInstance(UnionAndBindingLiftOptimizer.class);
         PUSH_DOWN_BOOLEAN_EXPRESSION_OPTIMIZER = injector.getInstance(PushDownBooleanExpressionOptimizer.class);
+        PUSH_DOWN_BOOLEAN_EXPRESSION_IQ_OPTIMIZER = injector.getInstance(PushDownBooleanExpressionIQOptimizer.class);
+        PUSH_UP_BOOLEAN_EXPRESSION_IQ_OPTIMIZER = injector.getInstance(PushUpBooleanExpressionIQOptimizer.class);
+        PROJECTION_SHRINKING_IQ_OPTIMIZER = injector.getInstance(ProjectionShrinkingIQOptimizer.class);
+        FLATTEN_UNION_IQ_OPTIMIZER = injector.getInstance(FlattenUnionIQOptimizer.class);
         TRANSFORMER_FACTORY = injector.getInstance(QueryTransformerFactory.class);
         OPTIMIZER_FACTORY = injector.getInstance(OptimizerFactory.class);
         DATALOG_PROGRAM_2_QUERY_CONVERTER = injector.getInstance(DatalogProgram2QueryConverter.class);
@@ -1671,6 +1671,113 @@ public class NormalizationTest {
     }
 
 
+    @Test
+    public void testValues1() {
+        Constant one = TERM_FACTORY.getDBStringConstant("1");
+        Constant a = TERM_FACTORY.getDBStringConstant("a");
+        Constant b = TERM_FACTORY.getDBStringConstant("b");
+
+        ValuesNode valuesNode = IQ_FACTORY.createValuesNode(ImmutableList.of(A, B),
+                ImmutableList.of(ImmutableList.of(one, a), ImmutableList.of(one, b)));
+
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR2_PREDICATE, A, B);
+        IQ initialIQ = IQ_FACTORY.createIQ(projectionAtom, valuesNode);
+
+        IQTree expectedTree = IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createConstructionNode(ImmutableSet.of(A, B), SUBSTITUTION_FACTORY.getSubstitution(A, one)),
+                IQ_FACTORY.createValuesNode(ImmutableList.of(B),
+                        ImmutableList.of(ImmutableList.of(a), ImmutableList.of(b))));
+
+        normalizeAndCompare(initialIQ, IQ_FACTORY.createIQ(projectionAtom, expectedTree));
+    }
+
+    @Test
+    public void testValues2() {
+        Constant a = TERM_FACTORY.getDBStringConstant("a");
+        Constant b = TERM_FACTORY.getDBStringConstant("b");
+
+        ValuesNode valuesNode = IQ_FACTORY.createValuesNode(ImmutableList.of(A, B),
+                ImmutableList.of(ImmutableList.of(a, b)));
+
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR2_PREDICATE, A, B);
+        IQ initialIQ = IQ_FACTORY.createIQ(projectionAtom, valuesNode);
+
+        IQTree expectedTree = IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createConstructionNode(ImmutableSet.of(A, B), SUBSTITUTION_FACTORY.getSubstitution(A, a, B, b)),
+                IQ_FACTORY.createTrueNode());
+
+        normalizeAndCompare(initialIQ, IQ_FACTORY.createIQ(projectionAtom, expectedTree));
+    }
+
+    @Test
+    public void testValues3() {
+        ValuesNode valuesNode = IQ_FACTORY.createValuesNode(ImmutableList.of(A, B), ImmutableList.of());
+
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR2_PREDICATE, A, B);
+        IQ initialIQ = IQ_FACTORY.createIQ(projectionAtom, valuesNode);
+
+        normalizeAndCompare(initialIQ, IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createEmptyNode(ImmutableSet.of(A, B))));
+    }
+
+    @Test
+    public void testTransitiveClosure1() {
+        IQTree closureTree = IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createTransitiveClosureNode(A, B),
+                createExtensionalDataNode(TABLE1_AR2, A, B));
+
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR2_PREDICATE, A, B);
+        IQ initialIQ = IQ_FACTORY.createIQ(projectionAtom, closureTree);
+
+        normalizeAndCompare(initialIQ, IQ_FACTORY.createIQ(projectionAtom, closureTree));
+    }
+
+    @Test
+    public void testTransitiveClosure2() {
+        IQTree closureTree = IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createTransitiveClosureNode(A, B),
+                IQ_FACTORY.createEmptyNode(ImmutableSet.of(A, B)));
+
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR2_PREDICATE, A, B);
+        IQ initialIQ = IQ_FACTORY.createIQ(projectionAtom, closureTree);
+
+        normalizeAndCompare(initialIQ, IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createEmptyNode(ImmutableSet.of(A, B))));
+    }
+
+    /**
+     * The bound endpoint becomes a seed of the closure instead of a filter above it
+     */
+    @Test
+    public void testTransitiveClosureSeed1() {
+        Constant a = TERM_FACTORY.getDBStringConstant("a");
+        ExtensionalDataNode dataNode = createExtensionalDataNode(TABLE1_AR2, A, B);
+        IQTree closureTree = IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createTransitiveClosureNode(A, B), dataNode);
+
+        IQTree expectedTree = IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createConstructionNode(ImmutableSet.of(B)),
+                IQ_FACTORY.createUnaryIQTree(
+                        IQ_FACTORY.createTransitiveClosureNode(A, B, Optional.of(a), Optional.empty()),
+                        dataNode));
+
+        assertEquals(expectedTree, closureTree.applyDescendingSubstitutionWithoutOptimizing(
+                SUBSTITUTION_FACTORY.getSubstitution(A, a)));
+    }
+
+    @Test
+    public void testTransitiveClosureSeed2() {
+        Constant b = TERM_FACTORY.getDBStringConstant("b");
+        ExtensionalDataNode dataNode = createExtensionalDataNode(TABLE1_AR2, A, B);
+        IQTree closureTree = IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createTransitiveClosureNode(A, B), dataNode);
+
+        IQTree expectedTree = IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createConstructionNode(ImmutableSet.of(C)),
+                IQ_FACTORY.createUnaryIQTree(
+                        IQ_FACTORY.createTransitiveClosureNode(C, B, Optional.empty(), Optional.of(b)),
+                        createExtensionalDataNode(TABLE1_AR2, C, B)));
+
+        assertEquals(expectedTree, closureTree.applyDescendingSubstitutionWithoutOptimizing(
+                SUBSTITUTION_FACTORY.getSubstitution(A, C, B, b)));
+    }
+
     private static void normalizeAndCompare(IQ initialIQ, IQ expectedIQ) {
         System.out.println("Initial IQ: " + initialIQ );
         System.out.println("Expected IQ: " + expectedIQ);
@@ -0,0 +1,138 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static it.unibz.inf.ontop.NoDependencyTestDBMetadata.*;
+import static it.unibz.inf.ontop.OptimizationTestingTools.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Optimizers working directly on IQ trees (no conversion into an IntermediateQuery)
+ */
+public class IQTreeOptimizersTest {
+
+    private final static ImmutableExpression EXPRESSION1 = TERM_FACTORY.getStrictEquality(X, Z);
+    private final static ImmutableExpression EXPRESSION2 = TERM_FACTORY.getStrictEquality(Y, Z);
+
+    @Test
+    public void testPushUpFromFilterToInnerJoin() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR2_PREDICATE, X, Y);
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_AR2, X, Z));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_AR2, X, Y));
+
+        IQ query = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(), ImmutableList.of(
+                        IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createFilterNode(EXPRESSION1), dataNode1),
+                        dataNode2))));
+
+        IQ expectedQuery = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(EXPRESSION1),
+                        ImmutableList.of(dataNode1, dataNode2))));
+
+        assertEquals(expectedQuery, PUSH_UP_BOOLEAN_EXPRESSION_IQ_OPTIMIZER.optimize(query));
+    }
+
+    @Test
+    public void testPushUpFromRightChildToLeftJoin() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR2_PREDICATE, X, Y);
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_AR2, X, Y));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_AR2, Y, Z));
+
+        IQ query = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createBinaryNonCommutativeIQTree(IQ_FACTORY.createLeftJoinNode(),
+                        dataNode1,
+                        IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createFilterNode(EXPRESSION2), dataNode2))));
+
+        IQ expectedQuery = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createBinaryNonCommutativeIQTree(IQ_FACTORY.createLeftJoinNode(Optional.of(EXPRESSION2)),
+                        dataNode1, dataNode2)));
+
+        assertEquals(expectedQuery, PUSH_UP_BOOLEAN_EXPRESSION_IQ_OPTIMIZER.optimize(query));
+    }
+
+    @Test
+    public void testPushDownToUnionChildren() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR1_PREDICATE, X);
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        UnionNode unionNode = IQ_FACTORY.createUnionNode(ImmutableSet.of(X, Z));
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_AR2, X, Z));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_AR2, X, Z));
+        FilterNode filterNode = IQ_FACTORY.createFilterNode(EXPRESSION1);
+
+        IQ query = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createUnaryIQTree(filterNode,
+                        IQ_FACTORY.createNaryIQTree(unionNode, ImmutableList.of(dataNode1, dataNode2)))));
+
+        IQ expectedQuery = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createNaryIQTree(unionNode, ImmutableList.of(
+                        IQ_FACTORY.createUnaryIQTree(filterNode, dataNode1),
+                        IQ_FACTORY.createUnaryIQTree(filterNode, dataNode2)))));
+
+        assertEquals(expectedQuery, PUSH_DOWN_BOOLEAN_EXPRESSION_IQ_OPTIMIZER.optimize(query));
+    }
+
+    @Test
+    public void testProjectionShrinkingUnion() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR1_PREDICATE, X);
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_AR2, X, Y));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_AR2, X, Y));
+        ImmutableList<IQTree> children = ImmutableList.of(dataNode1, dataNode2);
+
+        IQ query = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createUnionNode(ImmutableSet.of(X, Y)), children)));
+
+        IQ expectedQuery = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createUnionNode(ImmutableSet.of(X)), children)));
+
+        assertEquals(expectedQuery, PROJECTION_SHRINKING_IQ_OPTIMIZER.optimize(query));
+    }
+
+    @Test
+    public void testProjectionShrinkingBelowDistinct() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR1_PREDICATE, X);
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_AR2, X, Y));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_AR2, X, Y));
+
+        IQ query = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createDistinctNode(),
+                        IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createUnionNode(ImmutableSet.of(X, Y)),
+                                ImmutableList.of(dataNode1, dataNode2)))));
+
+        // The cardinality of the distinct depends on Y
+        assertEquals(query, PROJECTION_SHRINKING_IQ_OPTIMIZER.optimize(query));
+    }
+
+    @Test
+    public void testFlattenUnion() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR1_PREDICATE, X);
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        UnionNode unionNode1 = IQ_FACTORY.createUnionNode(ImmutableSet.of(X));
+        UnionNode unionNode2 = IQ_FACTORY.createUnionNode(ImmutableSet.of(X, Y));
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_AR1, X));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_AR2, X, Y));
+        ExtensionalDataNode dataNode3 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_AR2, X, Y));
+
+        IQ query = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createNaryIQTree(unionNode1, ImmutableList.of(
+                        dataNode1,
+                        IQ_FACTORY.createNaryIQTree(unionNode2, ImmutableList.of(dataNode2, dataNode3))))));
+
+        IQ expectedQuery = IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createNaryIQTree(unionNode1, ImmutableList.of(dataNode1, dataNode2, dataNode3))));
+
+        assertEquals(expectedQuery, FLATTEN_UNION_IQ_OPTIMIZER.optimize(query));
+    }
+}
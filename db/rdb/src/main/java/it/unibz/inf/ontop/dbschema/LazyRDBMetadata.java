@@ -0,0 +1,143 @@
+package it.unibz.inf.ontop.dbschema;
+
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Database metadata that reads the metadata of a relation (attributes and keys) from the database
+ * when it is first looked up (see getDatabaseRelation and getRelation).
+ *
+ * Each relation id is looked up in the database at most once, including the ids that do not
+ * match any relation. While the metadata is mutable, the lookups and modifications are synchronized.
+ * Freezing the metadata closes the connection: the relations that have not been loaded by then
+ * are considered absent and the lookups do not require any synchronization anymore.
+ *
+ * The foreign keys are only added between loaded relations.
+ */
+
+public class LazyRDBMetadata extends RDBMetadata {
+
+	private static final Logger log = LoggerFactory.getLogger(LazyRDBMetadata.class);
+
+	private final Set<RelationID> lookedUpIds = new HashSet<>();
+
+	// null once frozen
+	@Nullable
+	private volatile RDBMetadataExtractionTools.ConnectionSupplier connectionSupplier;
+	@Nullable
+	private RDBMetadataExtractionTools.RelationLoader loader;
+
+	/**
+	 * DO NOT USE THIS CONSTRUCTOR -- USE RDBMetadataExtractionTools.createLazyMetadata INSTEAD
+	 */
+
+	LazyRDBMetadata(String driverName, String driverVersion, String databaseProductName, String databaseVersion,
+					QuotedIDFactory idfac, TypeFactory typeFactory,
+					RDBMetadataExtractionTools.ConnectionSupplier connectionSupplier) {
+		super(driverName, driverVersion, databaseProductName, databaseVersion, idfac, typeFactory);
+		this.connectionSupplier = connectionSupplier;
+	}
+
+	@Override
+	public DatabaseRelationDefinition getDatabaseRelation(RelationID id) {
+		if (connectionSupplier == null)
+			return super.getDatabaseRelation(id);
+
+		synchronized (this) {
+			DatabaseRelationDefinition relation = super.getDatabaseRelation(id);
+			if (relation == null && load(id))
+				relation = super.getDatabaseRelation(id);
+			return relation;
+		}
+	}
+
+	@Override
+	public RelationDefinition getRelation(RelationID name) {
+		if (connectionSupplier == null)
+			return super.getRelation(name);
+
+		synchronized (this) {
+			RelationDefinition relation = super.getRelation(name);
+			if (relation == null && load(name))
+				relation = super.getRelation(name);
+			return relation;
+		}
+	}
+
+	/**
+	 * Does not read the database
+	 */
+	@Nullable
+	synchronized DatabaseRelationDefinition getLoadedDatabaseRelation(RelationID id) {
+		return super.getDatabaseRelation(id);
+	}
+
+	/**
+	 * Only the relations loaded so far
+	 */
+	@Override
+	public Collection<DatabaseRelationDefinition> getDatabaseRelations() {
+		if (connectionSupplier == null)
+			return super.getDatabaseRelations();
+
+		synchronized (this) {
+			return ImmutableList.copyOf(super.getDatabaseRelations());
+		}
+	}
+
+	@Override
+	public synchronized DatabaseRelationDefinition createDatabaseRelation(RelationID id) {
+		return super.createDatabaseRelation(id);
+	}
+
+	@Override
+	public synchronized ParserViewDefinition createParserView(String sql, ImmutableList<QuotedID> attributes) {
+		return super.createParserView(sql, attributes);
+	}
+
+	@Override
+	public synchronized void freeze() {
+		super.freeze();
+		connectionSupplier = null;
+		if (loader != null) {
+			try {
+				loader.close();
+			}
+			catch (SQLException e) {
+				log.warn("Cannot close the DB metadata connection: " + e.getMessage());
+			}
+			loader = null;
+		}
+	}
+
+	/**
+	 * Returns true if new relations have been created.
+	 *
+	 * A failure is logged and the relation is considered absent.
+	 */
+	private boolean load(RelationID id) {
+		if (connectionSupplier == null || !lookedUpIds.add(id))
+			return false;
+
+		try {
+			if (loader == null)
+				loader = new RDBMetadataExtractionTools.RelationLoader(this, connectionSupplier.get());
+
+			List<DatabaseRelationDefinition> relations = loader.load(this, id);
+			if (relations.isEmpty())
+				log.debug("No relation found for " + id);
+			return !relations.isEmpty();
+		}
+		catch (SQLException e) {
+			log.warn("Cannot read the metadata of " + id + ": " + e.getMessage());
+			return false;
+		}
+	}
+}
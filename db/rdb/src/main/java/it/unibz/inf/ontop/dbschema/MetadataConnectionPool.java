@@ -0,0 +1,113 @@
+package it.unibz.inf.ontop.dbschema;
+
+
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Small pool of connections dedicated to the extraction of the specification
+ * (DB metadata, values of the meta-mapping templates).
+ *
+ * The given connection is used by the calling thread when the parallelism is 1.
+ * The additional connections are opened on first use and closed with the pool.
+ * The results are read in parallel but are returned to the calling thread, which
+ * remains the only one to modify the metadata or the mapping.
+ */
+
+public final class MetadataConnectionPool implements AutoCloseable {
+
+	@FunctionalInterface
+	public interface Reader<T, R> {
+		R read(Connection conn, T input) throws SQLException;
+	}
+
+	private final Connection conn;
+	private final int parallelism;
+	@Nullable
+	private final RDBMetadataExtractionTools.ConnectionSupplier connectionSupplier;
+	private final List<Connection> additionalConnections = new ArrayList<>();
+	private final BlockingQueue<Connection> availableConnections = new LinkedBlockingQueue<>();
+	@Nullable
+	private ExecutorService executor;
+
+	/**
+	 * @param parallelism number of connections (including conn)
+	 * @param connectionSupplier opens the additional connections (if null, the parallelism is 1)
+	 */
+	public MetadataConnectionPool(Connection conn, int parallelism,
+								  @Nullable RDBMetadataExtractionTools.ConnectionSupplier connectionSupplier) {
+		this.conn = conn;
+		this.parallelism = (connectionSupplier == null) ? 1 : parallelism;
+		this.connectionSupplier = connectionSupplier;
+	}
+
+	/**
+	 * The results are in the order of the inputs
+	 */
+	public <T, R> List<R> map(List<T> inputs, Reader<T, R> reader) throws SQLException {
+		if (parallelism <= 1 || inputs.size() <= 1) {
+			List<R> results = new ArrayList<>(inputs.size());
+			for (T input : inputs)
+				results.add(reader.read(conn, input));
+			return results;
+		}
+
+		if (executor == null)
+			start();
+
+		List<Future<R>> futures = new ArrayList<>(inputs.size());
+		for (T input : inputs) {
+			Callable<R> task = () -> {
+				Connection c = availableConnections.take();
+				try {
+					return reader.read(c, input);
+				}
+				finally {
+					availableConnections.put(c);
+				}
+			};
+			futures.add(executor.submit(task));
+		}
+
+		List<R> results = new ArrayList<>(inputs.size());
+		try {
+			for (Future<R> future : futures)
+				results.add(future.get());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while reading the DB metadata");
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof SQLException)
+				throw (SQLException) e.getCause();
+			throw new RuntimeException(e.getCause());
+		}
+		finally {
+			futures.forEach(f -> f.cancel(true));
+		}
+		return results;
+	}
+
+	private void start() throws SQLException {
+		availableConnections.add(conn);
+		for (int i = 1; i < parallelism; i++) {
+			Connection c = connectionSupplier.get();
+			additionalConnections.add(c);
+			availableConnections.add(c);
+		}
+		executor = Executors.newFixedThreadPool(parallelism);
+	}
+
+	@Override
+	public void close() throws SQLException {
+		if (executor != null)
+			executor.shutdownNow();
+		for (Connection c : additionalConnections)
+			c.close();
+	}
+}
@@ -21,14 +21,17 @@ package it.unibz.inf.ontop.dbschema;
 */
 
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Retrieves the database metadata (table schema and database constraints)
@@ -131,6 +134,30 @@ public class RDBMetadataExtractionTools {
 			System.out.println("getIdentifierQuoteString: " + md.getIdentifierQuoteString());
 		}
 
+		QuotedIDFactory idfac = createQuotedIDFactory(md);
+
+		RDBMetadata metadata = new RDBMetadata(md.getDriverName(), md.getDriverVersion(),
+							productName, md.getDatabaseProductVersion(), idfac, typeFactory);
+		
+		return metadata;	
+	}
+
+	/**
+	 * Creates database metadata description that reads the metadata of each relation
+	 * when it is first accessed (see LazyRDBMetadata)
+	 *
+	 * @param connectionSupplier opens the connection used for reading the metadata (closed when the metadata is frozen)
+	 */
+
+	public static RDBMetadata createLazyMetadata(Connection conn, TypeFactory typeFactory,
+												 ConnectionSupplier connectionSupplier) throws SQLException  {
+		DatabaseMetaData md = conn.getMetaData();
+		return new LazyRDBMetadata(md.getDriverName(), md.getDriverVersion(), md.getDatabaseProductName(),
+				md.getDatabaseProductVersion(), createQuotedIDFactory(md), typeFactory, connectionSupplier);
+	}
+
+	private static QuotedIDFactory createQuotedIDFactory(DatabaseMetaData md) throws SQLException {
+		String productName = md.getDatabaseProductName();
 		QuotedIDFactory idfac;
 		//  MySQL
 		if (productName.contains("MySQL"))  {
@@ -164,11 +191,7 @@ public class RDBMetadataExtractionTools {
 				idfac = new QuotedIDFactoryStandardSQL("\"");
 			}
 		}
-
-		RDBMetadata metadata = new RDBMetadata(md.getDriverName(), md.getDriverVersion(),
-							productName, md.getDatabaseProductVersion(), idfac, typeFactory);
-		
-		return metadata;	
+		return idfac;
 	}
 
 	/**
@@ -182,6 +205,26 @@ public class RDBMetadataExtractionTools {
 	 */
 
 	public static void loadMetadata(RDBMetadata metadata, Connection conn, Set<RelationID> realTables) throws SQLException {
+		loadMetadata(metadata, conn, realTables, false, 1, null);
+	}
+
+	/**
+	 * Retrieves the database metadata (table schema and database constraints)
+	 *
+	 * In the bulk mode, the columns of all the relations of a schema are read with one catalog query.
+	 * For Oracle, PostgreSQL and MySQL, the keys of all the relations of a schema are also read with two
+	 * catalog queries (unique indexes that are not declared as constraints are then ignored).
+	 *
+	 * The metadata of the remaining relations (e.g. relations without schema) is read relation by relation,
+	 * over several connections when the parallelism is greater than 1.
+	 *
+	 * @param parallelism number of connections (including conn) used for reading the metadata relation by relation
+	 * @param connectionSupplier opens the additional connections (required when the parallelism is greater than 1)
+	 */
+
+	public static void loadMetadata(RDBMetadata metadata, Connection conn, Set<RelationID> realTables,
+									boolean bulk, int parallelism, @Nullable ConnectionSupplier connectionSupplier)
+			throws SQLException {
 
 		if (printouts)
 			System.out.println("GETTING METADATA WITH " + conn + " ON " + realTables);
@@ -226,59 +269,89 @@ public class RDBMetadataExtractionTools {
 		else if (productName.contains("Microsoft SQL Server"))
 			dt = SQLServerTypeFixer;
 
+		Optional<BulkKeyQueryProvider> bulkKeyQueryProvider = Optional.empty();
+		if (productName.contains("Oracle"))
+			bulkKeyQueryProvider = Optional.of(OracleBulkKeyQueryProvider);
+		else if (productName.contains("PostgreSQL"))
+			bulkKeyQueryProvider = Optional.of(PostgreSQLBulkKeyQueryProvider);
+		else if (productName.contains("MySQL"))
+			bulkKeyQueryProvider = Optional.of(MySQLBulkKeyQueryProvider);
+
 		List<DatabaseRelationDefinition> extractedRelations = new LinkedList<>();
 
         String catalog = getCatalog(metadata, conn);
 
-        for (RelationID seedId : seedRelationIds) {
+        try (MetadataConnectionPool pool = new MetadataConnectionPool(conn, parallelism, connectionSupplier)) {
+
 			// the same seedId can be mapped to many tables (if the seedId has no schema)
 			// we collect attributes from all of them
-			DatabaseRelationDefinition currentRelation = null;
+			Map<RelationID, List<ColumnRecord>> bulkColumns = new HashMap<>();
+			if (bulk) {
+				for (String schema : getSchemas(seedRelationIds))
+					bulkColumns.putAll(getColumns(md, catalog, schema, null, idfac));
+			}
 
-			// catalog is ignored for now (rs.getString("TABLE_CAT"))
-            try (ResultSet rs = md.getColumns(catalog, seedId.getSchemaName(), seedId.getTableName(), null)) {
-				while (rs.next()) {
-					String schema = rs.getString("TABLE_SCHEM");
-					// MySQL workaround
-					if (schema == null)
-						schema = rs.getString("TABLE_CAT");
-
-					RelationID relationId = RelationID.createRelationIdFromDatabaseRecord(idfac, schema,
-										rs.getString("TABLE_NAME"));
-					QuotedID attributeId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("COLUMN_NAME"));
+			List<RelationID> remainingSeedIds = seedRelationIds.stream()
+					.filter(id -> !(bulk && id.hasSchema()))
+					.collect(Collectors.toList());
+			List<List<ColumnRecord>> remainingColumns = pool.map(remainingSeedIds,
+					(c, id) -> getColumns(c.getMetaData(), catalog, id.getSchemaName(), id.getTableName(), idfac).values().stream()
+							.flatMap(Collection::stream)
+							.collect(Collectors.toList()));
+
+			Iterator<List<ColumnRecord>> remainingColumnIterator = remainingColumns.iterator();
+			for (RelationID seedId : seedRelationIds) {
+				List<ColumnRecord> columns = (bulk && seedId.hasSchema())
+						? bulkColumns.getOrDefault(seedId, ImmutableList.of())
+						: remainingColumnIterator.next();
+
+				DatabaseRelationDefinition currentRelation = null;
+				for (ColumnRecord column : columns) {
 					if (printouts)
-						System.out.println("         " + relationId + "." + attributeId);
+						System.out.println("         " + column.relationId + "." + column.attributeId);
 
-					if (currentRelation == null || !currentRelation.getID().equals(relationId)) {
+					if (currentRelation == null || !currentRelation.getID().equals(column.relationId)) {
 						// switch to the next database relation
-						currentRelation = metadata.createDatabaseRelation(relationId);
+						currentRelation = metadata.createDatabaseRelation(column.relationId);
 						extractedRelations.add(currentRelation);
 					}
 
-					// columnNoNulls, columnNullable, columnNullableUnknown
-					boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
-					String typeName = rs.getString("TYPE_NAME");
-					int columnSize = rs.getInt("COLUMN_SIZE");
-					//int dataType = dt.getCorrectedDatatype(rs.getInt("DATA_TYPE"), typeName);
-
-					DBTermType termType = metadata.getDBTypeFactory().getDBTermType(typeName, columnSize);
+					DBTermType termType = metadata.getDBTypeFactory().getDBTermType(column.typeName, column.columnSize);
 
-					currentRelation.addAttribute(attributeId, typeName, termType, isNullable);
+					currentRelation.addAttribute(column.attributeId, column.typeName, termType, column.isNullable);
 				}
 			}
-		}
 
-		for (DatabaseRelationDefinition relation : extractedRelations)	{
-			getPrimaryKey(md, relation, metadata.getQuotedIDFactory());
-			getUniqueAttributes(md, relation, metadata.getQuotedIDFactory());
-			getForeignKeys(md, relation, metadata);
-			if (printouts) {
-				System.out.println(relation + ";");
-				for (UniqueConstraint uc : relation.getUniqueConstraints())
-					System.out.println(uc + ";");
-				for (ForeignKeyConstraint fk : relation.getForeignKeys())
-					System.out.println(fk +  ";");
-				System.out.println("");
+			Map<RelationID, KeyRecords> bulkKeys = new HashMap<>();
+			if (bulk && bulkKeyQueryProvider.isPresent()) {
+				for (String schema : getSchemas(extractedRelations.stream()
+						.map(RelationDefinition::getID)
+						.collect(Collectors.toList())))
+					bulkKeys.putAll(getKeys(conn, bulkKeyQueryProvider.get(), schema, idfac));
+			}
+			boolean areKeysInBulk = bulk && bulkKeyQueryProvider.isPresent();
+
+			List<DatabaseRelationDefinition> remainingRelations = extractedRelations.stream()
+					.filter(r -> !(areKeysInBulk && r.getID().hasSchema()))
+					.collect(Collectors.toList());
+			List<KeyRecords> remainingKeys = pool.map(remainingRelations,
+					(c, r) -> getKeys(c.getMetaData(), r.getID(), idfac));
+
+			Iterator<KeyRecords> remainingKeyIterator = remainingKeys.iterator();
+			for (DatabaseRelationDefinition relation : extractedRelations) {
+				KeyRecords keys = (areKeysInBulk && relation.getID().hasSchema())
+						? bulkKeys.getOrDefault(relation.getID(), KeyRecords.EMPTY)
+						: remainingKeyIterator.next();
+
+				insertKeys(relation, keys, metadata);
+				if (printouts) {
+					System.out.println(relation + ";");
+					for (UniqueConstraint uc : relation.getUniqueConstraints())
+						System.out.println(uc + ";");
+					for (ForeignKeyConstraint fk : relation.getForeignKeys())
+						System.out.println(fk +  ";");
+					System.out.println("");
+				}
 			}
 		}
 
@@ -288,6 +361,154 @@ public class RDBMetadataExtractionTools {
 		}
 	}
 
+	private static Set<String> getSchemas(Collection<RelationID> relationIds) {
+		return relationIds.stream()
+				.filter(RelationID::hasSchema)
+				.map(RelationID::getSchemaName)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	/**
+	 * Columns of the relations matching the (schema, table) pattern, grouped by relation
+	 * (in the order of the database record)
+	 */
+	private static Map<RelationID, List<ColumnRecord>> getColumns(DatabaseMetaData md, String catalog, String schema,
+																  String table, QuotedIDFactory idfac) throws SQLException {
+		Map<RelationID, List<ColumnRecord>> columns = new LinkedHashMap<>();
+		// catalog is ignored for now (rs.getString("TABLE_CAT"))
+		try (ResultSet rs = md.getColumns(catalog, schema, table, null)) {
+			while (rs.next()) {
+				String schemaName = rs.getString("TABLE_SCHEM");
+				// MySQL workaround
+				if (schemaName == null)
+					schemaName = rs.getString("TABLE_CAT");
+
+				RelationID relationId = RelationID.createRelationIdFromDatabaseRecord(idfac, schemaName,
+						rs.getString("TABLE_NAME"));
+				QuotedID attributeId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("COLUMN_NAME"));
+
+				// columnNoNulls, columnNullable, columnNullableUnknown
+				boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+				String typeName = rs.getString("TYPE_NAME");
+				int columnSize = rs.getInt("COLUMN_SIZE");
+				//int dataType = dt.getCorrectedDatatype(rs.getInt("DATA_TYPE"), typeName);
+
+				columns.computeIfAbsent(relationId, id -> new ArrayList<>())
+						.add(new ColumnRecord(relationId, attributeId, typeName, columnSize, isNullable));
+			}
+		}
+		return columns;
+	}
+
+	private static KeyRecords getKeys(DatabaseMetaData md, RelationID id, QuotedIDFactory idfac) throws SQLException {
+		List<UniqueConstraintRecord> ucs = new ArrayList<>();
+		getPrimaryKey(md, id, idfac).ifPresent(ucs::add);
+		ucs.addAll(getUniqueAttributes(md, id));
+		return new KeyRecords(ucs, getForeignKeys(md, id));
+	}
+
+	private static void insertKeys(DatabaseRelationDefinition relation, KeyRecords keys, DBMetadata metadata) {
+		QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+
+		insertUniqueConstraints(relation, keys.uniqueConstraints, idfac);
+
+		for (ForeignKeyRecord fkRecord : keys.foreignKeys) {
+			RelationID refId = fkRecord.getReferencedRelationID(idfac);
+			DatabaseRelationDefinition ref = metadata.getDatabaseRelation(refId);
+			if (ref == null) {
+				// do not add this foreign key because there is no table it refers to
+				log.warn("Cannot find table: " + refId + " for FK " + fkRecord.name);
+				continue;
+			}
+			insertForeignKey(relation, fkRecord, ref, idfac);
+		}
+	}
+
+	private static void insertUniqueConstraints(DatabaseRelationDefinition relation,
+												List<UniqueConstraintRecord> ucRecords, QuotedIDFactory idfac) {
+		for (UniqueConstraintRecord ucRecord : ucRecords) {
+			UniqueConstraint.Builder builder = UniqueConstraint.builder(relation);
+			for (String column : ucRecord.columns) {
+				QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, column);
+				Attribute attr = relation.getAttribute(attrId);
+				if (attr == null) { // Compensate for the bug in PostgreSQL JBDC driver that
+					// strips off the quotation marks
+					attrId = QuotedID.createIdFromDatabaseRecord(idfac, "\"" + column + "\"");
+					attr = relation.getAttribute(attrId);
+				}
+				builder.add(attr);
+			}
+			relation.addUniqueConstraint(builder.build(ucRecord.name, ucRecord.isPrimaryKey));
+		}
+	}
+
+	private static void insertForeignKey(DatabaseRelationDefinition relation, ForeignKeyRecord fkRecord,
+										 DatabaseRelationDefinition ref, QuotedIDFactory idfac) {
+		ForeignKeyConstraint.Builder builder = new ForeignKeyConstraint.Builder(relation, ref);
+		for (int i = 0; i < fkRecord.columns.size(); i++) {
+			QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, fkRecord.columns.get(i));
+			QuotedID refAttrId = QuotedID.createIdFromDatabaseRecord(idfac, fkRecord.referencedColumns.get(i));
+			builder.add(relation.getAttribute(attrId), ref.getAttribute(refAttrId));
+		}
+		relation.addForeignKeyConstraint(builder.build(fkRecord.name));
+	}
+
+	/**
+	 * Keys of all the relations of the schema (two catalog queries)
+	 */
+	private static Map<RelationID, KeyRecords> getKeys(Connection conn, BulkKeyQueryProvider provider, String schema,
+													   QuotedIDFactory idfac) throws SQLException {
+		Map<RelationID, KeyRecords> keys = new HashMap<>();
+
+		try (PreparedStatement stmt = conn.prepareStatement(provider.getUniqueConstraintQuery())) {
+			stmt.setString(1, schema);
+			try (ResultSet rs = stmt.executeQuery()) {
+				RelationID currentId = null;
+				String currentName = null;
+				UniqueConstraintRecord current = null;
+				while (rs.next()) {
+					RelationID id = RelationID.createRelationIdFromDatabaseRecord(idfac, schema, rs.getString("TABLE_NAME"));
+					String name = rs.getString("CONSTRAINT_NAME");
+					if (current == null || !id.equals(currentId) || !name.equals(currentName)) {
+						String type = rs.getString("CONSTRAINT_TYPE");
+						current = new UniqueConstraintRecord(name, type.equals("P") || type.equals("PRIMARY KEY"));
+						currentId = id;
+						currentName = name;
+						List<UniqueConstraintRecord> ucs = keys.computeIfAbsent(id, i -> new KeyRecords()).uniqueConstraints;
+						// the primary key comes first
+						if (current.isPrimaryKey)
+							ucs.add(0, current);
+						else
+							ucs.add(current);
+					}
+					current.columns.add(rs.getString("COLUMN_NAME"));
+				}
+			}
+		}
+
+		try (PreparedStatement stmt = conn.prepareStatement(provider.getForeignKeyQuery())) {
+			stmt.setString(1, schema);
+			try (ResultSet rs = stmt.executeQuery()) {
+				RelationID currentId = null;
+				String currentName = null;
+				ForeignKeyRecord current = null;
+				while (rs.next()) {
+					RelationID id = RelationID.createRelationIdFromDatabaseRecord(idfac, schema, rs.getString("TABLE_NAME"));
+					String name = rs.getString("CONSTRAINT_NAME");
+					if (current == null || !id.equals(currentId) || !name.equals(currentName)) {
+						current = new ForeignKeyRecord(name, rs.getString("R_SCHEMA"), rs.getString("R_TABLE_NAME"));
+						currentId = id;
+						currentName = name;
+						keys.computeIfAbsent(id, i -> new KeyRecords()).foreignKeys.add(current);
+					}
+					current.columns.add(rs.getString("COLUMN_NAME"));
+					current.referencedColumns.add(rs.getString("R_COLUMN_NAME"));
+				}
+			}
+		}
+		return keys;
+	}
+
     private static String getCatalog(RDBMetadata metadata, Connection conn) throws SQLException {
         String catalog = null;
 
@@ -564,21 +785,20 @@ public class RDBMetadataExtractionTools {
 	 * Retrieves the primary key for the table
 	 *
 	 */
-	private static void getPrimaryKey(DatabaseMetaData md, DatabaseRelationDefinition relation, QuotedIDFactory idfac) throws SQLException {
-		RelationID id = relation.getID();
+	private static Optional<UniqueConstraintRecord> getPrimaryKey(DatabaseMetaData md, RelationID id, QuotedIDFactory idfac) throws SQLException {
 		// Retrieves a description of the given table's primary key columns. They are ordered by COLUMN_NAME (sic!)
 		try (ResultSet rs = md.getPrimaryKeys(null, id.getSchemaName(), id.getTableName())) {
-			extractPrimaryKey(relation, idfac, id, rs);
+			return extractPrimaryKey(idfac, id, rs);
 		} catch (SQLSyntaxErrorException e) {
 		    // WORKAROUND for MySQL connector >= 8.0:
             // <https://github.com/ontop/ontop/issues/270>
             try (ResultSet rs = md.getPrimaryKeys(id.getSchemaName(), null, id.getTableName())) {
-                extractPrimaryKey(relation, idfac, id, rs);
+                return extractPrimaryKey(idfac, id, rs);
             }
 		}
 	}
 
-	private static void extractPrimaryKey(DatabaseRelationDefinition relation, QuotedIDFactory idfac, RelationID id, ResultSet rs) throws SQLException {
+	private static Optional<UniqueConstraintRecord> extractPrimaryKey(QuotedIDFactory idfac, RelationID id, ResultSet rs) throws SQLException {
 		Map<Integer, String> primaryKeyAttributes = new HashMap<>();
 		String currentName = null;
 		while (rs.next()) {
@@ -592,15 +812,14 @@ public class RDBMetadataExtractionTools {
 				primaryKeyAttributes.put(seq, attr);
 			}
 		}
-		if (!primaryKeyAttributes.isEmpty()) {
-			// use the KEY_SEQ values to restore the correct order of attributes in the PK
-			UniqueConstraint.Builder builder = UniqueConstraint.builder(relation);
-			for (int i = 1; i <= primaryKeyAttributes.size(); i++) {
-				QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, primaryKeyAttributes.get(i));
-				builder.add(relation.getAttribute(attrId));
-			}
-			relation.addUniqueConstraint(builder.build(currentName, true));
-		}
+		if (primaryKeyAttributes.isEmpty())
+			return Optional.empty();
+
+		// use the KEY_SEQ values to restore the correct order of attributes in the PK
+		UniqueConstraintRecord pk = new UniqueConstraintRecord(currentName, true);
+		for (int i = 1; i <= primaryKeyAttributes.size(); i++)
+			pk.columns.add(primaryKeyAttributes.get(i));
+		return Optional.of(pk);
 	}
 
 	/**
@@ -609,52 +828,44 @@ public class RDBMetadataExtractionTools {
 	 * @return
 	 * @throws SQLException
 	 */
-	private static void getUniqueAttributes(DatabaseMetaData md, DatabaseRelationDefinition relation, QuotedIDFactory idfac) throws SQLException {
+	private static List<UniqueConstraintRecord> getUniqueAttributes(DatabaseMetaData md, RelationID id) throws SQLException {
 
-		RelationID id = relation.getID();
 		// extracting unique
 		try (ResultSet rs = md.getIndexInfo(null, id.getSchemaName(), id.getTableName(), true, true)) {
-            extractUniqueAttributes(relation, idfac, rs);
+            return extractUniqueAttributes(rs);
         } catch (Exception e){
 		    // Workaround for MySQL-connector >= 8.0
             try (ResultSet rs = md.getIndexInfo(id.getSchemaName(),null, id.getTableName(), true, true)) {
-                extractUniqueAttributes(relation, idfac, rs);
+                return extractUniqueAttributes(rs);
             }
         }
 	}
 
-    private static void extractUniqueAttributes(DatabaseRelationDefinition relation, QuotedIDFactory idfac, ResultSet rs) throws SQLException {
-        UniqueConstraint.Builder builder = null;
-        String currentName = null;
+    private static List<UniqueConstraintRecord> extractUniqueAttributes(ResultSet rs) throws SQLException {
+		List<UniqueConstraintRecord> ucs = new ArrayList<>();
+		UniqueConstraintRecord current = null;
         while (rs.next()) {
             // TYPE: tableIndexStatistic - this identifies table statistics that are returned in conjunction with a table's index descriptions
             //       tableIndexClustered - this is a clustered index
             //       tableIndexHashed - this is a hashed index
             //       tableIndexOther (all are static final int in DatabaseMetaData)
             if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
-                if (builder != null)
-                    relation.addUniqueConstraint(builder.build(currentName, false));
-
-                builder = null;
+                current = null;
                 continue;
             }
             if (rs.getShort("ORDINAL_POSITION") == 1) {
-                if (builder != null)
-                    relation.addUniqueConstraint(builder.build(currentName, false));
-
                 // TABLE_CAT is ignored for now; assume here that relation has a fully specified name
                 // and so, no need to check whether TABLE_SCHEM and TABLE_NAME match
 
                 if (!rs.getBoolean("NON_UNIQUE")) {
-                    builder = UniqueConstraint.builder(relation);
-                    currentName = rs.getString("INDEX_NAME");
+                    current = new UniqueConstraintRecord(rs.getString("INDEX_NAME"), false);
+                    ucs.add(current);
                 }
                 else
-                    builder = null;
+                    current = null;
             }
 
-            if (builder != null) {
-                QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("COLUMN_NAME"));
+            if (current != null) {
                 // ASC_OR_DESC String => column sort sequence, "A" => ascending, "D" => descending,
                 //        may be null if sort sequence is not supported; null when TYPE is tableIndexStatistic
                 // CARDINALITY int => When TYPE is tableIndexStatistic, then this is the number of rows in the table;
@@ -662,76 +873,314 @@ public class RDBMetadataExtractionTools {
                 // PAGES int => When TYPE is tableIndexStatisic then this is the number of pages used for the table,
                 //                    otherwise it is the number of pages used for the current index.
                 // FILTER_CONDITION String => Filter condition, if any. (may be null)
-                Attribute attr = relation.getAttribute(attrId);
-                if (attr == null) { // Compensate for the bug in PostgreSQL JBDC driver that
-                    // strips off the quotation marks
-                    attrId = QuotedID.createIdFromDatabaseRecord(idfac, "\"" + rs.getString("COLUMN_NAME") + "\"");
-                    attr = relation.getAttribute(attrId);
-                }
-                builder.add(attr);
+                current.columns.add(rs.getString("COLUMN_NAME"));
             }
         }
-        if (builder != null)
-            relation.addUniqueConstraint(builder.build(currentName, false));
+        return ucs;
     }
 
     /**
 	 * Retrieves the foreign keys for the table
 	 *
 	 */
-	private static void getForeignKeys(DatabaseMetaData md, DatabaseRelationDefinition relation, DBMetadata metadata) throws SQLException {
-
-		QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+	private static List<ForeignKeyRecord> getForeignKeys(DatabaseMetaData md, RelationID relationId) throws SQLException {
 
-		RelationID relationId = relation.getID();
 		try (ResultSet rs = md.getImportedKeys(null, relationId.getSchemaName(), relationId.getTableName())) {
-            extractForeignKeys(relation, metadata, idfac, rs);
+            return extractForeignKeys(rs);
         }
         catch (Exception ex) {
             try (ResultSet rs = md.getImportedKeys(relationId.getSchemaName(),null, relationId.getTableName())) {
-                extractForeignKeys(relation, metadata, idfac, rs);
+                return extractForeignKeys(rs);
             }
         }
 	}
 
-    private static void extractForeignKeys(DatabaseRelationDefinition relation, DBMetadata metadata, QuotedIDFactory idfac, ResultSet rs) throws SQLException {
-        ForeignKeyConstraint.Builder builder = null;
-        String currentName = null;
+    private static List<ForeignKeyRecord> extractForeignKeys(ResultSet rs) throws SQLException {
+		List<ForeignKeyRecord> fks = new ArrayList<>();
+		ForeignKeyRecord current = null;
         while (rs.next()) {
-			String schemaName = rs.getString("PKTABLE_SCHEM");
+			// FKTABLE_SCHEM and FKTABLE_NAME are ignored for now
+			int seq = rs.getShort("KEY_SEQ");
+			if (seq == 1) {
+				String schemaName = rs.getString("PKTABLE_SCHEM");
+
+				// WORKAROUND FOR MySQL connector >= v8.0
+				if (schemaName == null) {
+					schemaName = rs.getString("PKTABLE_CAT");
+				}
 
-			// WORKAROUND FOR MySQL connector >= v8.0
-			if (schemaName == null) {
-			    schemaName = rs.getString("PKTABLE_CAT");
-            }
+				// String => foreign key name (may be null)
+				current = new ForeignKeyRecord(rs.getString("FK_NAME"), schemaName, rs.getString("PKTABLE_NAME"));
+				fks.add(current);
+			}
+			if (current != null) {
+				current.columns.add(rs.getString("FKCOLUMN_NAME"));
+				current.referencedColumns.add(rs.getString("PKCOLUMN_NAME"));
+			}
+        }
+        return fks;
+    }
 
-			RelationID refId = RelationID.createRelationIdFromDatabaseRecord(idfac,
-					schemaName, rs.getString("PKTABLE_NAME"));
-            DatabaseRelationDefinition ref = metadata.getDatabaseRelation(refId);
-            // FKTABLE_SCHEM and FKTABLE_NAME are ignored for now
-            int seq = rs.getShort("KEY_SEQ");
-            if (seq == 1) {
-                if (builder != null)
-                    relation.addForeignKeyConstraint(builder.build(currentName));
 
-                currentName = rs.getString("FK_NAME"); // String => foreign key name (may be null)
+	/**
+	 * Opens the additional connections used for reading the metadata in parallel
+	 */
+	@FunctionalInterface
+	public interface ConnectionSupplier {
+		Connection get() throws SQLException;
+	}
 
-                if (ref != null) {
-                    builder = new ForeignKeyConstraint.Builder(relation, ref);
-                }
-                else {
-                    builder = null; // do not add this foreign key
-                                    // because there is no table it refers to
-                    log.warn("Cannot find table: " + refId + " for FK " + currentName);
-                }
-            }
-            if (builder != null) {
-                QuotedID attrId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("FKCOLUMN_NAME"));
-                QuotedID refAttrId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("PKCOLUMN_NAME"));
-                builder.add(relation.getAttribute(attrId), ref.getAttribute(refAttrId));
-            }
-        }
-        if (builder != null)
-            relation.addForeignKeyConstraint(builder.build(currentName));
-    }
+	/**
+	 * Reads the metadata relation by relation (for LazyRDBMetadata).
+	 *
+	 * The foreign keys are added as soon as the relation they refer to has been loaded.
+	 * Not thread-safe: the calls are synchronized by LazyRDBMetadata.
+	 */
+	static final class RelationLoader implements AutoCloseable {
+
+		private final Connection conn;
+		@Nullable
+		private final String defaultSchema;
+		@Nullable
+		private final String catalog;
+		private final List<PendingForeignKey> pendingForeignKeys = new LinkedList<>();
+
+		RelationLoader(RDBMetadata metadata, Connection conn) throws SQLException {
+			this.conn = conn;
+			String productName = metadata.getDbmsProductName();
+			this.defaultSchema = productName.contains("Oracle") ? getOracleDefaultOwner(conn) : null;
+			this.catalog = getCatalog(metadata, conn);
+		}
+
+		/**
+		 * Creates the database relations matching the id (several relations for an id without schema)
+		 *
+		 * @return the created relations (empty if the id does not match any relation of the database)
+		 */
+		List<DatabaseRelationDefinition> load(LazyRDBMetadata metadata, RelationID id) throws SQLException {
+			QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+			RelationID seedId = getTableList(defaultSchema, ImmutableSet.of(id), idfac).get(0);
+			DatabaseMetaData md = conn.getMetaData();
+
+			List<DatabaseRelationDefinition> relations = new ArrayList<>();
+			for (Map.Entry<RelationID, List<ColumnRecord>> e : getColumns(md, catalog,
+					seedId.getSchemaName(), seedId.getTableName(), idfac).entrySet()) {
+				DatabaseRelationDefinition loadedRelation = metadata.getLoadedDatabaseRelation(e.getKey());
+				if (loadedRelation != null && loadedRelation.getID().equals(e.getKey()))
+					continue;
+
+				DatabaseRelationDefinition relation = metadata.createDatabaseRelation(e.getKey());
+				for (ColumnRecord column : e.getValue()) {
+					DBTermType termType = metadata.getDBTypeFactory().getDBTermType(column.typeName, column.columnSize);
+					relation.addAttribute(column.attributeId, column.typeName, termType, column.isNullable);
+				}
+				relations.add(relation);
+			}
+
+			for (DatabaseRelationDefinition relation : relations) {
+				KeyRecords keys = getKeys(md, relation.getID(), idfac);
+				insertUniqueConstraints(relation, keys.uniqueConstraints, idfac);
+				for (ForeignKeyRecord fkRecord : keys.foreignKeys)
+					pendingForeignKeys.add(new PendingForeignKey(relation, fkRecord));
+			}
+
+			Iterator<PendingForeignKey> iterator = pendingForeignKeys.iterator();
+			while (iterator.hasNext()) {
+				PendingForeignKey fk = iterator.next();
+				DatabaseRelationDefinition ref = metadata.getLoadedDatabaseRelation(
+						fk.record.getReferencedRelationID(idfac));
+				if (ref != null) {
+					insertForeignKey(fk.relation, fk.record, ref, idfac);
+					iterator.remove();
+				}
+			}
+			return relations;
+		}
+
+		/**
+		 * The foreign keys that are still pending refer to relations that have not been used
+		 */
+		@Override
+		public void close() throws SQLException {
+			for (PendingForeignKey fk : pendingForeignKeys)
+				log.debug("Ignoring FK " + fk.record.name + " of " + fk.relation.getID()
+						+ ": the relation it refers to has not been loaded");
+			pendingForeignKeys.clear();
+			conn.close();
+		}
+
+		private static final class PendingForeignKey {
+			private final DatabaseRelationDefinition relation;
+			private final ForeignKeyRecord record;
+
+			private PendingForeignKey(DatabaseRelationDefinition relation, ForeignKeyRecord record) {
+				this.relation = relation;
+				this.record = record;
+			}
+		}
+	}
+
+	private static final class ColumnRecord {
+		private final RelationID relationId;
+		private final QuotedID attributeId;
+		private final String typeName;
+		private final int columnSize;
+		private final boolean isNullable;
+
+		private ColumnRecord(RelationID relationId, QuotedID attributeId, String typeName, int columnSize,
+							 boolean isNullable) {
+			this.relationId = relationId;
+			this.attributeId = attributeId;
+			this.typeName = typeName;
+			this.columnSize = columnSize;
+			this.isNullable = isNullable;
+		}
+	}
+
+	private static final class UniqueConstraintRecord {
+		@Nullable
+		private final String name;
+		private final boolean isPrimaryKey;
+		private final List<String> columns = new ArrayList<>();
+
+		private UniqueConstraintRecord(@Nullable String name, boolean isPrimaryKey) {
+			this.name = name;
+			this.isPrimaryKey = isPrimaryKey;
+		}
+	}
+
+	private static final class ForeignKeyRecord {
+		@Nullable
+		private final String name;
+		private final String referencedSchema;
+		private final String referencedTable;
+		private final List<String> columns = new ArrayList<>();
+		private final List<String> referencedColumns = new ArrayList<>();
+
+		private ForeignKeyRecord(@Nullable String name, String referencedSchema, String referencedTable) {
+			this.name = name;
+			this.referencedSchema = referencedSchema;
+			this.referencedTable = referencedTable;
+		}
+
+		private RelationID getReferencedRelationID(QuotedIDFactory idfac) {
+			return RelationID.createRelationIdFromDatabaseRecord(idfac, referencedSchema, referencedTable);
+		}
+	}
+
+	private static final class KeyRecords {
+		private static final KeyRecords EMPTY = new KeyRecords(ImmutableList.of(), ImmutableList.of());
+
+		private final List<UniqueConstraintRecord> uniqueConstraints;
+		private final List<ForeignKeyRecord> foreignKeys;
+
+		private KeyRecords() {
+			this(new ArrayList<>(), new ArrayList<>());
+		}
+
+		private KeyRecords(List<UniqueConstraintRecord> uniqueConstraints, List<ForeignKeyRecord> foreignKeys) {
+			this.uniqueConstraints = uniqueConstraints;
+			this.foreignKeys = foreignKeys;
+		}
+	}
+
+
+	/**
+	 * Catalog queries returning the keys of all the relations of a schema (the only parameter).
+	 *
+	 * Unique constraints: TABLE_NAME, CONSTRAINT_NAME, CONSTRAINT_TYPE, COLUMN_NAME
+	 * Foreign keys: TABLE_NAME, CONSTRAINT_NAME, COLUMN_NAME, R_SCHEMA, R_TABLE_NAME, R_COLUMN_NAME
+	 *
+	 * Both ordered by TABLE_NAME, CONSTRAINT_NAME and position of the column.
+	 */
+	private interface BulkKeyQueryProvider {
+		String getUniqueConstraintQuery();
+		String getForeignKeyQuery();
+	}
+
+	private static final BulkKeyQueryProvider OracleBulkKeyQueryProvider = new BulkKeyQueryProvider() {
+		@Override
+		public String getUniqueConstraintQuery() {
+			return "SELECT c.TABLE_NAME, c.CONSTRAINT_NAME, c.CONSTRAINT_TYPE, cc.COLUMN_NAME " +
+					"FROM ALL_CONSTRAINTS c " +
+					"JOIN ALL_CONS_COLUMNS cc ON c.OWNER = cc.OWNER AND c.CONSTRAINT_NAME = cc.CONSTRAINT_NAME " +
+					"   AND c.TABLE_NAME = cc.TABLE_NAME " +
+					"WHERE c.OWNER = ? AND c.CONSTRAINT_TYPE IN ('P', 'U') " +
+					"ORDER BY c.TABLE_NAME, c.CONSTRAINT_NAME, cc.POSITION";
+		}
+
+		@Override
+		public String getForeignKeyQuery() {
+			return "SELECT c.TABLE_NAME, c.CONSTRAINT_NAME, cc.COLUMN_NAME, " +
+					"   r.OWNER AS R_SCHEMA, r.TABLE_NAME AS R_TABLE_NAME, rc.COLUMN_NAME AS R_COLUMN_NAME " +
+					"FROM ALL_CONSTRAINTS c " +
+					"JOIN ALL_CONS_COLUMNS cc ON c.OWNER = cc.OWNER AND c.CONSTRAINT_NAME = cc.CONSTRAINT_NAME " +
+					"JOIN ALL_CONSTRAINTS r ON c.R_OWNER = r.OWNER AND c.R_CONSTRAINT_NAME = r.CONSTRAINT_NAME " +
+					"JOIN ALL_CONS_COLUMNS rc ON r.OWNER = rc.OWNER AND r.CONSTRAINT_NAME = rc.CONSTRAINT_NAME " +
+					"   AND cc.POSITION = rc.POSITION " +
+					"WHERE c.OWNER = ? AND c.CONSTRAINT_TYPE = 'R' " +
+					"ORDER BY c.TABLE_NAME, c.CONSTRAINT_NAME, cc.POSITION";
+		}
+	};
+
+	/**
+	 * Reads pg_catalog rather than INFORMATION_SCHEMA: the latter only shows the constraints of the tables
+	 * owned by the current role, and constraint names are only unique per table (not per schema).
+	 *
+	 * The positions of the columns are enumerated with generate_subscripts in the select list
+	 * (unnest ... WITH ORDINALITY requires PostgreSQL 9.4).
+	 */
+	private static final BulkKeyQueryProvider PostgreSQLBulkKeyQueryProvider = new BulkKeyQueryProvider() {
+		@Override
+		public String getUniqueConstraintQuery() {
+			return "SELECT k.TABLE_NAME, k.CONSTRAINT_NAME, k.CONSTRAINT_TYPE, a.attname AS COLUMN_NAME " +
+					"FROM (SELECT t.relname AS TABLE_NAME, c.conname AS CONSTRAINT_NAME, " +
+					"         CASE c.contype WHEN 'p' THEN 'PRIMARY KEY' ELSE 'UNIQUE' END AS CONSTRAINT_TYPE, " +
+					"         c.conrelid, c.conkey, generate_subscripts(c.conkey, 1) AS COLUMN_POSITION " +
+					"      FROM pg_catalog.pg_constraint c " +
+					"      JOIN pg_catalog.pg_class t ON t.oid = c.conrelid " +
+					"      JOIN pg_catalog.pg_namespace n ON n.oid = t.relnamespace " +
+					"      WHERE n.nspname = ? AND c.contype IN ('p', 'u')) k " +
+					"JOIN pg_catalog.pg_attribute a ON a.attrelid = k.conrelid AND a.attnum = k.conkey[k.COLUMN_POSITION] " +
+					"ORDER BY k.TABLE_NAME, k.CONSTRAINT_NAME, k.COLUMN_POSITION";
+		}
+
+		@Override
+		public String getForeignKeyQuery() {
+			return "SELECT k.TABLE_NAME, k.CONSTRAINT_NAME, a.attname AS COLUMN_NAME, " +
+					"   rn.nspname AS R_SCHEMA, rt.relname AS R_TABLE_NAME, ra.attname AS R_COLUMN_NAME " +
+					"FROM (SELECT t.relname AS TABLE_NAME, c.conname AS CONSTRAINT_NAME, " +
+					"         c.conrelid, c.confrelid, c.conkey, c.confkey, generate_subscripts(c.conkey, 1) AS COLUMN_POSITION " +
+					"      FROM pg_catalog.pg_constraint c " +
+					"      JOIN pg_catalog.pg_class t ON t.oid = c.conrelid " +
+					"      JOIN pg_catalog.pg_namespace n ON n.oid = t.relnamespace " +
+					"      WHERE n.nspname = ? AND c.contype = 'f') k " +
+					"JOIN pg_catalog.pg_attribute a ON a.attrelid = k.conrelid AND a.attnum = k.conkey[k.COLUMN_POSITION] " +
+					"JOIN pg_catalog.pg_class rt ON rt.oid = k.confrelid " +
+					"JOIN pg_catalog.pg_namespace rn ON rn.oid = rt.relnamespace " +
+					"JOIN pg_catalog.pg_attribute ra ON ra.attrelid = k.confrelid AND ra.attnum = k.confkey[k.COLUMN_POSITION] " +
+					"ORDER BY k.TABLE_NAME, k.CONSTRAINT_NAME, k.COLUMN_POSITION";
+		}
+	};
+
+	private static final BulkKeyQueryProvider MySQLBulkKeyQueryProvider = new BulkKeyQueryProvider() {
+		@Override
+		public String getUniqueConstraintQuery() {
+			return "SELECT tc.TABLE_NAME, tc.CONSTRAINT_NAME, tc.CONSTRAINT_TYPE, kcu.COLUMN_NAME " +
+					"FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+					"JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu ON tc.CONSTRAINT_SCHEMA = kcu.CONSTRAINT_SCHEMA " +
+					"   AND tc.CONSTRAINT_NAME = kcu.CONSTRAINT_NAME AND tc.TABLE_NAME = kcu.TABLE_NAME " +
+					"WHERE tc.TABLE_SCHEMA = ? AND tc.CONSTRAINT_TYPE IN ('PRIMARY KEY', 'UNIQUE') " +
+					"ORDER BY tc.TABLE_NAME, tc.CONSTRAINT_NAME, kcu.ORDINAL_POSITION";
+		}
+
+		@Override
+		public String getForeignKeyQuery() {
+			return "SELECT TABLE_NAME, CONSTRAINT_NAME, COLUMN_NAME, REFERENCED_TABLE_SCHEMA AS R_SCHEMA, " +
+					"   REFERENCED_TABLE_NAME AS R_TABLE_NAME, REFERENCED_COLUMN_NAME AS R_COLUMN_NAME " +
+					"FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE " +
+					"WHERE TABLE_SCHEMA = ? AND REFERENCED_TABLE_NAME IS NOT NULL " +
+					"ORDER BY TABLE_NAME, CONSTRAINT_NAME, ORDINAL_POSITION";
+		}
+	};
 }
@@ -0,0 +1,296 @@
+package it.unibz.inf.ontop.dbschema;
+
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Binary snapshots of the database relations (attributes, unique constraints, foreign keys
+ * and functional dependencies) extracted from the JDBC metadata.
+ *
+ * A snapshot is only valid for a given key (computed by the caller from the inputs of the extraction)
+ * and, optionally, as long as the fingerprint of its relations does not change.
+ * The relations are restored in the same order and with the same identifiers as during the extraction
+ * (see RDBMetadataExtractionTools).
+ *
+ */
+
+public class RDBMetadataSnapshots {
+
+	private static final int MAGIC = 0x4F444D53; // ODMS
+	// to be incremented whenever the format changes
+	private static final int FORMAT_VERSION = 2;
+
+	/**
+	 * Fingerprint of the relations of the metadata: their columns (name, type, nullability)
+	 * and their primary keys, unique indexes and foreign keys.
+	 *
+	 * Only these relations are read: the columns with one catalog query per schema,
+	 * the constraints with three catalog queries per relation.
+	 */
+	public static String getSchemaFingerprint(Connection conn, RDBMetadata metadata) throws SQLException {
+		DatabaseMetaData md = conn.getMetaData();
+		// the null schema is a valid key
+		Map<String, Set<String>> tablesPerSchema = new HashMap<>();
+		for (DatabaseRelationDefinition relation : metadata.getDatabaseRelations())
+			tablesPerSchema.computeIfAbsent(relation.getID().getSchemaName(), s -> new HashSet<>())
+					.add(relation.getID().getTableName());
+
+		List<String> lines = new ArrayList<>();
+		for (Map.Entry<String, Set<String>> e : tablesPerSchema.entrySet()) {
+			String schema = e.getKey();
+			Set<String> tables = e.getValue();
+			if (schema != null) {
+				try (ResultSet rs = md.getColumns(null, schema, null, null)) {
+					addColumnLines(rs, schema, tables, lines);
+				}
+			}
+			else {
+				// no catalog-wide query
+				for (String table : tables)
+					try (ResultSet rs = md.getColumns(null, null, table, null)) {
+						addColumnLines(rs, null, Collections.singleton(table), lines);
+					}
+			}
+
+			for (String table : tables) {
+				String relationName = schema + "." + table;
+				try (ResultSet rs = md.getPrimaryKeys(null, schema, table)) {
+					while (rs.next())
+						lines.add(relationName + " PK " + rs.getString("PK_NAME")
+								+ " " + rs.getString("COLUMN_NAME") + " " + rs.getInt("KEY_SEQ"));
+				}
+				try (ResultSet rs = md.getIndexInfo(null, schema, table, true, true)) {
+					while (rs.next())
+						if (rs.getString("COLUMN_NAME") != null)
+							lines.add(relationName + " UNIQUE " + rs.getString("INDEX_NAME")
+									+ " " + rs.getString("COLUMN_NAME") + " " + rs.getInt("ORDINAL_POSITION"));
+				}
+				try (ResultSet rs = md.getImportedKeys(null, schema, table)) {
+					while (rs.next())
+						lines.add(relationName + " FK " + rs.getString("FK_NAME")
+								+ " " + rs.getString("FKCOLUMN_NAME")
+								+ " " + rs.getString("PKTABLE_SCHEM") + "." + rs.getString("PKTABLE_NAME")
+								+ "." + rs.getString("PKCOLUMN_NAME") + " " + rs.getInt("KEY_SEQ"));
+				}
+			}
+		}
+		return hash(md, lines);
+	}
+
+	/**
+	 * Fingerprint of the list of the tables and views of the database (one catalog query).
+	 *
+	 * Only relevant when the metadata of all the relations is extracted.
+	 */
+	public static String getRelationListFingerprint(Connection conn) throws SQLException {
+		DatabaseMetaData md = conn.getMetaData();
+		List<String> lines = new ArrayList<>();
+		try (ResultSet rs = md.getTables(null, null, null, new String[] { "TABLE", "VIEW" })) {
+			while (rs.next())
+				lines.add(rs.getString("TABLE_SCHEM") + "." + rs.getString("TABLE_NAME")
+						+ " " + rs.getString("TABLE_TYPE"));
+		}
+		return hash(md, lines);
+	}
+
+	private static void addColumnLines(ResultSet rs, String schema, Set<String> tables, List<String> lines)
+			throws SQLException {
+		while (rs.next()) {
+			// the schema and table names are patterns
+			String table = rs.getString("TABLE_NAME");
+			if ((schema == null || schema.equals(rs.getString("TABLE_SCHEM"))) && tables.contains(table))
+				lines.add(rs.getString("TABLE_SCHEM") + "." + table + " COLUMN " + rs.getString("COLUMN_NAME")
+						+ " " + rs.getInt("ORDINAL_POSITION")
+						+ " " + rs.getInt("DATA_TYPE") + " " + rs.getString("TYPE_NAME")
+						+ " " + rs.getInt("COLUMN_SIZE") + " " + rs.getInt("DECIMAL_DIGITS")
+						+ " " + rs.getInt("NULLABLE"));
+		}
+	}
+
+	private static String hash(DatabaseMetaData md, List<String> lines) throws SQLException {
+		Collections.sort(lines);
+		Hasher hasher = Hashing.sha256().newHasher()
+				.putString(md.getDatabaseProductName(), StandardCharsets.UTF_8)
+				.putString(md.getDatabaseProductVersion(), StandardCharsets.UTF_8);
+		for (String line : lines)
+			hasher.putString(line, StandardCharsets.UTF_8).putChar('\n');
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * @param fingerprint of the schema (see getSchemaFingerprint()), checked by read() when not null
+	 */
+	public static void write(RDBMetadata metadata, String key, @Nullable String fingerprint,
+							 OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeUTF(key);
+		writeNullableString(out, fingerprint);
+
+		List<DatabaseRelationDefinition> relations = new ArrayList<>(metadata.getDatabaseRelations());
+		Map<DatabaseRelationDefinition, Integer> relationIndex = new IdentityHashMap<>();
+		for (int i = 0; i < relations.size(); i++)
+			relationIndex.put(relations.get(i), i);
+
+		out.writeInt(relations.size());
+		for (DatabaseRelationDefinition relation : relations) {
+			RelationID id = relation.getID();
+			writeNullableString(out, id.getSchemaName());
+			out.writeUTF(id.getTableName());
+
+			List<Attribute> attributes = relation.getAttributes();
+			out.writeInt(attributes.size());
+			for (Attribute attribute : attributes) {
+				out.writeUTF(attribute.getID().getName());
+				writeNullableString(out, attribute.getSQLTypeName());
+				out.writeUTF(attribute.getTermType()
+						.orElseThrow(() -> new IOException("No term type for " + attribute))
+						.getName());
+				out.writeBoolean(attribute.canNull());
+			}
+		}
+
+		// the constraints may refer to any relation
+		for (DatabaseRelationDefinition relation : relations) {
+			out.writeInt(relation.getUniqueConstraints().size());
+			for (UniqueConstraint uc : relation.getUniqueConstraints()) {
+				writeNullableString(out, uc.getName());
+				out.writeBoolean(uc.isPrimaryKey());
+				writeAttributes(out, uc.getAttributes());
+			}
+
+			out.writeInt(relation.getForeignKeys().size());
+			for (ForeignKeyConstraint fk : relation.getForeignKeys()) {
+				Integer referencedIndex = relationIndex.get(fk.getReferencedRelation());
+				if (referencedIndex == null)
+					throw new IOException("Unknown relation referred to by " + fk);
+
+				writeNullableString(out, fk.getName());
+				out.writeInt(referencedIndex);
+				out.writeInt(fk.getComponents().size());
+				for (ForeignKeyConstraint.Component component : fk.getComponents()) {
+					out.writeInt(component.getAttribute().getIndex());
+					out.writeInt(component.getReference().getIndex());
+				}
+			}
+
+			out.writeInt(relation.getOtherFunctionalDependencies().size());
+			for (FunctionalDependency fd : relation.getOtherFunctionalDependencies()) {
+				writeAttributes(out, fd.getDeterminants());
+				writeAttributes(out, fd.getDependents());
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Returns empty if the snapshot has been produced with another format version or for another key,
+	 * or if the relations of the snapshot have changed since (when a fingerprint has been written).
+	 *
+	 * The general information about the database (driver, product name, identifier quotation rules)
+	 * is obtained from the connection.
+	 */
+	public static Optional<RDBMetadata> read(InputStream inputStream, String key, Connection conn,
+											 TypeFactory typeFactory) throws IOException, SQLException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+		if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(key))
+			return Optional.empty();
+		String fingerprint = readNullableString(in);
+
+		RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(conn, typeFactory);
+		QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+
+		int relationCount = in.readInt();
+		List<DatabaseRelationDefinition> relations = new ArrayList<>(relationCount);
+		for (int i = 0; i < relationCount; i++) {
+			String schema = readNullableString(in);
+			String table = in.readUTF();
+			DatabaseRelationDefinition relation = metadata.createDatabaseRelation(
+					RelationID.createRelationIdFromDatabaseRecord(idfac, schema, table));
+
+			int attributeCount = in.readInt();
+			for (int j = 0; j < attributeCount; j++) {
+				QuotedID attributeId = QuotedID.createIdFromDatabaseRecord(idfac, in.readUTF());
+				String typeName = readNullableString(in);
+				String termTypeName = in.readUTF();
+				boolean canNull = in.readBoolean();
+				relation.addAttribute(attributeId, typeName,
+						metadata.getDBTypeFactory().getDBTermType(termTypeName), canNull);
+			}
+			relations.add(relation);
+		}
+
+		for (DatabaseRelationDefinition relation : relations) {
+			int ucCount = in.readInt();
+			for (int i = 0; i < ucCount; i++) {
+				String name = readNullableString(in);
+				boolean isPK = in.readBoolean();
+				UniqueConstraint.Builder builder = UniqueConstraint.builder(relation);
+				for (Attribute attribute : readAttributes(in, relation))
+					builder.add(attribute);
+				relation.addUniqueConstraint(builder.build(name, isPK));
+			}
+
+			int fkCount = in.readInt();
+			for (int i = 0; i < fkCount; i++) {
+				String name = readNullableString(in);
+				DatabaseRelationDefinition referencedRelation = relations.get(in.readInt());
+				ForeignKeyConstraint.Builder builder = ForeignKeyConstraint.builder(relation, referencedRelation);
+				int componentCount = in.readInt();
+				for (int j = 0; j < componentCount; j++)
+					builder.add(relation.getAttribute(in.readInt()), referencedRelation.getAttribute(in.readInt()));
+				relation.addForeignKeyConstraint(builder.build(name));
+			}
+
+			int fdCount = in.readInt();
+			for (int i = 0; i < fdCount; i++) {
+				FunctionalDependency.Builder builder = FunctionalDependency.defaultBuilder();
+				for (Attribute determinant : readAttributes(in, relation))
+					builder.addDeterminant(determinant);
+				for (Attribute dependent : readAttributes(in, relation))
+					builder.addDependent(dependent);
+				relation.addFunctionalDependency(builder.build());
+			}
+		}
+		if (fingerprint != null && !fingerprint.equals(getSchemaFingerprint(conn, metadata)))
+			return Optional.empty();
+
+		return Optional.of(metadata);
+	}
+
+	private static void writeAttributes(DataOutputStream out, Collection<Attribute> attributes) throws IOException {
+		out.writeInt(attributes.size());
+		for (Attribute attribute : attributes)
+			out.writeInt(attribute.getIndex());
+	}
+
+	private static List<Attribute> readAttributes(DataInputStream in, DatabaseRelationDefinition relation) throws IOException {
+		int count = in.readInt();
+		List<Attribute> attributes = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			attributes.add(relation.getAttribute(in.readInt()));
+		return attributes;
+	}
+
+	private static void writeNullableString(DataOutputStream out, String s) throws IOException {
+		out.writeBoolean(s != null);
+		if (s != null)
+			out.writeUTF(s);
+	}
+
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
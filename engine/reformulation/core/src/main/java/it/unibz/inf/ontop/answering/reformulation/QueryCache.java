@@ -14,5 +14,19 @@ public interface QueryCache {
 
     void put(InputQuery inputQuery, IQ executableQuery);
 
+    /**
+     * The reformulation time (in nanoseconds) is used for estimating the time saved by the cache
+     */
+    default void put(InputQuery inputQuery, IQ executableQuery, long reformulationTime) {
+        put(inputQuery, executableQuery);
+    }
+
     void clear();
+
+    /**
+     * By default, no statistics are recorded
+     */
+    default QueryCacheStatistics getStatistics() {
+        return new QueryCacheStatistics(0, 0, 0, 0, 0);
+    }
 }
@@ -0,0 +1,56 @@
+package it.unibz.inf.ontop.answering.reformulation;
+
+/**
+ * Snapshot of the activity of a QueryCache.
+ *
+ * Immutable class.
+ */
+public class QueryCacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long size;
+    private final long savedReformulationTime;
+
+    public QueryCacheStatistics(long hitCount, long missCount, long evictionCount, long size,
+                                long savedReformulationTime) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.savedReformulationTime = savedReformulationTime;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Number of entries
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Sum of the reformulation times (in nanoseconds) of the queries served from the cache.
+     */
+    public long getSavedReformulationTime() {
+        return savedReformulationTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryCache: %d hits, %d misses, %d evictions, %d entries, %d ms of reformulation saved",
+                hitCount, missCount, evictionCount, size, savedReformulationTime / 1_000_000);
+    }
+}
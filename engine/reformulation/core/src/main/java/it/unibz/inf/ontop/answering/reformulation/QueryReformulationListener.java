@@ -0,0 +1,28 @@
+package it.unibz.inf.ontop.answering.reformulation;
+
+/**
+ * Receives the duration of each phase of the processing of a query.
+ *
+ * Called synchronously by the thread processing the query: implementations must be thread-safe
+ * and should return quickly.
+ *
+ * See QueryReformulator.addReformulationListener(...)
+ */
+@FunctionalInterface
+public interface QueryReformulationListener {
+
+    /**
+     * Does nothing. Used when no listener is registered.
+     */
+    QueryReformulationListener NO_OP = (phase, duration, outputSize) -> { };
+
+    /**
+     * Duration in nanoseconds.
+     *
+     * The output size is:
+     *   - the number of nodes of the resulting IQ tree, for the IQ phases (TRANSLATION to JOIN_OPTIMIZATION)
+     *   - the length of the native query string, for NATIVE_QUERY_GENERATION
+     *   - -1 for EXECUTION
+     */
+    void onPhaseCompleted(ReformulationPhase phase, long duration, int outputSize);
+}
@@ -1,6 +1,6 @@
 package it.unibz.inf.ontop.answering.reformulation;
 
-
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
@@ -13,10 +13,40 @@ public interface QueryReformulator {
 
     IQ reformulateIntoNativeQuery(InputQuery inputQuery) throws OntopReformulationException;
 
+    /**
+     * Executable queries whose answers, put together, are the answers of the input query.
+     * For a query with DISTINCT, the same answer may be produced by several chunks.
+     *
+     * One per branch of the top-most union of the optimized query (if any).
+     * Each chunk can be evaluated independently (e.g. concurrently or later on).
+     *
+     * Not cached.
+     */
+    ImmutableList<IQ> reformulateIntoNativeQueryChunks(InputQuery inputQuery) throws OntopReformulationException;
+
     /**
      * For analysis purposes
      */
     String getRewritingRendering(InputQuery query) throws OntopReformulationException;
 
     InputQueryFactory getInputQueryFactory();
+
+    /**
+     * For monitoring purposes
+     */
+    QueryCacheStatistics getQueryCacheStatistics();
+
+    /**
+     * For monitoring purposes: notified of the duration of each phase of the processing of the queries
+     * (not for the queries served from the cache).
+     */
+    void addReformulationListener(QueryReformulationListener listener);
+
+    void removeReformulationListener(QueryReformulationListener listener);
+
+    /**
+     * Forwards to the registered listeners (no-op when none is registered).
+     * Also used for reporting the EXECUTION phase, which takes place outside the reformulator.
+     */
+    QueryReformulationListener getReformulationListener();
 }
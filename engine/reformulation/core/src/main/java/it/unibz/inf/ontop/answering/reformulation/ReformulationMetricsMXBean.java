@@ -0,0 +1,25 @@
+package it.unibz.inf.ontop.answering.reformulation;
+
+import java.util.Map;
+
+/**
+ * Aggregated per-phase metrics, exposed through JMX.
+ *
+ * Maps are indexed by the names of the ReformulationPhases.
+ * Times are in nanoseconds.
+ */
+public interface ReformulationMetricsMXBean {
+
+    Map<String, Long> getCounts();
+
+    Map<String, Long> getTotalTimes();
+
+    Map<String, Long> getMaxTimes();
+
+    /**
+     * Sum of the output sizes (see QueryReformulationListener)
+     */
+    Map<String, Long> getTotalOutputSizes();
+
+    void reset();
+}
@@ -0,0 +1,37 @@
+package it.unibz.inf.ontop.answering.reformulation;
+
+/**
+ * Phases reported to the QueryReformulationListeners
+ */
+public enum ReformulationPhase {
+    /**
+     * From the input query (e.g. SPARQL) to an IQ
+     */
+    TRANSLATION,
+    /**
+     * Query rewriting w.r.t. the ontology
+     */
+    REWRITING,
+    /**
+     * Unfolding w.r.t. the saturated mapping
+     */
+    UNFOLDING,
+    /**
+     * Lifting of the bindings and unions, then of the boolean expressions, and projection shrinking
+     */
+    LIFTING,
+    /**
+     * Fixed-point join optimization (including self-join elimination), then minor simplifications
+     * (union flattening, aggregations, order by)
+     */
+    JOIN_OPTIMIZATION,
+    /**
+     * From the optimized IQ to the executable query (e.g. SQL)
+     */
+    NATIVE_QUERY_GENERATION,
+    /**
+     * Evaluation of the native query, until the result set is obtained
+     * (the iteration over the results is not included)
+     */
+    EXECUTION
+}
@@ -0,0 +1,113 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.answering.reformulation.QueryCache;
+import it.unibz.inf.ontop.answering.reformulation.QueryCacheStatistics;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.NativeNode;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache bounded by the total weight of its entries (see OntopReformulationSettings.getQueryCacheMaxWeight()),
+ * with an optional expiration time.
+ *
+ * The least recently used entries are evicted first.
+ *
+ */
+public class BoundedQueryCache implements QueryCache {
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 4;
+
+    private final Cache<InputQuery, CacheEntry> cache;
+    private final AtomicLong savedReformulationTime;
+
+    @Inject
+    private BoundedQueryCache(OntopReformulationSettings settings) {
+        this(settings.getQueryCacheMaxWeight(), settings.getQueryCacheExpirationTime(), DEFAULT_CONCURRENCY_LEVEL,
+                Ticker.systemTicker());
+    }
+
+    /**
+     * @param expirationTime in seconds (0 for no expiration)
+     * @param concurrencyLevel the weight is bounded per segment, so the LRU order is only global with a single one
+     */
+    BoundedQueryCache(long maxWeight, int expirationTime, int concurrencyLevel, Ticker ticker) {
+        CacheBuilder<InputQuery, CacheEntry> builder = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .concurrencyLevel(concurrencyLevel)
+                .weigher((InputQuery q, CacheEntry e) -> e.weight)
+                .ticker(ticker)
+                .recordStats();
+
+        if (expirationTime > 0)
+            builder = builder.expireAfterWrite(expirationTime, TimeUnit.SECONDS);
+
+        this.cache = builder.build();
+        this.savedReformulationTime = new AtomicLong(0);
+    }
+
+    @Override
+    public IQ get(InputQuery inputQuery) {
+        CacheEntry entry = cache.getIfPresent(inputQuery);
+        if (entry == null)
+            return null;
+        savedReformulationTime.addAndGet(entry.reformulationTime);
+        return entry.executableQuery;
+    }
+
+    @Override
+    public void put(InputQuery inputQuery, IQ executableQuery) {
+        put(inputQuery, executableQuery, 0);
+    }
+
+    @Override
+    public void put(InputQuery inputQuery, IQ executableQuery, long reformulationTime) {
+        cache.put(inputQuery, new CacheEntry(executableQuery, reformulationTime));
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public QueryCacheStatistics getStatistics() {
+        CacheStats stats = cache.stats();
+        return new QueryCacheStatistics(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.size(),
+                savedReformulationTime.get());
+    }
+
+    /**
+     * Number of nodes + length of the native query strings
+     */
+    private static int computeWeight(IQTree tree) {
+        long weight = 1;
+        if (tree.getRootNode() instanceof NativeNode)
+            weight += ((NativeNode) tree.getRootNode()).getNativeQueryString().length();
+        for (IQTree child : tree.getChildren())
+            weight += computeWeight(child);
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+
+    private static class CacheEntry {
+        private final IQ executableQuery;
+        private final long reformulationTime;
+        private final int weight;
+
+        private CacheEntry(IQ executableQuery, long reformulationTime) {
+            this.executableQuery = executableQuery;
+            this.reformulationTime = reformulationTime;
+            this.weight = computeWeight(executableQuery.getTree());
+        }
+    }
+}
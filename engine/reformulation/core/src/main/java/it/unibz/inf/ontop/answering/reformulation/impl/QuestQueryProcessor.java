@@ -2,10 +2,15 @@ package it.unibz.inf.ontop.answering.reformulation.impl;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
+import it.unibz.inf.ontop.answering.reformulation.QueryCacheStatistics;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulationListener;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.ReformulationPhase;
 import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
@@ -17,19 +22,34 @@ import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.injection.TranslationFactory;
 import it.unibz.inf.ontop.iq.IQ;
-import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.DistinctNode;
+import it.unibz.inf.ontop.iq.node.EmptyNode;
+import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.iq.node.UnaryOperatorNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
 import it.unibz.inf.ontop.iq.optimizer.*;
 import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
-import it.unibz.inf.ontop.iq.tools.IQConverter;
 import it.unibz.inf.ontop.model.atom.AtomFactory;
 import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 import it.unibz.inf.ontop.spec.mapping.Mapping;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * TODO: rename it QueryTranslatorImpl ?
  *
@@ -51,13 +71,19 @@ public class QuestQueryProcessor implements QueryReformulator {
 	private final JoinLikeOptimizer joinLikeOptimizer;
 	private final InputQueryTranslator inputQueryTranslator;
 	private final InputQueryFactory inputQueryFactory;
-	private final FlattenUnionOptimizer flattenUnionOptimizer;
-	private final PushUpBooleanExpressionOptimizer pullUpExpressionOptimizer;
-	private final IQConverter iqConverter;
+	private final FlattenUnionIQOptimizer flattenUnionOptimizer;
+	private final PushUpBooleanExpressionIQOptimizer pullUpExpressionOptimizer;
+	private final ProjectionShrinkingIQOptimizer projectionShrinkingOptimizer;
 	private final AtomFactory atomFactory;
 	private final IntermediateQueryFactory iqFactory;
 	private final OrderBySimplifier orderBySimplifier;
 	private final AggregationSimplifier aggregationSimplifier;
+	private final SubstitutionFactory substitutionFactory;
+	private final TermFactory termFactory;
+
+	private final List<QueryReformulationListener> listeners = new CopyOnWriteArrayList<>();
+	private final QueryReformulationListener compositeListener = (phase, duration, outputSize) ->
+			listeners.forEach(l -> l.onPhaseCompleted(phase, duration, outputSize));
 
 	@AssistedInject
 	private QuestQueryProcessor(@Assisted OBDASpecification obdaSpecification,
@@ -68,23 +94,26 @@ public class QuestQueryProcessor implements QueryReformulator {
 								QueryRewriter queryRewriter,
 								JoinLikeOptimizer joinLikeOptimizer,
 								InputQueryFactory inputQueryFactory,
-								FlattenUnionOptimizer flattenUnionOptimizer,
-								PushUpBooleanExpressionOptimizer pullUpExpressionOptimizer,
+								FlattenUnionIQOptimizer flattenUnionOptimizer,
+								PushUpBooleanExpressionIQOptimizer pullUpExpressionOptimizer,
+								ProjectionShrinkingIQOptimizer projectionShrinkingOptimizer,
 								InputQueryTranslator inputQueryTranslator,
-								IQConverter iqConverter,
 								AtomFactory atomFactory, IntermediateQueryFactory iqFactory,
-								OrderBySimplifier orderBySimplifier, AggregationSimplifier aggregationSimplifier) {
+								OrderBySimplifier orderBySimplifier, AggregationSimplifier aggregationSimplifier,
+								SubstitutionFactory substitutionFactory, TermFactory termFactory) {
 		this.bindingLiftOptimizer = bindingLiftOptimizer;
 		this.joinLikeOptimizer = joinLikeOptimizer;
 		this.inputQueryFactory = inputQueryFactory;
 		this.flattenUnionOptimizer = flattenUnionOptimizer;
 		this.pullUpExpressionOptimizer = pullUpExpressionOptimizer;
-		this.iqConverter = iqConverter;
+		this.projectionShrinkingOptimizer = projectionShrinkingOptimizer;
 		this.rewriter = queryRewriter;
 		this.atomFactory = atomFactory;
 		this.iqFactory = iqFactory;
 		this.orderBySimplifier = orderBySimplifier;
 		this.aggregationSimplifier = aggregationSimplifier;
+		this.substitutionFactory = substitutionFactory;
+		this.termFactory = termFactory;
 
 		this.rewriter.setTBox(obdaSpecification.getSaturatedTBox());
 
@@ -113,70 +142,29 @@ public class QuestQueryProcessor implements QueryReformulator {
 			throws OntopReformulationException {
 
 		IQ cachedQuery = queryCache.get(inputQuery);
-		if (cachedQuery != null)
-			return cachedQuery;
+		if (cachedQuery != null) {
+			Optional<IQ> adaptedQuery = adaptCachedQuery(cachedQuery, inputQuery);
+			if (adaptedQuery.isPresent())
+				return adaptedQuery.get();
+		}
 
+		long beginning = System.nanoTime();
 		try {
 
 
 			log.debug("SPARQL query:\n{}", inputQuery.getInputString());
-			IQ convertedIQ = inputQuery.translate(inputQueryTranslator);
+			IQ convertedIQ = translate(inputQuery);
 			log.debug("Parsed query converted into IQ (after normalization):\n{}", convertedIQ);
 			//InternalSparqlQuery translation = inputQuery.translate(inputQueryTranslator);
 
             try {
-             //   IQ convertedIQ = preProcess(translation);
-
-                log.debug("Start the rewriting process...");
-                IQ rewrittenIQ = rewriter.rewrite(convertedIQ);
-
-                log.debug("Rewritten IQ:\n{}",rewrittenIQ);
-
-                log.debug("Start the unfolding...");
-
-                IQ unfoldedIQ = queryUnfolder.optimize(rewrittenIQ);
-                if (unfoldedIQ.getTree().isDeclaredAsEmpty())
-                    throw new EmptyQueryException();
-                log.debug("Unfolded query: \n" + unfoldedIQ.toString());
-
-                //lift bindings and union when it is possible
-				IQ liftedQuery = bindingLiftOptimizer.optimize(unfoldedIQ);
-                log.debug("New lifted query: \n" + liftedQuery.toString());
-
-				// Non-final
-				IntermediateQuery intermediateQuery = pullUpExpressionOptimizer.optimize(iqConverter.convert(liftedQuery, executorRegistry));
-                log.debug("After pushing up boolean expressions: \n" + intermediateQuery.toString());
-
-                intermediateQuery = new ProjectionShrinkingOptimizer().optimize(intermediateQuery);
-
-                log.debug("After projection shrinking: \n" + intermediateQuery.toString());
-
-
-                intermediateQuery = joinLikeOptimizer.optimize(intermediateQuery);
-                log.debug("New query after fixed point join optimization: \n" + intermediateQuery.toString());
-
-                intermediateQuery = flattenUnionOptimizer.optimize(intermediateQuery);
-                log.debug("New query after flattening Unions: \n" + intermediateQuery.toString());
-
-                IQ queryAfterAggregationSimplification = aggregationSimplifier.optimize(iqConverter.convert(intermediateQuery));
- 				log.debug("New query after simplifying the aggregation node: \n" + queryAfterAggregationSimplification);
-				IQ optimizedQuery = orderBySimplifier.optimize(queryAfterAggregationSimplification);
-				log.debug("New query after simplifying the order by node: \n" + optimizedQuery);
-
-				IQ executableQuery = generateExecutableQuery(optimizedQuery);
-				queryCache.put(inputQuery, executableQuery);
+				IQ executableQuery = generateExecutableQuery(optimize(convertedIQ));
+				queryCache.put(inputQuery, executableQuery, System.nanoTime() - beginning);
 				return executableQuery;
 
 			}
 			catch (EmptyQueryException e) {
-				ImmutableList<Variable> signature = convertedIQ.getProjectionAtom().getArguments();
-
-				DistinctVariableOnlyDataAtom projectionAtom = atomFactory.getDistinctVariableOnlyDataAtom(
-						atomFactory.getRDFAnswerPredicate(signature.size()),
-						signature);
-
-				return iqFactory.createIQ(projectionAtom,
-						iqFactory.createEmptyNode(projectionAtom.getVariables()));
+				return createEmptyQuery(convertedIQ);
             }
             catch (OntopReformulationException e) {
                 throw e;
@@ -193,11 +181,189 @@ public class QuestQueryProcessor implements QueryReformulator {
 		}
 	}
 
+	/**
+	 * The cached executable query may have been produced for an equivalent input query with other variable names
+	 * (see InputQuery.equals()): its projected variables are renamed (by position) after the ones of the input query.
+	 *
+	 * The projected variables of the input query are obtained without translating it.
+	 *
+	 * Empty if the renaming is not possible (conflict with a variable of the native query).
+	 */
+	private Optional<IQ> adaptCachedQuery(IQ cachedQuery, InputQuery inputQuery) {
+		ImmutableList<Variable> cachedVariables = cachedQuery.getProjectionAtom().getArguments();
+		ImmutableList<String> newVariableNames = inputQuery.getProjectedVariableNames();
+		ImmutableList<Variable> newVariables = newVariableNames.stream()
+				.map(termFactory::getVariable)
+				.collect(ImmutableCollectors.toList());
+		if (newVariables.equals(cachedVariables))
+			return Optional.of(cachedQuery);
+		if (newVariables.size() != cachedVariables.size())
+			return Optional.empty();
+
+		DistinctVariableOnlyDataAtom newProjectionAtom = atomFactory.getDistinctVariableOnlyDataAtom(
+				cachedQuery.getProjectionAtom().getPredicate(), newVariables);
+
+		IQTree tree = cachedQuery.getTree();
+		if (tree.getRootNode() instanceof EmptyNode)
+			return Optional.of(iqFactory.createIQ(newProjectionAtom,
+					iqFactory.createEmptyNode(newProjectionAtom.getVariables())));
+
+		ImmutableSubstitution<ImmutableTerm> substitution;
+		IQTree child;
+		if (tree.getRootNode() instanceof ConstructionNode) {
+			substitution = ((ConstructionNode) tree.getRootNode()).getSubstitution();
+			child = ((UnaryIQTree) tree).getChild();
+		}
+		else {
+			substitution = substitutionFactory.getSubstitution();
+			child = tree;
+		}
+
+		ImmutableSet<Variable> childVariables = child.getVariables();
+		ImmutableMap.Builder<Variable, ImmutableTerm> newSubstitutionBuilder = ImmutableMap.builder();
+		for (int i = 0; i < newVariables.size(); i++) {
+			Variable newVariable = newVariables.get(i);
+			ImmutableTerm definition = substitution.applyToVariable(cachedVariables.get(i));
+			if (definition.equals(newVariable))
+				continue;
+			if (childVariables.contains(newVariable))
+				return Optional.empty();
+			newSubstitutionBuilder.put(newVariable, definition);
+		}
+
+		ConstructionNode newConstructionNode = iqFactory.createConstructionNode(newProjectionAtom.getVariables(),
+				substitutionFactory.getSubstitution(newSubstitutionBuilder.build()));
+		return Optional.of(iqFactory.createIQ(newProjectionAtom,
+				iqFactory.createUnaryIQTree(newConstructionNode, child)));
+	}
+
+	@Override
+	public ImmutableList<IQ> reformulateIntoNativeQueryChunks(InputQuery inputQuery)
+			throws OntopReformulationException {
+		try {
+			log.debug("SPARQL query (to be split into chunks):\n{}", inputQuery.getInputString());
+			IQ convertedIQ = translate(inputQuery);
+
+			try {
+				ImmutableList.Builder<IQ> chunkBuilder = ImmutableList.builder();
+				for (IQ chunk : splitTopUnion(optimize(convertedIQ))) {
+					chunkBuilder.add(generateExecutableQuery(chunk));
+				}
+				return chunkBuilder.build();
+			}
+			catch (EmptyQueryException e) {
+				return ImmutableList.of(createEmptyQuery(convertedIQ));
+			}
+		}
+		catch (OntopReformulationException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			log.warn("Unexpected exception: " + e.getMessage(), e);
+			throw new OntopReformulationException(e);
+		}
+	}
+
+	/**
+	 * From the translated input query to the optimized query (not yet translated into a native query)
+	 */
+	private IQ optimize(IQ convertedIQ) throws EmptyQueryException, OntopReformulationException {
+		log.debug("Start the rewriting process...");
+		long start = System.nanoTime();
+		IQ rewrittenIQ = notifyPhaseCompleted(ReformulationPhase.REWRITING, start, rewriter.rewrite(convertedIQ));
+
+		log.debug("Rewritten IQ:\n{}",rewrittenIQ);
+
+		log.debug("Start the unfolding...");
+
+		start = System.nanoTime();
+		IQ unfoldedIQ = notifyPhaseCompleted(ReformulationPhase.UNFOLDING, start, queryUnfolder.optimize(rewrittenIQ));
+		if (unfoldedIQ.getTree().isDeclaredAsEmpty())
+			throw new EmptyQueryException();
+		log.debug("Unfolded query: \n{}", unfoldedIQ);
+
+		start = System.nanoTime();
+		//lift bindings and union when it is possible
+		IQ liftedQuery = bindingLiftOptimizer.optimize(unfoldedIQ);
+		log.debug("New lifted query: \n{}", liftedQuery);
+
+		IQ queryAfterPullUp = pullUpExpressionOptimizer.optimize(liftedQuery);
+		log.debug("After pushing up boolean expressions: \n{}", queryAfterPullUp);
+
+		IQ queryAfterProjectionShrinking = notifyPhaseCompleted(ReformulationPhase.LIFTING, start,
+				projectionShrinkingOptimizer.optimize(queryAfterPullUp));
+		log.debug("After projection shrinking: \n{}", queryAfterProjectionShrinking);
+
+		start = System.nanoTime();
+		// Only step still relying on IntermediateQuery (self-join elimination, only when the tree has joins)
+		IQ queryAfterJoinOptimization = joinLikeOptimizer.optimize(queryAfterProjectionShrinking, executorRegistry);
+		log.debug("New query after fixed point join optimization: \n{}", queryAfterJoinOptimization);
+
+		IQ queryAfterUnionFlattening = flattenUnionOptimizer.optimize(queryAfterJoinOptimization);
+		log.debug("New query after flattening Unions: \n{}", queryAfterUnionFlattening);
+
+		IQ queryAfterAggregationSimplification = aggregationSimplifier.optimize(queryAfterUnionFlattening);
+		log.debug("New query after simplifying the aggregation node: \n{}", queryAfterAggregationSimplification);
+		IQ optimizedQuery = notifyPhaseCompleted(ReformulationPhase.JOIN_OPTIMIZATION, start,
+				orderBySimplifier.optimize(queryAfterAggregationSimplification));
+		log.debug("New query after simplifying the order by node: \n{}", optimizedQuery);
+		return optimizedQuery;
+	}
+
+	private IQ createEmptyQuery(IQ convertedIQ) {
+		ImmutableList<Variable> signature = convertedIQ.getProjectionAtom().getArguments();
+
+		DistinctVariableOnlyDataAtom projectionAtom = atomFactory.getDistinctVariableOnlyDataAtom(
+				atomFactory.getRDFAnswerPredicate(signature.size()),
+				signature);
+
+		return iqFactory.createIQ(projectionAtom,
+				iqFactory.createEmptyNode(projectionAtom.getVariables()));
+	}
+
+	/**
+	 * Splits the query at its top-most union, which may only be preceded by construction and distinct nodes
+	 * (otherwise the query is not split).
+	 *
+	 * The ancestors are kept in each chunk: with a distinct, the same answer may therefore be produced
+	 * by several chunks.
+	 */
+	private ImmutableList<IQ> splitTopUnion(IQ query) {
+		ImmutableList.Builder<UnaryOperatorNode> ancestorBuilder = ImmutableList.builder();
+		IQTree tree = query.getTree();
+		while ((tree.getRootNode() instanceof ConstructionNode) || (tree.getRootNode() instanceof DistinctNode)) {
+			ancestorBuilder.add((UnaryOperatorNode) tree.getRootNode());
+			tree = ((UnaryIQTree) tree).getChild();
+		}
+		if (!(tree.getRootNode() instanceof UnionNode))
+			return ImmutableList.of(query);
+
+		ImmutableList<UnaryOperatorNode> ancestors = ancestorBuilder.build().reverse();
+		ImmutableSet<Variable> unionVariables = tree.getVariables();
+
+		return tree.getChildren().stream()
+				.map(c -> c.getVariables().equals(unionVariables)
+						? c
+						: iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(unionVariables), c))
+				.map(c -> {
+					IQTree chunkTree = c;
+					for (UnaryOperatorNode ancestor : ancestors) {
+						chunkTree = iqFactory.createUnaryIQTree(ancestor, chunkTree);
+					}
+					return iqFactory.createIQ(query.getProjectionAtom(), chunkTree);
+				})
+				.collect(ImmutableCollectors.toList());
+	}
+
 	private IQ generateExecutableQuery(IQ iq)
 			throws OntopReformulationException {
 		log.debug("Producing the native query string...");
 
+		long start = System.nanoTime();
 		IQ executableQuery = datasourceQueryGenerator.generateSourceQuery(iq, executorRegistry);
+		if (!listeners.isEmpty())
+			compositeListener.onPhaseCompleted(ReformulationPhase.NATIVE_QUERY_GENERATION, System.nanoTime() - start,
+					getNativeQueryLength(executableQuery.getTree()));
 
 		log.debug("Resulting native query: \n{}", executableQuery);
 
@@ -228,4 +394,54 @@ public class QuestQueryProcessor implements QueryReformulator {
 	public InputQueryFactory getInputQueryFactory() {
 		return inputQueryFactory;
 	}
+
+	@Override
+	public QueryCacheStatistics getQueryCacheStatistics() {
+		return queryCache.getStatistics();
+	}
+
+	@Override
+	public void addReformulationListener(QueryReformulationListener listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeReformulationListener(QueryReformulationListener listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public QueryReformulationListener getReformulationListener() {
+		return listeners.isEmpty()
+				? QueryReformulationListener.NO_OP
+				: compositeListener;
+	}
+
+	private IQ translate(InputQuery inputQuery) throws OntopReformulationException {
+		long start = System.nanoTime();
+		return notifyPhaseCompleted(ReformulationPhase.TRANSLATION, start, inputQuery.translate(inputQueryTranslator));
+	}
+
+	/**
+	 * The size of the tree is only computed when some listeners are registered
+	 */
+	private IQ notifyPhaseCompleted(ReformulationPhase phase, long start, IQ result) {
+		if (!listeners.isEmpty())
+			compositeListener.onPhaseCompleted(phase, System.nanoTime() - start, countNodes(result.getTree()));
+		return result;
+	}
+
+	private static int countNodes(IQTree tree) {
+		return 1 + tree.getChildren().stream()
+				.mapToInt(QuestQueryProcessor::countNodes)
+				.sum();
+	}
+
+	private static int getNativeQueryLength(IQTree tree) {
+		return (tree.getRootNode() instanceof NativeNode)
+				? ((NativeNode) tree.getRootNode()).getNativeQueryString().length()
+				: tree.getChildren().stream()
+					.mapToInt(QuestQueryProcessor::getNativeQueryLength)
+					.sum();
+	}
 }
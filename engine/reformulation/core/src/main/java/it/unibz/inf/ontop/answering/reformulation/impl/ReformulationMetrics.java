@@ -0,0 +1,107 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulationListener;
+import it.unibz.inf.ontop.answering.reformulation.ReformulationMetricsMXBean;
+import it.unibz.inf.ontop.answering.reformulation.ReformulationPhase;
+
+import javax.management.*;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Listener aggregating the per-phase timings, which can be registered as an MBean.
+ *
+ * Usage:
+ *   ReformulationMetrics metrics = new ReformulationMetrics();
+ *   queryReformulator.addReformulationListener(metrics);
+ *   metrics.register(ManagementFactory.getPlatformMBeanServer());
+ *
+ * Lock-free (the listener is called by all the threads processing queries).
+ */
+public class ReformulationMetrics implements QueryReformulationListener, ReformulationMetricsMXBean {
+
+    public static final String DEFAULT_OBJECT_NAME = "it.unibz.inf.ontop:type=ReformulationMetrics";
+
+    private final Map<ReformulationPhase, PhaseMetrics> phaseMetrics;
+
+    public ReformulationMetrics() {
+        EnumMap<ReformulationPhase, PhaseMetrics> map = new EnumMap<>(ReformulationPhase.class);
+        Arrays.stream(ReformulationPhase.values())
+                .forEach(p -> map.put(p, new PhaseMetrics()));
+        this.phaseMetrics = map;
+    }
+
+    @Override
+    public void onPhaseCompleted(ReformulationPhase phase, long duration, int outputSize) {
+        PhaseMetrics metrics = phaseMetrics.get(phase);
+        metrics.count.increment();
+        metrics.totalTime.add(duration);
+        metrics.maxTime.accumulateAndGet(duration, Math::max);
+        if (outputSize > 0)
+            metrics.totalOutputSize.add(outputSize);
+    }
+
+    public ObjectName register(MBeanServer mBeanServer) throws JMException {
+        return register(mBeanServer, new ObjectName(DEFAULT_OBJECT_NAME));
+    }
+
+    public ObjectName register(MBeanServer mBeanServer, ObjectName objectName) throws JMException {
+        return mBeanServer.registerMBean(this, objectName).getObjectName();
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        return extract(m -> m.count.sum());
+    }
+
+    @Override
+    public Map<String, Long> getTotalTimes() {
+        return extract(m -> m.totalTime.sum());
+    }
+
+    @Override
+    public Map<String, Long> getMaxTimes() {
+        return extract(m -> m.maxTime.get());
+    }
+
+    @Override
+    public Map<String, Long> getTotalOutputSizes() {
+        return extract(m -> m.totalOutputSize.sum());
+    }
+
+    @Override
+    public void reset() {
+        phaseMetrics.values().forEach(PhaseMetrics::reset);
+    }
+
+    private Map<String, Long> extract(Function<PhaseMetrics, Long> extractor) {
+        ImmutableMap.Builder<String, Long> builder = ImmutableMap.builder();
+        phaseMetrics.forEach((p, m) -> builder.put(p.name(), extractor.apply(m)));
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return "ReformulationMetrics{counts=" + getCounts() + ", totalTimes=" + getTotalTimes() + "}";
+    }
+
+
+    private static class PhaseMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalTime = new LongAdder();
+        private final AtomicLong maxTime = new AtomicLong();
+        private final LongAdder totalOutputSize = new LongAdder();
+
+        private void reset() {
+            count.reset();
+            totalTime.reset();
+            maxTime.set(0);
+            totalOutputSize.reset();
+        }
+    }
+}
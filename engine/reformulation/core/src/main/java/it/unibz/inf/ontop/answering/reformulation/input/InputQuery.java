@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.answering.reformulation.input;
 
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
 import it.unibz.inf.ontop.answering.resultset.OBDAResultSet;
 import it.unibz.inf.ontop.exception.OntopInvalidInputQueryException;
@@ -18,4 +19,11 @@ public interface InputQuery<R extends OBDAResultSet> {
     String getInputString();
 
     IQ translate(InputQueryTranslator translator) throws OntopUnsupportedInputQueryException, OntopInvalidInputQueryException;
+
+    /**
+     * Names of the variables projected by the query, in the order of the projection of the translated query.
+     *
+     * Does not translate the query.
+     */
+    ImmutableList<String> getProjectedVariableNames();
 }
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.answering.reformulation.input.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.reformulation.input.AskQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.RDF4JInputQueryTranslator;
@@ -9,28 +10,12 @@ import it.unibz.inf.ontop.exception.OntopUnsupportedInputQueryException;
 import it.unibz.inf.ontop.iq.IQ;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 
-
 class RDF4JAskQuery extends RDF4JInputQuery<BooleanResultSet> implements AskQuery {
 
     RDF4JAskQuery(ParsedQuery parsedQuery, String queryString) {
         super(parsedQuery, queryString);
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-
-        RDF4JAskQuery that = (RDF4JAskQuery) o;
-
-        return getParsedQuery().equals(that.getParsedQuery());
-    }
-
-    @Override
-    public int hashCode() {
-        return getParsedQuery().hashCode();
-    }
-
     @Override
     public IQ translate(InputQueryTranslator translator) throws OntopUnsupportedInputQueryException, OntopInvalidInputQueryException {
         if (!(translator instanceof RDF4JInputQueryTranslator)) {
@@ -38,4 +23,9 @@ class RDF4JAskQuery extends RDF4JInputQuery<BooleanResultSet> implements AskQuer
         }
         return ((RDF4JInputQueryTranslator) translator).translateAskQuery(parsedQuery);
     }
+
+    @Override
+    public ImmutableList<String> getProjectedVariableNames() {
+        return ImmutableList.of();
+    }
 }
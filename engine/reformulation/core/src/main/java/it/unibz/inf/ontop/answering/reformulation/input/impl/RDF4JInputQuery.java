@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.answering.reformulation.input.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.RDF4JInputQueryTranslator;
@@ -9,11 +10,17 @@ import it.unibz.inf.ontop.exception.OntopUnsupportedInputQueryException;
 import it.unibz.inf.ontop.iq.IQ;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 
+import javax.annotation.Nullable;
+import java.util.Optional;
+
 
 class RDF4JInputQuery<R extends OBDAResultSet> implements InputQuery<R> {
 
     protected final ParsedQuery parsedQuery;
     private final String inputQueryString;
+    // Lazy
+    @Nullable
+    private volatile Optional<String> fingerprint;
 
     /**
      * TODO: support bindings
@@ -37,7 +44,47 @@ class RDF4JInputQuery<R extends OBDAResultSet> implements InputQuery<R> {
         return ((RDF4JInputQueryTranslator) translator).translate(parsedQuery);
     }
 
+    /**
+     * Binding names of the parsed query (see RDF4JInputQueryTranslator)
+     */
+    @Override
+    public ImmutableList<String> getProjectedVariableNames() {
+        return ImmutableList.copyOf(parsedQuery.getTupleExpr().getBindingNames());
+    }
+
     protected ParsedQuery getParsedQuery() {
         return parsedQuery;
     }
+
+    /**
+     * See RDF4JQueryFingerprint. Empty if not available.
+     */
+    protected Optional<String> getFingerprint() {
+        Optional<String> result = fingerprint;
+        if (result == null) {
+            result = RDF4JQueryFingerprint.compute(parsedQuery);
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Queries of the same type with the same fingerprint are equal (they are equivalent up to variable renaming).
+     * Without fingerprint, only the same instance is equal.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Optional<String> otherFingerprint = ((RDF4JInputQuery) o).getFingerprint();
+        return getFingerprint().isPresent() && getFingerprint().equals(otherFingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+        return getFingerprint()
+                .map(String::hashCode)
+                .orElseGet(() -> System.identityHashCode(this));
+    }
 }
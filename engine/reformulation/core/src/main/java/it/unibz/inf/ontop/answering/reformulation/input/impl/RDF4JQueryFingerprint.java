@@ -0,0 +1,153 @@
+package it.unibz.inf.ontop.answering.reformulation.input.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.eclipse.rdf4j.query.algebra.*;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+
+import java.util.*;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Canonical rendering of a parsed query, for recognizing equivalent queries written differently
+ * (layout, prefixes, variable names, order of the operands of joins and unions).
+ *
+ * Two queries with the same fingerprint are equivalent up to a renaming of their variables.
+ * Their projected variables correspond by position.
+ *
+ * Not complete: some equivalent queries have different fingerprints (e.g. when operands of a join cannot be
+ * ordered only by their shape).
+ */
+final class RDF4JQueryFingerprint {
+
+    private static final String NAME_PREFIX = "v";
+
+    private RDF4JQueryFingerprint() {
+    }
+
+    /**
+     * Empty if the query contains constructs for which no fingerprint is computed (e.g. VALUES, SERVICE)
+     */
+    static Optional<String> compute(ParsedQuery parsedQuery) {
+        TupleExpr canonicalExpression = canonicalize(parsedQuery.getTupleExpr().clone());
+
+        VariableRenamer renamer = new VariableRenamer();
+        canonicalExpression.visit(renamer);
+        if (renamer.isUnsupported)
+            return Optional.empty();
+
+        return Optional.of(canonicalExpression.toString() + "\n" + Objects.toString(parsedQuery.getDataset()));
+    }
+
+    /**
+     * Sorts the operands of (flattened) joins and unions according to their shape
+     */
+    private static TupleExpr canonicalize(TupleExpr expression) {
+        if (expression instanceof Join) {
+            return rebuild(canonicalizeOperands(flatten(expression, Join.class)), Join::new);
+        }
+        else if (expression instanceof Union) {
+            return rebuild(canonicalizeOperands(flatten(expression, Union.class)), Union::new);
+        }
+        else if (expression instanceof UnaryTupleOperator) {
+            UnaryTupleOperator operator = (UnaryTupleOperator) expression;
+            operator.setArg(canonicalize(operator.getArg()));
+        }
+        else if (expression instanceof BinaryTupleOperator) {
+            BinaryTupleOperator operator = (BinaryTupleOperator) expression;
+            operator.setLeftArg(canonicalize(operator.getLeftArg()));
+            operator.setRightArg(canonicalize(operator.getRightArg()));
+        }
+        return expression;
+    }
+
+    private static ImmutableList<TupleExpr> flatten(TupleExpr expression, Class<? extends BinaryTupleOperator> type) {
+        if (!type.isInstance(expression))
+            return ImmutableList.of(expression);
+        BinaryTupleOperator operator = (BinaryTupleOperator) expression;
+        return ImmutableList.<TupleExpr>builder()
+                .addAll(flatten(operator.getLeftArg(), type))
+                .addAll(flatten(operator.getRightArg(), type))
+                .build();
+    }
+
+    private static List<TupleExpr> canonicalizeOperands(ImmutableList<TupleExpr> operands) {
+        return operands.stream()
+                .map(RDF4JQueryFingerprint::canonicalize)
+                .sorted(Comparator.comparing(RDF4JQueryFingerprint::renderShape))
+                .collect(Collectors.toList());
+    }
+
+    private static TupleExpr rebuild(List<TupleExpr> operands, BinaryOperator<TupleExpr> constructor) {
+        TupleExpr expression = operands.get(0);
+        for (TupleExpr operand : operands.subList(1, operands.size())) {
+            expression = constructor.apply(expression, operand);
+        }
+        return expression;
+    }
+
+    /**
+     * Rendering without the variable names
+     */
+    private static String renderShape(TupleExpr expression) {
+        return expression.toString()
+                .replaceAll("name=[^,)\\n]*", "name=")
+                .replaceAll("\"[^\"\\n]*\"", "\"\"");
+    }
+
+    /**
+     * Renames the variables according to their order of appearance
+     */
+    private static class VariableRenamer extends AbstractQueryModelVisitor<RuntimeException> {
+
+        private final Map<String, String> renaming = new HashMap<>();
+        private boolean isUnsupported = false;
+
+        private String rename(String name) {
+            return renaming.computeIfAbsent(name, n -> NAME_PREFIX + renaming.size());
+        }
+
+        @Override
+        public void meet(Var node) {
+            node.setName(rename(node.getName()));
+        }
+
+        @Override
+        public void meet(ProjectionElem node) {
+            node.setSourceName(rename(node.getSourceName()));
+            node.setTargetName(rename(node.getTargetName()));
+            super.meet(node);
+        }
+
+        @Override
+        public void meet(ExtensionElem node) {
+            super.meet(node);
+            node.setName(rename(node.getName()));
+        }
+
+        @Override
+        public void meet(Group node) {
+            super.meet(node);
+            node.setGroupBindingNames(node.getGroupBindingNames().stream()
+                    .map(this::rename)
+                    .collect(Collectors.toList()));
+        }
+
+        @Override
+        public void meet(GroupElem node) {
+            super.meet(node);
+            node.setName(rename(node.getName()));
+        }
+
+        @Override
+        public void meet(BindingSetAssignment node) {
+            isUnsupported = true;
+        }
+
+        @Override
+        public void meet(Service node) {
+            isUnsupported = true;
+        }
+    }
+}
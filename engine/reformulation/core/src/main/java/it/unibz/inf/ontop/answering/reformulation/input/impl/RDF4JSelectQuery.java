@@ -12,19 +12,4 @@ class RDF4JSelectQuery extends RDF4JInputQuery<TupleResultSet> implements Select
     RDF4JSelectQuery(ParsedQuery parsedQuery, String queryString) {
         super(parsedQuery, queryString);
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-
-        RDF4JSelectQuery that = (RDF4JSelectQuery) o;
-
-        return getParsedQuery().equals(that.getParsedQuery());
-    }
-
-    @Override
-    public int hashCode() {
-        return getParsedQuery().hashCode();
-    }
 }
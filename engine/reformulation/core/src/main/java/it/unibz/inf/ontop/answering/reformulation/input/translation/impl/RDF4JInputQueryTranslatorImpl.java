@@ -17,6 +17,7 @@ import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbolFactory;
 import it.unibz.inf.ontop.model.term.functionsymbol.LangSPARQLFunctionSymbol;
 import it.unibz.inf.ontop.model.term.functionsymbol.SPARQLFunctionSymbol;
 import it.unibz.inf.ontop.model.type.RDFDatatype;
+import it.unibz.inf.ontop.model.type.RDFTermType;
 import it.unibz.inf.ontop.model.type.TermTypeInference;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import it.unibz.inf.ontop.model.vocabulary.SPARQL;
@@ -34,15 +35,16 @@ import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
-import org.eclipse.rdf4j.query.Binding;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.algebra.*;
 import org.eclipse.rdf4j.query.algebra.Count;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -174,6 +176,12 @@ public class RDF4JInputQueryTranslatorImpl implements RDF4JInputQueryTranslator
         if (node instanceof Order)
             return translateOrder((Order) node);
 
+        if (node instanceof ArbitraryLengthPath)
+            return translateArbitraryLengthPath((ArbitraryLengthPath) node);
+
+        if (node instanceof ZeroLengthPath)
+            return translateZeroLengthPath((ZeroLengthPath) node);
+
         throw new Sparql2IqConversionException("Unexpected SPARQL operator : " + node.toString());
     }
 
@@ -366,34 +374,51 @@ public class RDF4JInputQueryTranslatorImpl implements RDF4JInputQueryTranslator
     }
 
 
+    /**
+     * The rows are grouped by the RDF term types of their values.
+     * Each group is translated into a ValuesNode of lexical values (DB strings)
+     * below a construction node building the RDF terms, so that the VALUES block can be
+     * rendered as an inline relation instead of a union of one-tuple trees.
+     */
     private TranslationResult translateBindingSetAssignment(BindingSetAssignment node) {
 
-        Constant nullConstant = termFactory.getNullConstant();
-
-        ImmutableSet<Variable> allVars = node.getBindingNames().stream()
+        ImmutableList<Variable> orderedVars = node.getBindingNames().stream()
                 .map(termFactory::getVariable)
-                .collect(ImmutableCollectors.toSet());
+                .collect(ImmutableCollectors.toList());
+        ImmutableSet<Variable> allVars = ImmutableSet.copyOf(orderedVars);
 
-        ImmutableSet<ImmutableMap<Variable, ImmutableTerm>> maps = StreamSupport.stream(
+        ImmutableList<ImmutableList<Optional<RDFConstant>>> rows = StreamSupport.stream(
                 node.getBindingSets().spliterator(),
                 false
-        ).map(bs -> getBsMap(bs, nullConstant))
-                .collect(ImmutableCollectors.toSet());
+        ).map(bs -> orderedVars.stream()
+                        .map(v -> getConstantForBinding(v.getName(), bs))
+                        .collect(ImmutableCollectors.toList()))
+                .collect(ImmutableCollectors.toList());
+
+        if (rows.isEmpty())
+            return new TranslationResult(iqFactory.createEmptyNode(allVars), ImmutableSet.of());
 
-        ImmutableSet<Variable> nullableVars = maps.iterator().next().keySet().stream()
-                .filter(v -> maps.stream().anyMatch(m -> m.get(v).equals(nullConstant)))
+        ImmutableSet<Variable> nullableVars = IntStream.range(0, orderedVars.size())
+                .filter(i -> rows.stream().anyMatch(r -> !r.get(i).isPresent()))
+                .mapToObj(orderedVars::get)
                 .collect(ImmutableCollectors.toSet());
 
-        ImmutableList<IQTree> subtrees = maps.stream()
-                .map(substitutionFactory::getSubstitution)
-                .map(sub -> iqFactory.createConstructionNode(
-                        sub.getDomain(),
-                        sub
-                ))
-                .map(cn -> iqFactory.createUnaryIQTree(
-                        cn,
-                        iqFactory.createTrueNode()
-                ))
+        // Insertion order of the groups is preserved
+        ImmutableMultimap<ImmutableList<Optional<RDFTermType>>, ImmutableList<Optional<RDFConstant>>> rowsPerTypes = rows.stream()
+                .collect(ImmutableCollectors.toMultimap(
+                        r -> r.stream()
+                                .map(o -> o.map(RDFConstant::getType))
+                                .collect(ImmutableCollectors.toList()),
+                        r -> r));
+
+        VariableGenerator variableGenerator = coreUtilsFactory.createVariableGenerator(allVars);
+        ImmutableList<Variable> lexicalVars = orderedVars.stream()
+                .map(variableGenerator::generateNewVariableFromVar)
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableList<IQTree> subtrees = rowsPerTypes.keySet().stream()
+                .map(types -> createValuesTree(orderedVars, lexicalVars, types,
+                        ImmutableList.copyOf(rowsPerTypes.get(types))))
                 .collect(ImmutableCollectors.toList());
 
         return new TranslationResult(
@@ -407,22 +432,140 @@ public class RDF4JInputQueryTranslatorImpl implements RDF4JInputQueryTranslator
         );
     }
 
-    private ImmutableMap<Variable, ImmutableTerm> getBsMap(BindingSet bs, Constant nullConstant) {
-        return bs.getBindingNames().stream()
-                .collect(ImmutableCollectors.toMap(
-                        termFactory::getVariable,
-                        x -> getTermForBinding(
-                                x,
-                                bs,
-                                nullConstant
-                        )));
+    /**
+     * All the rows share the same types (absent for unbound values)
+     */
+    private IQTree createValuesTree(ImmutableList<Variable> orderedVars, ImmutableList<Variable> lexicalVars,
+                                    ImmutableList<Optional<RDFTermType>> types,
+                                    ImmutableList<ImmutableList<Optional<RDFConstant>>> rows) {
+        ImmutableList<Integer> boundIndexes = IntStream.range(0, orderedVars.size())
+                .filter(i -> types.get(i).isPresent())
+                .boxed()
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableSubstitution<ImmutableTerm> substitution = substitutionFactory.getSubstitution(
+                IntStream.range(0, orderedVars.size())
+                        .boxed()
+                        .collect(ImmutableCollectors.toMap(
+                                orderedVars::get,
+                                i -> types.get(i)
+                                        .<ImmutableTerm>map(t -> termFactory.getRDFFunctionalTerm(lexicalVars.get(i),
+                                                termFactory.getRDFTermTypeConstant(t)))
+                                        .orElseGet(termFactory::getNullConstant))));
+
+        ValuesNode valuesNode = iqFactory.createValuesNode(
+                boundIndexes.stream()
+                        .map(lexicalVars::get)
+                        .collect(ImmutableCollectors.toList()),
+                rows.stream()
+                        .map(r -> boundIndexes.stream()
+                                .map(i -> (Constant) termFactory.getDBStringConstant(r.get(i).get().getValue()))
+                                .collect(ImmutableCollectors.toList()))
+                        .collect(ImmutableCollectors.toList()));
+
+        return iqFactory.createUnaryIQTree(
+                iqFactory.createConstructionNode(ImmutableSet.copyOf(orderedVars), substitution),
+                valuesNode);
     }
 
-    private ImmutableTerm getTermForBinding(String x, BindingSet bindingSet, Constant nullConstant) {
-        Binding binding = bindingSet.getBinding(x);
-        return binding == null
-                ? nullConstant :
-                getTermForLiteralOrIri(binding.getValue());
+    private Optional<RDFConstant> getConstantForBinding(String x, BindingSet bindingSet) {
+        return Optional.ofNullable(bindingSet.getBinding(x))
+                .map(b -> getTermForLiteralOrIri(b.getValue()))
+                .map(t -> (RDFConstant) t);
+    }
+
+    /**
+     * The closure is computed between two fresh variables, which are then bound to the endpoints of the path.
+     *
+     * For minLength = 0, the zero-length path is added to the closure.
+     */
+    private TranslationResult translateArbitraryLengthPath(ArbitraryLengthPath path)
+            throws OntopInvalidInputQueryException, OntopUnsupportedInputQueryException {
+
+        if (path.getContextVar() != null)
+            throw new OntopUnsupportedInputQueryException("Property paths in named graphs are not supported");
+        if (path.getMinLength() > 1)
+            throw new OntopUnsupportedInputQueryException("Unsupported minimal length for the property path " + path);
+
+        Var subjectVar = path.getSubjectVar();
+        Var objectVar = path.getObjectVar();
+        if (subjectVar.getName().equals(objectVar.getName()))
+            throw new OntopUnsupportedInputQueryException(
+                    "Property paths with the same subject and object are not supported: " + path);
+
+        TupleExpr pathExpression = path.getPathExpression().clone();
+
+        VariableGenerator variableGenerator = coreUtilsFactory.createVariableGenerator(
+                Stream.concat(pathExpression.getBindingNames().stream(),
+                        Stream.of(subjectVar.getName(), objectVar.getName()))
+                        .map(termFactory::getVariable)
+                        .collect(ImmutableCollectors.toSet()));
+        Variable sourceVariable = variableGenerator.generateNewVariableFromVar(termFactory.getVariable(subjectVar.getName()));
+        Variable targetVariable = variableGenerator.generateNewVariableFromVar(termFactory.getVariable(objectVar.getName()));
+
+        pathExpression.visit(new PathEndpointRenamer(ImmutableMap.of(
+                subjectVar.getName(), sourceVariable.getName(),
+                objectVar.getName(), targetVariable.getName())));
+
+        IQTree pathTree = translate(pathExpression).iqTree;
+        ImmutableSet<Variable> endpointVariables = ImmutableSet.of(sourceVariable, targetVariable);
+        IQTree closureChild = pathTree.getVariables().equals(endpointVariables)
+                ? pathTree
+                : iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(endpointVariables), pathTree);
+
+        IQTree closureTree = iqFactory.createUnaryIQTree(
+                iqFactory.createTransitiveClosureNode(sourceVariable, targetVariable),
+                closureChild)
+                .applyDescendingSubstitutionWithoutOptimizing(substitutionFactory.getSubstitution(
+                        sourceVariable, translateRDF4JVar(subjectVar, ImmutableSet.of(), true),
+                        targetVariable, translateRDF4JVar(objectVar, ImmutableSet.of(), true)));
+
+        if (path.getMinLength() == 1)
+            return new TranslationResult(closureTree, ImmutableSet.of());
+
+        IQTree zeroLengthTree = translateZeroLengthPath(
+                new ZeroLengthPath(subjectVar.clone(), objectVar.clone())).iqTree;
+
+        ImmutableSet<Variable> projectedVariables = closureTree.getVariables();
+        return new TranslationResult(
+                iqFactory.createUnaryIQTree(
+                        iqFactory.createDistinctNode(),
+                        iqFactory.createNaryIQTree(
+                                iqFactory.createUnionNode(projectedVariables),
+                                ImmutableList.of(closureTree, zeroLengthTree))),
+                ImmutableSet.of());
+    }
+
+    /**
+     * Only supported when at least one of the endpoints is a constant
+     * (otherwise, all the nodes of the graph would have to be enumerated)
+     */
+    private TranslationResult translateZeroLengthPath(ZeroLengthPath path) throws OntopUnsupportedInputQueryException {
+        if (path.getContextVar() != null)
+            throw new OntopUnsupportedInputQueryException("Property paths in named graphs are not supported");
+
+        VariableOrGroundTerm subject = translateRDF4JVar(path.getSubjectVar(), ImmutableSet.of(), true);
+        VariableOrGroundTerm object = translateRDF4JVar(path.getObjectVar(), ImmutableSet.of(), true);
+
+        if (subject instanceof Variable && object instanceof Variable)
+            throw new OntopUnsupportedInputQueryException(
+                    "Zero-length property paths between two variables are not supported: " + path);
+
+        if (subject.isGround() && object.isGround())
+            return new TranslationResult(
+                    subject.equals(object)
+                            ? iqFactory.createTrueNode()
+                            : iqFactory.createEmptyNode(ImmutableSet.of()),
+                    ImmutableSet.of());
+
+        Variable variable = (Variable) (subject instanceof Variable ? subject : object);
+        ImmutableTerm constant = subject instanceof Variable ? object : subject;
+        return new TranslationResult(
+                iqFactory.createUnaryIQTree(
+                        iqFactory.createConstructionNode(ImmutableSet.of(variable),
+                                substitutionFactory.getSubstitution(variable, constant)),
+                        iqFactory.createTrueNode()),
+                ImmutableSet.of());
     }
 
     private TranslationResult translateSingletonSet() {
@@ -1432,6 +1575,27 @@ public class RDF4JInputQueryTranslatorImpl implements RDF4JInputQueryTranslator
         }
     }
 
+    /**
+     * Replaces the endpoints of a path expression (variables or constants) by variables
+     */
+    private static class PathEndpointRenamer extends AbstractQueryModelVisitor<RuntimeException> {
+
+        private final ImmutableMap<String, String> renaming;
+
+        PathEndpointRenamer(ImmutableMap<String, String> renaming) {
+            this.renaming = renaming;
+        }
+
+        @Override
+        public void meet(Var node) {
+            String newName = renaming.get(node.getName());
+            if (newName != null) {
+                node.setName(newName);
+                node.setValue(null);
+            }
+        }
+    }
+
     private static class Sparql2IqConversionException extends OntopInternalBugException {
 
         Sparql2IqConversionException(String s) {
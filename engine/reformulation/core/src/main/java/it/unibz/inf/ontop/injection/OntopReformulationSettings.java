@@ -7,6 +7,38 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
 
     boolean isDistinctPostProcessingEnabled();
 
+    /**
+     * Maximal total weight of the entries of the bounded query cache.
+     * The weight of an entry is the number of nodes of its executable IQ
+     * plus the length of its native query strings.
+     */
+    int getQueryCacheMaxWeight();
+
+    /**
+     * Number of seconds after which an entry of the bounded query cache expires.
+     * 0 means no expiration.
+     */
+    int getQueryCacheExpirationTime();
+
+    /**
+     * Maximal length of the paths matched by the recursive evaluation of the property paths
+     * of arbitrary length (+, *). 0 means no bound. Opt-in: a positive value may truncate the answers.
+     */
+    int getMaxPropertyPathLength();
+
+    /**
+     * If false, the property paths of arbitrary length are unrolled into a union of joins,
+     * even when the DBMS supports recursive queries.
+     */
+    boolean isPropertyPathRecursionEnabled();
+
+    /**
+     * Maximal length of the paths matched when the property paths of arbitrary length are unrolled
+     * into a union of joins (DBMS without recursive queries, or recursion disabled). Must be positive.
+     * The answers may then be incomplete.
+     */
+    int getPropertyPathUnrollingLength();
+
 
     //--------------------------
     // Keys
@@ -14,4 +46,9 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
 
     String EXISTENTIAL_REASONING = "ontop.existentialReasoning";
     String DISTINCT_RESULTSET = "ontop.distinctResultSet";
+    String QUERY_CACHE_MAX_WEIGHT = "ontop.queryCache.maxWeight";
+    String QUERY_CACHE_EXPIRATION_TIME = "ontop.queryCache.expireAfterWrite";
+    String PROPERTY_PATH_MAX_LENGTH = "ontop.propertyPath.maxLength";
+    String PROPERTY_PATH_RECURSION = "ontop.propertyPath.recursion";
+    String PROPERTY_PATH_UNROLLING_LENGTH = "ontop.propertyPath.unrollingLength";
 }
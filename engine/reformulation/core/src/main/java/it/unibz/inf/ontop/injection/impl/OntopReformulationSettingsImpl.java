@@ -36,4 +36,29 @@ public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implem
     public boolean isDistinctPostProcessingEnabled() {
         return getRequiredBoolean(DISTINCT_RESULTSET);
     }
+
+    @Override
+    public int getQueryCacheMaxWeight() {
+        return getRequiredInteger(QUERY_CACHE_MAX_WEIGHT);
+    }
+
+    @Override
+    public int getQueryCacheExpirationTime() {
+        return getRequiredInteger(QUERY_CACHE_EXPIRATION_TIME);
+    }
+
+    @Override
+    public int getMaxPropertyPathLength() {
+        return getRequiredInteger(PROPERTY_PATH_MAX_LENGTH);
+    }
+
+    @Override
+    public boolean isPropertyPathRecursionEnabled() {
+        return getRequiredBoolean(PROPERTY_PATH_RECURSION);
+    }
+
+    @Override
+    public int getPropertyPathUnrollingLength() {
+        return getRequiredInteger(PROPERTY_PATH_UNROLLING_LENGTH);
+    }
 }
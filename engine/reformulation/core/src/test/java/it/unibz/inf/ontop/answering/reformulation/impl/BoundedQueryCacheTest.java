@@ -0,0 +1,165 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.base.Strings;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.reformulation.QueryCacheStatistics;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.node.NativeNode;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static it.unibz.inf.ontop.utils.ReformulationTestingTools.*;
+import static org.junit.Assert.*;
+
+public class BoundedQueryCacheTest {
+
+    /**
+     * Weight of each executable query: 1 (native node) + length of its query string
+     */
+    private static final int ENTRY_WEIGHT = 40;
+
+    @Test
+    public void testLRUEviction() {
+        BoundedQueryCache cache = new BoundedQueryCache(2 * ENTRY_WEIGHT + 20, 0, 1, Ticker.systemTicker());
+        TestQuery q1 = new TestQuery("q1"), q2 = new TestQuery("q2"), q3 = new TestQuery("q3");
+        IQ iq1 = createExecutableQuery(ENTRY_WEIGHT), iq2 = createExecutableQuery(ENTRY_WEIGHT),
+                iq3 = createExecutableQuery(ENTRY_WEIGHT);
+
+        cache.put(q1, iq1);
+        cache.put(q2, iq2);
+        // q2 becomes the least recently used entry
+        assertSame(iq1, cache.get(q1));
+        cache.put(q3, iq3);
+
+        assertSame(iq1, cache.get(q1));
+        assertNull(cache.get(q2));
+        assertSame(iq3, cache.get(q3));
+
+        QueryCacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getEvictionCount());
+        assertEquals(2, statistics.getSize());
+    }
+
+    @Test
+    public void testEntryHeavierThanTheCache() {
+        BoundedQueryCache cache = new BoundedQueryCache(ENTRY_WEIGHT - 1, 0, 1, Ticker.systemTicker());
+        TestQuery q1 = new TestQuery("q1");
+        cache.put(q1, createExecutableQuery(ENTRY_WEIGHT));
+
+        assertNull(cache.get(q1));
+        assertEquals(0, cache.getStatistics().getSize());
+    }
+
+    @Test
+    public void testExpiration() {
+        FakeTicker ticker = new FakeTicker();
+        BoundedQueryCache cache = new BoundedQueryCache(1000, 10, 1, ticker);
+        TestQuery q1 = new TestQuery("q1");
+        IQ iq1 = createExecutableQuery(ENTRY_WEIGHT);
+
+        cache.put(q1, iq1);
+        ticker.advance(5, TimeUnit.SECONDS);
+        assertSame(iq1, cache.get(q1));
+
+        // Expires after the write, not after the last access
+        ticker.advance(6, TimeUnit.SECONDS);
+        assertNull(cache.get(q1));
+
+        cache.put(q1, iq1);
+        assertSame(iq1, cache.get(q1));
+    }
+
+    @Test
+    public void testStatistics() {
+        BoundedQueryCache cache = new BoundedQueryCache(1000, 0, 1, Ticker.systemTicker());
+        TestQuery q1 = new TestQuery("q1"), q2 = new TestQuery("q2");
+
+        assertNull(cache.get(q1));
+        cache.put(q1, createExecutableQuery(ENTRY_WEIGHT), 30);
+        cache.put(q2, createExecutableQuery(ENTRY_WEIGHT));
+        cache.get(q1);
+        cache.get(q1);
+        cache.get(q2);
+        // Equal to q1
+        cache.get(new TestQuery("q1"));
+
+        QueryCacheStatistics statistics = cache.getStatistics();
+        assertEquals(4, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(2, statistics.getSize());
+        // The reformulation time of q2 is unknown
+        assertEquals(90, statistics.getSavedReformulationTime());
+
+        cache.clear();
+        assertNull(cache.get(q1));
+        statistics = cache.getStatistics();
+        assertEquals(0, statistics.getSize());
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(90, statistics.getSavedReformulationTime());
+    }
+
+    private static IQ createExecutableQuery(int weight) {
+        NativeNode nativeNode = IQ_FACTORY.createNativeNode(ImmutableSortedSet.of(), ImmutableMap.of(),
+                ImmutableMap.of(), Strings.repeat("x", weight - 1),
+                CORE_UTILS_FACTORY.createEmptyVariableNullability(ImmutableSet.of()));
+        return IQ_FACTORY.createIQ(
+                ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ATOM_FACTORY.getRDFAnswerPredicate(0), ImmutableList.of()),
+                nativeNode);
+    }
+
+
+    private static class TestQuery implements InputQuery {
+        private final String queryString;
+
+        private TestQuery(String queryString) {
+            this.queryString = queryString;
+        }
+
+        @Override
+        public String getInputString() {
+            return queryString;
+        }
+
+        @Override
+        public IQ translate(InputQueryTranslator translator) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ImmutableList<String> getProjectedVariableNames() {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TestQuery && queryString.equals(((TestQuery) o).queryString);
+        }
+
+        @Override
+        public int hashCode() {
+            return queryString.hashCode();
+        }
+    }
+
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        void advance(long time, TimeUnit unit) {
+            nanos.addAndGet(unit.toNanos(time));
+        }
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import it.unibz.inf.ontop.answering.reformulation.ReformulationPhase;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReformulationMetricsTest {
+
+    @Test
+    public void testAggregation() {
+        ReformulationMetrics metrics = new ReformulationMetrics();
+        metrics.onPhaseCompleted(ReformulationPhase.UNFOLDING, 100, 5);
+        metrics.onPhaseCompleted(ReformulationPhase.UNFOLDING, 300, 7);
+        metrics.onPhaseCompleted(ReformulationPhase.EXECUTION, 50, -1);
+
+        assertEquals(2L, (long) metrics.getCounts().get("UNFOLDING"));
+        assertEquals(400L, (long) metrics.getTotalTimes().get("UNFOLDING"));
+        assertEquals(300L, (long) metrics.getMaxTimes().get("UNFOLDING"));
+        assertEquals(12L, (long) metrics.getTotalOutputSizes().get("UNFOLDING"));
+        assertEquals(0L, (long) metrics.getTotalOutputSizes().get("EXECUTION"));
+        assertEquals(0L, (long) metrics.getCounts().get("REWRITING"));
+
+        metrics.reset();
+        assertEquals(0L, (long) metrics.getCounts().get("UNFOLDING"));
+        assertEquals(0L, (long) metrics.getMaxTimes().get("UNFOLDING"));
+    }
+
+    @Test
+    public void testJMXRegistration() throws Exception {
+        MBeanServer mBeanServer = MBeanServerFactory.newMBeanServer();
+        ReformulationMetrics metrics = new ReformulationMetrics();
+        ObjectName objectName = metrics.register(mBeanServer);
+        metrics.onPhaseCompleted(ReformulationPhase.REWRITING, 10, 1);
+
+        Object counts = mBeanServer.getAttribute(objectName, "Counts");
+        assertTrue(counts instanceof TabularData);
+        assertEquals(ReformulationPhase.values().length, ((TabularData) counts).size());
+    }
+}
@@ -0,0 +1,71 @@
+package it.unibz.inf.ontop.answering.reformulation.input.impl;
+
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class RDF4JInputQueryTest {
+
+    @Test
+    public void testEquivalentQueries() {
+        RDF4JSelectQuery query1 = createSelectQuery("PREFIX ex: <http://example.org/>\n" +
+                "SELECT ?x ?n WHERE { ?x a ex:Person . ?x ex:name ?n }");
+        RDF4JSelectQuery query2 = createSelectQuery("SELECT ?person ?name WHERE {\n" +
+                "  ?person <http://example.org/name> ?name .\n" +
+                "  ?person a <http://example.org/Person> .\n" +
+                "}");
+
+        assertEquals(query1, query2);
+        assertEquals(query1.hashCode(), query2.hashCode());
+    }
+
+    @Test
+    public void testUnionOperands() {
+        RDF4JSelectQuery query1 = createSelectQuery("PREFIX ex: <http://example.org/>\n" +
+                "SELECT ?x WHERE { { ?x a ex:A } UNION { ?x a ex:B } }");
+        RDF4JSelectQuery query2 = createSelectQuery("PREFIX ex: <http://example.org/>\n" +
+                "SELECT ?y WHERE { { ?y a ex:B } UNION { ?y a ex:A } }");
+
+        assertEquals(query1, query2);
+    }
+
+    @Test
+    public void testDifferentProjectionOrder() {
+        RDF4JSelectQuery query1 = createSelectQuery("PREFIX ex: <http://example.org/>\n" +
+                "SELECT ?x ?n WHERE { ?x ex:name ?n }");
+        RDF4JSelectQuery query2 = createSelectQuery("PREFIX ex: <http://example.org/>\n" +
+                "SELECT ?n ?x WHERE { ?x ex:name ?n }");
+
+        assertNotEquals(query1, query2);
+    }
+
+    @Test
+    public void testDifferentConstants() {
+        RDF4JSelectQuery query1 = createSelectQuery("PREFIX ex: <http://example.org/>\n" +
+                "SELECT ?x WHERE { ?x ex:name \"Alice\" }");
+        RDF4JSelectQuery query2 = createSelectQuery("PREFIX ex: <http://example.org/>\n" +
+                "SELECT ?x WHERE { ?x ex:name \"Bob\" }");
+
+        assertNotEquals(query1, query2);
+    }
+
+    @Test
+    public void testValuesNotFingerprinted() {
+        String queryString = "PREFIX ex: <http://example.org/>\n" +
+                "SELECT ?x WHERE { ?x ex:name ?n VALUES ?n { \"Alice\" } }";
+        RDF4JSelectQuery query1 = createSelectQuery(queryString);
+        RDF4JSelectQuery query2 = createSelectQuery(queryString);
+
+        assertEquals(query1, query1);
+        assertNotEquals(query1, query2);
+    }
+
+    private static RDF4JSelectQuery createSelectQuery(String queryString) {
+        ParsedQuery parsedQuery = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, null);
+        return new RDF4JSelectQuery(parsedQuery, queryString);
+    }
+}
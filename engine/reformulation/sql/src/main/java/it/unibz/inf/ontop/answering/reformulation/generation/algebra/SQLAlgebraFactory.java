@@ -8,6 +8,8 @@ import com.google.inject.assistedinject.Assisted;
 import it.unibz.inf.ontop.iq.node.OrderByNode;
 import it.unibz.inf.ontop.model.atom.DataAtom;
 import it.unibz.inf.ontop.model.atom.RelationPredicate;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.model.term.GroundTerm;
 import it.unibz.inf.ontop.model.term.ImmutableExpression;
 import it.unibz.inf.ontop.model.term.ImmutableTerm;
 import it.unibz.inf.ontop.model.term.Variable;
@@ -44,4 +46,13 @@ public interface SQLAlgebraFactory {
     SQLUnionExpression createSQLUnionExpression(ImmutableList<SQLExpression> subExpressions, ImmutableSet<Variable> projectedVariables);
 
     SQLOneTupleDummyQueryExpression createSQLOneTupleDummyQueryExpression();
+
+    SQLValuesExpression createSQLValuesExpression(@Assisted("orderedVariables") ImmutableList<Variable> orderedVariables,
+                                                  @Assisted("values") ImmutableList<ImmutableList<Constant>> values);
+
+    SQLTransitiveClosureExpression createSQLTransitiveClosureExpression(SelectFromWhereWithModifiers subExpression,
+                                                                        @Assisted("sourceVariable") Variable sourceVariable,
+                                                                        @Assisted("targetVariable") Variable targetVariable,
+                                                                        @Assisted("sourceSeed") Optional<GroundTerm> sourceSeed,
+                                                                        @Assisted("targetSeed") Optional<GroundTerm> targetSeed);
 }
@@ -18,4 +18,8 @@ public interface SQLRelationVisitor<T> {
     T visit(SQLLeftJoinExpression sqlLeftJoinExpression);
 
     T visit(SQLOneTupleDummyQueryExpression sqlOneTupleDummyQueryExpression);
+
+    T visit(SQLValuesExpression sqlValuesExpression);
+
+    T visit(SQLTransitiveClosureExpression sqlTransitiveClosureExpression);
 }
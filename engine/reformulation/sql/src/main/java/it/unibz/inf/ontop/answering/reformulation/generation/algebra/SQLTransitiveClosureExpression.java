@@ -0,0 +1,25 @@
+package it.unibz.inf.ontop.answering.reformulation.generation.algebra;
+
+import it.unibz.inf.ontop.model.term.GroundTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+
+import java.util.Optional;
+
+/**
+ * Transitive closure (without duplicates) of the binary relation defined by the sub-expression,
+ * restricted to the paths starting at the source seed and ending at the target seed (when present)
+ *
+ * See SQLAlgebraFactory for creating a new instance.
+ */
+public interface SQLTransitiveClosureExpression extends SQLExpression {
+
+    SelectFromWhereWithModifiers getSubExpression();
+
+    Variable getSourceVariable();
+
+    Variable getTargetVariable();
+
+    Optional<GroundTerm> getSourceSeed();
+
+    Optional<GroundTerm> getTargetSeed();
+}
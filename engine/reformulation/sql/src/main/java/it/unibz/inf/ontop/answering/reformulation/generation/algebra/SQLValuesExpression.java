@@ -0,0 +1,17 @@
+package it.unibz.inf.ontop.answering.reformulation.generation.algebra;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.model.term.Variable;
+
+/**
+ * Inline relation (table value constructor)
+ *
+ * See SQLAlgebraFactory for creating a new instance.
+ */
+public interface SQLValuesExpression extends SQLExpression {
+
+    ImmutableList<Variable> getOrderedVariables();
+
+    ImmutableList<ImmutableList<Constant>> getValues();
+}
@@ -216,6 +216,18 @@ public class IQTree2SelectFromWhereConverterImpl implements IQTree2SelectFromWhe
         else if (rootNode instanceof TrueNode){
             return sqlAlgebraFactory.createSQLOneTupleDummyQueryExpression();
         }
+        else if (rootNode instanceof ValuesNode){
+            ValuesNode valuesNode = (ValuesNode) rootNode;
+            return sqlAlgebraFactory.createSQLValuesExpression(valuesNode.getOrderedVariables(), valuesNode.getValues());
+        }
+        else if (rootNode instanceof TransitiveClosureNode){
+            TransitiveClosureNode closureNode = (TransitiveClosureNode) rootNode;
+            IQTree child = ((UnaryIQTree) tree).getChild();
+            return sqlAlgebraFactory.createSQLTransitiveClosureExpression(
+                    convert(child, ImmutableSortedSet.copyOf(child.getVariables())),
+                    closureNode.getSourceVariable(), closureNode.getTargetVariable(),
+                    closureNode.getSourceSeed(), closureNode.getTargetSeed());
+        }
         else if (rootNode instanceof ExtendedProjectionNode || rootNode instanceof QueryModifierNode){
             ImmutableSortedSet<Variable> signature = ImmutableSortedSet.copyOf(tree.getVariables());
             return convert(tree, signature);
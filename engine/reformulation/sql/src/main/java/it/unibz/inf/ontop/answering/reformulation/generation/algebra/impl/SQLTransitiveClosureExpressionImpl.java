@@ -0,0 +1,66 @@
+package it.unibz.inf.ontop.answering.reformulation.generation.algebra.impl;
+
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.answering.reformulation.generation.algebra.SQLRelationVisitor;
+import it.unibz.inf.ontop.answering.reformulation.generation.algebra.SQLTransitiveClosureExpression;
+import it.unibz.inf.ontop.answering.reformulation.generation.algebra.SelectFromWhereWithModifiers;
+import it.unibz.inf.ontop.model.term.GroundTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+
+import java.util.Optional;
+
+/**
+ * See SQLAlgebraFactory for creating a new instance.
+ */
+public class SQLTransitiveClosureExpressionImpl implements SQLTransitiveClosureExpression {
+
+    private final SelectFromWhereWithModifiers subExpression;
+    private final Variable sourceVariable;
+    private final Variable targetVariable;
+    private final Optional<GroundTerm> sourceSeed;
+    private final Optional<GroundTerm> targetSeed;
+
+    @AssistedInject
+    private SQLTransitiveClosureExpressionImpl(@Assisted SelectFromWhereWithModifiers subExpression,
+                                               @Assisted("sourceVariable") Variable sourceVariable,
+                                               @Assisted("targetVariable") Variable targetVariable,
+                                               @Assisted("sourceSeed") Optional<GroundTerm> sourceSeed,
+                                               @Assisted("targetSeed") Optional<GroundTerm> targetSeed) {
+        this.subExpression = subExpression;
+        this.sourceVariable = sourceVariable;
+        this.targetVariable = targetVariable;
+        this.sourceSeed = sourceSeed;
+        this.targetSeed = targetSeed;
+    }
+
+    @Override
+    public SelectFromWhereWithModifiers getSubExpression() {
+        return subExpression;
+    }
+
+    @Override
+    public Variable getSourceVariable() {
+        return sourceVariable;
+    }
+
+    @Override
+    public Variable getTargetVariable() {
+        return targetVariable;
+    }
+
+    @Override
+    public Optional<GroundTerm> getSourceSeed() {
+        return sourceSeed;
+    }
+
+    @Override
+    public Optional<GroundTerm> getTargetSeed() {
+        return targetSeed;
+    }
+
+    @Override
+    public <T> T acceptVisitor(SQLRelationVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+}
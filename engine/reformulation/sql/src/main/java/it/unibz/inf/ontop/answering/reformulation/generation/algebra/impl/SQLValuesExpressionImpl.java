@@ -0,0 +1,40 @@
+package it.unibz.inf.ontop.answering.reformulation.generation.algebra.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.answering.reformulation.generation.algebra.SQLRelationVisitor;
+import it.unibz.inf.ontop.answering.reformulation.generation.algebra.SQLValuesExpression;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.model.term.Variable;
+
+/**
+ * See SQLAlgebraFactory for creating a new instance.
+ */
+public class SQLValuesExpressionImpl implements SQLValuesExpression {
+
+    private final ImmutableList<Variable> orderedVariables;
+    private final ImmutableList<ImmutableList<Constant>> values;
+
+    @AssistedInject
+    private SQLValuesExpressionImpl(@Assisted("orderedVariables") ImmutableList<Variable> orderedVariables,
+                                    @Assisted("values") ImmutableList<ImmutableList<Constant>> values) {
+        this.orderedVariables = orderedVariables;
+        this.values = values;
+    }
+
+    @Override
+    public ImmutableList<Variable> getOrderedVariables() {
+        return orderedVariables;
+    }
+
+    @Override
+    public ImmutableList<ImmutableList<Constant>> getValues() {
+        return values;
+    }
+
+    @Override
+    public <T> T acceptVisitor(SQLRelationVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+}
@@ -114,6 +114,49 @@ public interface SQLDialectAdapter {
 	 * Returns the name of special system table having one tuple only if the FROM clause is always required in the dialect
 	 */
 	Optional<String> getTrueTable();
+
+	/**
+	 * Returns true if inline relations can be written as (VALUES (...), (...)) alias (col1, ...) in a FROM clause.
+	 *
+	 * Otherwise, they are written as a UNION ALL of one-tuple SELECTs.
+	 */
+	boolean supportsTableValueConstructor();
+
+	/**
+	 * Keyword introducing recursive common table expressions (e.g. "WITH RECURSIVE").
+	 * Empty if the dialect does not support them.
+	 */
+	Optional<String> getRecursiveWithKeyword();
+
+	/**
+	 * Returns true if the recursive member of a common table expression can be combined
+	 * with a UNION (without ALL), which guarantees termination on cyclic data
+	 */
+	boolean supportsDistinctRecursiveUnion();
+
+	/**
+	 * CYCLE clause placed after a recursive common table expression: stops the recursion
+	 * when the given column takes a value already visited on the current path (e.g. Oracle).
+	 * Empty if not supported.
+	 *
+	 * Cycles are detected per path: all the simple paths are enumerated, unlike with a UNION (without ALL).
+	 */
+	Optional<String> getRecursiveCycleClause(String column);
+
+	/**
+	 * String type of the column tracking the values visited by the recursion, when neither
+	 * the UNION (without ALL) nor the CYCLE clause are supported in recursive common table expressions.
+	 *
+	 * Limits: all the simple paths are enumerated (exponential on graphs with many alternative paths),
+	 * and the query fails when the values visited on a path exceed the size of a bounded type.
+	 */
+	String getRecursivePathType();
+
+	/**
+	 * Option appended to a query using recursive common table expressions
+	 * (e.g. for lifting the default recursion limit)
+	 */
+	Optional<String> getRecursiveQueryOption();
 	
 	public String getSQLLexicalFormString(String constant);
 	
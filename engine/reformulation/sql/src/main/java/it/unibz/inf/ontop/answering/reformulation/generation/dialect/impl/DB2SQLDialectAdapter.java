@@ -206,5 +206,22 @@ public class DB2SQLDialectAdapter extends SQL99DialectAdapter {
 		return bf.toString();
 	}
 
-	
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return true;
+	}
+
+	@Override
+	public Optional<String> getRecursiveWithKeyword() {
+		return Optional.of("WITH");
+	}
+
+	/**
+	 * No CYCLE clause nor UNION (without ALL) in recursive queries.
+	 * Bounded: longer paths make the query fail.
+	 */
+	@Override
+	public String getRecursivePathType() {
+		return "VARCHAR(32000)";
+	}
 }
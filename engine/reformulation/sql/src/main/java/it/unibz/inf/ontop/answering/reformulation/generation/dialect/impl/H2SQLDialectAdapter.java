@@ -22,6 +22,7 @@ package it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl;
  */
 
 import java.util.Set;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 public class H2SQLDialectAdapter extends SQL99DialectAdapter {
@@ -149,5 +150,32 @@ public class H2SQLDialectAdapter extends SQL99DialectAdapter {
 		
 		return bf.toString();
 	}
-	
+
+	/**
+	 * H2 (up to 1.4.197) accepts VALUES in the FROM clause, but not a derived column list after its alias
+	 * (the columns are then named C1, C2, ...): UNION ALL is used instead.
+	 */
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return false;
+	}
+
+	@Override
+	public Optional<String> getRecursiveWithKeyword() {
+		return Optional.of("WITH RECURSIVE");
+	}
+
+	/**
+	 * The columns of the recursive common table expressions are VARCHAR in H2
+	 * (only UNION ALL is supported in recursive queries)
+	 */
+	@Override
+	public String getRecursivePathType() {
+		return "VARCHAR";
+	}
+
+	@Override
+	public String strContainsOperator() {
+		return "LOCATE(%2$s,%1$s) > 0";
+	}
 }
@@ -24,6 +24,7 @@ import it.unibz.inf.ontop.datalog.OrderCondition;
 
 import java.sql.Types;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 public class HSQLDBDialectAdapter extends SQL99DialectAdapter {
@@ -212,5 +213,19 @@ public class HSQLDBDialectAdapter extends SQL99DialectAdapter {
 		
 		return bf.toString();
 	}
-	
+
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return true;
+	}
+
+	@Override
+	public Optional<String> getRecursiveWithKeyword() {
+		return Optional.of("WITH RECURSIVE");
+	}
+
+	@Override
+	public boolean supportsDistinctRecursiveUnion() {
+		return true;
+	}
 }
@@ -440,4 +440,14 @@ public class OracleSQLDialectAdapter extends SQL99DialectAdapter {
 		throw new RuntimeException("Impossible to create a new variable/view " + prefix + shortenIntermediateNamePrefix
 				+ "???" + suffix + " : already " + Math.pow(10, NAME_NUMBER_LENGTH) + " of them.");
 	}
+
+	@Override
+	public Optional<String> getRecursiveWithKeyword() {
+		return Optional.of("WITH");
+	}
+
+	@Override
+	public Optional<String> getRecursiveCycleClause(String column) {
+		return Optional.of(String.format("CYCLE %s SET %s TO '1' DEFAULT '0'", column, sqlQuote("isCycle")));
+	}
 }
@@ -215,4 +215,18 @@ public class PostgreSQLDialectAdapter extends SQL99DialectAdapter {
 		return bf.toString();
 	}
 
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return true;
+	}
+
+	@Override
+	public Optional<String> getRecursiveWithKeyword() {
+		return Optional.of("WITH RECURSIVE");
+	}
+
+	@Override
+	public boolean supportsDistinctRecursiveUnion() {
+		return true;
+	}
 }
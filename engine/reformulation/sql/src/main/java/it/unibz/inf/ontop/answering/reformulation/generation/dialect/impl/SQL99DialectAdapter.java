@@ -533,6 +533,42 @@ public class SQL99DialectAdapter implements SQLDialectAdapter {
         return Optional.empty();
     }
 
+    /**
+     * Conservative default: not all the dialects accept VALUES in the FROM clause
+     */
+    @Override
+    public boolean supportsTableValueConstructor() {
+        return false;
+    }
+
+    /**
+     * Conservative default: recursive common table expressions are not supported by all the dialects
+     */
+    @Override
+    public Optional<String> getRecursiveWithKeyword() {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean supportsDistinctRecursiveUnion() {
+        return false;
+    }
+
+    @Override
+    public Optional<String> getRecursiveCycleClause(String column) {
+        return Optional.empty();
+    }
+
+    @Override
+    public String getRecursivePathType() {
+        return "VARCHAR(4000)";
+    }
+
+    @Override
+    public Optional<String> getRecursiveQueryOption() {
+        return Optional.empty();
+    }
+
     /**
      * By default, quotes and escapes isolated single quotes
      */
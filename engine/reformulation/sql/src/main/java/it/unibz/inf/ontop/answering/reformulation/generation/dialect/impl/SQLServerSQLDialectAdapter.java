@@ -317,5 +317,26 @@ public class SQLServerSQLDialectAdapter extends SQL99DialectAdapter {
 		return bf.toString();
 	}
 
+	@Override
+	public boolean supportsTableValueConstructor() {
+		return true;
+	}
+
+	@Override
+	public Optional<String> getRecursiveWithKeyword() {
+		return Optional.of("WITH");
+	}
 
+	@Override
+	public String getRecursivePathType() {
+		return "NVARCHAR(MAX)";
+	}
+
+	/**
+	 * By default, the recursion is limited to 100 levels
+	 */
+	@Override
+	public Optional<String> getRecursiveQueryOption() {
+		return Optional.of("OPTION (MAXRECURSION 0)");
+	}
 }
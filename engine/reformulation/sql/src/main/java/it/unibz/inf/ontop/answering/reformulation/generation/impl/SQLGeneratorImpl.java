@@ -1,7 +1,6 @@
 package it.unibz.inf.ontop.answering.reformulation.generation.impl;
 
 
-import com.google.common.collect.ImmutableList;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.reformulation.generation.IQTree2NativeNodeGenerator;
@@ -11,24 +10,18 @@ import it.unibz.inf.ontop.answering.reformulation.generation.normalization.Diale
 import it.unibz.inf.ontop.datalog.UnionFlattener;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.dbschema.RDBMetadata;
-import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.injection.OptimizerFactory;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.IQTree;
-import it.unibz.inf.ontop.iq.IntermediateQuery;
 import it.unibz.inf.ontop.iq.UnaryIQTree;
-import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.node.*;
 import it.unibz.inf.ontop.iq.optimizer.PostProcessableFunctionLifter;
 import it.unibz.inf.ontop.iq.optimizer.TermTypeTermLifter;
-import it.unibz.inf.ontop.iq.optimizer.PushDownBooleanExpressionOptimizer;
-import it.unibz.inf.ontop.iq.optimizer.PushUpBooleanExpressionOptimizer;
+import it.unibz.inf.ontop.iq.optimizer.PushDownBooleanExpressionIQOptimizer;
+import it.unibz.inf.ontop.iq.optimizer.PushUpBooleanExpressionIQOptimizer;
 import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
-import it.unibz.inf.ontop.iq.tools.IQConverter;
-import it.unibz.inf.ontop.model.atom.AtomFactory;
-import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 import org.slf4j.LoggerFactory;
 
@@ -43,12 +36,10 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
     private static final org.slf4j.Logger log = LoggerFactory.getLogger(SQLGeneratorImpl.class);
     private final RDBMetadata metadata;
     private final IntermediateQueryFactory iqFactory;
-    private final IQConverter iqConverter;
     private final UnionFlattener unionFlattener;
-    private final PushDownBooleanExpressionOptimizer pushDownExpressionOptimizer;
-    private final AtomFactory atomFactory;
+    private final PushDownBooleanExpressionIQOptimizer pushDownExpressionOptimizer;
     private final OptimizerFactory optimizerFactory;
-    private final PushUpBooleanExpressionOptimizer pullUpExpressionOptimizer;
+    private final PushUpBooleanExpressionIQOptimizer pullUpExpressionOptimizer;
     private final PostProcessingProjectionSplitter projectionSplitter;
     private final TermTypeTermLifter rdfTypeLifter;
     private final PostProcessableFunctionLifter functionLifter;
@@ -58,10 +49,10 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
     @AssistedInject
     private SQLGeneratorImpl(@Assisted DBMetadata metadata,
                              IntermediateQueryFactory iqFactory,
-                             IQConverter iqConverter, UnionFlattener unionFlattener,
-                             PushDownBooleanExpressionOptimizer pushDownExpressionOptimizer,
-                             AtomFactory atomFactory, OptimizerFactory optimizerFactory,
-                             PushUpBooleanExpressionOptimizer pullUpExpressionOptimizer,
+                             UnionFlattener unionFlattener,
+                             PushDownBooleanExpressionIQOptimizer pushDownExpressionOptimizer,
+                             OptimizerFactory optimizerFactory,
+                             PushUpBooleanExpressionIQOptimizer pullUpExpressionOptimizer,
                              PostProcessingProjectionSplitter projectionSplitter,
                              TermTypeTermLifter rdfTypeLifter, PostProcessableFunctionLifter functionLifter,
                              IQTree2NativeNodeGenerator defaultIQTree2NativeNodeGenerator,
@@ -74,10 +65,8 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
         }
         this.metadata = (RDBMetadata) metadata;
         this.iqFactory = iqFactory;
-        this.iqConverter = iqConverter;
         this.unionFlattener = unionFlattener;
         this.pushDownExpressionOptimizer = pushDownExpressionOptimizer;
-        this.atomFactory = atomFactory;
         this.optimizerFactory = optimizerFactory;
         this.pullUpExpressionOptimizer = pullUpExpressionOptimizer;
         this.projectionSplitter = projectionSplitter;
@@ -90,14 +79,14 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
             throws OntopReformulationException {
 
         IQ rdfTypeLiftedIQ = rdfTypeLifter.optimize(query);
-        log.debug("After lifting the RDF types:\n" + rdfTypeLiftedIQ);
+        log.debug("After lifting the RDF types:\n{}", rdfTypeLiftedIQ);
 
         IQ liftedIQ = functionLifter.optimize(rdfTypeLiftedIQ);
-        log.debug("After lifting the post-processable function symbols :\n" + liftedIQ);
+        log.debug("After lifting the post-processable function symbols :\n{}", liftedIQ);
 
         PostProcessingProjectionSplitter.PostProcessingSplit split = projectionSplitter.split(liftedIQ);
 
-        IQTree normalizedSubTree = normalizeSubTree(split.getSubTree(), split.getVariableGenerator(), executorRegistry);
+        IQTree normalizedSubTree = normalizeSubTree(split.getSubTree(), split.getVariableGenerator());
         NativeNode nativeNode = generateNativeNode(normalizedSubTree);
 
         UnaryIQTree newTree = iqFactory.createUnaryIQTree(split.getPostProcessingConstructionNode(), nativeNode);
@@ -111,50 +100,33 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
      *
      * TODO: check what is still needed
      */
-    private IQTree normalizeSubTree(IQTree subTree, VariableGenerator variableGenerator,
-                                    ExecutorRegistry executorRegistry) {
+    private IQTree normalizeSubTree(IQTree subTree, VariableGenerator variableGenerator) {
 
         IQTree sliceLiftedTree = liftSlice(subTree);
-        log.debug("New query after lifting the slice: \n" + sliceLiftedTree);
+        log.debug("New query after lifting the slice: \n{}", sliceLiftedTree);
 
         IQTree flattenSubTree = unionFlattener.optimize(sliceLiftedTree, variableGenerator);
-        log.debug("New query after flattening the union: \n" + flattenSubTree);
-
-        // Just here for converting the IQTree into an IntermediateQuery (will be ignored later on)
-        DistinctVariableOnlyDataAtom temporaryProjectionAtom = atomFactory.getDistinctVariableOnlyDataAtom(
-                atomFactory.getRDFAnswerPredicate(flattenSubTree.getVariables().size()),
-                ImmutableList.copyOf(flattenSubTree.getVariables()));
-
-        try {
-            IQTree treeAfterPullOut = optimizerFactory.createEETransformer(variableGenerator).transform(flattenSubTree);
-            log.debug("Query tree after pulling out equalities: \n" + treeAfterPullOut);
-
-
-            IQ pulledOutSubQuery = iqFactory.createIQ(temporaryProjectionAtom, treeAfterPullOut);
-
-            // Trick for pushing down expressions under unions:
-            //   - there the context may be concrete enough for evaluating certain expressions
-            //   - useful for dealing with SPARQL EBVs for instance
-            IntermediateQuery pushedDownQuery = pushDownExpressionOptimizer.optimize(
-                    iqConverter.convert(pulledOutSubQuery, executorRegistry));
-            log.debug("New query after pushing down the boolean expressions (temporary): \n" + pushedDownQuery);
-
-
-            // Pulling up is needed when filtering conditions appear above a data atom on the left
-            // (was causing problems to the IQ2DatalogConverter)
-            // TODO: check if still needed
-            IntermediateQuery queryAfterPullUp = pullUpExpressionOptimizer.optimize(pushedDownQuery);
-            log.debug("New query after pulling up the boolean expressions: \n" + queryAfterPullUp);
-
-            // Dialect specific
-            IQTree afterDialectNormalization = extraNormalizer.transform(iqConverter.convert(queryAfterPullUp).getTree(), variableGenerator);
-            log.debug("New query after the dialect-specific extra normalization: \n" + afterDialectNormalization);
-            return afterDialectNormalization;
-
-        } catch (EmptyQueryException e) {
-            // Not expected
-            throw new MinorOntopInternalBugException(e.getMessage());
-        }
+        log.debug("New query after flattening the union: \n{}", flattenSubTree);
+
+        IQTree treeAfterPullOut = optimizerFactory.createEETransformer(variableGenerator).transform(flattenSubTree);
+        log.debug("Query tree after pulling out equalities: \n{}", treeAfterPullOut);
+
+        // Trick for pushing down expressions under unions:
+        //   - there the context may be concrete enough for evaluating certain expressions
+        //   - useful for dealing with SPARQL EBVs for instance
+        IQTree pushedDownTree = pushDownExpressionOptimizer.optimize(treeAfterPullOut);
+        log.debug("New query after pushing down the boolean expressions (temporary): \n{}", pushedDownTree);
+
+        // Pulling up is needed when filtering conditions appear above a data atom on the left
+        // (was causing problems to the IQ2DatalogConverter)
+        // TODO: check if still needed
+        IQTree treeAfterPullUp = pullUpExpressionOptimizer.optimize(pushedDownTree);
+        log.debug("New query after pulling up the boolean expressions: \n{}", treeAfterPullUp);
+
+        // Dialect specific
+        IQTree afterDialectNormalization = extraNormalizer.transform(treeAfterPullUp, variableGenerator);
+        log.debug("New query after the dialect-specific extra normalization: \n{}", afterDialectNormalization);
+        return afterDialectNormalization;
     }
 
     private IQTree liftSlice(IQTree subTree) {
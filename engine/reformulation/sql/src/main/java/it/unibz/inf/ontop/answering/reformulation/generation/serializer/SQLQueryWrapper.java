@@ -0,0 +1,82 @@
+package it.unibz.inf.ontop.answering.reformulation.generation.serializer;
+
+import java.util.function.Function;
+
+/**
+ * Embeds a generated SQL query into an outer query (e.g. SELECT count(*) FROM (query) t1).
+ *
+ * Common table expressions are not supported in derived tables by all the DBMSs (e.g. recursive ones in H2,
+ * DB2, SQL Server), so the WITH clause of the generated query is hoisted in front of the outer query.
+ * Similarly, the trailing OPTION clause (SQL Server) is moved to the end of the outer query.
+ */
+public class SQLQueryWrapper {
+
+    private static final String WITH_KEYWORD = "WITH";
+    private static final String SELECT_KEYWORD = "SELECT";
+    private static final String OPTION_KEYWORD = "OPTION";
+
+    private SQLQueryWrapper() {
+    }
+
+    /**
+     * @param outerQueryBuilder builds the outer query from the string of the (inner) query without its WITH clause
+     */
+    public static String wrap(String sqlQuery, Function<String, String> outerQueryBuilder) {
+        String query = sqlQuery.trim();
+        if (!startsWithKeyword(query, 0, WITH_KEYWORD))
+            return outerQueryBuilder.apply(sqlQuery);
+
+        int selectIndex = findTopLevelKeyword(query, SELECT_KEYWORD, WITH_KEYWORD.length());
+        if (selectIndex < 0)
+            return outerQueryBuilder.apply(sqlQuery);
+        int optionIndex = findTopLevelKeyword(query, OPTION_KEYWORD, selectIndex);
+
+        String withString = query.substring(0, selectIndex);
+        String mainString = optionIndex < 0
+                ? query.substring(selectIndex)
+                : query.substring(selectIndex, optionIndex).trim();
+        String optionString = optionIndex < 0
+                ? ""
+                : "\n" + query.substring(optionIndex);
+
+        return withString + outerQueryBuilder.apply(mainString) + optionString;
+    }
+
+    /**
+     * Outside parentheses and quotes. Returns -1 if not found.
+     */
+    private static int findTopLevelKeyword(String query, String keyword, int fromIndex) {
+        int depth = 0;
+        Character quote = null;
+        for (int i = fromIndex; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (quote != null) {
+                if (c == quote)
+                    quote = null;
+            }
+            else if (c == '\'' || c == '"' || c == '`')
+                quote = c;
+            else if (c == '[')
+                quote = ']';
+            else if (c == '(')
+                depth++;
+            else if (c == ')')
+                depth--;
+            else if (depth == 0
+                    && (i == 0 || !isIdentifierPart(query.charAt(i - 1)))
+                    && startsWithKeyword(query, i, keyword))
+                return i;
+        }
+        return -1;
+    }
+
+    private static boolean startsWithKeyword(String query, int index, String keyword) {
+        int end = index + keyword.length();
+        return query.regionMatches(true, index, keyword, 0, keyword.length())
+                && (end == query.length() || !isIdentifierPart(query.charAt(end)));
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
@@ -11,36 +11,82 @@ import it.unibz.inf.ontop.answering.reformulation.generation.dialect.SQLDialectA
 import it.unibz.inf.ontop.answering.reformulation.generation.serializer.SQLTermSerializer;
 import it.unibz.inf.ontop.answering.reformulation.generation.serializer.SelectFromWhereSerializer;
 import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
+import it.unibz.inf.ontop.injection.OntopReformulationSQLSettings;
 import it.unibz.inf.ontop.iq.node.OrderByNode;
 import it.unibz.inf.ontop.model.atom.DataAtom;
 import it.unibz.inf.ontop.model.atom.RelationPredicate;
+import it.unibz.inf.ontop.model.term.Constant;
 import it.unibz.inf.ontop.model.term.ImmutableTerm;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Singleton
 public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultSelectFromWhereSerializer.class);
     private final SQLTermSerializer sqlTermSerializer;
     private final SQLDialectAdapter dialectAdapter;
+    private final boolean enablePathRecursion;
+    private final int maxPathLength;
 
     @Inject
-    protected DefaultSelectFromWhereSerializer(SQLTermSerializer sqlTermSerializer, SQLDialectAdapter dialectAdapter) {
+    protected DefaultSelectFromWhereSerializer(SQLTermSerializer sqlTermSerializer, SQLDialectAdapter dialectAdapter,
+                                               OntopReformulationSQLSettings settings) {
         this.sqlTermSerializer = sqlTermSerializer;
         this.dialectAdapter = dialectAdapter;
+        this.enablePathRecursion = isPropertyPathRecursionEnabled(settings, dialectAdapter);
+        this.maxPathLength = getMaxPropertyPathLength(settings, enablePathRecursion);
     }
 
     @Override
     public QuerySerialization serialize(SelectFromWhereWithModifiers selectFromWhere, DBParameters dbParameters) {
-        return selectFromWhere.acceptVisitor(
-                new DefaultSQLRelationVisitingSerializer(sqlTermSerializer, dialectAdapter, dbParameters.getQuotedIDFactory()));
+        return new DefaultSQLRelationVisitingSerializer(sqlTermSerializer, dialectAdapter,
+                dbParameters.getQuotedIDFactory(), maxPathLength, enablePathRecursion)
+                .serializeQuery(selectFromWhere);
+    }
+
+    /**
+     * Recursive evaluation of the property paths, unless disabled or not supported by the dialect
+     */
+    protected static boolean isPropertyPathRecursionEnabled(OntopReformulationSQLSettings settings,
+                                                            SQLDialectAdapter dialectAdapter) {
+        return settings.isPropertyPathRecursionEnabled() && dialectAdapter.getRecursiveWithKeyword().isPresent();
+    }
+
+    /**
+     * Bound of the recursive evaluation (0 for none) or length of the unrolled paths.
+     *
+     * Checked and logged once, when the serializer is created.
+     */
+    protected static int getMaxPropertyPathLength(OntopReformulationSQLSettings settings, boolean enablePathRecursion) {
+        if (enablePathRecursion) {
+            int maxLength = settings.getMaxPropertyPathLength();
+            if (maxLength > 0)
+                LOGGER.warn("Property paths are evaluated on the paths of length at most {} ({}): " +
+                        "the answers may be incomplete", maxLength, OntopReformulationSQLSettings.PROPERTY_PATH_MAX_LENGTH);
+            return maxLength;
+        }
+
+        int unrollingLength = settings.getPropertyPathUnrollingLength();
+        if (unrollingLength <= 0)
+            throw new InvalidOntopConfigurationException(OntopReformulationSQLSettings.PROPERTY_PATH_UNROLLING_LENGTH
+                    + " must be positive when the property paths are not evaluated with recursive queries");
+        LOGGER.info("Property paths are unrolled into unions of joins of length at most {} ({}): " +
+                "the answers may be incomplete", unrollingLength, OntopReformulationSQLSettings.PROPERTY_PATH_UNROLLING_LENGTH);
+        return unrollingLength;
     }
 
     /**
@@ -50,17 +96,56 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
 
         protected static final String VIEW_PREFIX = "v";
         private static final String SELECT_FROM_WHERE_MODIFIERS_TEMPLATE = "SELECT %s%s\nFROM %s\n%s%s%s%s";
+        private static final String PATH_LENGTH_COLUMN = "pathLength";
+        private static final String VISITED_COLUMN = "visited";
+        /**
+         * Separates the values of the visited column (ASCII unit separator, not expected in the values)
+         */
+        private static final String VISITED_SEPARATOR = "'\u001F'";
         private final AtomicInteger viewCounter;
         protected final SQLTermSerializer sqlTermSerializer;
         protected final SQLDialectAdapter dialectAdapter;
         protected final QuotedIDFactory idFactory;
+        private final int maxPathLength;
+        private final boolean enableRecursion;
+        /**
+         * Mutable: common table expressions to be placed in front of the query
+         */
+        private final List<String> commonTableExpressions;
 
         protected DefaultSQLRelationVisitingSerializer(SQLTermSerializer sqlTermSerializer, SQLDialectAdapter dialectAdapter,
-                                                       QuotedIDFactory idFactory) {
+                                                       QuotedIDFactory idFactory, int maxPathLength,
+                                                       boolean enableRecursion) {
             this.sqlTermSerializer = sqlTermSerializer;
             this.dialectAdapter = dialectAdapter;
             this.idFactory = idFactory;
+            this.maxPathLength = maxPathLength;
+            this.enableRecursion = enableRecursion;
             this.viewCounter = new AtomicInteger(0);
+            this.commonTableExpressions = new ArrayList<>();
+        }
+
+        /**
+         * Entry point: serializes the top query and prefixes it with the common table expressions it refers to.
+         *
+         * See SQLQueryWrapper for embedding the resulting query into another one.
+         */
+        public QuerySerialization serializeQuery(SelectFromWhereWithModifiers selectFromWhere) {
+            QuerySerialization serialization = selectFromWhere.acceptVisitor(this);
+            if (commonTableExpressions.isEmpty())
+                return serialization;
+
+            String withString = commonTableExpressions.stream()
+                    .collect(Collectors.joining(",\n",
+                            dialectAdapter.getRecursiveWithKeyword()
+                                    .orElseThrow(() -> new IllegalStateException("Recursive CTEs are not supported"))
+                                    + " ",
+                            "\n"));
+            String optionString = dialectAdapter.getRecursiveQueryOption()
+                    .map(o -> "\n" + o)
+                    .orElse("");
+            return new QuerySerializationImpl(withString + serialization.getString() + optionString,
+                    serialization.getColumnIDs());
         }
 
         @Override
@@ -332,6 +417,219 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
 
             return new QuerySerializationImpl(sqlSubString, ImmutableMap.of());
         }
+
+        /**
+         * Rendered as a table value constructor (VALUES) when supported by the dialect,
+         * otherwise as a UNION ALL of one-tuple SELECTs.
+         */
+        @Override
+        public QuerySerialization visit(SQLValuesExpression sqlValuesExpression) {
+            ImmutableList<Variable> orderedVariables = sqlValuesExpression.getOrderedVariables();
+            ImmutableList<String> columnNames = orderedVariables.stream()
+                    .map(v -> dialectAdapter.sqlQuote(v.getName()))
+                    .collect(ImmutableCollectors.toList());
+
+            RelationID alias = generateFreshViewAlias();
+
+            String sqlSubString = (dialectAdapter.supportsTableValueConstructor() && !orderedVariables.isEmpty())
+                    ? String.format("(VALUES %s) %s (%s)",
+                            sqlValuesExpression.getValues().stream()
+                                    .map(r -> String.format("(%s)", serializeValuesRow(r, ImmutableList.of())))
+                                    .collect(Collectors.joining(", ")),
+                            alias.getSQLRendering(),
+                            String.join(", ", columnNames))
+                    : String.format("(%s) %s",
+                            sqlValuesExpression.getValues().stream()
+                                    .map(r -> serializeValuesRowAsSelect(r, columnNames))
+                                    .collect(Collectors.joining("UNION ALL \n")),
+                            alias.getSQLRendering());
+
+            ImmutableMap<Variable, QualifiedAttributeID> columnIDs = orderedVariables.stream()
+                    .collect(ImmutableCollectors.toMap(v -> v,
+                            v -> createQualifiedAttributeId(alias, columnNames.get(orderedVariables.indexOf(v)))));
+
+            return new QuerySerializationImpl(sqlSubString, columnIDs);
+        }
+
+        /**
+         * Rendered as a recursive common table expression (hoisted to the top of the query) when enabled,
+         * otherwise as a UNION of the paths of length 1 to maxPathLength.
+         *
+         * The recursion has set semantics so as to terminate on cyclic data: UNION (without ALL) when the dialect
+         * supports it (PostgreSQL, HSQLDB). Otherwise, a CYCLE clause (Oracle) or a column tracking the values
+         * visited (H2, SQL Server, DB2) stops each path before it revisits a value. In the latter case, every simple
+         * path is enumerated, which grows exponentially on graphs with many alternative paths (e.g. DAGs),
+         * and the visited column may overflow its type (see SQLDialectAdapter.getRecursivePathType()).
+         * A positive maxPathLength bounds the recursion (opt-in, as the answers may then be incomplete).
+         *
+         * The recursion starts from the seed of the closure, if any: from the source seed, otherwise backwards
+         * from the target seed. Only the values reachable from the seed are computed.
+         */
+        @Override
+        public QuerySerialization visit(SQLTransitiveClosureExpression sqlTransitiveClosureExpression) {
+            String childString = sqlTransitiveClosureExpression.getSubExpression().acceptVisitor(this).getString();
+            String sourceColumn = dialectAdapter.sqlQuote(sqlTransitiveClosureExpression.getSourceVariable().getName());
+            String targetColumn = dialectAdapter.sqlQuote(sqlTransitiveClosureExpression.getTargetVariable().getName());
+            Optional<String> sourceSeed = sqlTransitiveClosureExpression.getSourceSeed()
+                    .map(t -> sqlTermSerializer.serialize(t, ImmutableMap.of()));
+            Optional<String> targetSeed = sqlTransitiveClosureExpression.getTargetSeed()
+                    .map(t -> sqlTermSerializer.serialize(t, ImmutableMap.of()));
+
+            RelationID alias = generateFreshViewAlias();
+
+            boolean isBackward = targetSeed.isPresent() && !sourceSeed.isPresent();
+
+            String sqlSubString = !enableRecursion
+                    ? serializeUnrolledClosure(childString, sourceColumn, targetColumn, sourceSeed, targetSeed, alias)
+                    : isBackward
+                        ? serializeRecursiveClosure(childString, targetColumn, sourceColumn, targetSeed, sourceSeed,
+                                sourceColumn, targetColumn, alias)
+                        : serializeRecursiveClosure(childString, sourceColumn, targetColumn, sourceSeed, targetSeed,
+                                sourceColumn, targetColumn, alias);
+
+            return new QuerySerializationImpl(sqlSubString, ImmutableMap.of(
+                    sqlTransitiveClosureExpression.getSourceVariable(), createQualifiedAttributeId(alias, sourceColumn),
+                    sqlTransitiveClosureExpression.getTargetVariable(), createQualifiedAttributeId(alias, targetColumn)));
+        }
+
+        /**
+         * The anchor column keeps its value from the base case (filtered by the anchor seed),
+         * the frontier column is extended by the recursive member.
+         */
+        private String serializeRecursiveClosure(String childString, String anchorColumn, String frontierColumn,
+                                                 Optional<String> anchorSeed, Optional<String> frontierSeed,
+                                                 String sourceColumn, String targetColumn, RelationID alias) {
+            String cteName = generateFreshViewAlias().getSQLRendering();
+            String baseAlias = generateFreshViewAlias().getSQLRendering();
+            String stepAlias = generateFreshViewAlias().getSQLRendering();
+
+            boolean isDistinctUnion = dialectAdapter.supportsDistinctRecursiveUnion();
+            Optional<String> cycleClause = isDistinctUnion
+                    ? Optional.empty()
+                    : dialectAdapter.getRecursiveCycleClause(frontierColumn);
+            boolean trackVisitedValues = !isDistinctUnion && !cycleClause.isPresent();
+            boolean isBounded = maxPathLength > 0;
+
+            List<String> columns = new ArrayList<>();
+            List<String> baseProjection = new ArrayList<>();
+            List<String> stepProjection = new ArrayList<>();
+            List<String> stepConditions = new ArrayList<>();
+
+            columns.add(anchorColumn);
+            baseProjection.add(String.format("%s.%s", baseAlias, anchorColumn));
+            stepProjection.add(String.format("%s.%s", cteName, anchorColumn));
+            columns.add(frontierColumn);
+            baseProjection.add(String.format("%s.%s", baseAlias, frontierColumn));
+            stepProjection.add(String.format("%s.%s", stepAlias, frontierColumn));
+            stepConditions.add(String.format("%s.%s = %s.%s", cteName, frontierColumn, stepAlias, anchorColumn));
+
+            if (trackVisitedValues) {
+                String visitedColumn = dialectAdapter.sqlQuote(VISITED_COLUMN);
+                String pathType = dialectAdapter.getRecursivePathType();
+                String stepValue = String.format("CAST(%s.%s AS %s)", stepAlias, frontierColumn, pathType);
+
+                columns.add(visitedColumn);
+                baseProjection.add(String.format("CAST(%s AS %s)", dialectAdapter.strConcat(new String[] {
+                        VISITED_SEPARATOR,
+                        String.format("CAST(%s.%s AS %s)", baseAlias, frontierColumn, pathType),
+                        VISITED_SEPARATOR}), pathType));
+                stepProjection.add(String.format("CAST(%s AS %s)", dialectAdapter.strConcat(new String[] {
+                        String.format("%s.%s", cteName, visitedColumn), stepValue, VISITED_SEPARATOR}), pathType));
+                stepConditions.add("NOT " + String.format(dialectAdapter.strContainsOperator(),
+                        String.format("%s.%s", cteName, visitedColumn),
+                        dialectAdapter.strConcat(new String[] {VISITED_SEPARATOR, stepValue, VISITED_SEPARATOR})));
+            }
+            if (isBounded) {
+                String lengthColumn = dialectAdapter.sqlQuote(PATH_LENGTH_COLUMN);
+                columns.add(lengthColumn);
+                baseProjection.add("1");
+                stepProjection.add(String.format("%s.%s + 1", cteName, lengthColumn));
+                stepConditions.add(String.format("%s.%s < %d", cteName, lengthColumn, maxPathLength));
+            }
+
+            String baseCondition = anchorSeed
+                    .map(s -> String.format(" WHERE %s.%s = %s", baseAlias, anchorColumn, s))
+                    .orElse("");
+
+            commonTableExpressions.add(String.format(
+                    "%s (%s) AS (\nSELECT %s FROM (%s) %s%s\n%s\nSELECT %s FROM %s, (%s) %s WHERE %s\n)%s",
+                    cteName, String.join(", ", columns),
+                    String.join(", ", baseProjection), childString, baseAlias, baseCondition,
+                    isDistinctUnion ? "UNION" : "UNION ALL",
+                    String.join(", ", stepProjection), cteName, childString, stepAlias,
+                    String.join(" AND ", stepConditions),
+                    cycleClause.map(c -> " " + c).orElse("")));
+
+            String whereString = frontierSeed
+                    .map(s -> String.format(" WHERE %s = %s", frontierColumn, s))
+                    .orElse("");
+
+            // The other columns may produce several rows for the same pair
+            return columns.size() == 2 && isDistinctUnion && whereString.isEmpty()
+                    ? String.format("%s %s", cteName, alias.getSQLRendering())
+                    : String.format("(SELECT DISTINCT %s, %s FROM %s%s) %s", sourceColumn, targetColumn, cteName,
+                        whereString, alias.getSQLRendering());
+        }
+
+        private String serializeUnrolledClosure(String childString, String sourceColumn, String targetColumn,
+                                                Optional<String> sourceSeed, Optional<String> targetSeed,
+                                                RelationID alias) {
+            String pathString = IntStream.rangeClosed(1, maxPathLength)
+                    .mapToObj(l -> serializePathOfLength(l, childString, sourceColumn, targetColumn,
+                            sourceSeed, targetSeed))
+                    .collect(Collectors.joining("UNION\n"));
+            return String.format("(%s) %s", pathString, alias.getSQLRendering());
+        }
+
+        private String serializePathOfLength(int length, String childString, String sourceColumn, String targetColumn,
+                                             Optional<String> sourceSeed, Optional<String> targetSeed) {
+            ImmutableList<String> stepAliases = IntStream.range(0, length)
+                    .mapToObj(i -> generateFreshViewAlias().getSQLRendering())
+                    .collect(ImmutableCollectors.toList());
+
+            String fromString = stepAliases.stream()
+                    .map(a -> String.format("(%s) %s", childString, a))
+                    .collect(Collectors.joining(", "));
+
+            List<String> conditions = new ArrayList<>();
+            sourceSeed.ifPresent(s -> conditions.add(String.format("%s.%s = %s", stepAliases.get(0), sourceColumn, s)));
+            targetSeed.ifPresent(s -> conditions.add(String.format("%s.%s = %s", stepAliases.get(length - 1),
+                    targetColumn, s)));
+            IntStream.range(1, length)
+                    .mapToObj(i -> String.format("%s.%s = %s.%s", stepAliases.get(i - 1), targetColumn,
+                            stepAliases.get(i), sourceColumn))
+                    .forEach(conditions::add);
+
+            String whereString = conditions.isEmpty()
+                    ? ""
+                    : conditions.stream()
+                        .collect(Collectors.joining(" AND ", "WHERE ", "\n"));
+
+            return String.format("SELECT %s.%s AS %s, %s.%s AS %s\nFROM %s\n%s",
+                    stepAliases.get(0), sourceColumn, sourceColumn,
+                    stepAliases.get(length - 1), targetColumn, targetColumn,
+                    fromString, whereString);
+        }
+
+        private String serializeValuesRowAsSelect(ImmutableList<Constant> row, ImmutableList<String> columnNames) {
+            String fromString = dialectAdapter.getTrueTable()
+                    .map(t -> " FROM " + t)
+                    .orElse("");
+            String projectionString = row.isEmpty() ? "1" : serializeValuesRow(row, columnNames);
+            return String.format("SELECT %s%s ", projectionString, fromString);
+        }
+
+        /**
+         * When column names are given, each value is aliased with them
+         */
+        private String serializeValuesRow(ImmutableList<Constant> row, ImmutableList<String> columnNames) {
+            return IntStream.range(0, row.size())
+                    .mapToObj(i -> columnNames.isEmpty()
+                            ? sqlTermSerializer.serialize(row.get(i), ImmutableMap.of())
+                            : String.format("%s AS %s",
+                                sqlTermSerializer.serialize(row.get(i), ImmutableMap.of()), columnNames.get(i)))
+                    .collect(Collectors.joining(", "));
+        }
     }
 
 
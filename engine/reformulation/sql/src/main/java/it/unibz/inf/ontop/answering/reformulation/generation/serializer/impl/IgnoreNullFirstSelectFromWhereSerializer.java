@@ -11,6 +11,7 @@ import it.unibz.inf.ontop.answering.reformulation.generation.serializer.SelectFr
 import it.unibz.inf.ontop.dbschema.DBParameters;
 import it.unibz.inf.ontop.dbschema.QualifiedAttributeID;
 import it.unibz.inf.ontop.dbschema.QuotedIDFactory;
+import it.unibz.inf.ontop.injection.OntopReformulationSQLSettings;
 import it.unibz.inf.ontop.iq.node.OrderByNode;
 import it.unibz.inf.ontop.model.term.Variable;
 
@@ -25,26 +26,34 @@ public class IgnoreNullFirstSelectFromWhereSerializer implements SelectFromWhere
 
     private final SQLTermSerializer sqlTermSerializer;
     private final SQLDialectAdapter dialectAdapter;
+    private final boolean enablePathRecursion;
+    private final int maxPathLength;
 
     @Inject
     private IgnoreNullFirstSelectFromWhereSerializer(SQLTermSerializer sqlTermSerializer,
-                                                     SQLDialectAdapter dialectAdapter) {
+                                                     SQLDialectAdapter dialectAdapter,
+                                                     OntopReformulationSQLSettings settings) {
         this.sqlTermSerializer = sqlTermSerializer;
         this.dialectAdapter = dialectAdapter;
+        this.enablePathRecursion = DefaultSelectFromWhereSerializer.isPropertyPathRecursionEnabled(settings,
+                dialectAdapter);
+        this.maxPathLength = DefaultSelectFromWhereSerializer.getMaxPropertyPathLength(settings, enablePathRecursion);
     }
 
     @Override
     public QuerySerialization serialize(SelectFromWhereWithModifiers selectFromWhere, DBParameters dbParameters) {
-        return selectFromWhere.acceptVisitor(
-                new SQLServerSQLRelationVisitingSerializer(sqlTermSerializer, dialectAdapter, dbParameters.getQuotedIDFactory()));
+        return new SQLServerSQLRelationVisitingSerializer(sqlTermSerializer, dialectAdapter,
+                dbParameters.getQuotedIDFactory(), maxPathLength, enablePathRecursion)
+                .serializeQuery(selectFromWhere);
     }
 
 
     protected static class SQLServerSQLRelationVisitingSerializer extends DefaultSelectFromWhereSerializer.DefaultSQLRelationVisitingSerializer {
 
         protected SQLServerSQLRelationVisitingSerializer(SQLTermSerializer sqlTermSerializer,
-                                                         SQLDialectAdapter dialectAdapter, QuotedIDFactory idFactory) {
-            super(sqlTermSerializer, dialectAdapter, idFactory);
+                                                         SQLDialectAdapter dialectAdapter, QuotedIDFactory idFactory,
+                                                         int maxPathLength, boolean enableRecursion) {
+            super(sqlTermSerializer, dialectAdapter, idFactory, maxPathLength, enableRecursion);
         }
 
         @Override
@@ -0,0 +1,45 @@
+package it.unibz.inf.ontop.answering.reformulation.generation.serializer;
+
+import org.junit.Test;
+
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class SQLQueryWrapperTest {
+
+    private static final Function<String, String> COUNT = q -> "SELECT count(*) FROM (" + q + ") t1";
+
+    @Test
+    public void testNoWith() {
+        String query = "SELECT v1.\"a\" AS \"a\"\nFROM \"T\" v1\n";
+        assertEquals("SELECT count(*) FROM (" + query + ") t1", SQLQueryWrapper.wrap(query, COUNT));
+    }
+
+    @Test
+    public void testRecursiveWith() {
+        String with = "WITH RECURSIVE v2 (\"s\", \"o\") AS (\n" +
+                "SELECT v3.\"s\", v3.\"o\" FROM (SELECT \"s\", \"o\" FROM \"EDGE\") v3\nUNION ALL\n" +
+                "SELECT v2.\"s\", v4.\"o\" FROM v2, (SELECT \"s\", \"o\" FROM \"EDGE\") v4 WHERE v2.\"o\" = v4.\"s\"\n),\n" +
+                "v5 (\"s\", \"o\") AS (\nSELECT 'SELECT (' FROM \"T\"\n)\n";
+        String main = "SELECT v1.\"s\" AS \"s\"\nFROM (SELECT DISTINCT \"s\", \"o\" FROM v2) v1";
+
+        assertEquals(with + "SELECT count(*) FROM (" + main + ") t1", SQLQueryWrapper.wrap(with + main, COUNT));
+    }
+
+    @Test
+    public void testCycleClauseAndOption() {
+        String with = "WITH v2 (\"s\", \"o\") AS (\nSELECT \"s\", \"o\" FROM \"EDGE\"\n) " +
+                "CYCLE \"o\" SET \"isCycle\" TO '1' DEFAULT '0'\n";
+        String main = "SELECT v1.\"s\" AS \"s\"\nFROM (SELECT DISTINCT \"s\", \"o\" FROM v2) v1";
+
+        assertEquals(with + "SELECT count(*) FROM (" + main + ") t1\nOPTION (MAXRECURSION 0)",
+                SQLQueryWrapper.wrap(with + main + "\nOPTION (MAXRECURSION 0)", COUNT));
+    }
+
+    @Test
+    public void testWithAsIdentifierPrefix() {
+        String query = "WITHDRAWALS";
+        assertEquals("SELECT count(*) FROM (WITHDRAWALS) t1", SQLQueryWrapper.wrap(query, COUNT));
+    }
+}
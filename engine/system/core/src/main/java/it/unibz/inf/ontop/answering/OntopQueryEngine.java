@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.answering;
 
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulationListener;
 
 public interface OntopQueryEngine extends AutoCloseable {
 
@@ -17,4 +18,12 @@ public interface OntopQueryEngine extends AutoCloseable {
      * Gets a OntopConnection usually coming from a connection pool.
      */
     OntopConnection getConnection() throws OntopConnectionException;
+
+    /**
+     * For monitoring purposes: the listener is notified of the duration of each phase of the processing
+     * of the queries of all the connections (e.g. ReformulationMetrics).
+     */
+    void addReformulationListener(QueryReformulationListener listener);
+
+    void removeReformulationListener(QueryReformulationListener listener);
 }
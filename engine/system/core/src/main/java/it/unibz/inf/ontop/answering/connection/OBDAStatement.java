@@ -24,6 +24,8 @@ import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.resultset.OBDAResultSet;
 import it.unibz.inf.ontop.exception.*;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface OBDAStatement extends AutoCloseable {
 
 	void cancel() throws OntopConnectionException;
@@ -35,6 +37,14 @@ public interface OBDAStatement extends AutoCloseable {
 
 	<R extends OBDAResultSet> R execute(InputQuery<R> inputQuery) throws OntopReformulationException, OntopQueryEvaluationException,
 	OntopConnectionException, OntopResultConversionException;
+
+	/**
+	 * Non-blocking variant of execute(): the calling thread is not used for the reformulation
+	 * nor for the evaluation of the query.
+	 *
+	 * Only one query at a time per statement.
+	 */
+	<R extends OBDAResultSet> CompletableFuture<R> executeAsync(InputQuery<R> inputQuery);
 //
 //	default OBDAResultSet execute(String inputQueryString) throws OntopReformulationException, OntopQueryEvaluationException,
 //			OntopInvalidInputQueryException, OntopConnectionException, OntopResultConversionException {
@@ -1,8 +1,15 @@
 package it.unibz.inf.ontop.answering.connection;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.reformulation.input.ConstructQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.answering.resultset.SimpleGraphResultSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.Variable;
 
 /**
  * OBDAStatement specific to Ontop.
@@ -13,9 +20,37 @@ import it.unibz.inf.ontop.iq.IQ;
  */
 public interface OntopStatement extends OBDAStatement {
 
-    int getTupleCount(InputQuery inputQuery) throws OntopReformulationException, OntopQueryEvaluationException, OntopConnectionException;
+    /**
+     * Number of answers of the input query, counted by the DB (the answers are not retrieved)
+     */
+    long getTupleCount(InputQuery inputQuery) throws OntopReformulationException, OntopQueryEvaluationException, OntopConnectionException;
 
     String getRewritingRendering(InputQuery inputQuery) throws OntopReformulationException;
 
     IQ getExecutableQuery(InputQuery inputQuery) throws OntopReformulationException;
+
+    /**
+     * Executable queries whose answers, put together, are the answers of the input query.
+     * They can be evaluated independently (see QueryReformulator.reformulateIntoNativeQueryChunks()).
+     */
+    ImmutableList<IQ> getExecutableQueryChunks(InputQuery inputQuery) throws OntopReformulationException;
+
+    /**
+     * Evaluates a SELECT executable query (obtained from getExecutableQuery()) with some parameters:
+     * no reformulation takes place, the parameters are bound to the native query (e.g. as a JDBC PreparedStatement).
+     *
+     * The parameters must be projected by the executable query. They are excluded from the results.
+     *
+     * Throws an OntopUnsupportedInputQueryException when a parameter cannot be pushed to the native query.
+     */
+    TupleResultSet executePrepared(IQ executableQuery, ImmutableMap<Variable, RDFConstant> parameters)
+            throws OntopReformulationException, OntopQueryEvaluationException, OntopConnectionException,
+            OntopResultConversionException;
+
+    /**
+     * Evaluates an executable query (e.g. a chunk obtained from getExecutableQueryChunks())
+     * of a CONSTRUCT query without reformulating it.
+     */
+    SimpleGraphResultSet executeConstruct(ConstructQuery constructQuery, IQ executableQuery)
+            throws OntopQueryEvaluationException, OntopConnectionException, OntopResultConversionException;
 }
@@ -0,0 +1,41 @@
+package it.unibz.inf.ontop.answering.connection;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the evaluation of the native queries on behalf of the statements.
+ *
+ * Shared by all the statements of a DBConnector and closed with it.
+ *
+ * Cancellation is cooperative: cancelling the returned future interrupts the worker
+ * (if any) but never stops it abruptly.
+ *
+ * Guice-enabled interface (implementation declared in the settings).
+ */
+public interface QueryExecutionService extends AutoCloseable {
+
+    /**
+     * Throws a RejectedExecutionException when the service is saturated or closed.
+     */
+    <T> Future<T> submit(Callable<T> evaluation) throws RejectedExecutionException;
+
+    /**
+     * Number of evaluations waiting for a worker
+     */
+    int getQueueDepth();
+
+    /**
+     * Number of evaluations currently running
+     */
+    int getActiveQueryCount();
+
+    /**
+     * Number of evaluations that have completed (successfully or not)
+     */
+    long getCompletedQueryCount();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,66 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evaluates the query directly in the thread of the caller: no hand-off, no queue.
+ *
+ * Recommended when the callers are already cheap threads (e.g. virtual threads on recent JVMs)
+ * or when the concurrency is already bounded upstream (e.g. by the HTTP server).
+ *
+ * Cancellation only relies on the native query cancellation (e.g. JDBC Statement.cancel()).
+ */
+public class CallerThreadQueryExecutionService implements QueryExecutionService {
+
+    private final AtomicInteger activeQueryCount = new AtomicInteger(0);
+    private final AtomicLong completedQueryCount = new AtomicLong(0);
+    private volatile boolean isClosed = false;
+
+    @Inject
+    private CallerThreadQueryExecutionService() {
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> evaluation) throws RejectedExecutionException {
+        if (isClosed)
+            throw new RejectedExecutionException("The query execution service is closed");
+
+        FutureTask<T> task = new FutureTask<>(evaluation);
+        activeQueryCount.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            activeQueryCount.decrementAndGet();
+            completedQueryCount.incrementAndGet();
+        }
+        return task;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return 0;
+    }
+
+    @Override
+    public int getActiveQueryCount() {
+        return activeQueryCount.get();
+    }
+
+    @Override
+    public long getCompletedQueryCount() {
+        return completedQueryCount.get();
+    }
+
+    @Override
+    public void close() {
+        isClosed = true;
+    }
+}
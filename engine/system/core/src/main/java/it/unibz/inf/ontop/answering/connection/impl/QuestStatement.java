@@ -20,20 +20,27 @@ package it.unibz.inf.ontop.answering.connection.impl;
  * #L%
  */
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.ReformulationPhase;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
 import it.unibz.inf.ontop.answering.resultset.*;
 import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.model.term.Constant;
 import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.Variable;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
@@ -45,16 +52,28 @@ public abstract class QuestStatement implements OntopStatement {
 	private final QueryReformulator engine;
 	private final InputQueryFactory inputQueryFactory;
 
-	private QueryExecutionThread executionThread;
-	private boolean canceled = false;
+	private final QueryExecutionService executionService;
+
+	/**
+	 * Only one execution per statement at a time
+	 */
+	private volatile Future<?> currentExecution;
+	private volatile boolean executingTargetQuery = false;
+	/**
+	 * Cancellation flag of the current execution. A new flag is created for each execution,
+	 * so that the end of an execution cannot reset the cancellation of the next one.
+	 */
+	private volatile AtomicBoolean cancellation = new AtomicBoolean(false);
 
 
 	private static final Logger log = LoggerFactory.getLogger(QuestStatement.class);
 
 
-	public QuestStatement(QueryReformulator queryProcessor, InputQueryFactory inputQueryFactory) {
+	public QuestStatement(QueryReformulator queryProcessor, InputQueryFactory inputQueryFactory,
+						  QueryExecutionService executionService) {
 		this.engine = queryProcessor;
 		this.inputQueryFactory = inputQueryFactory;
+		this.executionService = executionService;
 	}
 
 	/**
@@ -68,81 +87,27 @@ public abstract class QuestStatement implements OntopStatement {
 	}
 
 	/**
-	 * Execution thread
+	 * Evaluation of a native query, ready to be run by the execution service
 	 */
-	private class QueryExecutionThread<R extends OBDAResultSet, Q extends InputQuery<R>> extends Thread {
-
-		private final Q inputQuery;
-		private final QuestStatement.Evaluator<R, Q> evaluator;
-		private final CountDownLatch monitor;
-		private final IQ executableQuery;
-
-		private R resultSet;	  // only for SELECT and ASK queries
-		private Exception exception;
-		private boolean executingTargetQuery;
-
-		QueryExecutionThread(Q inputQuery, IQ executableQuery, Evaluator<R,Q> evaluator,
-							 CountDownLatch monitor) {
-			this.executableQuery = executableQuery;
-			this.inputQuery = inputQuery;
-			this.evaluator = evaluator;
-			this.monitor = monitor;
-			this.exception = null;
-			this.executingTargetQuery = false;
-		}
-
-		public boolean errorStatus() {
-			return exception != null;
-		}
-
-		public Exception getException() {
-			return exception;
-		}
-
-		public R getResultSet() {
-			return resultSet;
-		}
-
-		public void cancel() throws OntopQueryEvaluationException {
-			canceled = true;
-			if (!executingTargetQuery) {
-				this.stop();
-			} else {
-				cancelExecution();
-			}
-		}
+	@FunctionalInterface
+	protected interface NativeEvaluation<R extends OBDAResultSet> {
 
-		@Override
-		public void run() {
-			//                        FOR debugging H2 in-memory database
-//			try {
-//				org.h2.tools.Server.startWebServer(((QuestConnection)conn).getSQLConnection());
-//			} catch (SQLException e) {
-//				e.printStackTrace();
-//			}
-			try {
-				/**
-				 * Executes the target query.
-				 */
-				log.debug("Executing the query and get the result...");
-				executingTargetQuery = true;
-				resultSet = evaluator.evaluate(inputQuery, executableQuery);
-				log.debug("Execution finished.\n");
-				/*
-				 * TODO: re-handle the timeout exception.
-				 */
-			} catch (Exception e) {
-				exception = e;
-				log.error(e.getMessage(), e);
-			} finally {
-				monitor.countDown();
-			}
-		}
+		R evaluate() throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException;
 	}
 
 	protected abstract TupleResultSet executeSelectQuery(IQ executableQuery)
 			throws OntopQueryEvaluationException;
 
+	/**
+	 * Binds the parameters to the native query of a SELECT executable query.
+	 * Called in the thread of the caller, before submitting the evaluation.
+	 *
+	 * Throws an OntopUnsupportedInputQueryException when a parameter cannot be pushed to the native query.
+	 */
+	protected abstract NativeEvaluation<TupleResultSet> prepareSelectQuery(IQ executableQuery,
+																		   ImmutableMap<Variable, RDFConstant> parameters)
+			throws OntopUnsupportedInputQueryException;
+
 	private TupleResultSet executeSelectQuery(SelectQuery inputQuery, IQ executableQuery)
 			throws OntopQueryEvaluationException {
 		return executeSelectQuery(executableQuery);
@@ -191,17 +156,98 @@ public abstract class QuestStatement implements OntopStatement {
 	@Override
 	public <R extends OBDAResultSet> R execute(InputQuery<R> inputQuery) throws OntopConnectionException,
             OntopReformulationException, OntopQueryEvaluationException, OntopResultConversionException {
+		cancellation = new AtomicBoolean(false);
+		return execute(inputQuery, false);
+	}
+
+	/**
+	 * The executable query is NOT reformulated: only the parameters are bound.
+	 */
+	@Override
+	public TupleResultSet executePrepared(IQ executableQuery, ImmutableMap<Variable, RDFConstant> parameters)
+			throws OntopReformulationException, OntopQueryEvaluationException, OntopConnectionException,
+			OntopResultConversionException {
+		log.debug("Executing a prepared query with the parameters {}", parameters);
+		cancellation = new AtomicBoolean(false);
+		return evaluateInThread(prepareSelectQuery(executableQuery, parameters), false);
+	}
+
+	/**
+	 * The executable query is NOT reformulated.
+	 */
+	@Override
+	public SimpleGraphResultSet executeConstruct(ConstructQuery constructQuery, IQ executableQuery)
+			throws OntopQueryEvaluationException, OntopConnectionException, OntopResultConversionException {
+		log.debug("Executing a chunk of the CONSTRUCT query: \n{}", constructQuery.getInputString());
+		cancellation = new AtomicBoolean(false);
+		return evaluateInThread(() -> executeConstructQuery(constructQuery, executableQuery), false);
+	}
+
+	/**
+	 * Reformulation and evaluation both take place in the execution service:
+	 * the calling thread is released immediately.
+	 *
+	 * Cancelling the returned future cancels the statement.
+	 * When the execution service is saturated, the future completes exceptionally.
+	 */
+	@Override
+	public <R extends OBDAResultSet> CompletableFuture<R> executeAsync(InputQuery<R> inputQuery) {
+		CompletableFuture<R> result = new CompletableFuture<>();
+		result.whenComplete((r, e) -> {
+			if (result.isCancelled())
+				cancelQuietly();
+		});
+
+		FutureTask<Void> task = new FutureTask<Void>(() -> {
+			try {
+				result.complete(execute(inputQuery, true));
+			} catch (Exception | Error e) {
+				result.completeExceptionally(e);
+			}
+			return null;
+		}) {
+			@Override
+			protected void done() {
+				// Cancelled through the statement (possibly before having started)
+				if (isCancelled())
+					result.cancel(false);
+			}
+		};
+		// Registered before the submission, so that it cannot be overwritten after the task has finished
+		cancellation = new AtomicBoolean(false);
+		currentExecution = task;
+		result.whenComplete((r, e) -> {
+			if (currentExecution == task)
+				currentExecution = null;
+		});
+
+		try {
+			executionService.submit(Executors.callable(task));
+		} catch (RejectedExecutionException e) {
+			result.completeExceptionally(new OntopQueryEvaluationException(
+					"The query could not be scheduled for execution (too many concurrent queries?)"));
+		}
+		return result;
+	}
+
+	/**
+	 * When isInWorker, the query is directly evaluated in the current thread
+	 * (which already belongs to the execution service).
+	 */
+	private <R extends OBDAResultSet> R execute(InputQuery<R> inputQuery, boolean isInWorker)
+			throws OntopConnectionException, OntopReformulationException, OntopQueryEvaluationException,
+			OntopResultConversionException {
 		if (inputQuery instanceof SelectQuery) {
-			return (R) executeInThread((SelectQuery) inputQuery, this::executeSelectQuery);
+			return (R) executeInThread((SelectQuery) inputQuery, this::executeSelectQuery, isInWorker);
 		}
 		else if (inputQuery instanceof AskQuery) {
-			return (R) executeInThread((AskQuery) inputQuery, this::executeBooleanQuery);
+			return (R) executeInThread((AskQuery) inputQuery, this::executeBooleanQuery, isInWorker);
 		}
 		else if (inputQuery instanceof ConstructQuery) {
-			return (R) executeInThread((ConstructQuery) inputQuery, this::executeConstructQuery);
+			return (R) executeInThread((ConstructQuery) inputQuery, this::executeConstructQuery, isInWorker);
 		}
 		else if (inputQuery instanceof DescribeQuery) {
-			return (R) executeDescribeQuery((DescribeQuery) inputQuery);
+			return (R) executeDescribeQuery((DescribeQuery) inputQuery, isInWorker);
 		}
 		else {
 			throw new OntopUnsupportedInputQueryException("Unsupported query type: " + inputQuery);
@@ -212,11 +258,11 @@ public abstract class QuestStatement implements OntopStatement {
 	 * TODO: completely refactor this old-way of processing DESCRIBE.
 	 *  ---> should be converted into 1 CONSTRUCT query
 	 */
-	private SimpleGraphResultSet executeDescribeQuery(DescribeQuery inputQuery)
+	private SimpleGraphResultSet executeDescribeQuery(DescribeQuery inputQuery, boolean isInWorker)
 			throws OntopReformulationException, OntopResultConversionException, OntopConnectionException,
 			OntopQueryEvaluationException {
 
-		ImmutableSet<String> constants = extractDescribeQueryConstants(inputQuery);
+		ImmutableSet<String> constants = extractDescribeQueryConstants(inputQuery, isInWorker);
 
 		SimpleGraphResultSet describeResultSet = null;
 
@@ -228,7 +274,8 @@ public abstract class QuestStatement implements OntopStatement {
 				String str = SPARQLQueryUtility.getConstructSubjQuery(constant);
 				ConstructQuery constructQuery = inputQueryFactory.createConstructQuery(str);
 
-				SimpleGraphResultSet set = executeInThread(constructQuery, this::executeDescribeConstructQuery);
+				SimpleGraphResultSet set = executeInThread(constructQuery, this::executeDescribeConstructQuery,
+						isInWorker);
 				if (describeResultSet == null) { // just for the first time
 					describeResultSet = set;
 				} else if (set != null) {
@@ -242,7 +289,8 @@ public abstract class QuestStatement implements OntopStatement {
 				String str = SPARQLQueryUtility.getConstructObjQuery(constant);
 
 				ConstructQuery constructQuery = inputQueryFactory.createConstructQuery(str);
-				SimpleGraphResultSet set = executeInThread(constructQuery, this::executeDescribeConstructQuery);
+				SimpleGraphResultSet set = executeInThread(constructQuery, this::executeDescribeConstructQuery,
+						isInWorker);
 
 				if (describeResultSet == null) { // just for the first time
 					describeResultSet = set;
@@ -258,7 +306,7 @@ public abstract class QuestStatement implements OntopStatement {
 		return describeResultSet;
 	}
 
-	private ImmutableSet<String> extractDescribeQueryConstants(DescribeQuery inputQuery)
+	private ImmutableSet<String> extractDescribeQueryConstants(DescribeQuery inputQuery, boolean isInWorker)
 			throws OntopQueryEvaluationException, OntopConnectionException,
             OntopReformulationException, OntopResultConversionException {
 		String inputQueryString = inputQuery.getInputString();
@@ -269,7 +317,7 @@ public abstract class QuestStatement implements OntopStatement {
 			String sel = SPARQLQueryUtility.getSelectVarDescribe(inputQueryString);
 			try {
 				SelectQuery selectQuery = inputQueryFactory.createSelectQuery(sel);
-				TupleResultSet resultSet = execute(selectQuery);
+				TupleResultSet resultSet = execute(selectQuery, isInWorker);
 
 				ImmutableSet.Builder<String> constantSetBuilder = ImmutableSet.builder();
 				while (resultSet.hasNext()) {
@@ -301,63 +349,140 @@ public abstract class QuestStatement implements OntopStatement {
 
 
 	/**
-	 * Internal method to start a new query execution thread type defines the
-	 * query type SELECT, ASK, CONSTRUCT, or DESCRIBE
+	 * Internal method to submit the evaluation of a query to the execution service.
+	 * Type defines the query type SELECT, ASK, CONSTRUCT, or DESCRIBE
 	 */
-	private <R extends OBDAResultSet, Q extends InputQuery<R>> R executeInThread(Q inputQuery, Evaluator<R, Q> evaluator)
-			throws OntopReformulationException, OntopQueryEvaluationException {
+	private <R extends OBDAResultSet, Q extends InputQuery<R>> R executeInThread(Q inputQuery, Evaluator<R, Q> evaluator,
+																				  boolean isInWorker)
+			throws OntopReformulationException, OntopQueryEvaluationException, OntopResultConversionException,
+			OntopConnectionException {
 
 		log.debug("Executing SPARQL query: \n{}", inputQuery.getInputString());
 
-		CountDownLatch monitor = new CountDownLatch(1);
 		IQ executableQuery = engine.reformulateIntoNativeQuery(inputQuery);
 
-		QueryExecutionThread<R, Q> executionthread = new QueryExecutionThread<>(inputQuery, executableQuery, evaluator,
-				monitor);
+		return evaluateInThread(() -> evaluator.evaluate(inputQuery, executableQuery), isInWorker);
+	}
+
+	/**
+	 * When isInWorker, the evaluation directly takes place in the current thread.
+	 */
+	private <R extends OBDAResultSet> R evaluateInThread(NativeEvaluation<R> evaluation, boolean isInWorker)
+			throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException {
+
+		AtomicBoolean cancellation = this.cancellation;
+
+		if (isInWorker)
+			return checkNotCancelled(evaluate(evaluation, cancellation), cancellation);
 
-		this.executionThread = executionthread;
-		executionthread.start();
+		Future<R> execution;
 		try {
-			monitor.await();
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+			execution = executionService.submit(() -> evaluate(evaluation, cancellation));
+		} catch (RejectedExecutionException e) {
+			throw new OntopQueryEvaluationException("The query could not be scheduled for execution " +
+					"(too many concurrent queries?)");
 		}
-		if (executionthread.errorStatus()) {
-			Exception ex = executionthread.getException();
-			if (ex instanceof OntopReformulationException) {
-				throw (OntopReformulationException) ex;
-			}
-			else if (ex instanceof OntopQueryEvaluationException) {
+		this.currentExecution = execution;
+
+		try {
+			return checkNotCancelled(execution.get(), cancellation);
+		} catch (CancellationException e) {
+			throw new OntopQueryEvaluationException("Query execution was cancelled");
+		} catch (InterruptedException e) {
+			// Propagates the interruption to the worker
+			execution.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new OntopQueryEvaluationException("Query execution was interrupted");
+		} catch (ExecutionException e) {
+			Throwable ex = e.getCause();
+			if (ex instanceof CancellationException)
+				throw new OntopQueryEvaluationException("Query execution was cancelled");
+
+			log.error(ex.getMessage(), ex);
+			if (ex instanceof OntopQueryEvaluationException) {
 				throw (OntopQueryEvaluationException) ex;
 			}
+			else if (ex instanceof Error) {
+				throw (Error) ex;
+			}
 			else {
-				throw new OntopQueryEvaluationException(ex);
+				throw new OntopQueryEvaluationException((Exception) ex);
 			}
+		} finally {
+			this.currentExecution = null;
 		}
+	}
 
-		if (canceled) {
-			canceled = false;
-			throw new OntopQueryEvaluationException("Query execution was cancelled");
+	/**
+	 * The result set of an execution cancelled after its evaluation is closed
+	 */
+	private static <R extends OBDAResultSet> R checkNotCancelled(R resultSet, AtomicBoolean cancellation)
+			throws OntopQueryEvaluationException {
+		if (!cancellation.get())
+			return resultSet;
+
+		try {
+			resultSet.close();
+		} catch (OntopConnectionException e) {
+			log.warn("Problem while closing the result set of a cancelled query: " + e.getMessage());
+		}
+		throw new OntopQueryEvaluationException("Query execution was cancelled");
+	}
+
+	/**
+	 * Run by the execution service
+	 */
+	private <R extends OBDAResultSet> R evaluate(NativeEvaluation<R> evaluation, AtomicBoolean cancellation)
+			throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException {
+		// Cancelled while waiting in the queue
+		if (cancellation.get() || Thread.currentThread().isInterrupted())
+			throw new CancellationException();
+
+		log.debug("Executing the query and get the result...");
+		executingTargetQuery = true;
+		long start = System.nanoTime();
+		try {
+			R resultSet = evaluation.evaluate();
+			engine.getReformulationListener().onPhaseCompleted(ReformulationPhase.EXECUTION,
+					System.nanoTime() - start, -1);
+			log.debug("Execution finished.\n");
+			// not returned to the caller if it has been cancelled in the meantime
+			return checkNotCancelled(resultSet, cancellation);
+		} finally {
+			executingTargetQuery = false;
 		}
-		return executionthread.getResultSet();
 	}
 
-	
+	/**
+	 * Cooperative: the native query is cancelled by the DB and the worker (if any) is interrupted.
+	 */
 	@Override
 	public void cancel() throws OntopConnectionException {
-		canceled = true;
+		cancellation.set(true);
 		try {
-			QuestStatement.this.executionThread.cancel();
+			if (executingTargetQuery)
+				cancelExecution();
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
+		Future<?> execution = currentExecution;
+		if (execution != null)
+			execution.cancel(true);
+	}
+
+	private void cancelQuietly() {
+		try {
+			cancel();
+		} catch (OntopConnectionException e) {
+			log.warn("Problem while cancelling the query: " + e.getMessage());
+		}
 	}
 
 	/**
 	 * Called to check whether the statement was cancelled on purpose
 	 */
 	public boolean isCanceled(){
-		return canceled;
+		return cancellation.get();
 	}
 
 	@Override
@@ -371,4 +496,9 @@ public abstract class QuestStatement implements OntopStatement {
 			return engine.reformulateIntoNativeQuery(inputQuery);
 	}
 
+	@Override
+	public ImmutableList<IQ> getExecutableQueryChunks(InputQuery inputQuery) throws OntopReformulationException {
+		return engine.reformulateIntoNativeQueryChunks(inputQuery);
+	}
+
 }
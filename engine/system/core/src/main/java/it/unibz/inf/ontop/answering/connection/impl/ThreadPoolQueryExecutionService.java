@@ -0,0 +1,90 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of worker threads, shared by the statements of a DBConnector.
+ *
+ * Replaces the creation of one thread per query.
+ * When all the workers are busy and the queue is full, new queries are rejected.
+ *
+ * NOT a singleton: one pool per DBConnector (like the JDBC connection pool).
+ */
+public class ThreadPoolQueryExecutionService implements QueryExecutionService {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger(0);
+
+    private final ThreadPoolExecutor executor;
+
+    @Inject
+    private ThreadPoolQueryExecutionService(OntopSystemSettings settings) {
+        int maxThreads = settings.getQueryExecutorMaxThreads();
+        int queueCapacity = settings.getQueryExecutorQueueCapacity();
+
+        executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                queueCapacity > 0
+                        ? new LinkedBlockingQueue<>(queueCapacity)
+                        : new SynchronousQueue<>(),
+                new QueryThreadFactory(POOL_COUNTER.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Idle workers are released
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Once the service is closed, the evaluations are rejected: the executor (AbortPolicy)
+     * rejects any task submitted after its shutdown, without racing with close().
+     */
+    @Override
+    public <T> Future<T> submit(Callable<T> evaluation) throws RejectedExecutionException {
+        return executor.submit(evaluation);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int getActiveQueryCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public long getCompletedQueryCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * Running evaluations are interrupted (cooperative cancellation)
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+
+    private static class QueryThreadFactory implements ThreadFactory {
+        private final int poolNumber;
+        private final AtomicInteger threadCounter = new AtomicInteger(0);
+
+        QueryThreadFactory(int poolNumber) {
+            this.poolNumber = poolNumber;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                    "ontop-query-" + poolNumber + "-" + threadCounter.incrementAndGet());
+            // Must not prevent the JVM from exiting
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -4,6 +4,7 @@ package it.unibz.inf.ontop.answering.impl;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulationListener;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemFactory;
@@ -15,6 +16,7 @@ import it.unibz.inf.ontop.spec.OBDASpecification;
 
 public class OntopQueryEngineImpl implements OntopQueryEngine {
 
+    private final QueryReformulator queryReformulator;
     private final DBConnector dbConnector;
 
     @AssistedInject
@@ -22,7 +24,7 @@ public class OntopQueryEngineImpl implements OntopQueryEngine {
                                  @Assisted ExecutorRegistry executorRegistry,
                                  ReformulationFactory translationFactory,
                                  OntopSystemFactory systemFactory) {
-        QueryReformulator queryReformulator = translationFactory.create(obdaSpecification, executorRegistry);
+        queryReformulator = translationFactory.create(obdaSpecification, executorRegistry);
         dbConnector = systemFactory.create(queryReformulator, obdaSpecification.getDBMetadata());
     }
 
@@ -40,4 +42,14 @@ public class OntopQueryEngineImpl implements OntopQueryEngine {
     public OntopConnection getConnection() throws OntopConnectionException {
         return dbConnector.getConnection();
     }
+
+    @Override
+    public void addReformulationListener(QueryReformulationListener listener) {
+        queryReformulator.addReformulationListener(listener);
+    }
+
+    @Override
+    public void removeReformulationListener(QueryReformulationListener listener) {
+        queryReformulator.removeReformulationListener(listener);
+    }
 }
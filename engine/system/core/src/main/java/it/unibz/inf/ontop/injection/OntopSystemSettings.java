@@ -9,11 +9,32 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
      */
     boolean isPermanentDBConnectionEnabled();
 
+    /**
+     * Maximal number of native queries evaluated concurrently
+     * by the thread-pool query execution service
+     */
+    int getQueryExecutorMaxThreads();
+
+    /**
+     * Maximal number of native queries waiting for a worker thread.
+     * Beyond, new queries are rejected.
+     */
+    int getQueryExecutorQueueCapacity();
+
+    /**
+     * Duration (in seconds) during which the statement counts (e.g. the size of the repository)
+     * are reused without being recomputed. 0 disables the cache.
+     */
+    int getStatementCountCacheTTL();
+
     //--------------------------
     // Keys
     //--------------------------
 
     String PERMANENT_DB_CONNECTION = "ontop.permanentConnection";
+    String QUERY_EXECUTOR_MAX_THREADS = "ontop.queryExecutor.maxThreads";
+    String QUERY_EXECUTOR_QUEUE_CAPACITY = "ontop.queryExecutor.queueCapacity";
+    String STATEMENT_COUNT_CACHE_TTL = "ontop.statementCountCacheTTL";
 
 
 }
@@ -1,6 +1,6 @@
 package it.unibz.inf.ontop.injection.impl;
 
-
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
 
 public class OntopSystemModule extends OntopAbstractModule {
@@ -15,5 +15,6 @@ public class OntopSystemModule extends OntopAbstractModule {
     @Override
     protected void configure() {
         bind(OntopSystemSettings.class).toInstance(settings);
+        bindFromSettings(QueryExecutionService.class);
     }
 }
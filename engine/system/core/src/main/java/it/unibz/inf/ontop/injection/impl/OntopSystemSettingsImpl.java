@@ -27,4 +27,19 @@ public class OntopSystemSettingsImpl extends OntopReformulationSettingsImpl impl
     public boolean isPermanentDBConnectionEnabled() {
         return getRequiredBoolean(PERMANENT_DB_CONNECTION);
     }
+
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return getRequiredInteger(QUERY_EXECUTOR_MAX_THREADS);
+    }
+
+    @Override
+    public int getQueryExecutorQueueCapacity() {
+        return getRequiredInteger(QUERY_EXECUTOR_QUEUE_CAPACITY);
+    }
+
+    @Override
+    public int getStatementCountCacheTTL() {
+        return getRequiredInteger(STATEMENT_COUNT_CACHE_TTL);
+    }
 }
@@ -0,0 +1,34 @@
+package it.unibz.inf.ontop.materialization;
+
+import org.apache.commons.rdf.api.IRI;
+
+/**
+ * Part of the materialization of a class/property, which can be materialized independently of the other chunks.
+ *
+ * Its index is stable as long as the OBDA specification does not change
+ * (e.g. can be used for resuming an interrupted materialization).
+ */
+public interface MaterializationChunk {
+
+    IRI getClassOrProperty();
+
+    /**
+     * From 0 to getChunkCount() - 1
+     */
+    int getIndex();
+
+    /**
+     * Number of chunks of the class/property
+     */
+    int getChunkCount();
+
+    /**
+     * Hash of the class/property, of the index and count of the chunk and of the specification fingerprint
+     * (see MaterializationParams.getSpecificationFingerprint()).
+     *
+     * Only depends on these stable inputs (not on the generated query), so it is reproducible across runs.
+     * Changes when the inputs of the specification change (e.g. after a modification of the mapping),
+     * even if the index of the chunk remains the same, provided a specification fingerprint is given.
+     */
+    String getFingerprint();
+}
@@ -2,6 +2,8 @@ package it.unibz.inf.ontop.materialization;
 
 import it.unibz.inf.ontop.materialization.impl.MaterializationParamsImpl;
 
+import java.util.Optional;
+
 /**
  * Materialization-specific parameters
  */
@@ -23,6 +25,22 @@ public interface MaterializationParams {
      */
     boolean canMaterializationBeIncomplete();
 
+    /**
+     * Number of classes/properties materialized concurrently, each one on its own connection.
+     * Their triples are interleaved in the result set.
+     *
+     * 1 by default (sequential).
+     */
+    int getDegreeOfParallelism();
+
+    /**
+     * Fingerprint of the inputs of the OBDA specification (e.g. a hash of the mapping and ontology files),
+     * included in the fingerprints of the chunks (see MaterializationChunk.getFingerprint()).
+     *
+     * Empty by default.
+     */
+    Optional<String> getSpecificationFingerprint();
+
 
     static Builder defaultBuilder() {
         return new MaterializationParamsImpl.DefaultBuilder<>();
@@ -35,6 +53,10 @@ public interface MaterializationParams {
 
         B enableIncompleteMaterialization(boolean enable);
 
+        B degreeOfParallelism(int degree);
+
+        B specificationFingerprint(String fingerprint);
+
         MaterializationParams build();
 
     }
@@ -1,8 +1,11 @@
 package it.unibz.inf.ontop.materialization;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.materialization.impl.DefaultOntopRDFMaterializer;
 import org.apache.commons.rdf.api.IRI;
@@ -23,6 +26,21 @@ public interface OntopRDFMaterializer {
     MaterializedGraphResultSet materialize(@Nonnull ImmutableSet<IRI> selectedVocabulary)
             throws OBDASpecificationException;
 
+    /**
+     * Splits the materialization of a class/property into chunks: one per branch of the union of its
+     * mapping assertions (after optimization). The same triple may be produced by several chunks.
+     *
+     * The chunks can be materialized concurrently or in different runs (e.g. for resuming an interrupted
+     * materialization).
+     */
+    ImmutableList<MaterializationChunk> getChunks(IRI classOrProperty)
+            throws OntopQueryAnsweringException, OntopConnectionException;
+
+    /**
+     * Materializes one chunk of a class/property
+     */
+    MaterializedGraphResultSet materialize(@Nonnull MaterializationChunk chunk);
+
     /**
      * Default implementation
      */
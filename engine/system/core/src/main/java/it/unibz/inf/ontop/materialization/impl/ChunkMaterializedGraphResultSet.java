@@ -0,0 +1,122 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.reformulation.input.ConstructQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
+import it.unibz.inf.ontop.answering.resultset.SimpleGraphResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.spec.ontology.Assertion;
+import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+/**
+ * Materializes one chunk of a class/property: its executable query is evaluated without being reformulated.
+ *
+ * Like the other materialization result sets, does not allocate resources before hasNext() is called.
+ */
+class ChunkMaterializedGraphResultSet implements MaterializedGraphResultSet {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkMaterializedGraphResultSet.class);
+
+    private final MaterializationChunkImpl chunk;
+    private final OntopQueryEngine queryEngine;
+    private final InputQueryFactory inputQueryFactory;
+    private final boolean doStreamResults, canBeIncomplete;
+
+    private long counter;
+    private boolean hasFailed;
+    // Lately initiated
+    @Nullable
+    private OntopConnection ontopConnection;
+    @Nullable
+    private OntopStatement statement;
+    @Nullable
+    private SimpleGraphResultSet graphResultSet;
+
+    ChunkMaterializedGraphResultSet(MaterializationChunkImpl chunk, boolean doStreamResults, boolean canBeIncomplete,
+                                    OntopQueryEngine queryEngine, InputQueryFactory inputQueryFactory) {
+        this.chunk = chunk;
+        this.queryEngine = queryEngine;
+        this.inputQueryFactory = inputQueryFactory;
+        this.doStreamResults = doStreamResults;
+        this.canBeIncomplete = canBeIncomplete;
+        this.counter = 0;
+        this.hasFailed = false;
+    }
+
+    @Override
+    public ImmutableSet<IRI> getSelectedVocabulary() {
+        return ImmutableSet.of(chunk.getClassOrProperty());
+    }
+
+    @Override
+    public boolean hasNext() throws OntopQueryAnsweringException, OntopConnectionException {
+        if (hasFailed)
+            return false;
+
+        try {
+            if (graphResultSet == null) {
+                ontopConnection = queryEngine.getConnection();
+                statement = ontopConnection.createStatement();
+                if (doStreamResults)
+                    statement.setFetchSize(DefaultOntopRDFMaterializer.FETCH_SIZE);
+
+                ConstructQuery query = inputQueryFactory.createConstructQuery(chunk.getVocabularyEntry().getQuery());
+                graphResultSet = statement.executeConstruct(query, chunk.getExecutableQuery());
+            }
+            return graphResultSet.hasNext();
+        } catch (OntopQueryAnsweringException | OntopConnectionException e) {
+            if (canBeIncomplete) {
+                LOGGER.warn("Possibly incomplete " + chunk + " (materialization problem).\n"
+                        + "Details: " + e);
+                hasFailed = true;
+                return false;
+            }
+            LOGGER.error("Problem materializing " + chunk);
+            throw e;
+        }
+    }
+
+    @Override
+    public Assertion next() throws OntopQueryAnsweringException {
+        counter++;
+        try {
+            return graphResultSet.next();
+        } catch (OntopResultConversionException e) {
+            throw new OntopQueryAnsweringException(e);
+        }
+    }
+
+    /**
+     * Releases all the connection resources
+     */
+    @Override
+    public void close() throws OntopConnectionException {
+        if (statement != null)
+            statement.close();
+        if (ontopConnection != null)
+            ontopConnection.close();
+    }
+
+    @Override
+    public long getTripleCountSoFar() {
+        return counter;
+    }
+
+    @Override
+    public ImmutableList<IRI> getPossiblyIncompleteRDFPropertiesAndClassesSoFar() {
+        return hasFailed
+                ? ImmutableList.of(chunk.getClassOrProperty())
+                : ImmutableList.of();
+    }
+}
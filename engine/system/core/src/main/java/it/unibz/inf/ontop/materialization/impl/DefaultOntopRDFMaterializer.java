@@ -35,6 +35,8 @@ import it.unibz.inf.ontop.answering.resultset.SimpleGraphResultSet;
 import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.injection.OntopSystemFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.materialization.MaterializationChunk;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
 import it.unibz.inf.ontop.materialization.OntopRDFMaterializer;
 import it.unibz.inf.ontop.model.atom.TriplePredicate;
@@ -51,6 +53,7 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 
@@ -62,16 +65,16 @@ import java.util.stream.Stream;
  */
 public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 
-	private static int FETCH_SIZE = 50000;
+	static final int FETCH_SIZE = 50000;
 	private final MaterializationParams params;
 	private final InputQueryFactory inputQueryFactory;
 	private final OntopQueryEngine queryEngine;
 
 	private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
 
-	private static final class VocabularyEntry {
-        private final IRI name;
-        private final int arity;
+	static final class VocabularyEntry {
+        final IRI name;
+        final int arity;
 
         VocabularyEntry(IRI predicate, int arity) {
 
@@ -100,12 +103,48 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 
 	@Override
 	public MaterializedGraphResultSet materialize() {
-		return new DefaultMaterializedGraphResultSet(vocabulary, params, queryEngine, inputQueryFactory);
+		return createResultSet(vocabulary);
 	}
 
 	@Override
 	public MaterializedGraphResultSet materialize(@Nonnull ImmutableSet<IRI> selectedVocabulary) {
-		return new DefaultMaterializedGraphResultSet(filterVocabularyEntries(selectedVocabulary), params, queryEngine, inputQueryFactory);
+		return createResultSet(filterVocabularyEntries(selectedVocabulary));
+	}
+
+	private MaterializedGraphResultSet createResultSet(ImmutableMap<IRI, VocabularyEntry> selectedVocabulary) {
+		return (params.getDegreeOfParallelism() > 1)
+				? new ParallelMaterializedGraphResultSet(selectedVocabulary, params, queryEngine, inputQueryFactory)
+				: new DefaultMaterializedGraphResultSet(selectedVocabulary, params, queryEngine, inputQueryFactory);
+	}
+
+	@Override
+	public ImmutableList<MaterializationChunk> getChunks(IRI classOrProperty)
+			throws OntopQueryAnsweringException, OntopConnectionException {
+		VocabularyEntry entry = vocabulary.get(classOrProperty);
+		if (entry == null)
+			throw new IllegalArgumentException("Not a class/property of the mapping: " + classOrProperty);
+
+		ConstructQuery query = inputQueryFactory.createConstructQuery(entry.getQuery());
+		ImmutableList<IQ> executableQueries;
+		try (OntopConnection connection = queryEngine.getConnection();
+			 OntopStatement statement = connection.createStatement()) {
+			executableQueries = statement.getExecutableQueryChunks(query);
+		}
+
+		int chunkCount = executableQueries.size();
+		return IntStream.range(0, chunkCount)
+				.mapToObj(i -> new MaterializationChunkImpl(entry, i, chunkCount, executableQueries.get(i),
+						params.getSpecificationFingerprint()))
+				.collect(ImmutableCollectors.toList());
+	}
+
+	@Override
+	public MaterializedGraphResultSet materialize(@Nonnull MaterializationChunk chunk) {
+		if (!(chunk instanceof MaterializationChunkImpl))
+			throw new IllegalArgumentException("Unknown chunk implementation: " + chunk);
+		return new ChunkMaterializedGraphResultSet((MaterializationChunkImpl) chunk,
+				params.isDBResultStreamingEnabled(), params.canMaterializationBeIncomplete(),
+				queryEngine, inputQueryFactory);
 	}
 
 	private ImmutableMap<IRI,VocabularyEntry> filterVocabularyEntries(ImmutableSet<IRI> selectedVocabulary) {
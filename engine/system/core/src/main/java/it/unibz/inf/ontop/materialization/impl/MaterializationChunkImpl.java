@@ -0,0 +1,68 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.hash.Hashing;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.materialization.MaterializationChunk;
+import it.unibz.inf.ontop.materialization.impl.DefaultOntopRDFMaterializer.VocabularyEntry;
+import org.apache.commons.rdf.api.IRI;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+class MaterializationChunkImpl implements MaterializationChunk {
+
+    private final VocabularyEntry entry;
+    private final int index;
+    private final int chunkCount;
+    private final IQ executableQuery;
+    private final String fingerprint;
+
+    MaterializationChunkImpl(VocabularyEntry entry, int index, int chunkCount, IQ executableQuery,
+                             Optional<String> specificationFingerprint) {
+        this.entry = entry;
+        this.index = index;
+        this.chunkCount = chunkCount;
+        this.executableQuery = executableQuery;
+        // Not the executable query: its string (e.g. generated variable names) is not stable across runs
+        this.fingerprint = Hashing.sha256().newHasher()
+                .putString(entry.name.getIRIString(), StandardCharsets.UTF_8)
+                .putInt(index)
+                .putInt(chunkCount)
+                .putString(specificationFingerprint.orElse(""), StandardCharsets.UTF_8)
+                .hash()
+                .toString();
+    }
+
+    @Override
+    public IRI getClassOrProperty() {
+        return entry.name;
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    @Override
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    VocabularyEntry getVocabularyEntry() {
+        return entry;
+    }
+
+    IQ getExecutableQuery() {
+        return executableQuery;
+    }
+
+    @Override
+    public String toString() {
+        return entry.name + " (chunk " + (index + 1) + "/" + chunkCount + ")";
+    }
+}
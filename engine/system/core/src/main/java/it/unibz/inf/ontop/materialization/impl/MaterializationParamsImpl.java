@@ -2,14 +2,23 @@ package it.unibz.inf.ontop.materialization.impl;
 
 import it.unibz.inf.ontop.materialization.MaterializationParams;
 
+import javax.annotation.Nullable;
+import java.util.Optional;
+
 public class MaterializationParamsImpl implements MaterializationParams {
 
     private final boolean enableDBResultStreaming;
     private final boolean enableIncompleteMaterialization;
+    private final int degreeOfParallelism;
+    @Nullable
+    private final String specificationFingerprint;
 
-    private MaterializationParamsImpl(boolean enableDBResultStreaming, boolean enableIncompleteMaterialization) {
+    private MaterializationParamsImpl(boolean enableDBResultStreaming, boolean enableIncompleteMaterialization,
+                                      int degreeOfParallelism, @Nullable String specificationFingerprint) {
         this.enableDBResultStreaming = enableDBResultStreaming;
         this.enableIncompleteMaterialization = enableIncompleteMaterialization;
+        this.degreeOfParallelism = degreeOfParallelism;
+        this.specificationFingerprint = specificationFingerprint;
     }
 
 
@@ -23,16 +32,30 @@ public class MaterializationParamsImpl implements MaterializationParams {
         return enableIncompleteMaterialization;
     }
 
+    @Override
+    public int getDegreeOfParallelism() {
+        return degreeOfParallelism;
+    }
+
+    @Override
+    public Optional<String> getSpecificationFingerprint() {
+        return Optional.ofNullable(specificationFingerprint);
+    }
+
 
     public static class DefaultBuilder<B extends Builder<B>> implements Builder<B> {
 
         private final B builder;
         private boolean isDBResultStreamingEnabled;
         private boolean canMaterializationBeIncomplete;
+        private int degreeOfParallelism;
+        @Nullable
+        private String specificationFingerprint;
 
         public DefaultBuilder() {
             this.isDBResultStreamingEnabled = false;
             this.canMaterializationBeIncomplete = false;
+            this.degreeOfParallelism = 1;
             this.builder = (B) this;
         }
 
@@ -49,9 +72,24 @@ public class MaterializationParamsImpl implements MaterializationParams {
             return builder;
         }
 
+        @Override
+        public B degreeOfParallelism(int degree) {
+            if (degree < 1)
+                throw new IllegalArgumentException("The degree of parallelism must be positive");
+            this.degreeOfParallelism = degree;
+            return builder;
+        }
+
+        @Override
+        public B specificationFingerprint(String fingerprint) {
+            this.specificationFingerprint = fingerprint;
+            return builder;
+        }
+
         @Override
         public MaterializationParams build() {
-            return new MaterializationParamsImpl(isDBResultStreamingEnabled, canMaterializationBeIncomplete);
+            return new MaterializationParamsImpl(isDBResultStreamingEnabled, canMaterializationBeIncomplete,
+                    degreeOfParallelism, specificationFingerprint);
         }
     }
 
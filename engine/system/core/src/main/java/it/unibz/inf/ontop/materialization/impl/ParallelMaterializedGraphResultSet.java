@@ -0,0 +1,212 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.reformulation.input.ConstructQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
+import it.unibz.inf.ontop.answering.resultset.SimpleGraphResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
+import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.impl.DefaultOntopRDFMaterializer.VocabularyEntry;
+import it.unibz.inf.ontop.spec.ontology.Assertion;
+import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Materializes several classes/properties concurrently, each one with its own connection and statement.
+ *
+ * The workers push batches of assertions into a bounded queue (so that they cannot run far ahead of the consumer).
+ * An empty batch signals that a worker is done with its class/property.
+ *
+ * Like the sequential result set, does not allocate resources before hasNext() is called.
+ */
+class ParallelMaterializedGraphResultSet implements MaterializedGraphResultSet {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int QUEUE_CAPACITY = 100;
+    private static final ImmutableList<Assertion> END_OF_ENTRY = ImmutableList.of();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelMaterializedGraphResultSet.class);
+
+    private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
+    private final OntopQueryEngine queryEngine;
+    private final InputQueryFactory inputQueryFactory;
+    private final boolean doStreamResults, canBeIncomplete;
+    private final int degreeOfParallelism;
+
+    private final BlockingQueue<ImmutableList<Assertion>> queue;
+    private final List<IRI> possiblyIncompleteClassesAndProperties;
+    private final AtomicReference<Exception> firstError;
+
+    // Lately initiated
+    private ExecutorService executor;
+    private int remainingEntries;
+    private Iterator<Assertion> currentBatch;
+    private long counter;
+
+    ParallelMaterializedGraphResultSet(ImmutableMap<IRI, VocabularyEntry> vocabulary, MaterializationParams params,
+                                       OntopQueryEngine queryEngine, InputQueryFactory inputQueryFactory) {
+        this.vocabulary = vocabulary;
+        this.queryEngine = queryEngine;
+        this.inputQueryFactory = inputQueryFactory;
+        this.doStreamResults = params.isDBResultStreamingEnabled();
+        this.canBeIncomplete = params.canMaterializationBeIncomplete();
+        this.degreeOfParallelism = params.getDegreeOfParallelism();
+
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.possiblyIncompleteClassesAndProperties = Collections.synchronizedList(new ArrayList<>());
+        this.firstError = new AtomicReference<>();
+
+        this.executor = null;
+        this.remainingEntries = vocabulary.size();
+        this.currentBatch = Collections.emptyIterator();
+        this.counter = 0;
+    }
+
+    @Override
+    public ImmutableSet<IRI> getSelectedVocabulary() {
+        return vocabulary.keySet();
+    }
+
+    @Override
+    public boolean hasNext() throws OntopQueryAnsweringException, OntopConnectionException {
+        if (executor == null)
+            start();
+
+        while (!currentBatch.hasNext()) {
+            Exception error = firstError.get();
+            if (error != null) {
+                if (error instanceof OntopConnectionException)
+                    throw (OntopConnectionException) error;
+                if (error instanceof OntopQueryAnsweringException)
+                    throw (OntopQueryAnsweringException) error;
+                throw new OntopQueryAnsweringException(error);
+            }
+            if (remainingEntries == 0)
+                return false;
+
+            ImmutableList<Assertion> batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OntopQueryAnsweringException(e);
+            }
+            if (batch == END_OF_ENTRY)
+                remainingEntries--;
+            else
+                currentBatch = batch.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public Assertion next() {
+        counter++;
+        return currentBatch.next();
+    }
+
+    private void start() {
+        executor = Executors.newFixedThreadPool(Math.min(degreeOfParallelism, Math.max(vocabulary.size(), 1)),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("ontop-materialization-%d")
+                        .setDaemon(true)
+                        .build());
+        vocabulary.values().forEach(e -> executor.execute(() -> materialize(e)));
+        executor.shutdown();
+    }
+
+    /**
+     * Executed by a worker.
+     *
+     * The end of the entry is always signaled (even after a failure), otherwise the consumer would wait forever.
+     */
+    private void materialize(VocabularyEntry entry) {
+        try {
+            if (firstError.get() == null)
+                materializeEntry(entry);
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+            Thread.currentThread().interrupt();
+        } finally {
+            // Nobody is waiting anymore if closed by the consumer
+            if (!Thread.currentThread().isInterrupted()) {
+                try {
+                    queue.put(END_OF_ENTRY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void materializeEntry(VocabularyEntry entry) throws InterruptedException {
+        try (OntopConnection connection = queryEngine.getConnection();
+             OntopStatement statement = connection.createStatement()) {
+            ConstructQuery query = inputQueryFactory.createConstructQuery(entry.getQuery());
+            if (doStreamResults)
+                statement.setFetchSize(DefaultOntopRDFMaterializer.FETCH_SIZE);
+
+            SimpleGraphResultSet graphResultSet = statement.execute(query);
+            try {
+                List<Assertion> batch = new ArrayList<>(BATCH_SIZE);
+                while (graphResultSet.hasNext()) {
+                    if (Thread.interrupted())
+                        throw new InterruptedException();
+                    batch.add(graphResultSet.next());
+                    if (batch.size() == BATCH_SIZE) {
+                        queue.put(ImmutableList.copyOf(batch));
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty())
+                    queue.put(ImmutableList.copyOf(batch));
+            } finally {
+                graphResultSet.close();
+            }
+        } catch (OntopQueryAnsweringException | OntopConnectionException | RuntimeException e) {
+            if (canBeIncomplete) {
+                LOGGER.warn("Possibly incomplete class/property " + entry.name + " (materialization problem).\n"
+                        + "Details: " + e);
+                possiblyIncompleteClassesAndProperties.add(entry.name);
+            }
+            else {
+                LOGGER.error("Problem materializing the class/property " + entry.name);
+                firstError.compareAndSet(null, e);
+            }
+        }
+    }
+
+    /**
+     * Stops the workers, which release their connections
+     */
+    @Override
+    public void close() {
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    @Override
+    public long getTripleCountSoFar() {
+        return counter;
+    }
+
+    @Override
+    public ImmutableList<IRI> getPossiblyIncompleteRDFPropertiesAndClassesSoFar() {
+        synchronized (possiblyIncompleteClassesAndProperties) {
+            return ImmutableList.copyOf(possiblyIncompleteClassesAndProperties);
+        }
+    }
+}
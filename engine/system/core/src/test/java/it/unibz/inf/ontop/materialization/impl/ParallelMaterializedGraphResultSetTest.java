@@ -0,0 +1,91 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulationListener;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
+import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.materialization.impl.DefaultOntopRDFMaterializer.VocabularyEntry;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.rdf4j.RDF4J;
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class ParallelMaterializedGraphResultSetTest {
+
+    private static final ImmutableMap<IRI, VocabularyEntry> VOCABULARY;
+
+    static {
+        RDF4J rdfFactory = new RDF4J();
+        ImmutableMap.Builder<IRI, VocabularyEntry> builder = ImmutableMap.builder();
+        IntStream.range(0, 5)
+                .mapToObj(i -> rdfFactory.createIRI("http://example.org/C" + i))
+                .forEach(iri -> builder.put(iri, new VocabularyEntry(iri, 1)));
+        VOCABULARY = builder.build();
+    }
+
+    @Test(timeout = 10000)
+    public void testFailingEntry() throws Exception {
+        MaterializationParams params = MaterializationParams.defaultBuilder()
+                .degreeOfParallelism(2)
+                .build();
+
+        try (ParallelMaterializedGraphResultSet resultSet = new ParallelMaterializedGraphResultSet(VOCABULARY,
+                params, new FailingQueryEngine(), null)) {
+            resultSet.hasNext();
+            fail("The failure of the entries should have been reported");
+        } catch (OntopQueryAnsweringException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testFailingEntryIncompleteMaterialization() throws Exception {
+        MaterializationParams params = MaterializationParams.defaultBuilder()
+                .degreeOfParallelism(2)
+                .enableIncompleteMaterialization(true)
+                .build();
+
+        try (ParallelMaterializedGraphResultSet resultSet = new ParallelMaterializedGraphResultSet(VOCABULARY,
+                params, new FailingQueryEngine(), null)) {
+            assertFalse(resultSet.hasNext());
+            assertEquals(0, resultSet.getTripleCountSoFar());
+            assertEquals(VOCABULARY.keySet(),
+                    ImmutableSet.copyOf(resultSet.getPossiblyIncompleteRDFPropertiesAndClassesSoFar()));
+        }
+    }
+
+
+    /**
+     * Fails with an unchecked exception when a connection is requested
+     */
+    private static class FailingQueryEngine implements OntopQueryEngine {
+
+        @Override
+        public boolean connect() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public OntopConnection getConnection() {
+            throw new IllegalStateException("No connection available");
+        }
+
+        @Override
+        public void addReformulationListener(QueryReformulationListener listener) {
+        }
+
+        @Override
+        public void removeReformulationListener(QueryReformulationListener listener) {
+        }
+    }
+}
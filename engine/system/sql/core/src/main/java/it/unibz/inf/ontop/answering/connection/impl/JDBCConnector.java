@@ -4,11 +4,13 @@ import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.connection.DBConnector;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.connection.pool.ConnectionWaitHistogram;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
 
 import it.unibz.inf.ontop.model.term.TermFactory;
@@ -20,6 +22,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * For RDBMS having a JDBC driver.
@@ -36,6 +41,7 @@ public class JDBCConnector implements DBConnector {
 
     private final Logger log = LoggerFactory.getLogger(JDBCConnector.class);
     private final JDBCConnectionPool connectionPool;
+    private final QueryExecutionService executionService;
 
     private final DBMetadata dbMetadata;
     private final InputQueryFactory inputQueryFactory;
@@ -47,6 +53,7 @@ public class JDBCConnector implements DBConnector {
     private JDBCConnector(@Assisted QueryReformulator queryReformulator,
                           @Assisted DBMetadata dbMetadata,
                           JDBCConnectionPool connectionPool,
+                          QueryExecutionService executionService,
                           InputQueryFactory inputQueryFactory,
                           TermFactory termFactory,
                           TypeFactory typeFactory,
@@ -60,6 +67,7 @@ public class JDBCConnector implements DBConnector {
         this.substitutionFactory = substitutionFactory;
         this.settings = settings;
         this.connectionPool = connectionPool;
+        this.executionService = executionService;
         this.typeFactory = typeFactory;
         this.rdfFactory = rdfFactory;
     }
@@ -94,10 +102,15 @@ public class JDBCConnector implements DBConnector {
         } catch (Exception e) {
             log.error(e.getMessage());
         }
+        executionService.close();
         connectionPool.close();
     }
 
-    public synchronized Connection getSQLPoolConnection() throws OntopConnectionException {
+    /**
+     * Not synchronized: the concurrent checkouts are handled by the pool itself,
+     * so that a slow checkout does not stall the other threads.
+     */
+    public Connection getSQLPoolConnection() throws OntopConnectionException {
         try {
             return connectionPool.getConnection();
         } catch (SQLException e) {
@@ -105,6 +118,35 @@ public class JDBCConnector implements DBConnector {
         }
     }
 
+    /**
+     * Waits for a pool connection on the given executor instead of the calling thread.
+     *
+     * Fails with an OntopConnectionException (wrapped into a CompletionException) when no connection can be obtained.
+     */
+    public CompletableFuture<OntopConnection> getConnectionAsync(Executor executor) {
+        return connectionPool.getConnectionAsync(executor)
+                .handle((c, e) -> {
+                    if (e != null)
+                        throw new CompletionException(new OntopConnectionException(
+                                (e instanceof CompletionException) ? e.getCause() : e));
+                    return createConnection(c);
+                });
+    }
+
+    /**
+     * Time spent by the threads waiting for a pool connection (useful for sizing the pool).
+     */
+    public ConnectionWaitHistogram getConnectionWaitHistogram() {
+        return connectionPool.getWaitHistogram();
+    }
+
+    /**
+     * Gives access to the execution metrics (queue depth, active queries).
+     */
+    public QueryExecutionService getQueryExecutionService() {
+        return executionService;
+    }
+
     /***
      * Returns an OntopConnection, the main object that a client should use to
      * access the query answering services of Quest. With the QuestConnection
@@ -121,9 +163,13 @@ public class JDBCConnector implements DBConnector {
      */
     @Override
     public OntopConnection getConnection() throws OntopConnectionException {
+        return createConnection(getSQLPoolConnection());
+    }
 
-        return new SQLConnection(this, queryReformulator, getSQLPoolConnection(),
-                dbMetadata, inputQueryFactory, termFactory, typeFactory, rdfFactory, substitutionFactory, settings);
+    private OntopConnection createConnection(Connection sqlConnection) {
+        return new SQLConnection(this, queryReformulator, sqlConnection,
+                dbMetadata, inputQueryFactory, termFactory, typeFactory, rdfFactory, substitutionFactory, settings,
+                executionService);
     }
 
 
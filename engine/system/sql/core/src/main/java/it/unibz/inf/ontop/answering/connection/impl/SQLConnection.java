@@ -24,6 +24,7 @@ import java.sql.Connection;
 
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
@@ -56,6 +57,7 @@ public class SQLConnection implements OntopConnection {
 	private final TypeFactory typeFactory;
 	private final SubstitutionFactory substitutionFactory;
 	private final OntopSystemSQLSettings settings;
+	private final QueryExecutionService executionService;
 
 	private final JDBCConnector jdbcConnector;
 	private boolean isClosed;
@@ -65,7 +67,8 @@ public class SQLConnection implements OntopConnection {
 	public SQLConnection(JDBCConnector jdbcConnector, QueryReformulator queryProcessor, Connection connection,
 						 DBMetadata dbMetadata,
 						 InputQueryFactory inputQueryFactory, TermFactory termFactory, TypeFactory typeFactory,
-						 RDF rdfFactory, SubstitutionFactory substitutionFactory, OntopSystemSQLSettings settings) {
+						 RDF rdfFactory, SubstitutionFactory substitutionFactory, OntopSystemSQLSettings settings,
+						 QueryExecutionService executionService) {
 		this.jdbcConnector = jdbcConnector;
 		this.queryProcessor = queryProcessor;
 		this.conn = connection;
@@ -75,6 +78,7 @@ public class SQLConnection implements OntopConnection {
 		this.typeFactory = typeFactory;
 		this.substitutionFactory = substitutionFactory;
 		this.settings = settings;
+		this.executionService = executionService;
 		this.rdfFactory = rdfFactory;
 		this.isClosed = false;
 	}
@@ -98,7 +102,8 @@ public class SQLConnection implements OntopConnection {
 			return new SQLQuestStatement(
 					this.queryProcessor,
 					conn.createStatement(java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY),
-					inputQueryFactory, termFactory, typeFactory, rdfFactory, substitutionFactory, settings);
+					inputQueryFactory, termFactory, typeFactory, rdfFactory, substitutionFactory, settings,
+					executionService);
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
@@ -1,10 +1,15 @@
 package it.unibz.inf.ontop.answering.connection.impl;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Maps;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
 import it.unibz.inf.ontop.answering.resultset.impl.*;
 import it.unibz.inf.ontop.answering.resultset.BooleanResultSet;
@@ -15,21 +20,26 @@ import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.resultset.impl.PredefinedBooleanResultSet;
 
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.generation.serializer.SQLQueryWrapper;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.IQTree;
 import it.unibz.inf.ontop.iq.UnaryIQTree;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.node.ConstructionNode;
 import it.unibz.inf.ontop.iq.node.NativeNode;
-import it.unibz.inf.ontop.model.term.TermFactory;
-import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBStrictEqFunctionSymbol;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.RDF;
 
+import javax.annotation.Nullable;
+
 import java.sql.*;
 import java.sql.ResultSet;
+import java.util.stream.Collectors;
 
 /**
  * SQL-specific implementation of OBDAStatement.
@@ -44,12 +54,23 @@ public class SQLQuestStatement extends QuestStatement {
     private final SubstitutionFactory substitutionFactory;
     private final OntopSystemSQLSettings settings;
 
+    private static final String PREPARED_QUERY_ALIAS = "prepared_query";
+
+    /**
+     * Prepared statement of the current execution (if any).
+     *
+     * Kept until the next execution: it is closed together with its result set (closeOnCompletion),
+     * so cancel() and close() can reach it while the results are being consumed.
+     */
+    @Nullable
+    private volatile PreparedStatement currentPreparedStatement;
+
     public SQLQuestStatement(QueryReformulator queryProcessor, Statement sqlStatement,
                              InputQueryFactory inputQueryFactory,
                              TermFactory termFactory, TypeFactory typeFactory,
                              RDF rdfFactory, SubstitutionFactory substitutionFactory,
-                             OntopSystemSQLSettings settings) {
-        super(queryProcessor, inputQueryFactory);
+                             OntopSystemSQLSettings settings, QueryExecutionService executionService) {
+        super(queryProcessor, inputQueryFactory, executionService);
         this.sqlStatement = sqlStatement;
         this.termFactory = termFactory;
         this.typeFactory = typeFactory;
@@ -139,17 +160,15 @@ public class SQLQuestStatement extends QuestStatement {
      * Returns the number of tuples returned by the query
      */
     @Override
-    public int getTupleCount(InputQuery inputQuery) throws OntopReformulationException, OntopQueryEvaluationException {
+    public long getTupleCount(InputQuery inputQuery) throws OntopReformulationException, OntopQueryEvaluationException {
         IQ targetQuery = getExecutableQuery(inputQuery);
         try {
             String sql = extractSQLQuery(targetQuery);
-            String newsql = "SELECT count(*) FROM (" + sql + ") t1";
+            String newsql = SQLQueryWrapper.wrap(sql, q -> "SELECT count(*) FROM (" + q + ") t1");
             if (!isCanceled()) {
-                try {
-
-                    java.sql.ResultSet set = sqlStatement.executeQuery(newsql);
+                try (java.sql.ResultSet set = sqlStatement.executeQuery(newsql)) {
                     if (set.next()) {
-                        return set.getInt(1);
+                        return set.getLong(1);
                     } else {
                         //throw new OBDAException("Tuple count failed due to empty result set.");
                         return 0;
@@ -168,6 +187,9 @@ public class SQLQuestStatement extends QuestStatement {
     @Override
     public void close() throws OntopConnectionException {
         try {
+            PreparedStatement preparedStatement = currentPreparedStatement;
+            if (preparedStatement != null)
+                preparedStatement.close();
             if (sqlStatement != null)
                 sqlStatement.close();
         } catch (SQLException e) {
@@ -177,6 +199,9 @@ public class SQLQuestStatement extends QuestStatement {
 
     protected void cancelExecution() throws OntopQueryEvaluationException {
         try {
+            PreparedStatement preparedStatement = currentPreparedStatement;
+            if (preparedStatement != null && !preparedStatement.isClosed())
+                preparedStatement.cancel();
             sqlStatement.cancel();
         } catch (SQLException e) {
             throw new OntopQueryEvaluationException(e);
@@ -221,6 +246,179 @@ public class SQLQuestStatement extends QuestStatement {
         }
     }
 
+    /**
+     * The SQL query is wrapped into a parameterized query filtering its columns:
+     *   SELECT * FROM (sqlQuery) prepared_query WHERE prepared_query.col1 = ? AND ...
+     * (the common table expressions of sqlQuery being hoisted in front, see SQLQueryWrapper)
+     *
+     * The SQL string only depends on the executable query and on the parameterized columns,
+     * so the DB can reuse its plan across the executions.
+     */
+    @Override
+    protected NativeEvaluation<TupleResultSet> prepareSelectQuery(IQ executableQuery,
+                                                                  ImmutableMap<Variable, RDFConstant> parameters)
+            throws OntopUnsupportedInputQueryException {
+        ImmutableList<Variable> signature = executableQuery.getProjectionAtom().getArguments().stream()
+                .filter(v -> !parameters.containsKey(v))
+                .collect(ImmutableCollectors.toList());
+
+        try {
+            String sqlQuery = extractSQLQuery(executableQuery);
+            ConstructionNode constructionNode = extractRootConstructionNode(executableQuery);
+            NativeNode nativeNode = extractNativeNode(executableQuery);
+
+            Optional<ImmutableMap<Variable, DBConstant>> nativeParameters = convertParameters(parameters,
+                    constructionNode, nativeNode);
+            if (!nativeParameters.isPresent())
+                return () -> new EmptyTupleResultSet(signature);
+
+            String preparedQuery = nativeParameters.get().isEmpty()
+                    ? sqlQuery
+                    : SQLQueryWrapper.wrap(sqlQuery, q -> "SELECT * FROM (" + q + ") " + PREPARED_QUERY_ALIAS
+                    + " WHERE " + nativeParameters.get().keySet().stream()
+                            .map(v -> PREPARED_QUERY_ALIAS + "." + nativeNode.getColumnNames().get(v) + " = ?")
+                            .collect(Collectors.joining(" AND ")));
+
+            return () -> executePreparedSQLQuery(preparedQuery, nativeParameters.get(), nativeNode, constructionNode,
+                    signature);
+
+        } catch (EmptyQueryException e) {
+            return () -> new EmptyTupleResultSet(signature);
+        }
+    }
+
+    private TupleResultSet executePreparedSQLQuery(String preparedQuery, ImmutableMap<Variable, DBConstant> parameters,
+                                                   NativeNode nativeNode, ConstructionNode constructionNode,
+                                                   ImmutableList<Variable> signature)
+            throws OntopQueryEvaluationException {
+        ImmutableSortedSet<Variable> sqlSignature = nativeNode.getVariables();
+        ImmutableMap<Variable, DBTermType> typeMap = nativeNode.getTypeMap();
+        PreparedStatement preparedStatement = null;
+        try {
+            preparedStatement = sqlStatement.getConnection().prepareStatement(preparedQuery);
+            currentPreparedStatement = preparedStatement;
+            // Closed with its result set
+            preparedStatement.closeOnCompletion();
+            preparedStatement.setQueryTimeout(sqlStatement.getQueryTimeout());
+            preparedStatement.setMaxRows(sqlStatement.getMaxRows());
+            preparedStatement.setFetchSize(sqlStatement.getFetchSize());
+
+            int index = 1;
+            for (Map.Entry<Variable, DBConstant> parameter : parameters.entrySet()) {
+                setParameter(preparedStatement, index++, parameter.getValue().getValue(),
+                        typeMap.get(parameter.getKey()));
+            }
+
+            java.sql.ResultSet set = preparedStatement.executeQuery();
+            return settings.isDistinctPostProcessingEnabled()
+                    ? new DistinctJDBCTupleResultSet(set, sqlSignature, typeMap, constructionNode, signature, termFactory, substitutionFactory)
+                    : new JDBCTupleResultSet(set, sqlSignature, typeMap, constructionNode, signature, termFactory, substitutionFactory);
+        } catch (SQLException e) {
+            // No result set to close it
+            if (preparedStatement != null) {
+                try {
+                    preparedStatement.close();
+                } catch (SQLException e1) {
+                    e.addSuppressed(e1);
+                }
+            }
+            throw new OntopQueryEvaluationException(e);
+        }
+    }
+
+    /**
+     * Converts the RDF parameters into equalities between native variables and DB constants.
+     *
+     * Returns empty if a parameter cannot match (the answer is then empty).
+     */
+    private Optional<ImmutableMap<Variable, DBConstant>> convertParameters(ImmutableMap<Variable, RDFConstant> parameters,
+                                                                          ConstructionNode constructionNode,
+                                                                          NativeNode nativeNode)
+            throws OntopUnsupportedInputQueryException {
+        Map<Variable, DBConstant> nativeParameters = new LinkedHashMap<>();
+
+        for (Map.Entry<Variable, RDFConstant> parameter : parameters.entrySet()) {
+            ImmutableTerm definition = constructionNode.getSubstitution().get(parameter.getKey());
+            if (!(definition instanceof ImmutableFunctionalTerm)) {
+                if (parameter.getValue().equals(definition))
+                    continue;
+                else if (definition instanceof Constant)
+                    return Optional.empty();
+                throw new OntopUnsupportedInputQueryException("Cannot bind the parameter " + parameter.getKey());
+            }
+
+            IncrementalEvaluation evaluation = definition.evaluateStrictEq(parameter.getValue(),
+                    termFactory.createDummyVariableNullability((ImmutableFunctionalTerm) definition));
+            switch (evaluation.getStatus()) {
+                case IS_TRUE:
+                    continue;
+                case IS_FALSE:
+                case IS_NULL:
+                    return Optional.empty();
+                case SIMPLIFIED_EXPRESSION:
+                    for (ImmutableExpression condition : evaluation.getNewExpression().get().flattenAND()
+                            .collect(ImmutableCollectors.toList())) {
+                        Map.Entry<Variable, DBConstant> equality = extractNativeEquality(condition, nativeNode)
+                                .orElseThrow(() -> new OntopUnsupportedInputQueryException(
+                                        "Cannot push the condition " + condition + " to the native query"));
+                        DBConstant previousValue = nativeParameters.put(equality.getKey(), equality.getValue());
+                        if ((previousValue != null) && (!previousValue.equals(equality.getValue())))
+                            return Optional.empty();
+                    }
+                    break;
+                default:
+                    throw new OntopUnsupportedInputQueryException("Cannot bind the parameter " + parameter.getKey());
+            }
+        }
+        return Optional.of(ImmutableMap.copyOf(nativeParameters));
+    }
+
+    private Optional<Map.Entry<Variable, DBConstant>> extractNativeEquality(ImmutableExpression condition,
+                                                                         NativeNode nativeNode) {
+        if (!(condition.getFunctionSymbol() instanceof DBStrictEqFunctionSymbol) || condition.getArity() != 2)
+            return Optional.empty();
+
+        ImmutableTerm firstArgument = condition.getTerm(0);
+        ImmutableTerm secondArgument = condition.getTerm(1);
+        if ((firstArgument instanceof DBConstant) && (secondArgument instanceof Variable))
+            return Optional.of(Maps.immutableEntry((Variable) secondArgument, (DBConstant) firstArgument))
+                    .filter(e -> isBindable(e.getKey(), nativeNode));
+        if ((firstArgument instanceof Variable) && (secondArgument instanceof DBConstant))
+            return Optional.of(Maps.immutableEntry((Variable) firstArgument, (DBConstant) secondArgument))
+                    .filter(e -> isBindable(e.getKey(), nativeNode));
+        return Optional.empty();
+    }
+
+    /**
+     * Lexical values of dates and booleans are too DB-specific for being bound safely
+     */
+    private boolean isBindable(Variable variable, NativeNode nativeNode) {
+        return Optional.ofNullable(nativeNode.getTypeMap().get(variable))
+                .map(DBTermType::getCategory)
+                .filter(c -> (c == DBTermType.Category.STRING) || (c == DBTermType.Category.INTEGER)
+                        || (c == DBTermType.Category.DECIMAL) || (c == DBTermType.Category.FLOAT_DOUBLE))
+                .isPresent();
+    }
+
+    private static void setParameter(PreparedStatement preparedStatement, int index, String value, DBTermType type)
+            throws SQLException {
+        try {
+            switch (type.getCategory()) {
+                case INTEGER:
+                case DECIMAL:
+                    preparedStatement.setBigDecimal(index, new BigDecimal(value));
+                    break;
+                case FLOAT_DOUBLE:
+                    preparedStatement.setDouble(index, Double.parseDouble(value));
+                    break;
+                default:
+                    preparedStatement.setString(index, value);
+            }
+        } catch (NumberFormatException e) {
+            throw new SQLException("Invalid value " + value + " for the parameter " + index + " (" + type + ")", e);
+        }
+    }
+
     @Override
     protected SimpleGraphResultSet executeGraphQuery(ConstructQuery inputQuery, IQ executableQuery, boolean collectResults)
             throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException {
@@ -0,0 +1,137 @@
+package it.unibz.inf.ontop.answering.connection.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of the time spent by the query threads waiting for a connection of the pool.
+ *
+ * Fixed buckets (upper bounds in milliseconds, the last one is unbounded), so that the pool can be sized
+ * from the observed waits: a pool large enough has almost all its checkouts in the first buckets.
+ *
+ * Lock-free (recorded by all the threads checking out connections).
+ */
+public class ConnectionWaitHistogram {
+
+    private static final long[] BUCKET_UPPER_BOUNDS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, Long.MAX_VALUE };
+
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder totalWaitTime = new LongAdder();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    public ConnectionWaitHistogram() {
+        buckets = new LongAdder[BUCKET_UPPER_BOUNDS.length];
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new LongAdder();
+    }
+
+    /**
+     * @param waitTime in nanoseconds
+     * @param success false if no connection could be obtained (e.g. timeout)
+     */
+    public void record(long waitTime, boolean success) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(waitTime);
+        buckets[getBucketIndex(millis)].increment();
+        count.increment();
+        if (!success)
+            failureCount.increment();
+        totalWaitTime.add(millis);
+        maxWaitTime.accumulateAndGet(millis, Math::max);
+    }
+
+    private static int getBucketIndex(long millis) {
+        int i = 0;
+        while (millis > BUCKET_UPPER_BOUNDS[i])
+            i++;
+        return i;
+    }
+
+    /**
+     * In milliseconds (Long.MAX_VALUE for the last bucket)
+     */
+    public long[] getBucketUpperBounds() {
+        return BUCKET_UPPER_BOUNDS.clone();
+    }
+
+    /**
+     * Same order as the upper bounds
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++)
+            counts[i] = buckets[i].sum();
+        return counts;
+    }
+
+    /**
+     * Upper bound (in milliseconds) of the bucket containing the given percentile (between 0 and 100).
+     * Returns 0 if nothing has been recorded.
+     */
+    public long getPercentileUpperBound(double percentile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long c : counts)
+            total += c;
+        if (total == 0)
+            return 0;
+
+        long threshold = (long) Math.ceil(total * percentile / 100);
+        long cumulated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulated += counts[i];
+            if (cumulated >= threshold && counts[i] > 0)
+                return BUCKET_UPPER_BOUNDS[i];
+        }
+        return BUCKET_UPPER_BOUNDS[BUCKET_UPPER_BOUNDS.length - 1];
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * In milliseconds
+     */
+    public long getTotalWaitTime() {
+        return totalWaitTime.sum();
+    }
+
+    /**
+     * In milliseconds
+     */
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets)
+            bucket.reset();
+        count.reset();
+        failureCount.reset();
+        totalWaitTime.reset();
+        maxWaitTime.set(0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ConnectionWaitHistogram{count=").append(getCount())
+                .append(", failures=").append(getFailureCount())
+                .append(", max=").append(getMaxWaitTime()).append("ms, buckets=[");
+        long[] counts = getBucketCounts();
+        for (int i = 0; i < counts.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(BUCKET_UPPER_BOUNDS[i] == Long.MAX_VALUE ? "inf" : "<=" + BUCKET_UPPER_BOUNDS[i] + "ms")
+                    .append(": ").append(counts[i]);
+        }
+        return sb.append("]}").toString();
+    }
+}
@@ -3,11 +3,37 @@ package it.unibz.inf.ontop.answering.connection.pool;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
+/**
+ * Thread-safe: the connections are checked out concurrently, without any lock held by the callers.
+ */
 public interface JDBCConnectionPool extends AutoCloseable {
 
     @Override
     void close();
 
     Connection getConnection() throws SQLException;
+
+    /**
+     * Waits for a connection on the given executor instead of the calling thread.
+     *
+     * The SQLException (if any) is wrapped into a CompletionException.
+     */
+    default CompletableFuture<Connection> getConnectionAsync(Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return getConnection();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Time spent waiting in getConnection (including the failed checkouts)
+     */
+    ConnectionWaitHistogram getWaitHistogram();
 }
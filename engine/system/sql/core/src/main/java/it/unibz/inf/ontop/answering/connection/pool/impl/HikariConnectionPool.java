@@ -4,6 +4,7 @@ import com.google.inject.Inject;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import it.unibz.inf.ontop.answering.connection.pool.ConnectionWaitHistogram;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
 
 import java.sql.Connection;
@@ -16,6 +17,7 @@ public class HikariConnectionPool implements JDBCConnectionPool {
 
 
     private final HikariDataSource ds;
+    private final ConnectionWaitHistogram waitHistogram = new ConnectionWaitHistogram();
 
     @Inject
     private HikariConnectionPool(OntopSystemSQLSettings settings) {
@@ -41,6 +43,19 @@ public class HikariConnectionPool implements JDBCConnectionPool {
 
     @Override
     public Connection getConnection() throws SQLException {
-        return ds.getConnection();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Connection connection = ds.getConnection();
+            success = true;
+            return connection;
+        } finally {
+            waitHistogram.record(System.nanoTime() - start, success);
+        }
+    }
+
+    @Override
+    public ConnectionWaitHistogram getWaitHistogram() {
+        return waitHistogram;
     }
 }
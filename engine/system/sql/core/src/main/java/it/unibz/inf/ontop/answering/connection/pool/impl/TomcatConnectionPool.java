@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.answering.connection.pool.impl;
 
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import it.unibz.inf.ontop.answering.connection.pool.ConnectionWaitHistogram;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
 import org.apache.tomcat.jdbc.pool.DataSource;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
@@ -19,6 +20,7 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TomcatConnectionPool.class);
     private final DataSource tomcatPool;
+    private final ConnectionWaitHistogram waitHistogram = new ConnectionWaitHistogram();
 
     @Inject
     private TomcatConnectionPool(OntopSystemSQLSettings settings) {
@@ -77,6 +79,19 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
 
     @Override
     public Connection getConnection() throws SQLException {
-        return tomcatPool.getConnection();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Connection connection = tomcatPool.getConnection();
+            success = true;
+            return connection;
+        } finally {
+            waitHistogram.record(System.nanoTime() - start, success);
+        }
+    }
+
+    @Override
+    public ConnectionWaitHistogram getWaitHistogram() {
+        return waitHistogram;
     }
 }
@@ -20,6 +20,7 @@ package it.unibz.inf.ontop.answering.resultset.impl;
  * #L%
  */
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
@@ -49,7 +50,15 @@ public class DistinctJDBCTupleResultSet extends JDBCTupleResultSet implements Tu
                                       DistinctVariableOnlyDataAtom answerAtom, TermFactory termFactory,
                                       SubstitutionFactory substitutionFactory) {
 
-        super(rs, sqlSignature, sqlTypes, constructionNode, answerAtom, termFactory, substitutionFactory);
+        this(rs, sqlSignature, sqlTypes, constructionNode, answerAtom.getArguments(), termFactory, substitutionFactory);
+    }
+
+    public DistinctJDBCTupleResultSet(ResultSet rs, ImmutableSortedSet<Variable> sqlSignature, ImmutableMap<Variable, DBTermType> sqlTypes,
+                                      ConstructionNode constructionNode,
+                                      ImmutableList<Variable> signature, TermFactory termFactory,
+                                      SubstitutionFactory substitutionFactory) {
+
+        super(rs, sqlSignature, sqlTypes, constructionNode, signature, termFactory, substitutionFactory);
         rowKeys = new HashSet<>();
     }
 
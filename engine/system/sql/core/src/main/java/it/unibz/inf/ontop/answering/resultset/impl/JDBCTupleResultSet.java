@@ -7,21 +7,15 @@ import it.unibz.inf.ontop.iq.node.ConstructionNode;
 import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.type.DBTermType;
-import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 
-import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Iterator;
 
 public class JDBCTupleResultSet extends AbstractTupleResultSet implements TupleResultSet {
 
-    private final ImmutableSortedSet<Variable> sqlSignature;
-    private final ImmutableMap<Variable, DBTermType> sqlTypeMap;
-    private final ImmutableSubstitution<ImmutableTerm> sparqlVar2Term;
-    private final SubstitutionFactory substitutionFactory;
-    private final TermFactory termFactory;
+    private final int columnCount;
+    private final SQLRowDecoder rowDecoder;
 
     public JDBCTupleResultSet(ResultSet rs,
                               ImmutableSortedSet<Variable> sqlSignature,
@@ -30,44 +24,37 @@ public class JDBCTupleResultSet extends AbstractTupleResultSet implements TupleR
                               DistinctVariableOnlyDataAtom answerAtom,
                               TermFactory termFactory,
                               SubstitutionFactory substitutionFactory) {
-        super(rs, answerAtom.getArguments());
-        this.sqlSignature = sqlSignature;
-        this.sqlTypeMap = sqlTypeMap;
-        this.substitutionFactory = substitutionFactory;
-        this.termFactory = termFactory;
-        this.sparqlVar2Term = constructionNode.getSubstitution();
+        this(rs, sqlSignature, sqlTypeMap, constructionNode, answerAtom.getArguments(), termFactory,
+                substitutionFactory);
+    }
+
+    /**
+     * The signature may be a subset of the variables defined by the construction node
+     */
+    public JDBCTupleResultSet(ResultSet rs,
+                              ImmutableSortedSet<Variable> sqlSignature,
+                              ImmutableMap<Variable, DBTermType> sqlTypeMap,
+                              ConstructionNode constructionNode,
+                              ImmutableList<Variable> signature,
+                              TermFactory termFactory,
+                              SubstitutionFactory substitutionFactory) {
+        super(rs, signature);
+        this.columnCount = sqlSignature.size();
+        this.rowDecoder = new SQLRowDecoder(signature, sqlSignature, sqlTypeMap, constructionNode.getSubstitution(),
+                termFactory, substitutionFactory);
     }
 
 
     @Override
     protected SQLOntopBindingSet readCurrentRow() throws OntopConnectionException {
-
-        //builder (+loop) in order to throw checked exception
-        final ImmutableMap.Builder<Variable, Constant> builder = ImmutableMap.builder();
-        Iterator<Variable> it = sqlSignature.iterator();
+        String[] row = new String[columnCount];
         try {
-            for (int i = 1; i <= sqlSignature.size(); i++) {
-                Variable var = it.next();
-                builder.put(
-                        var,
-                        convertToConstant(
-                            rs.getString(i),
-                            sqlTypeMap.get(var)
-                        ));
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = rs.getString(i + 1);
             }
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
         }
-        return new SQLOntopBindingSet(
-                signature,
-                substitutionFactory.getSubstitution(builder.build()),
-                sparqlVar2Term
-        );
-    }
-
-    private Constant convertToConstant(@Nullable String jdbcValue, DBTermType termType) {
-        if (jdbcValue == null)
-            return termFactory.getNullConstant();
-        return termFactory.getDBConstant(jdbcValue, termType);
+        return new SQLOntopBindingSet(row, rowDecoder);
     }
 }
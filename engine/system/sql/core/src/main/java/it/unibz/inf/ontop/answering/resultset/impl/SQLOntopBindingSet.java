@@ -1,51 +1,127 @@
 package it.unibz.inf.ontop.answering.resultset.impl;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Maps;
 import it.unibz.inf.ontop.answering.resultset.OntopBinding;
 import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
 import it.unibz.inf.ontop.exception.OntopInternalBugException;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
-public class SQLOntopBindingSet extends AbstractOntopBindingSet implements OntopBindingSet {
+import static java.util.stream.Collectors.joining;
 
-    SQLOntopBindingSet(ImmutableList<Variable> signature,
-                       ImmutableSubstitution<Constant> sqlVar2Constant,
-                       ImmutableSubstitution<ImmutableTerm> sparqlVar2Term) {
-        super(computeBindingMap(signature, sqlVar2Constant, sparqlVar2Term));
+/**
+ * Lazy: keeps the raw row and only evaluates a binding when it is requested (memoized).
+ *
+ * Consumers reading a few variables of a wide projection do not pay for the other columns.
+ */
+public class SQLOntopBindingSet implements OntopBindingSet {
+
+    private final String[] row;
+    private final SQLRowDecoder decoder;
+
+    // Memoized
+    private final OntopBinding[] bindings;
+    private final boolean[] isEvaluated;
+    @Nullable
+    private ImmutableSubstitution<Constant> sqlVar2Constant;
+
+    SQLOntopBindingSet(String[] row, SQLRowDecoder decoder) {
+        this.row = row;
+        this.decoder = decoder;
+        int variableCount = decoder.getVariableCount();
+        this.bindings = new OntopBinding[variableCount];
+        this.isEvaluated = new boolean[variableCount];
+        this.sqlVar2Constant = null;
+    }
+
+    @Override
+    @Nonnull
+    public Iterator<OntopBinding> iterator() {
+        return getBindings().iterator();
+    }
+
+    @Override
+    public ImmutableList<OntopBinding> getBindings() {
+        ImmutableList.Builder<OntopBinding> builder = ImmutableList.builder();
+        for (int i = 0; i < bindings.length; i++) {
+            OntopBinding binding = getBinding(i);
+            if (binding != null)
+                builder.add(binding);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public ImmutableList<RDFConstant> getValues() {
+        return getBindings().stream()
+                .map(OntopBinding::getValue)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @Override
+    public ImmutableList<String> getBindingNames() {
+        return getBindings().stream()
+                .map(OntopBinding::getName)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @Nullable
+    @Override
+    public RDFConstant getConstant(String name) {
+        OntopBinding binding = getBinding(name);
+        return (binding == null)
+                ? null
+                : binding.getValue();
+    }
+
+    @Nullable
+    @Override
+    public OntopBinding getBinding(String name) {
+        int index = decoder.getIndex(name);
+        return (index < 0)
+                ? null
+                : getBinding(index);
+    }
+
+    @Override
+    public boolean hasBinding(String bindingName) {
+        return getBinding(bindingName) != null;
+    }
+
+    /**
+     * Synchronized on the decoder, which reuses buffers
+     */
+    @Nullable
+    private OntopBinding getBinding(int index) {
+        synchronized (decoder) {
+            if (!isEvaluated[index]) {
+                bindings[index] = decoder.decode(index, row, this::getSQLVar2Constant);
+                isEvaluated[index] = true;
+            }
+            return bindings[index];
+        }
     }
 
-    private static LinkedHashMap<String, OntopBinding> computeBindingMap(ImmutableList<Variable> signature,
-                                                                    ImmutableSubstitution<Constant> sqlVar2Constant,
-                                                                    ImmutableSubstitution<ImmutableTerm> sparqlVar2Term) {
-
-        ImmutableSubstitution<ImmutableTerm> composition = sqlVar2Constant.composeWith(sparqlVar2Term);
-
-        return signature.stream()
-                .map(v -> getBinding(v,composition))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
+    private ImmutableSubstitution<Constant> getSQLVar2Constant() {
+        if (sqlVar2Constant == null)
+            sqlVar2Constant = decoder.convertRow(row);
+        return sqlVar2Constant;
     }
 
-    private static Optional<Map.Entry<String,OntopBinding>> getBinding(Variable v, ImmutableSubstitution<ImmutableTerm> composition) {
-        Optional<RDFConstant> constant = evaluate(composition.apply(v));
-        return constant
-                .map(rdfConstant -> Maps.immutableEntry(v.getName(), new OntopBindingImpl(v, rdfConstant)));
+    @Override
+    public String toString() {
+        return getBindings().stream()
+                .map(OntopBinding::toString)
+                .collect(joining(",", "[", "]"));
     }
 
-    private static Optional<RDFConstant> evaluate(ImmutableTerm term) {
+    static Optional<RDFConstant> evaluate(ImmutableTerm term) {
         ImmutableTerm simplifiedTerm = term.simplify();
         if (simplifiedTerm instanceof Constant){
             if (simplifiedTerm instanceof RDFConstant) {
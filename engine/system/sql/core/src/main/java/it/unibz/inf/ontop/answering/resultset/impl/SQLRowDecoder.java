@@ -0,0 +1,268 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBTypeConversionFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.ObjectStringTemplateFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.impl.AbstractR2RMLSafeIRIEncodeFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import javax.annotation.Nullable;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Decodes the rows of a JDBC result set into bindings.
+ *
+ * Compiled once per query from the substitution of the construction node: the common RDF terms
+ * (RDF constants, and lexical terms made of columns, constants, simple casts and IRI/bnode templates,
+ * with a constant RDF term type) are evaluated directly on the column values,
+ * without building substitutions nor simplifying terms.
+ *
+ * The other terms, and the compiled ones when a column is NULL, are evaluated symbolically (fallback).
+ *
+ * Not thread-safe (reuses a buffer): one decoder per result set, shared by its binding sets.
+ */
+class SQLRowDecoder {
+
+    private final ImmutableList<Variable> signature;
+    private final ImmutableMap<String, Integer> variableIndexes;
+    private final ImmutableSortedSet<Variable> sqlSignature;
+    private final ImmutableMap<Variable, DBTermType> sqlTypeMap;
+    private final TermFactory termFactory;
+    private final SubstitutionFactory substitutionFactory;
+
+    /**
+     * Terms of the signature variables, for the symbolic evaluation
+     */
+    private final ImmutableList<ImmutableTerm> terms;
+    /**
+     * Null entries: not compiled
+     */
+    private final CompiledRDFTerm[] compiledTerms;
+
+    @Nullable
+    private final AbstractR2RMLSafeIRIEncodeFunctionSymbol iriSafeEncoder;
+    private final StringBuilder buffer = new StringBuilder();
+
+    SQLRowDecoder(ImmutableList<Variable> signature, ImmutableSortedSet<Variable> sqlSignature,
+                  ImmutableMap<Variable, DBTermType> sqlTypeMap, ImmutableSubstitution<ImmutableTerm> sparqlVar2Term,
+                  TermFactory termFactory, SubstitutionFactory substitutionFactory) {
+        this.signature = signature;
+        this.variableIndexes = IntStream.range(0, signature.size())
+                .boxed()
+                .collect(ImmutableCollectors.toMap(i -> signature.get(i).getName(), i -> i));
+        this.sqlSignature = sqlSignature;
+        this.sqlTypeMap = sqlTypeMap;
+        this.termFactory = termFactory;
+        this.substitutionFactory = substitutionFactory;
+
+        DBFunctionSymbol encodeFunctionSymbol = termFactory.getDBFunctionSymbolFactory().getR2RMLIRISafeEncode();
+        this.iriSafeEncoder = (encodeFunctionSymbol instanceof AbstractR2RMLSafeIRIEncodeFunctionSymbol)
+                ? (AbstractR2RMLSafeIRIEncodeFunctionSymbol) encodeFunctionSymbol
+                : null;
+
+        ImmutableList<Variable> columns = sqlSignature.asList();
+        ImmutableMap<Variable, Integer> columnIndexes = IntStream.range(0, columns.size())
+                .boxed()
+                .collect(ImmutableCollectors.toMap(columns::get, i -> i));
+
+        this.terms = signature.stream()
+                .map(sparqlVar2Term::apply)
+                .collect(ImmutableCollectors.toList());
+        this.compiledTerms = terms.stream()
+                .map(t -> compileRDFTerm(t, columnIndexes).orElse(null))
+                .toArray(CompiledRDFTerm[]::new);
+    }
+
+    int getVariableCount() {
+        return signature.size();
+    }
+
+    /**
+     * Returns -1 if the variable is not projected
+     */
+    int getIndex(String variableName) {
+        Integer index = variableIndexes.get(variableName);
+        return (index == null) ? -1 : index;
+    }
+
+    /**
+     * Row: values of the columns (same order as the SQL signature).
+     * The substitution of the row is only requested if the term has to be evaluated symbolically.
+     *
+     * Returns null if the variable is not bound in this row.
+     */
+    @Nullable
+    OntopBinding decode(int index, String[] row, Supplier<ImmutableSubstitution<Constant>> sqlVar2ConstantSupplier) {
+        CompiledRDFTerm compiledTerm = compiledTerms[index];
+        RDFConstant compiledValue = (compiledTerm == null) ? null : compiledTerm.evaluate(row);
+
+        Optional<RDFConstant> constant = (compiledValue != null)
+                ? Optional.of(compiledValue)
+                : SQLOntopBindingSet.evaluate(sqlVar2ConstantSupplier.get().apply(terms.get(index)));
+
+        return constant
+                .map(c -> new OntopBindingImpl(signature.get(index), c))
+                .orElse(null);
+    }
+
+    ImmutableSubstitution<Constant> convertRow(String[] row) {
+        ImmutableMap.Builder<Variable, Constant> builder = ImmutableMap.builder();
+        int i = 0;
+        for (Variable variable : sqlSignature) {
+            String value = row[i++];
+            builder.put(variable, (value == null)
+                    ? termFactory.getNullConstant()
+                    : termFactory.getDBConstant(value, sqlTypeMap.get(variable)));
+        }
+        return substitutionFactory.getSubstitution(builder.build());
+    }
+
+    private Optional<CompiledRDFTerm> compileRDFTerm(ImmutableTerm term, ImmutableMap<Variable, Integer> columnIndexes) {
+        if (term instanceof RDFConstant) {
+            RDFConstant constant = (RDFConstant) term;
+            return Optional.of(row -> constant);
+        }
+        if (!(term instanceof ImmutableFunctionalTerm))
+            return Optional.empty();
+        ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+        if (!(functionalTerm.getFunctionSymbol() instanceof RDFTermFunctionSymbol))
+            return Optional.empty();
+
+        ImmutableTerm typeTerm = functionalTerm.getTerm(1);
+        if (!(typeTerm instanceof RDFTermTypeConstant))
+            return Optional.empty();
+        RDFTermType termType = ((RDFTermTypeConstant) typeTerm).getRDFTermType();
+        if (termType.isAbstract())
+            return Optional.empty();
+
+        return compileLexicalTerm(functionalTerm.getTerm(0), columnIndexes)
+                .map(l -> row -> {
+                    String lexicalValue = l.evaluate(row);
+                    return (lexicalValue == null)
+                            ? null
+                            : termFactory.getRDFConstant(lexicalValue, termType);
+                });
+    }
+
+    private Optional<LexicalTerm> compileLexicalTerm(ImmutableTerm term, ImmutableMap<Variable, Integer> columnIndexes) {
+        if (term instanceof Variable) {
+            Integer index = columnIndexes.get(term);
+            return Optional.ofNullable(index)
+                    .map(i -> row -> row[i]);
+        }
+        else if (term instanceof DBConstant) {
+            String value = ((DBConstant) term).getValue();
+            return Optional.of(row -> value);
+        }
+        else if ((term instanceof ImmutableFunctionalTerm) && (iriSafeEncoder != null)) {
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+            FunctionSymbol functionSymbol = functionalTerm.getFunctionSymbol();
+
+            // Does not change the string representation of the value
+            if ((functionSymbol instanceof DBTypeConversionFunctionSymbol)
+                    && ((DBTypeConversionFunctionSymbol) functionSymbol).isSimple())
+                return compileLexicalTerm(functionalTerm.getTerm(0), columnIndexes);
+
+            if (functionSymbol.equals(iriSafeEncoder))
+                return compileLexicalTerm(functionalTerm.getTerm(0), columnIndexes)
+                        .map(l -> row -> {
+                            String value = l.evaluate(row);
+                            return (value == null) ? null : iriSafeEncoder.encode(value);
+                        });
+
+            if (!(functionSymbol instanceof ObjectStringTemplateFunctionSymbol))
+                return Optional.empty();
+
+            ImmutableList<Optional<LexicalTerm>> arguments = functionalTerm.getTerms().stream()
+                    .map(t -> compileLexicalTerm(t, columnIndexes))
+                    .collect(ImmutableCollectors.toList());
+            if (!arguments.stream().allMatch(Optional::isPresent))
+                return Optional.empty();
+
+            return Optional.of(new TemplateLexicalTerm(
+                    ((ObjectStringTemplateFunctionSymbol) functionSymbol).getTemplate(),
+                    arguments.stream()
+                            .map(Optional::get)
+                            .toArray(LexicalTerm[]::new)));
+        }
+        else
+            return Optional.empty();
+    }
+
+
+    @FunctionalInterface
+    private interface LexicalTerm {
+        /**
+         * Returns null if a column is NULL
+         */
+        @Nullable
+        String evaluate(String[] row);
+    }
+
+
+    @FunctionalInterface
+    private interface CompiledRDFTerm {
+        /**
+         * Returns null if the term has to be evaluated symbolically (e.g. a column is NULL)
+         */
+        @Nullable
+        RDFConstant evaluate(String[] row);
+    }
+
+
+    /**
+     * Same result as the simplification of the template function symbol applied to constants
+     * (see URITemplates.format)
+     */
+    private class TemplateLexicalTerm implements LexicalTerm {
+        private static final String PLACE_HOLDER = "{}";
+        // One more fragment than arguments
+        private final String[] fragments;
+        private final LexicalTerm[] arguments;
+        // Reused from one row to the other
+        private final String[] encodedValues;
+
+        private TemplateLexicalTerm(String template, LexicalTerm[] arguments) {
+            this.arguments = arguments;
+            this.encodedValues = new String[arguments.length];
+            this.fragments = new String[arguments.length + 1];
+            int beginIndex = 0;
+            for (int i = 0; i < arguments.length; i++) {
+                int endIndex = template.indexOf(PLACE_HOLDER, beginIndex);
+                fragments[i] = template.substring(beginIndex, endIndex);
+                beginIndex = endIndex + PLACE_HOLDER.length();
+            }
+            fragments[arguments.length] = template.substring(beginIndex);
+        }
+
+        @Nullable
+        @Override
+        public String evaluate(String[] row) {
+            // Encoded before writing to the shared buffer (the arguments may also be templates)
+            for (int i = 0; i < arguments.length; i++) {
+                String value = arguments[i].evaluate(row);
+                if (value == null)
+                    return null;
+                encodedValues[i] = iriSafeEncoder.encode(value);
+            }
+            buffer.setLength(0);
+            for (int i = 0; i < arguments.length; i++) {
+                buffer.append(fragments[i]).append(encodedValues[i]);
+            }
+            return buffer.append(fragments[arguments.length]).toString();
+        }
+    }
+}
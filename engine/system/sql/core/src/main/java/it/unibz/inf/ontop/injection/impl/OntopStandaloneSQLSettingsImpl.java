@@ -31,6 +31,31 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return getRequiredBoolean(DISTINCT_RESULTSET);
     }
 
+    @Override
+    public int getQueryCacheMaxWeight() {
+        return systemSettings.getQueryCacheMaxWeight();
+    }
+
+    @Override
+    public int getQueryCacheExpirationTime() {
+        return systemSettings.getQueryCacheExpirationTime();
+    }
+
+    @Override
+    public int getMaxPropertyPathLength() {
+        return systemSettings.getMaxPropertyPathLength();
+    }
+
+    @Override
+    public boolean isPropertyPathRecursionEnabled() {
+        return systemSettings.isPropertyPathRecursionEnabled();
+    }
+
+    @Override
+    public int getPropertyPathUnrollingLength() {
+        return systemSettings.getPropertyPathUnrollingLength();
+    }
+
     @Override
     public boolean isKeepAliveEnabled() {
         return systemSettings.isKeepAliveEnabled();
@@ -60,4 +85,19 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
     public boolean isPermanentDBConnectionEnabled() {
         return systemSettings.isPermanentDBConnectionEnabled();
     }
+
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return systemSettings.getQueryExecutorMaxThreads();
+    }
+
+    @Override
+    public int getQueryExecutorQueueCapacity() {
+        return systemSettings.getQueryExecutorQueueCapacity();
+    }
+
+    @Override
+    public int getStatementCountCacheTTL() {
+        return systemSettings.getStatementCountCacheTTL();
+    }
 }
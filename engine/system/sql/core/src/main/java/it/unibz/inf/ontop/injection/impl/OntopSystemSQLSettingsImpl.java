@@ -66,6 +66,21 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return systemSettings.isPermanentDBConnectionEnabled();
     }
 
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return systemSettings.getQueryExecutorMaxThreads();
+    }
+
+    @Override
+    public int getQueryExecutorQueueCapacity() {
+        return systemSettings.getQueryExecutorQueueCapacity();
+    }
+
+    @Override
+    public int getStatementCountCacheTTL() {
+        return systemSettings.getStatementCountCacheTTL();
+    }
+
     @Override
     public String getJdbcUser() {
         return sqlCredentialSettings.getJdbcUser();
@@ -0,0 +1,105 @@
+package it.unibz.inf.ontop.answering.connection.pool;
+
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ConnectionWaitHistogramTest {
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    @Test
+    public void testBuckets() {
+        ConnectionWaitHistogram histogram = new ConnectionWaitHistogram();
+        histogram.record(millis(0), true);
+        histogram.record(millis(1), true);
+        histogram.record(millis(3), true);
+        histogram.record(millis(700), true);
+        histogram.record(millis(60000), false);
+
+        long[] bounds = histogram.getBucketUpperBounds();
+        long[] counts = histogram.getBucketCounts();
+        assertEquals(bounds.length, counts.length);
+        assertEquals(2, counts[0]);
+        assertEquals(1, counts[2]);
+        assertEquals(1, counts[9]);
+        assertEquals(1, counts[counts.length - 1]);
+
+        assertEquals(5, histogram.getCount());
+        assertEquals(1, histogram.getFailureCount());
+        assertEquals(60000, histogram.getMaxWaitTime());
+        assertEquals(60704, histogram.getTotalWaitTime());
+
+        assertEquals(1, histogram.getPercentileUpperBound(40));
+        assertEquals(5, histogram.getPercentileUpperBound(60));
+        assertEquals(1000, histogram.getPercentileUpperBound(80));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileUpperBound(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxWaitTime());
+        assertEquals(0, histogram.getPercentileUpperBound(50));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        ConnectionWaitHistogram histogram = new ConnectionWaitHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch latch = new CountDownLatch(8);
+            for (int i = 0; i < 8; i++)
+                executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++)
+                        histogram.record(millis(j % 20), true);
+                    latch.countDown();
+                });
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        assertEquals(8000, histogram.getCount());
+        assertEquals(19, histogram.getMaxWaitTime());
+    }
+
+    @Test
+    public void testAsyncFailure() throws Exception {
+        JDBCConnectionPool pool = new JDBCConnectionPool() {
+            private final ConnectionWaitHistogram histogram = new ConnectionWaitHistogram();
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public Connection getConnection() throws SQLException {
+                histogram.record(0, false);
+                throw new SQLException("Connection is not available");
+            }
+
+            @Override
+            public ConnectionWaitHistogram getWaitHistogram() {
+                return histogram;
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            pool.getConnectionAsync(executor).get(10, TimeUnit.SECONDS);
+            fail();
+        }
+        catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, pool.getWaitHistogram().getFailureCount());
+    }
+}
@@ -0,0 +1,193 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Multiset;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopStandaloneSQLConfiguration;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * The rows are only fetched when iterating, and a binding is only evaluated when it is requested
+ */
+public class SQLOntopBindingSetTest {
+
+    private static final String PREFIX = "http://example.org/";
+    private static final String URL = "jdbc:h2:mem:bindingset";
+
+    private final TermFactory termFactory;
+    private final SubstitutionFactory substitutionFactory;
+    private final IntermediateQueryFactory iqFactory;
+
+    private final Variable id, name, age, s, l;
+    private final ImmutableMap<Variable, DBTermType> sqlTypeMap;
+    private final ImmutableSubstitution<ImmutableTerm> substitution;
+
+    private Connection conn;
+
+    public SQLOntopBindingSetTest() {
+        Injector injector = OntopStandaloneSQLConfiguration.defaultBuilder()
+                .jdbcUrl(URL)
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .jdbcDriver("org.h2.Driver")
+                .build()
+                .getInjector();
+        termFactory = injector.getInstance(TermFactory.class);
+        substitutionFactory = injector.getInstance(SubstitutionFactory.class);
+        iqFactory = injector.getInstance(IntermediateQueryFactory.class);
+
+        id = termFactory.getVariable("id");
+        name = termFactory.getVariable("name");
+        age = termFactory.getVariable("age");
+        s = termFactory.getVariable("s");
+        l = termFactory.getVariable("l");
+
+        DBTypeFactory dbTypeFactory = injector.getInstance(TypeFactory.class).getDBTypeFactory();
+        sqlTypeMap = ImmutableMap.of(id, dbTypeFactory.getDBLargeIntegerType(), name, dbTypeFactory.getDBStringType(),
+                age, dbTypeFactory.getDBLargeIntegerType());
+        substitution = substitutionFactory.<ImmutableTerm>getSubstitution(
+                s, termFactory.getIRIFunctionalTerm(PREFIX + "person/{}", ImmutableList.of(id)),
+                l, termFactory.getRDFLiteralFunctionalTerm(name, "en"));
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        conn = DriverManager.getConnection(URL, "sa", "");
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE person (id INT PRIMARY KEY, name VARCHAR(100), age INT)");
+            st.executeUpdate("INSERT INTO person VALUES (1, 'Alice', 30), (2, 'Bob', 40), (3, 'Carol', 50)");
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DROP TABLE person");
+        }
+        conn.close();
+    }
+
+    @Test
+    public void testNoFetchBeforeIteration() throws Exception {
+        Multiset<String> calls = HashMultiset.create();
+        try (Statement st = conn.createStatement()) {
+            JDBCTupleResultSet resultSet = createResultSet(countCalls(
+                    st.executeQuery("SELECT age, id, name FROM person ORDER BY id"), calls));
+            assertEquals(0, calls.count("next"));
+            assertEquals(0, calls.count("getString"));
+
+            assertTrue(resultSet.hasNext());
+            assertEquals(1, calls.count("next"));
+            assertEquals(0, calls.count("getString"));
+
+            OntopBindingSet bindingSet = resultSet.next();
+            assertEquals(1, calls.count("next"));
+            // One row
+            assertEquals(3, calls.count("getString"));
+            assertEquals("Alice", bindingSet.getConstant("l").getValue());
+
+            resultSet.close();
+        }
+    }
+
+    @Test
+    public void testLazyBindings() {
+        CountingDecoder decoder = new CountingDecoder();
+        // In the order of the SQL signature (age, id, name)
+        SQLOntopBindingSet bindingSet = new SQLOntopBindingSet(new String[] { "30", "1", "Alice" }, decoder);
+        assertEquals(0, decoder.decodeCount);
+
+        assertEquals(PREFIX + "person/1", bindingSet.getConstant("s").getValue());
+        assertEquals(1, decoder.decodeCount);
+        // Memoized
+        assertEquals(PREFIX + "person/1", bindingSet.getConstant("s").getValue());
+        assertEquals(1, decoder.decodeCount);
+
+        int bindingCount = 0;
+        for (OntopBinding binding : bindingSet)
+            bindingCount++;
+        assertEquals(2, bindingCount);
+        assertEquals(2, decoder.decodeCount);
+    }
+
+    @Test
+    public void testEarlyCloseReleasesStatement() throws Exception {
+        PreparedStatement st = conn.prepareStatement("SELECT age, id, name FROM person ORDER BY id");
+        // As for the prepared queries of SQLQuestStatement
+        st.closeOnCompletion();
+        JDBCTupleResultSet resultSet = createResultSet(st.executeQuery());
+
+        assertTrue(resultSet.hasNext());
+        resultSet.next();
+        assertTrue(resultSet.hasNext());
+        assertFalse(st.isClosed());
+
+        // Two rows left
+        resultSet.close();
+        assertTrue(st.isClosed());
+    }
+
+    private JDBCTupleResultSet createResultSet(ResultSet rs) {
+        ConstructionNode constructionNode = iqFactory.createConstructionNode(ImmutableSet.of(s, l), substitution);
+        return new JDBCTupleResultSet(rs, ImmutableSortedSet.of(id, name, age), sqlTypeMap, constructionNode,
+                ImmutableList.of(s, l), termFactory, substitutionFactory);
+    }
+
+    /**
+     * Counts the calls per method name
+     */
+    private static ResultSet countCalls(ResultSet rs, Multiset<String> calls) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> {
+                    calls.add(method.getName());
+                    try {
+                        return method.invoke(rs, args);
+                    }
+                    catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private class CountingDecoder extends SQLRowDecoder {
+        private int decodeCount = 0;
+
+        CountingDecoder() {
+            super(ImmutableList.of(s, l), ImmutableSortedSet.of(id, name, age), sqlTypeMap, substitution,
+                    termFactory, substitutionFactory);
+        }
+
+        @Override
+        OntopBinding decode(int index, String[] row, Supplier<ImmutableSubstitution<Constant>> sqlVar2ConstantSupplier) {
+            decodeCount++;
+            return super.decode(index, row, sqlVar2ConstantSupplier);
+        }
+    }
+}
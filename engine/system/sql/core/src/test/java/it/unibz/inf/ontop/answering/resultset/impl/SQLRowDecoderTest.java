@@ -0,0 +1,205 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.injection.OntopStandaloneSQLConfiguration;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.apache.commons.rdf.api.RDF;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * The compiled decoding must give the same bindings as the symbolic evaluation of the terms
+ */
+public class SQLRowDecoderTest {
+
+    private static final String PREFIX = "http://example.org/";
+
+    private final TermFactory termFactory;
+    private final TypeFactory typeFactory;
+    private final SubstitutionFactory substitutionFactory;
+    private final RDF rdfFactory;
+
+    private final Variable id, name, age;
+    private final DBTermType dbStringType, dbIntegerType;
+
+    public SQLRowDecoderTest() {
+        Injector injector = OntopStandaloneSQLConfiguration.defaultBuilder()
+                .jdbcUrl("jdbc:h2:mem:rowdecoder")
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .jdbcDriver("org.h2.Driver")
+                .build()
+                .getInjector();
+        termFactory = injector.getInstance(TermFactory.class);
+        typeFactory = injector.getInstance(TypeFactory.class);
+        substitutionFactory = injector.getInstance(SubstitutionFactory.class);
+        rdfFactory = injector.getInstance(RDF.class);
+
+        id = termFactory.getVariable("id");
+        name = termFactory.getVariable("name");
+        age = termFactory.getVariable("age");
+
+        DBTypeFactory dbTypeFactory = typeFactory.getDBTypeFactory();
+        dbStringType = dbTypeFactory.getDBStringType();
+        dbIntegerType = dbTypeFactory.getDBLargeIntegerType();
+    }
+
+    @Test
+    public void testRDFConstant() {
+        checkCompiled(termFactory.getConstantIRI(rdfFactory.createIRI(PREFIX + "Person")),
+                row("1", "Roger", "42"));
+        checkCompiled(termFactory.getRDFLiteralConstant("Roger", "en"),
+                row(null, null, null));
+    }
+
+    @Test
+    public void testIRITemplate() {
+        ImmutableFunctionalTerm term = termFactory.getIRIFunctionalTerm(PREFIX + "person/{}/{}",
+                ImmutableList.of(id, name));
+        checkCompiled(term, row("1", "Roger", "42"));
+        // Characters to encode
+        checkCompiled(term, row("1", "Roger Federer/é?#", "42"));
+        checkFallback(term, row("1", null, "42"));
+    }
+
+    @Test
+    public void testIRIColumn() {
+        ImmutableFunctionalTerm term = termFactory.getIRIFunctionalTerm(name, false);
+        checkCompiled(term, row("1", PREFIX + "roger", "42"));
+        checkFallback(term, row("1", null, "42"));
+    }
+
+    @Test
+    public void testBnodeTemplate() {
+        ImmutableFunctionalTerm term = termFactory.getBnodeFunctionalTerm("person{}", ImmutableList.of(id));
+        checkCompiled(term, row("7", "Roger", "42"));
+        checkFallback(term, row(null, "Roger", "42"));
+    }
+
+    @Test
+    public void testTypedLiteral() {
+        ImmutableFunctionalTerm term = termFactory.getRDFLiteralFunctionalTerm(age,
+                typeFactory.getXsdIntegerDatatype());
+        checkCompiled(term, row("1", "Roger", "42"));
+        checkFallback(term, row("1", "Roger", null));
+    }
+
+    @Test
+    public void testStringLiteral() {
+        ImmutableFunctionalTerm term = termFactory.getRDFLiteralFunctionalTerm(name,
+                typeFactory.getXsdStringDatatype());
+        checkCompiled(term, row("1", "Roger", "42"));
+        checkCompiled(term, row("1", "", "42"));
+        checkFallback(term, row("1", null, "42"));
+    }
+
+    @Test
+    public void testLangLiteral() {
+        ImmutableFunctionalTerm term = termFactory.getRDFLiteralFunctionalTerm(name, "en");
+        checkCompiled(term, row("1", "Roger", "42"));
+        checkFallback(term, row("1", null, "42"));
+    }
+
+    @Test
+    public void testCastToString() {
+        ImmutableFunctionalTerm term = termFactory.getRDFLiteralFunctionalTerm(
+                termFactory.getDBCastFunctionalTerm(dbIntegerType, dbStringType, age),
+                typeFactory.getXsdStringDatatype());
+        checkSameBinding(term, row("1", "Roger", "42"));
+        checkSameBinding(term, row("1", "Roger", null));
+    }
+
+    @Test
+    public void testIRITemplateWithDBConstant() {
+        ImmutableFunctionalTerm term = termFactory.getIRIFunctionalTerm(PREFIX + "{}/{}",
+                ImmutableList.of(termFactory.getDBStringConstant("person"), id));
+        checkCompiled(term, row("1", "Roger", "42"));
+    }
+
+    @Test
+    public void testSeveralVariables() {
+        ImmutableFunctionalTerm iri = termFactory.getIRIFunctionalTerm(PREFIX + "person/{}", ImmutableList.of(id));
+        ImmutableFunctionalTerm literal = termFactory.getRDFLiteralFunctionalTerm(name, "en");
+        Variable s = termFactory.getVariable("s"), l = termFactory.getVariable("l");
+
+        SQLRowDecoder decoder = createDecoder(ImmutableList.of(s, l),
+                substitutionFactory.<ImmutableTerm>getSubstitution(s, iri, l, literal));
+        String[] row = row("1", null, "42");
+        Supplier<ImmutableSubstitution<Constant>> supplier = () -> decoder.convertRow(row);
+
+        assertEquals(PREFIX + "person/1", decoder.decode(decoder.getIndex("s"), row, supplier).getValue().getValue());
+        assertNull(decoder.decode(decoder.getIndex("l"), row, supplier));
+        assertEquals(-1, decoder.getIndex("x"));
+    }
+
+    /**
+     * In the order of the SQL signature (age, id, name)
+     */
+    private static String[] row(String id, String name, String age) {
+        return new String[] { age, id, name };
+    }
+
+    private SQLRowDecoder createDecoder(ImmutableList<Variable> signature,
+                                        ImmutableSubstitution<ImmutableTerm> substitution) {
+        return new SQLRowDecoder(signature, ImmutableSortedSet.of(id, name, age),
+                ImmutableMap.of(id, dbIntegerType, name, dbStringType, age, dbIntegerType),
+                substitution, termFactory, substitutionFactory);
+    }
+
+    /**
+     * The term must be evaluated without building the substitution of the row
+     */
+    private void checkCompiled(ImmutableTerm term, String[] row) {
+        SQLRowDecoder decoder = createDecoder(term);
+        Optional<RDFConstant> binding = checkSameBinding(decoder, term, row, () -> {
+            throw new IllegalStateException("The term " + term + " should have been compiled");
+        });
+        assertTrue(binding.isPresent());
+    }
+
+    /**
+     * The term cannot be compiled for this row (e.g. NULL column)
+     */
+    private void checkFallback(ImmutableTerm term, String[] row) {
+        Optional<RDFConstant> binding = checkSameBinding(term, row);
+        assertFalse(binding.isPresent());
+    }
+
+    private Optional<RDFConstant> checkSameBinding(ImmutableTerm term, String[] row) {
+        SQLRowDecoder decoder = createDecoder(term);
+        return checkSameBinding(decoder, term, row, () -> decoder.convertRow(row));
+    }
+
+    /**
+     * Single projected variable
+     */
+    private SQLRowDecoder createDecoder(ImmutableTerm term) {
+        Variable v = termFactory.getVariable("v");
+        return createDecoder(ImmutableList.of(v), substitutionFactory.getSubstitution(v, term));
+    }
+
+    private Optional<RDFConstant> checkSameBinding(SQLRowDecoder decoder, ImmutableTerm term, String[] row,
+                                                   Supplier<ImmutableSubstitution<Constant>> supplier) {
+        Optional<RDFConstant> expected = SQLOntopBindingSet.evaluate(decoder.convertRow(row).apply(term));
+
+        OntopBinding binding = decoder.decode(0, row, supplier);
+        Optional<RDFConstant> value = Optional.ofNullable(binding).map(OntopBinding::getValue);
+        assertEquals(expected, value);
+        // Same lexical value, datatype and language tag
+        value.ifPresent(c -> assertEquals(expected.get().toString(), c.toString()));
+        return value;
+    }
+}
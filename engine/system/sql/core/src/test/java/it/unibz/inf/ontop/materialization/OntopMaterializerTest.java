@@ -62,6 +62,8 @@ import java.sql.Statement;
 import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 
 public class OntopMaterializerTest {
 
@@ -144,6 +146,17 @@ public class OntopMaterializerTest {
 
 	@Test
 	public void testOneSource() throws Exception {
+		testOneSource(MaterializationParams.defaultBuilder().build());
+	}
+
+	@Test
+	public void testOneSourceInParallel() throws Exception {
+		testOneSource(MaterializationParams.defaultBuilder()
+				.degreeOfParallelism(3)
+				.build());
+	}
+
+	private void testOneSource(MaterializationParams params) throws Exception {
 
     	SQLPPMapping ppMapping = createMapping();
 
@@ -153,26 +166,12 @@ public class OntopMaterializerTest {
 		// source.setParameter(RDBMSourceParameterConstants.IS_IN_MEMORY, "true");
 		// source.setParameter(RDBMSourceParameterConstants.USE_DATASOURCE_FOR_ABOXDUMP, "true");
 
-		Connection conn = DriverManager.getConnection(url, username, password);
-		Statement st = conn.createStatement();
-
-		FileReader reader = new FileReader("src/test/resources/mapping-test-db.sql");
-		BufferedReader in = new BufferedReader(reader);
-		StringBuilder bf = new StringBuilder();
-		String line = in.readLine();
-		while (line != null) {
-			bf.append(line);
-			line = in.readLine();
-		}
-		in.close();
-
-		st.executeUpdate(bf.toString());
-		conn.commit();
+		Connection conn = createDatabase();
 
 		ImmutableSet<IRI> vocabulary = Stream.of(fnIRI, lnIRI, ageIRI, hasschoolIRI, schoolIRI)
 				.collect(ImmutableCollectors.toSet());
 
-		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration);
+		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration, params);
 
 		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(vocabulary)) {
 
@@ -197,6 +196,86 @@ public class OntopMaterializerTest {
 
 
 
+	@Test
+	public void testChunks() throws Exception {
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration()
+				.ppMapping(createMapping())
+				.build();
+
+		Connection conn = createDatabase();
+
+		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration);
+
+		int tripleCount = 0;
+		for (IRI classOrProperty : ImmutableList.of(fnIRI, lnIRI, ageIRI, hasschoolIRI, schoolIRI)) {
+			ImmutableList<MaterializationChunk> chunks = materializer.getChunks(classOrProperty);
+			assertFalse(chunks.isEmpty());
+			for (MaterializationChunk chunk : chunks) {
+				assertEquals(classOrProperty, chunk.getClassOrProperty());
+				assertEquals(chunks.size(), chunk.getChunkCount());
+				try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(chunk)) {
+					while (materializationResultSet.hasNext()) {
+						materializationResultSet.next();
+						tripleCount++;
+					}
+				}
+			}
+		}
+		assertEquals(15, tripleCount);
+
+		conn.close();
+	}
+
+	@Test
+	public void testChunkFingerprints() throws Exception {
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration()
+				.ppMapping(createMapping())
+				.build();
+
+		Connection conn = createDatabase();
+
+		OntopRDFMaterializer materializer1 = OntopRDFMaterializer.defaultMaterializer(configuration,
+				MaterializationParams.defaultBuilder().specificationFingerprint("v1").build());
+		OntopRDFMaterializer materializer2 = OntopRDFMaterializer.defaultMaterializer(configuration,
+				MaterializationParams.defaultBuilder().specificationFingerprint("v1").build());
+		OntopRDFMaterializer materializer3 = OntopRDFMaterializer.defaultMaterializer(configuration,
+				MaterializationParams.defaultBuilder().specificationFingerprint("v2").build());
+
+		// Reproducible across runs, but not across specifications
+		assertEquals(getFingerprints(materializer1, fnIRI), getFingerprints(materializer2, fnIRI));
+		assertNotEquals(getFingerprints(materializer1, fnIRI), getFingerprints(materializer3, fnIRI));
+		assertNotEquals(getFingerprints(materializer1, fnIRI), getFingerprints(materializer1, lnIRI));
+
+		conn.close();
+	}
+
+	private static ImmutableList<String> getFingerprints(OntopRDFMaterializer materializer, IRI classOrProperty)
+			throws Exception {
+		return materializer.getChunks(classOrProperty).stream()
+				.map(MaterializationChunk::getFingerprint)
+				.collect(ImmutableCollectors.toList());
+	}
+
+	private static Connection createDatabase() throws Exception {
+		Connection conn = DriverManager.getConnection(url, username, password);
+		Statement st = conn.createStatement();
+
+		FileReader reader = new FileReader("src/test/resources/mapping-test-db.sql");
+		BufferedReader in = new BufferedReader(reader);
+		StringBuilder bf = new StringBuilder();
+		String line = in.readLine();
+		while (line != null) {
+			bf.append(line);
+			line = in.readLine();
+		}
+		in.close();
+
+		st.executeUpdate("DROP TABLE IF EXISTS \"data\"");
+		st.executeUpdate(bf.toString());
+		conn.commit();
+		return conn;
+	}
+
 	private SQLPPMapping createMapping() throws DuplicateMappingException {
 
     	// TODO: we should not have to create an high-level configuration just for constructing these objects...
@@ -42,6 +42,12 @@ public interface OntopMappingSettings extends OntopOBDASettings, OntopOptimizati
      */
     boolean isCanIRIComplete();
 
+    /**
+     * Number of threads used for saturating the mapping (T-mappings) of independent classes and properties.
+     * 0: default fork-join pool (one thread per core). 1: sequential.
+     */
+    int getTMappingParallelism();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -52,6 +58,7 @@ public interface OntopMappingSettings extends OntopOBDASettings, OntopOptimizati
     String INFER_DEFAULT_DATATYPE = "ontop.inferDefaultDatatype";
     String TOLERATE_ABSTRACT_DATATYPE = "ontop.tolerateAbstractDatatype";
     String IS_CANONICAL_IRI_COMPLETE = "ontop.isCanonicalIRIComplete";
+    String TMAPPING_PARALLELISM = "ontop.tmappingParallelism";
 
 
     /**
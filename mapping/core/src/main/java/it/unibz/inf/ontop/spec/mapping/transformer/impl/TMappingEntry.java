@@ -1,11 +1,14 @@
 package it.unibz.inf.ontop.spec.mapping.transformer.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import it.unibz.inf.ontop.constraints.ImmutableHomomorphism;
 import it.unibz.inf.ontop.constraints.ImmutableHomomorphismIterator;
 import it.unibz.inf.ontop.constraints.impl.ImmutableCQContainmentCheckUnderLIDs;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
 import it.unibz.inf.ontop.iq.tools.UnionBasedQueryMerger;
 import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
 import it.unibz.inf.ontop.model.atom.RelationPredicate;
@@ -13,10 +16,7 @@ import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.spec.mapping.utils.MappingTools;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
 
@@ -65,9 +65,25 @@ public class TMappingEntry {
     }
 
     private static final class BuilderWithCQC {
-        private final List<TMappingRule> rules = new ArrayList<>();
-        private final ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc;
+        /**
+         * Rules in insertion order
+         */
+        private final Map<TMappingRule, IndexedRule> rules = new LinkedHashMap<>();
+        /**
+         * Rules by the relations of their database atoms
+         */
+        private final Map<RelationPredicate, Set<IndexedRule>> rulesByRelation = new HashMap<>();
+        /**
+         * Rules by the relations of the chase of their database atoms
+         */
+        private final Map<RelationPredicate, Set<IndexedRule>> rulesByChasedRelation = new HashMap<>();
+        /**
+         * Rules without database atoms (comparable with any rule)
+         */
+        private final Set<IndexedRule> rulesWithoutRelation = new HashSet<>();
+        private long nextRank = 0;
 
+        private final ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc;
         private final TermFactory termFactory;
 
         BuilderWithCQC(ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc, TermFactory termFactory) {
@@ -87,7 +103,7 @@ public class TMappingEntry {
         }
 
         public TMappingEntry build() {
-            return new TMappingEntry(ImmutableList.copyOf(rules), termFactory);
+            return new TMappingEntry(ImmutableList.copyOf(rules.keySet()), termFactory);
         }
 
 
@@ -115,18 +131,20 @@ public class TMappingEntry {
 
         private void mergeMappingsWithCQC(TMappingRule assertion) {
 
-            if (rules.contains(assertion))
+            if (rules.containsKey(assertion))
                 return;
 
+            RelationSignature assertionSignature = getSignature(assertion);
+
             if (assertion.getDatabaseAtoms().isEmpty() && assertion.getConditions().isEmpty()) {
-                rules.add(assertion); // facts are just added
+                addRule(assertion, assertionSignature); // facts are just added
                 return;
             }
 
-            Iterator<TMappingRule> mappingIterator = rules.iterator();
-            while (mappingIterator.hasNext()) {
+            // Only the rules that may have a homomorphism with the assertion (in any direction)
+            for (IndexedRule candidate : getComparableRules(assertionSignature)) {
 
-                TMappingRule current = mappingIterator.next();
+                TMappingRule current = candidate.rule;
                 // to and from refer to "to assertion" and "from assertion"
 
                 boolean couldIgnore = false;
@@ -173,7 +191,7 @@ public class TMappingEntry {
 
                         // The existing query is more specific than the new query, so we
                         // need to add the new query and remove the old
-                        mappingIterator.remove();
+                        removeRule(candidate);
                         continue;
                     }
                 }
@@ -197,18 +215,70 @@ public class TMappingEntry {
                     if (current.getConditions().stream().anyMatch(f -> newf.containsAll(f)))
                         return;
 
-                    // REPLACE THE CURRENT RULE
-                    mappingIterator.remove();
-                    rules.add(new TMappingRule(current, Stream.concat(
+                    // REPLACE THE CURRENT RULE (same database atoms, hence same signature)
+                    removeRule(candidate);
+                    addRule(new TMappingRule(current, Stream.concat(
                                     current.getConditions().stream()
                                             // if each of the new conditions is found among econd then the old condition is redundant
                                             .filter(f -> !f.containsAll(newf)),
                                     Stream.of(newf))
-                                    .collect(ImmutableCollectors.toList())));
+                                    .collect(ImmutableCollectors.toList())), candidate.signature);
                     return;
                 }
             }
-            rules.add(assertion);
+            addRule(assertion, assertionSignature);
+        }
+
+        /**
+         * A rule comparable with the signature either has all its relations among the chased relations of the signature,
+         * or has the (first) relation of the signature among its chased relations.
+         *
+         * Returns the comparable rules in insertion order.
+         */
+        private List<IndexedRule> getComparableRules(RelationSignature signature) {
+            Stream<IndexedRule> candidates;
+            if (signature.relations.isEmpty())
+                candidates = rules.values().stream();
+            else {
+                Set<IndexedRule> candidateSet = new HashSet<>(rulesWithoutRelation);
+                for (RelationPredicate relation : Sets.union(signature.relations, signature.chasedRelations))
+                    candidateSet.addAll(rulesByRelation.getOrDefault(relation, ImmutableSet.of()));
+                candidateSet.addAll(rulesByChasedRelation.getOrDefault(signature.relations.iterator().next(),
+                        ImmutableSet.of()));
+                candidates = candidateSet.stream();
+            }
+            return candidates
+                    .filter(r -> signature.isComparableWith(r.signature))
+                    .sorted(Comparator.comparingLong(r -> r.rank))
+                    .collect(ImmutableCollectors.toList());
+        }
+
+        private void addRule(TMappingRule rule, RelationSignature signature) {
+            if (rules.containsKey(rule))
+                return;
+            IndexedRule indexedRule = new IndexedRule(rule, signature, nextRank++);
+            rules.put(rule, indexedRule);
+            if (signature.relations.isEmpty())
+                rulesWithoutRelation.add(indexedRule);
+            signature.relations.forEach(r -> rulesByRelation.computeIfAbsent(r, k -> new HashSet<>()).add(indexedRule));
+            signature.chasedRelations.forEach(r -> rulesByChasedRelation.computeIfAbsent(r, k -> new HashSet<>()).add(indexedRule));
+        }
+
+        private void removeRule(IndexedRule indexedRule) {
+            rules.remove(indexedRule.rule);
+            rulesWithoutRelation.remove(indexedRule);
+            indexedRule.signature.relations.forEach(r -> rulesByRelation.get(r).remove(indexedRule));
+            indexedRule.signature.chasedRelations.forEach(r -> rulesByChasedRelation.get(r).remove(indexedRule));
+        }
+
+        private RelationSignature getSignature(TMappingRule rule) {
+            ImmutableList<ExtensionalDataNode> atoms = rule.getDatabaseAtoms();
+            return new RelationSignature(
+                    atoms.stream()
+                            .map(n -> n.getProjectionAtom().getPredicate())
+                            .collect(ImmutableCollectors.toSet()),
+                    // cached by the CQC
+                    cqc.getChasedPredicates(IQ2CQ.toDataAtoms(atoms)));
         }
 
         private Optional<ImmutableHomomorphism> fixHeadTermMapping(ImmutableList<ImmutableTerm> fromHead, ImmutableList<ImmutableTerm> toHead) {
@@ -219,4 +289,42 @@ public class TMappingEntry {
             return Optional.of(builder.build());
         }
     }
+
+    /**
+     * Rule of a builder, with its signature and its insertion rank.
+     *
+     * Identity-based equality: the same rule may be removed and added again.
+     */
+    private static final class IndexedRule {
+        private final TMappingRule rule;
+        private final RelationSignature signature;
+        private final long rank;
+
+        private IndexedRule(TMappingRule rule, RelationSignature signature, long rank) {
+            this.rule = rule;
+            this.signature = signature;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * Relations of the database atoms of a rule, and relations of their chase (under the LIDs)
+     */
+    private static final class RelationSignature {
+        private final ImmutableSet<RelationPredicate> relations;
+        private final ImmutableSet<RelationPredicate> chasedRelations;
+
+        private RelationSignature(ImmutableSet<RelationPredicate> relations,
+                                  ImmutableSet<RelationPredicate> chasedRelations) {
+            this.relations = relations;
+            this.chasedRelations = chasedRelations;
+        }
+
+        /**
+         * Necessary condition for the existence of a homomorphism between the two rules (in one direction or the other)
+         */
+        private boolean isComparableWith(RelationSignature other) {
+            return chasedRelations.containsAll(other.relations) || other.chasedRelations.containsAll(relations);
+        }
+    }
 }
@@ -25,6 +25,7 @@ import com.google.inject.Inject;
 import it.unibz.inf.ontop.constraints.impl.ImmutableCQContainmentCheckUnderLIDs;
 import it.unibz.inf.ontop.datalog.*;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
 import it.unibz.inf.ontop.injection.SpecificationFactory;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.tools.UnionBasedQueryMerger;
@@ -44,8 +45,11 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.IRI;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 public class TMappingProcessor {
@@ -62,6 +66,7 @@ public class TMappingProcessor {
     private final IntermediateQueryFactory iqFactory;
     private final UnionBasedQueryMerger queryMerger;
     private final SubstitutionFactory substitutionFactory;
+    private final int parallelism;
 
     @Inject
 	private TMappingProcessor(AtomFactory atomFactory, TermFactory termFactory,
@@ -69,7 +74,8 @@ public class TMappingProcessor {
                               UnionFlattener unionNormalizer, MappingCQCOptimizer mappingCqcOptimizer,
                               NoNullValueEnforcer noNullValueEnforcer,
                               SpecificationFactory specificationFactory, IntermediateQueryFactory iqFactory,
-                              UnionBasedQueryMerger queryMerger, SubstitutionFactory substitutionFactory) {
+                              UnionBasedQueryMerger queryMerger, SubstitutionFactory substitutionFactory,
+                              OntopMappingSettings settings) {
 		this.atomFactory = atomFactory;
 		this.termFactory = termFactory;
         this.unionSplitter = unionSplitter;
@@ -80,6 +86,7 @@ public class TMappingProcessor {
         this.iqFactory = iqFactory;
         this.queryMerger = queryMerger;
         this.substitutionFactory = substitutionFactory;
+        this.parallelism = settings.getTMappingParallelism();
     }
 
 
@@ -104,7 +111,8 @@ public class TMappingProcessor {
                 .map(q -> new TMappingRule(q, termFactory, atomFactory))
                 .collect(ImmutableCollectors.toMultimap(q -> q.getPredicateInfo(), q -> q));
 
-        ImmutableMap<MappingTools.RDFPredicateInfo, TMappingEntry> saturated = Stream.concat(Stream.concat(
+        // the saturation of independent predicates is distributed over a fork-join pool
+        ImmutableMap<MappingTools.RDFPredicateInfo, TMappingEntry> saturated = computeInPool(() -> Stream.concat(Stream.concat(
                 saturate(reasoner.objectPropertiesDAG(),
                         p -> !p.isInverse() && !excludeFromTMappings.contains(p), source,
                         this::indexOf, p -> getNewHeadP(p.isInverse()), cqContainmentCheck, p -> !p.isInverse()),
@@ -117,7 +125,7 @@ public class TMappingProcessor {
                         s -> (s instanceof OClass) && !excludeFromTMappings.contains((OClass)s), source,
                         this::indexOf, this::getNewHeadC, cqContainmentCheck, c -> c instanceof OClass))
 
-                .collect(ImmutableCollectors.toMap());
+                .collect(ImmutableCollectors.toMap()));
 
         ImmutableList<TMappingEntry> entries = Stream.concat(
                 saturated.values().stream(),
@@ -140,6 +148,30 @@ public class TMappingProcessor {
                                 .collect(ImmutableCollectors.toTable()));
     }
 
+    /**
+     * Parallel streams started by the supplier run in the pool.
+     * When the parallelism is 0, the common pool is used.
+     */
+    private <R> R computeInPool(Supplier<R> supplier) {
+        if (parallelism <= 1)
+            return supplier.get();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Callable<R> task = supplier::get;
+            return pool.submit(task).join();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private <E> Stream<E> possiblyParallel(Stream<E> stream) {
+        return parallelism == 1
+                ? stream
+                : stream.collect(ImmutableCollectors.toList()).parallelStream();
+    }
+
     private Table.Cell<RDFAtomPredicate, IRI, IQ> toCell(TMappingEntry e) {
 	    return Tables.immutableCell(
 	            e.getRDFAtomPredicate(),
@@ -159,7 +191,8 @@ public class TMappingProcessor {
 	    java.util.function.BiFunction<T, T, java.util.function.Function<TMappingRule, TMappingRule>> headReplacer =
                 (s, d) -> (m -> new TMappingRule(getNewHeadGen.apply(s).apply(m.getHeadTerms()), indexOf.apply(d), m, substitutionFactory));
 
-	    ImmutableMap<MappingTools.RDFPredicateInfo, TMappingEntry> representatives = dag.stream()
+	    // the entries of the representatives are independent from each other
+	    ImmutableMap<MappingTools.RDFPredicateInfo, TMappingEntry> representatives = possiblyParallel(dag.stream())
                 .filter(s -> representativeFilter.test(s.getRepresentative()))
                 .collect(ImmutableCollectors.toMap(
                         s -> indexOf.apply(s.getRepresentative()),
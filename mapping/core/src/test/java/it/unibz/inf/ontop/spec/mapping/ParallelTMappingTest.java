@@ -0,0 +1,133 @@
+package it.unibz.inf.ontop.spec.mapping;
+
+import com.google.common.collect.*;
+import it.unibz.inf.ontop.constraints.LinearInclusionDependencies;
+import it.unibz.inf.ontop.constraints.impl.ImmutableCQContainmentCheckUnderLIDs;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.injection.OntopMappingConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.atom.*;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
+import it.unibz.inf.ontop.spec.mapping.transformer.impl.TMappingProcessor;
+import it.unibz.inf.ontop.spec.ontology.ClassifiedTBox;
+import it.unibz.inf.ontop.spec.ontology.InconsistentOntologyException;
+import it.unibz.inf.ontop.spec.ontology.OClass;
+import it.unibz.inf.ontop.spec.ontology.OntologyBuilder;
+import it.unibz.inf.ontop.spec.ontology.impl.OntologyBuilderImpl;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.IRI;
+import org.junit.Test;
+
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+import static it.unibz.inf.ontop.utils.MappingTestingTools.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The parallel saturation must produce the same T-mappings as the sequential one
+ */
+public class ParallelTMappingTest {
+
+    private static final int HIERARCHY_DEPTH = 6;
+    private static final int HIERARCHY_WIDTH = 8;
+
+    private final static RelationPredicate company;
+    private final static RelationPredicate employee;
+
+    private static final Variable A = TERM_FACTORY.getVariable("a");
+    private static final Variable B = TERM_FACTORY.getVariable("b");
+
+    private static final Variable S = TERM_FACTORY.getVariable("s");
+    private static final Variable P = TERM_FACTORY.getVariable("p");
+    private static final Variable O = TERM_FACTORY.getVariable("o");
+
+    static {
+        BasicDBMetadata dbMetadata = createDummyMetadata();
+        QuotedIDFactory idFactory = dbMetadata.getQuotedIDFactory();
+        DBTermType integerType = TYPE_FACTORY.getDBTypeFactory().getDBLargeIntegerType();
+
+        DatabaseRelationDefinition companyDef = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "company"));
+        companyDef.addAttribute(idFactory.createAttributeID("id"), integerType.getName(), integerType, false);
+        companyDef.addAttribute(idFactory.createAttributeID("type"), integerType.getName(), integerType, false);
+        company = companyDef.getAtomPredicate();
+
+        DatabaseRelationDefinition employeeDef = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "employee"));
+        employeeDef.addAttribute(idFactory.createAttributeID("id"), integerType.getName(), integerType, false);
+        employeeDef.addAttribute(idFactory.createAttributeID("company"), integerType.getName(), integerType, false);
+        employee = employeeDef.getAtomPredicate();
+
+        dbMetadata.freeze();
+    }
+
+    @Test
+    public void testSameResultAsSequential() throws InconsistentOntologyException {
+        OntologyBuilder builder = OntologyBuilderImpl.builder(RDF_FACTORY);
+        ImmutableList<IRI> classIRIs = IntStream.range(0, HIERARCHY_DEPTH * HIERARCHY_WIDTH)
+                .mapToObj(i -> RDF_FACTORY.createIRI("http://example.org/voc#C" + i))
+                .collect(ImmutableCollectors.toList());
+        ImmutableList<OClass> classes = classIRIs.stream()
+                .map(builder::declareClass)
+                .collect(ImmutableCollectors.toList());
+        // HIERARCHY_WIDTH independent chains of sub-classes
+        for (int i = HIERARCHY_WIDTH; i < classes.size(); i++)
+            builder.addSubClassOfAxiom(classes.get(i), classes.get(i - HIERARCHY_WIDTH));
+        ClassifiedTBox tbox = builder.build().tbox();
+
+        ImmutableMap<IRI, IQ> classMap = IntStream.range(0, classIRIs.size())
+                .boxed()
+                .collect(ImmutableCollectors.toMap(classIRIs::get,
+                        i -> createClassMappingAssertion(classIRIs.get(i), i % 2 == 0 ? company : employee)));
+
+        Mapping mapping = SPECIFICATION_FACTORY.createMapping(SPECIFICATION_FACTORY.createMetadata(
+                SPECIFICATION_FACTORY.createPrefixManager(ImmutableMap.of())),
+                ImmutableTable.of(),
+                transformIntoTable(classMap));
+
+        Mapping sequential = saturate(mapping, tbox, 1);
+        Mapping parallel = saturate(mapping, tbox, 4);
+
+        RDFAtomPredicate triplePredicate = (RDFAtomPredicate) ATOM_FACTORY.getDistinctTripleAtom(S, P, O).getPredicate();
+        assertEquals(sequential.getRDFClasses(triplePredicate), parallel.getRDFClasses(triplePredicate));
+        for (IRI classIRI : sequential.getRDFClasses(triplePredicate))
+            assertEquals(sequential.getRDFClassDefinition(triplePredicate, classIRI),
+                    parallel.getRDFClassDefinition(triplePredicate, classIRI));
+    }
+
+    private static Mapping saturate(Mapping mapping, ClassifiedTBox tbox, int parallelism) {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSettings.TMAPPING_PARALLELISM, String.valueOf(parallelism));
+        OntopMappingConfiguration configuration = OntopMappingConfiguration.defaultBuilder()
+                .properties(properties)
+                .enableTestMode()
+                .build();
+        TMappingProcessor tmap = configuration.getInjector().getInstance(TMappingProcessor.class);
+
+        LinearInclusionDependencies<AtomPredicate> lids = LinearInclusionDependencies.builder(CORE_UTILS_FACTORY, ATOM_FACTORY).build();
+        return tmap.getTMappings(mapping, tbox,
+                new TMappingExclusionConfig(ImmutableSet.of(), ImmutableSet.of()),
+                new ImmutableCQContainmentCheckUnderLIDs(lids));
+    }
+
+    private static IQ createClassMappingAssertion(IRI classIRI, RelationPredicate relation) {
+        return IQ_FACTORY.createIQ(
+                ATOM_FACTORY.getDistinctTripleAtom(S, P, O),
+                IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createConstructionNode(ImmutableSet.of(S, P, O),
+                        SUBSTITUTION_FACTORY.getSubstitution(
+                                S, TERM_FACTORY.getIRIFunctionalTerm(classIRI.getIRIString() + "/{}", ImmutableList.of(A)),
+                                P, TERM_FACTORY.getConstantIRI(RDF.TYPE),
+                                O, TERM_FACTORY.getConstantIRI(classIRI))),
+                        IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(relation, ImmutableList.of(A, B)))));
+    }
+
+    private static ImmutableTable<RDFAtomPredicate, IRI, IQ> transformIntoTable(ImmutableMap<IRI, IQ> map) {
+        return map.entrySet().stream()
+                .map(e -> Tables.immutableCell(
+                        (RDFAtomPredicate)e.getValue().getProjectionAtom().getPredicate(),
+                        e.getKey(), e.getValue()))
+                .collect(ImmutableCollectors.toTable());
+    }
+}
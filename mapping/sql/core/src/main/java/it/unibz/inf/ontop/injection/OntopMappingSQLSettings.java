@@ -1,6 +1,68 @@
 package it.unibz.inf.ontop.injection;
 
 
+import java.util.Optional;
+
 public interface OntopMappingSQLSettings extends OntopMappingSettings, OntopSQLCredentialSettings {
 
+    /**
+     * Directory where the snapshots of the specification (e.g. the extracted DB metadata) are stored.
+     *
+     * When absent, snapshots are neither read nor written.
+     *
+     * Currently, only the DB metadata is snapshotted: the classification of the ontology
+     * and the saturation of the mapping (T-mapping) are still computed at each start.
+     */
+    Optional<String> getSnapshotDirectory();
+
+    /**
+     * Version of the schema of the database, supplied by the user (e.g. the number of the last migration).
+     *
+     * When present, the DB metadata snapshots are keyed by this version and the catalog is not read
+     * for checking that they are up to date. When absent, the relations of a snapshot are fingerprinted.
+     */
+    Optional<String> getDBSchemaVersion();
+
+    /**
+     * Reads the columns and the keys of all the relations of a schema with a few catalog queries.
+     *
+     * Unique indexes that are not declared as constraints are then ignored (Oracle, PostgreSQL, MySQL).
+     */
+    boolean isBulkMetadataExtractionEnabled();
+
+    /**
+     * Number of JDBC connections used for extracting the metadata relation by relation.
+     */
+    int getMetadataExtractionParallelism();
+
+    /**
+     * Reads the metadata of a relation only when it is first referred to (e.g. by a source query),
+     * instead of extracting the relations of all the source queries up front.
+     *
+     * Ignored when the full metadata is extracted. The DB metadata snapshots are then disabled.
+     */
+    boolean isLazyMetadataExtractionEnabled();
+
+    /**
+     * Number of JDBC connections used for running the DISTINCT queries of the meta-mapping expansion.
+     */
+    int getMetaMappingExpansionParallelism();
+
+    /**
+     * Number of seconds during which the values obtained for expanding the meta-mappings are reused
+     * from the snapshot directory (if any) instead of running the DISTINCT queries again.
+     */
+    int getMetaMappingExpansionTTL();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String SNAPSHOT_DIRECTORY = "ontop.snapshotDirectory";
+    String DB_SCHEMA_VERSION = "ontop.dbSchemaVersion";
+    String BULK_METADATA_EXTRACTION = "ontop.bulkMetadataExtraction";
+    String METADATA_EXTRACTION_PARALLELISM = "ontop.metadataExtractionParallelism";
+    String LAZY_METADATA_EXTRACTION = "ontop.lazyMetadataExtraction";
+    String META_MAPPING_EXPANSION_PARALLELISM = "ontop.metaMappingExpansionParallelism";
+    String META_MAPPING_EXPANSION_TTL = "ontop.metaMappingExpansionTTL";
 }
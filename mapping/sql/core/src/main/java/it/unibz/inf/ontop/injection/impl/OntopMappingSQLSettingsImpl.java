@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.injection.impl;
 import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
 import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 
+import java.util.Optional;
 import java.util.Properties;
 
 import static it.unibz.inf.ontop.injection.impl.OntopSQLCoreSettingsImpl.loadSQLCoreProperties;
@@ -29,6 +30,41 @@ public class OntopMappingSQLSettingsImpl extends OntopMappingSettingsImpl implem
         return loadDefaultPropertiesFromFile(OntopMappingSQLSettings.class, DEFAULT_PROPERTY_FILE);
     }
 
+    @Override
+    public Optional<String> getSnapshotDirectory() {
+        return getProperty(SNAPSHOT_DIRECTORY);
+    }
+
+    @Override
+    public Optional<String> getDBSchemaVersion() {
+        return getProperty(DB_SCHEMA_VERSION);
+    }
+
+    @Override
+    public boolean isBulkMetadataExtractionEnabled() {
+        return getRequiredBoolean(BULK_METADATA_EXTRACTION);
+    }
+
+    @Override
+    public int getMetadataExtractionParallelism() {
+        return getRequiredInteger(METADATA_EXTRACTION_PARALLELISM);
+    }
+
+    @Override
+    public boolean isLazyMetadataExtractionEnabled() {
+        return getRequiredBoolean(LAZY_METADATA_EXTRACTION);
+    }
+
+    @Override
+    public int getMetaMappingExpansionParallelism() {
+        return getRequiredInteger(META_MAPPING_EXPANSION_PARALLELISM);
+    }
+
+    @Override
+    public int getMetaMappingExpansionTTL() {
+        return getRequiredInteger(META_MAPPING_EXPANSION_TTL);
+    }
+
     @Override
     public String getJdbcUrl() {
         return sqlSettings.getJdbcUrl();
@@ -9,10 +9,19 @@ import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
 import it.unibz.inf.ontop.spec.dbschema.RDBMetadataExtractor;
 import it.unibz.inf.ontop.spec.dbschema.PreProcessedImplicitRelationalDBConstraintExtractor;
 import it.unibz.inf.ontop.spec.dbschema.PreProcessedImplicitRelationalDBConstraintSet;
+import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
+import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
-import java.io.File;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Optional;
@@ -38,6 +47,13 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
      */
     private final PreProcessedImplicitRelationalDBConstraintExtractor implicitDBConstraintExtractor;
     private final TypeFactory typeFactory;
+    private final OntopMappingSQLSettings settings;
+    private final boolean bulk;
+    private final int parallelism;
+    private final boolean lazy;
+
+    private static final String SNAPSHOT_FILE = "dbmetadata.snapshot";
+    private static final Logger log = LoggerFactory.getLogger(DefaultRDBMetadataExtractor.class);
 
     @Inject
     private DefaultRDBMetadataExtractor(OntopMappingSQLSettings settings,
@@ -46,20 +62,133 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
         this.obtainFullMetadata = settings.isFullMetadataExtractionEnabled();
         this.implicitDBConstraintExtractor = implicitDBConstraintExtractor;
         this.typeFactory = typeFactory;
+        this.settings = settings;
+        this.bulk = settings.isBulkMetadataExtractionEnabled();
+        this.parallelism = settings.getMetadataExtractionParallelism();
+        this.lazy = settings.isLazyMetadataExtractionEnabled() && !obtainFullMetadata;
+    }
+
+    private Connection createConnection() throws SQLException {
+        return LocalJDBCConnectionUtils.createConnection(settings);
     }
 
     @Override
     public RDBMetadata extract(SQLPPMapping ppMapping, Connection connection, Optional<File> constraintFile)
             throws DBMetadataExtractionException {
         try {
+            // the relations are only known once the mapping has been converted
+            if (lazy) {
+                RDBMetadata metadata = RDBMetadataExtractionTools.createLazyMetadata(connection, typeFactory,
+                        this::createConnection);
+                return extract(ppMapping, connection, metadata, constraintFile);
+            }
+
+            Optional<String> snapshotDirectory = settings.getSnapshotDirectory();
+            if (!snapshotDirectory.isPresent()) {
+                RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(connection, typeFactory);
+                return extract(ppMapping, connection, metadata, constraintFile);
+            }
+
+            File snapshotFile = new File(snapshotDirectory.get(), SNAPSHOT_FILE);
+            String key = computeSnapshotKey(ppMapping, connection, constraintFile);
+
+            Optional<RDBMetadata> snapshot = readSnapshot(snapshotFile, key, connection);
+            if (snapshot.isPresent()) {
+                log.info("DB metadata loaded from the snapshot {}", snapshotFile);
+                return snapshot.get();
+            }
+
             RDBMetadata metadata = RDBMetadataExtractionTools.createMetadata(connection, typeFactory);
-            return extract(ppMapping, connection, metadata, constraintFile);
+            extract(ppMapping, connection, metadata, constraintFile);
+            String fingerprint = settings.getDBSchemaVersion().isPresent()
+                    ? null
+                    : RDBMetadataSnapshots.getSchemaFingerprint(connection, metadata);
+            writeSnapshot(metadata, snapshotFile, key, fingerprint);
+            return metadata;
         }
         catch (SQLException e) {
             throw new DBMetadataExtractionException(e.getMessage());
         }
     }
 
+    /**
+     * The key covers the inputs of the extraction: the connection, the source queries of the mapping,
+     * the constraint file, the extraction modes and the version of the schema when supplied by the user.
+     *
+     * Otherwise, the relations of the snapshot are fingerprinted when it is read (see getSchemaFingerprint()),
+     * and, for the full metadata, the key also covers the list of the relations of the database.
+     */
+    private String computeSnapshotKey(SQLPPMapping ppMapping, Connection connection, Optional<File> constraintFile)
+            throws SQLException, DBMetadataExtractionException {
+        Optional<String> schemaVersion = settings.getDBSchemaVersion();
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(settings.getJdbcUrl(), StandardCharsets.UTF_8)
+                .putString(String.valueOf(settings.getJdbcUser()), StandardCharsets.UTF_8)
+                .putBoolean(obtainFullMetadata)
+                .putBoolean(bulk)
+                .putString(schemaVersion.isPresent()
+                        ? "version " + schemaVersion.get()
+                        : obtainFullMetadata ? RDBMetadataSnapshots.getRelationListFingerprint(connection) : "",
+                        StandardCharsets.UTF_8);
+
+        for (SQLPPTriplesMap triplesMap : ppMapping.getTripleMaps())
+            hasher.putString(triplesMap.getSourceQuery().getSQLQuery(), StandardCharsets.UTF_8)
+                    .putChar('\n');
+
+        if (constraintFile.isPresent()) {
+            try {
+                hasher.putBytes(Files.readAllBytes(constraintFile.get().toPath()));
+            }
+            catch (IOException e) {
+                throw new DBMetadataExtractionException(e.getMessage());
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * A missing, outdated or unreadable snapshot is ignored
+     */
+    private Optional<RDBMetadata> readSnapshot(File snapshotFile, String key, Connection connection) throws SQLException {
+        if (!snapshotFile.exists())
+            return Optional.empty();
+
+        try (InputStream in = new FileInputStream(snapshotFile)) {
+            Optional<RDBMetadata> metadata = RDBMetadataSnapshots.read(in, key, connection, typeFactory);
+            if (!metadata.isPresent())
+                log.info("Outdated DB metadata snapshot {}", snapshotFile);
+            return metadata;
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn("Cannot read the DB metadata snapshot {}: {}", snapshotFile, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The snapshot is written to a temporary file first so that concurrent readers never see a partial snapshot.
+     * Failures are not fatal.
+     */
+    private void writeSnapshot(RDBMetadata metadata, File snapshotFile, String key, @Nullable String fingerprint) {
+        File directory = snapshotFile.getParentFile();
+        File tmpFile = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            tmpFile = File.createTempFile(SNAPSHOT_FILE, ".tmp", directory);
+            try (OutputStream out = new FileOutputStream(tmpFile)) {
+                RDBMetadataSnapshots.write(metadata, key, fingerprint, out);
+            }
+            Files.move(tmpFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            log.info("DB metadata snapshot written to {}", snapshotFile);
+        }
+        catch (IOException e) {
+            log.warn("Cannot write the DB metadata snapshot {}: {}", snapshotFile, e.getMessage());
+            if (tmpFile != null)
+                tmpFile.delete();
+        }
+    }
+
     @Override
     public RDBMetadata extract(SQLPPMapping ppMapping, @Nullable Connection connection,
                                DBMetadata partiallyDefinedMetadata, Optional<File> constraintFile)
@@ -78,9 +207,11 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
 
             // if we have to parse the full metadata or just the table list in the mappings
             if (obtainFullMetadata) {
-                RDBMetadataExtractionTools.loadMetadata(metadata, connection, null);
+                RDBMetadataExtractionTools.loadMetadata(metadata, connection, null, bulk, parallelism, this::createConnection);
             }
-            else {
+            // a LazyRDBMetadata reads the relations when the source queries are parsed
+            // (and when the implicit constraints are inserted)
+            else if (!(metadata instanceof LazyRDBMetadata)) {
                 try {
                     // This is the NEW way of obtaining part of the metadata
                     // (the schema.table names) by parsing the mappings
@@ -94,7 +225,8 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
                         realTables.addAll(referredTables);
                     });
 
-                    RDBMetadataExtractionTools.loadMetadata(metadata, connection, realTables);
+                    RDBMetadataExtractionTools.loadMetadata(metadata, connection, realTables, bulk, parallelism,
+                            this::createConnection);
                 }
                 catch (SQLException e) {
                     System.out.println("Error obtaining the metadata " + e);
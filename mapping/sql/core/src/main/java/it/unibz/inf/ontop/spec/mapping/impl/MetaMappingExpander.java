@@ -25,9 +25,11 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
+import it.unibz.inf.ontop.dbschema.MetadataConnectionPool;
 import it.unibz.inf.ontop.dbschema.QualifiedAttributeID;
 import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.dbschema.QuotedIDFactory;
+import it.unibz.inf.ontop.dbschema.RDBMetadataExtractionTools;
 import it.unibz.inf.ontop.exception.MetaMappingExpansionException;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.model.atom.TargetAtom;
@@ -63,10 +65,13 @@ import net.sf.jsqlparser.statement.select.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -102,6 +107,24 @@ public class MetaMappingExpander {
 		}
 	}
 
+	private static final class PreparedExpansion {
+		private final Expansion expansion;
+		private final boolean isClass;
+		private final ImmutableFunctionalTerm templateAtom;
+		private final List<SelectExpressionItem> templateColumns;
+		// DISTINCT query for the values of the template
+		private final String query;
+
+		PreparedExpansion(Expansion expansion, boolean isClass, ImmutableFunctionalTerm templateAtom,
+						  List<SelectExpressionItem> templateColumns, String query) {
+			this.expansion = expansion;
+			this.isClass = isClass;
+			this.templateAtom = templateAtom;
+			this.templateColumns = templateColumns;
+			this.query = query;
+		}
+	}
+
 	public MetaMappingExpander(Collection<SQLPPTriplesMap> mappings, TermFactory termFactory,
 							   SubstitutionFactory substitutionFactory, TypeFactory typeFactory,
 							   org.apache.commons.rdf.api.RDF rdfFactory) {
@@ -157,86 +180,178 @@ public class MetaMappingExpander {
 	 */
 	public ImmutableList<SQLPPTriplesMap> getExpandedMappings(Connection connection, DBMetadata metadata)
 			throws MetaMappingExpansionException {
+		return getExpandedMappings(connection, metadata, 1, null, Optional.empty());
+	}
 
-		List<String> errorMessages = new LinkedList<>();
+	/**
+	 * The DISTINCT queries for the values of the templates are run over several connections
+	 * when the parallelism is greater than 1. Their results are taken from the cache when available
+	 * (and are added to it otherwise).
+	 *
+	 * @param connectionSupplier opens the additional connections (required when the parallelism is greater than 1)
+	 */
+	public ImmutableList<SQLPPTriplesMap> getExpandedMappings(Connection connection, DBMetadata metadata, int parallelism,
+															  @Nullable RDBMetadataExtractionTools.ConnectionSupplier connectionSupplier,
+															  Optional<MetaMappingExpansionCache> cache)
+			throws MetaMappingExpansionException {
 
-		ImmutableList.Builder<SQLPPTriplesMap> builder = ImmutableList.builder();
-		builder.addAll(nonExpandableMappings);
+		List<String> errorMessages = new LinkedList<>();
 
+		// the DB metadata is only used by the calling thread
+		List<PreparedExpansion> preparedExpansions = new ArrayList<>(mappingsToBeExpanded.size());
 		for (Expansion m : mappingsToBeExpanded) {
 			try {
-				boolean isClass = isURIRDFType(m.target.getSubstitutedTerm(1), termFactory, typeFactory);
-				// if isClass, then the template is the object;
-				// otherwise, it's a property and the template is the predicate
-				ImmutableFunctionalTerm templateAtom = (ImmutableFunctionalTerm)m.target.getSubstitutedTerm(isClass ? 2 : 1);
-
-				ImmutableList<Variable> templateVariables = extractTemplateVariables(templateAtom);
-
-				List<QuotedID> templateColumnIds = getTemplateColumnNames(metadata.getQuotedIDFactory(), templateVariables);
+				preparedExpansions.add(prepare(m, metadata));
+			}
+			catch (Exception e) {
+				log.warn("Expanding meta-mappings exception: " + e.getMessage());
+				errorMessages.add(e.getMessage());
+			}
+		}
 
-				Map<QuotedID, SelectExpressionItem> queryColumns = getQueryColumns(metadata, m.source.getSQLQuery());
+		Map<String, ImmutableList<ImmutableList<String>>> templateValues = new HashMap<>();
+		Map<String, PreparedExpansion> expansionsToBeRun = new LinkedHashMap<>();
+		for (PreparedExpansion e : preparedExpansions) {
+			if (templateValues.containsKey(e.query) || expansionsToBeRun.containsKey(e.query))
+				continue;
+
+			Optional<ImmutableList<ImmutableList<String>>> cachedValues = cache.flatMap(c -> c.get(e.query));
+			if (cachedValues.isPresent())
+				templateValues.put(e.query, cachedValues.get());
+			else
+				expansionsToBeRun.put(e.query, e);
+		}
 
-				List<SelectExpressionItem> templateColumns;
+		Map<String, String> queryErrorMessages = new ConcurrentHashMap<>();
+		List<PreparedExpansion> runExpansions = new ArrayList<>(expansionsToBeRun.values());
+		try (MetadataConnectionPool pool = new MetadataConnectionPool(connection, parallelism, connectionSupplier)) {
+			List<Optional<ImmutableList<ImmutableList<String>>>> results = pool.map(runExpansions, (c, e) -> {
 				try {
-					templateColumns = templateColumnIds.stream()
-							.map(id -> queryColumns.get(id))
-							.collect(ImmutableCollectors.toList());
+					return Optional.of(getTemplateValues(c, e.query, e.templateColumns.size()));
 				}
-				catch (NullPointerException e) {
-					throw new IllegalArgumentException(templateColumnIds.stream()
-							.filter(id -> !queryColumns.containsKey(id))
-							.map(Object::toString)
-							.collect(Collectors.joining(", ",
-									"The placeholder(s) ",
-									" in the target do(es) not occur in the body of the mapping")));
+				catch (SQLException ex) {
+					queryErrorMessages.put(e.query, ex.getMessage());
+					return Optional.empty();
 				}
+			});
 
-				String query = getTemplateValuesQuery(m.source.getSQLQuery(), templateColumns);
-				final int size = templateColumns.size();
-				try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(query)) {
-					while (rs.next()) {
-						List<String> values = Lists.newArrayListWithCapacity(size);
-						for (int i = 1; i <= size; i++)
-							values.add(rs.getString(i));
-
-						// Cannot build an IRI out of nulls
-						if (values.contains(null))
-							continue;
-
-						String newSourceQuery = getInstantiatedSQL(m.source.getSQLQuery(), templateColumns, values);
-
-						IRIConstant predicateTerm = termFactory.getConstantIRI(
-								rdfFactory.createIRI(getPredicateName(templateAtom.getTerm(0), values)));
-
-						Variable predicateVariable = m.target.getProjectionAtom().getArguments().get(isClass ? 2 : 1);
-						ImmutableSubstitution<ImmutableTerm> newSubstitution = m.target.getSubstitution()
-								.composeWith(substitutionFactory.getSubstitution(predicateVariable, predicateTerm));
+			for (int i = 0; i < runExpansions.size(); i++) {
+				PreparedExpansion e = runExpansions.get(i);
+				Optional<ImmutableList<ImmutableList<String>>> values = results.get(i);
+				if (values.isPresent()) {
+					templateValues.put(e.query, values.get());
+					cache.ifPresent(c -> c.put(e.query, e.templateColumns.size(), values.get()));
+				}
+			}
+		}
+		// Problem with the additional connections
+		catch (SQLException e) {
+			throw new MetaMappingExpansionException(e.getMessage());
+		}
 
-						TargetAtom newTarget = m.target.changeSubstitution(newSubstitution);
+		ImmutableList.Builder<SQLPPTriplesMap> builder = ImmutableList.builder();
+		builder.addAll(nonExpandableMappings);
 
-						// TODO: see how to keep the provenance
-						SQLPPTriplesMap newMapping = new OntopNativeSQLPPTriplesMap(
-								IDGenerator.getNextUniqueID(m.id + "#"),
-								MAPPING_FACTORY.getSQLQuery(newSourceQuery),
-								ImmutableList.of(newTarget));
+		for (PreparedExpansion e : preparedExpansions) {
+			ImmutableList<ImmutableList<String>> rows = templateValues.get(e.query);
+			if (rows == null) {
+				String message = queryErrorMessages.get(e.query);
+				log.warn("Expanding meta-mappings exception: " + message);
+				errorMessages.add(message);
+				continue;
+			}
 
-						builder.add(newMapping);
-						log.debug("Expanded Mapping: {}", newMapping);
-					}
+			try {
+				for (ImmutableList<String> values : rows) {
+					SQLPPTriplesMap newMapping = instantiate(e, values);
+					builder.add(newMapping);
+					log.debug("Expanded Mapping: {}", newMapping);
 				}
 			}
-			catch (Exception e) {
-				log.warn("Expanding meta-mappings exception: " + e.getMessage());
-				errorMessages.add(e.getMessage());
+			catch (Exception ex) {
+				log.warn("Expanding meta-mappings exception: " + ex.getMessage());
+				errorMessages.add(ex.getMessage());
 			}
 		}
 
+		cache.ifPresent(MetaMappingExpansionCache::save);
+
 		if (!errorMessages.isEmpty())
 			throw new MetaMappingExpansionException(Joiner.on("\n").join(errorMessages));
 
 		return builder.build();
 	}
 
+	private PreparedExpansion prepare(Expansion m, DBMetadata metadata) throws Exception {
+		boolean isClass = isURIRDFType(m.target.getSubstitutedTerm(1), termFactory, typeFactory);
+		// if isClass, then the template is the object;
+		// otherwise, it's a property and the template is the predicate
+		ImmutableFunctionalTerm templateAtom = (ImmutableFunctionalTerm)m.target.getSubstitutedTerm(isClass ? 2 : 1);
+
+		ImmutableList<Variable> templateVariables = extractTemplateVariables(templateAtom);
+
+		List<QuotedID> templateColumnIds = getTemplateColumnNames(metadata.getQuotedIDFactory(), templateVariables);
+
+		Map<QuotedID, SelectExpressionItem> queryColumns = getQueryColumns(metadata, m.source.getSQLQuery());
+
+		List<SelectExpressionItem> templateColumns;
+		try {
+			templateColumns = templateColumnIds.stream()
+					.map(id -> queryColumns.get(id))
+					.collect(ImmutableCollectors.toList());
+		}
+		catch (NullPointerException e) {
+			throw new IllegalArgumentException(templateColumnIds.stream()
+					.filter(id -> !queryColumns.containsKey(id))
+					.map(Object::toString)
+					.collect(Collectors.joining(", ",
+							"The placeholder(s) ",
+							" in the target do(es) not occur in the body of the mapping")));
+		}
+
+		String query = getTemplateValuesQuery(m.source.getSQLQuery(), templateColumns);
+		return new PreparedExpansion(m, isClass, templateAtom, templateColumns, query);
+	}
+
+	/**
+	 * Rows containing nulls are ignored (cannot build an IRI out of nulls)
+	 */
+	private static ImmutableList<ImmutableList<String>> getTemplateValues(Connection connection, String query, int size)
+			throws SQLException {
+		ImmutableList.Builder<ImmutableList<String>> rows = ImmutableList.builder();
+		try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(query)) {
+			while (rs.next()) {
+				List<String> values = Lists.newArrayListWithCapacity(size);
+				for (int i = 1; i <= size; i++)
+					values.add(rs.getString(i));
+
+				if (!values.contains(null))
+					rows.add(ImmutableList.copyOf(values));
+			}
+		}
+		return rows.build();
+	}
+
+	private SQLPPTriplesMap instantiate(PreparedExpansion e, ImmutableList<String> values) throws JSQLParserException {
+		Expansion m = e.expansion;
+		String newSourceQuery = getInstantiatedSQL(m.source.getSQLQuery(), e.templateColumns, values);
+
+		IRIConstant predicateTerm = termFactory.getConstantIRI(
+				rdfFactory.createIRI(getPredicateName(e.templateAtom.getTerm(0), values)));
+
+		Variable predicateVariable = m.target.getProjectionAtom().getArguments().get(e.isClass ? 2 : 1);
+		ImmutableSubstitution<ImmutableTerm> newSubstitution = m.target.getSubstitution()
+				.composeWith(substitutionFactory.getSubstitution(predicateVariable, predicateTerm));
+
+		TargetAtom newTarget = m.target.changeSubstitution(newSubstitution);
+
+		// TODO: see how to keep the provenance
+		return new OntopNativeSQLPPTriplesMap(
+				IDGenerator.getNextUniqueID(m.id + "#"),
+				MAPPING_FACTORY.getSQLQuery(newSourceQuery),
+				ImmutableList.of(newTarget));
+	}
+
 	private ImmutableList<Variable> extractTemplateVariables(ImmutableFunctionalTerm templateAtom) {
 		return Optional.of(templateAtom)
 				.filter(a -> a.getFunctionSymbol() instanceof RDFTermFunctionSymbol)
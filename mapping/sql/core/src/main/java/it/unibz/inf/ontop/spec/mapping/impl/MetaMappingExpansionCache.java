@@ -0,0 +1,156 @@
+package it.unibz.inf.ontop.spec.mapping.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Values of the template columns of the meta-mappings (results of the DISTINCT queries),
+ * persisted so that restarts do not need to run the expansion queries again.
+ *
+ * The entries are identified by the hash of their query and expire after the TTL.
+ * The file is bound to a key (e.g. the JDBC URL and user): it is ignored for another key.
+ * Only the entries used by the last expansion are saved.
+ *
+ * Not thread-safe: only used by the thread running the expansion.
+ */
+public class MetaMappingExpansionCache {
+
+    private static final int MAGIC = 0x4F4D4D45; // OMME
+    // to be incremented whenever the format changes
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Logger log = LoggerFactory.getLogger(MetaMappingExpansionCache.class);
+
+    private final File file;
+    private final String key;
+    private final long ttlMillis;
+    private final Map<String, Entry> storedEntries;
+    private final Map<String, Entry> usedEntries = new HashMap<>();
+    private boolean modified;
+
+    private MetaMappingExpansionCache(File file, String key, long ttlMillis, Map<String, Entry> storedEntries) {
+        this.file = file;
+        this.key = key;
+        this.ttlMillis = ttlMillis;
+        this.storedEntries = storedEntries;
+    }
+
+    /**
+     * A missing, outdated or unreadable file gives an empty cache
+     */
+    public static MetaMappingExpansionCache load(File file, String key, long ttlMillis) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (file.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() == MAGIC && in.readInt() == FORMAT_VERSION && in.readUTF().equals(key)) {
+                    int entryCount = in.readInt();
+                    for (int i = 0; i < entryCount; i++) {
+                        String queryHash = in.readUTF();
+                        long timestamp = in.readLong();
+                        int columnCount = in.readInt();
+                        int rowCount = in.readInt();
+                        ImmutableList.Builder<ImmutableList<String>> rows = ImmutableList.builder();
+                        for (int j = 0; j < rowCount; j++) {
+                            ImmutableList.Builder<String> row = ImmutableList.builder();
+                            for (int k = 0; k < columnCount; k++)
+                                row.add(in.readUTF());
+                            rows.add(row.build());
+                        }
+                        entries.put(queryHash, new Entry(timestamp, columnCount, rows.build()));
+                    }
+                }
+                else
+                    log.info("Outdated meta-mapping expansion snapshot {}", file);
+            }
+            catch (IOException | RuntimeException e) {
+                log.warn("Cannot read the meta-mapping expansion snapshot {}: {}", file, e.getMessage());
+                entries.clear();
+            }
+        }
+        return new MetaMappingExpansionCache(file, key, ttlMillis, entries);
+    }
+
+    /**
+     * Returns empty if the values of the query are unknown or have expired
+     */
+    public Optional<ImmutableList<ImmutableList<String>>> get(String query) {
+        String queryHash = hash(query);
+        Entry entry = storedEntries.get(queryHash);
+        if (entry == null || System.currentTimeMillis() - entry.timestamp > ttlMillis)
+            return Optional.empty();
+
+        usedEntries.put(queryHash, entry);
+        return Optional.of(entry.rows);
+    }
+
+    public void put(String query, int columnCount, ImmutableList<ImmutableList<String>> rows) {
+        usedEntries.put(hash(query), new Entry(System.currentTimeMillis(), columnCount, rows));
+        modified = true;
+    }
+
+    /**
+     * The file is written to a temporary file first so that concurrent readers never see a partial file.
+     * Failures are not fatal.
+     */
+    public void save() {
+        if (!modified && usedEntries.size() == storedEntries.size())
+            return;
+
+        File directory = file.getParentFile();
+        File tmpFile = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            tmpFile = File.createTempFile(file.getName(), ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                out.writeInt(usedEntries.size());
+                for (Map.Entry<String, Entry> e : usedEntries.entrySet()) {
+                    Entry entry = e.getValue();
+                    out.writeUTF(e.getKey());
+                    out.writeLong(entry.timestamp);
+                    out.writeInt(entry.columnCount);
+                    out.writeInt(entry.rows.size());
+                    for (ImmutableList<String> row : entry.rows)
+                        for (String value : row)
+                            out.writeUTF(value);
+                }
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            log.info("Meta-mapping expansion snapshot written to {}", file);
+        }
+        catch (IOException e) {
+            log.warn("Cannot write the meta-mapping expansion snapshot {}: {}", file, e.getMessage());
+            if (tmpFile != null)
+                tmpFile.delete();
+        }
+    }
+
+    private static String hash(String query) {
+        return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+    }
+
+    private static final class Entry {
+        private final long timestamp;
+        private final int columnCount;
+        private final ImmutableList<ImmutableList<String>> rows;
+
+        private Entry(long timestamp, int columnCount, ImmutableList<ImmutableList<String>> rows) {
+            this.timestamp = timestamp;
+            this.columnCount = columnCount;
+            this.rows = rows;
+        }
+    }
+}
@@ -32,9 +32,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.io.File;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
@@ -46,6 +48,7 @@ public class SQLMappingExtractor extends AbstractMappingExtractor<SQLPPMapping,
     private final MappingDatatypeFiller mappingDatatypeFiller;
     private final MappingCanonicalTransformer canonicalTransformer;
     private static final Logger log = LoggerFactory.getLogger(SQLMappingExtractor.class);
+    private static final String META_MAPPING_SNAPSHOT_FILE = "metamapping.snapshot";
     private final TermFactory termFactory;
     private final SubstitutionFactory substitutionFactory;
     private final TypeFactory typeFactory;
@@ -93,11 +96,17 @@ public class SQLMappingExtractor extends AbstractMappingExtractor<SQLPPMapping,
 
         log.debug(dbMetadata.printKeys());
 
-        SQLPPMapping expandedPPMapping = expandPPMapping(ppMapping, settings, dbMetadata);
+        MappingWithProvenance provMapping;
+        try {
+            SQLPPMapping expandedPPMapping = expandPPMapping(ppMapping, settings, dbMetadata);
 
-        // NB: may also add views in the DBMetadata (for non-understood SQL queries)
-        MappingWithProvenance provMapping = ppMappingConverter.convert(expandedPPMapping, dbMetadata, executorRegistry);
-        dbMetadata.freeze();
+            // NB: may also add views in the DBMetadata (for non-understood SQL queries)
+            provMapping = ppMappingConverter.convert(expandedPPMapping, dbMetadata, executorRegistry);
+        }
+        finally {
+            // also releases the connection of a lazily loaded DBMetadata
+            dbMetadata.freeze();
+        }
 
         MappingWithProvenance filledProvMapping = mappingDatatypeFiller.transform(provMapping);
         MappingWithProvenance castMapping = mappingCaster.transform(filledProvMapping);
@@ -116,7 +125,10 @@ public class SQLMappingExtractor extends AbstractMappingExtractor<SQLPPMapping,
         final ImmutableList<SQLPPTriplesMap> expandedMappingAxioms;
         if (expander.hasMappingsToBeExpanded()) {
             try (Connection connection = LocalJDBCConnectionUtils.createConnection(settings)) {
-                expandedMappingAxioms = expander.getExpandedMappings(connection, dbMetadata);
+                expandedMappingAxioms = expander.getExpandedMappings(connection, dbMetadata,
+                        settings.getMetaMappingExpansionParallelism(),
+                        () -> LocalJDBCConnectionUtils.createConnection(settings),
+                        getMetaMappingExpansionCache(settings));
             }
             // Problem while creating the connection
             catch (SQLException e) {
@@ -135,6 +147,16 @@ public class SQLMappingExtractor extends AbstractMappingExtractor<SQLPPMapping,
         }
     }
 
+    /**
+     * Only when a snapshot directory is provided
+     */
+    private static Optional<MetaMappingExpansionCache> getMetaMappingExpansionCache(OntopMappingSQLSettings settings) {
+        return settings.getSnapshotDirectory()
+                .map(d -> MetaMappingExpansionCache.load(new File(d, META_MAPPING_SNAPSHOT_FILE),
+                        settings.getJdbcUrl() + "\n" + settings.getJdbcUser(),
+                        TimeUnit.SECONDS.toMillis(settings.getMetaMappingExpansionTTL())));
+    }
+
     /**
      * Makes use of the DB connection
      */
@@ -35,6 +35,8 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public abstract class AbstractConstraintTest extends TestCase {
 	
@@ -127,6 +129,39 @@ public abstract class AbstractConstraintTest extends TestCase {
 		log.info("\n");
 	}
 	
+	/**
+	 * The bulk catalog queries (Oracle, PostgreSQL and MySQL) must find the same primary and foreign keys
+	 */
+	public void testBulkExtraction() throws Exception {
+		log.info("==== BULK EXTRACTION ====");
+
+		try (Connection conn = DriverManager.getConnection(getConnectionString(), getConnectionUsername(), getConnectionPassword())) {
+			TypeFactory typeFactory = OntopModelConfiguration.defaultBuilder().build().getTypeFactory();
+			RDBMetadata bulkMetadata = RDBMetadataExtractionTools.createMetadata(conn, typeFactory);
+			RDBMetadataExtractionTools.loadMetadata(bulkMetadata, conn, null, true, 1, null);
+
+			for (DatabaseRelationDefinition t : metadata.getDatabaseRelations()) {
+				DatabaseRelationDefinition b = bulkMetadata.getDatabaseRelation(t.getID());
+				assertNotNull(b);
+				assertEquals(getPrimaryKeyAttributes(t), getPrimaryKeyAttributes(b));
+				assertEquals(toStringSet(t.getForeignKeys()), toStringSet(b.getForeignKeys()));
+				writeLog(t.getID().getSQLRendering(), b.getForeignKeys());
+			}
+		}
+		log.info("\n");
+	}
+
+	private static String getPrimaryKeyAttributes(DatabaseRelationDefinition table) {
+		UniqueConstraint pk = table.getPrimaryKey();
+		return pk == null ? null : pk.getAttributes().toString();
+	}
+
+	private static Set<String> toStringSet(Collection<?> elements) {
+		return elements.stream()
+				.map(Object::toString)
+				.collect(Collectors.toSet());
+	}
+
 	private boolean checkName(DatabaseRelationDefinition table, String value) {
 		final String tableName = table.getID().getSQLRendering();
 		return tableName.equalsIgnoreCase(value);
@@ -24,8 +24,10 @@ import java.io.File;
 import java.util.Properties;
 
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopRepositoryConnection;
 import it.unibz.inf.ontop.si.OntopSemanticIndexLoader;
 
+import org.eclipse.rdf4j.common.iteration.Iterations;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.impl.SimpleDataset;
@@ -293,4 +295,45 @@ public class RDF4JConstructDescribeTest {
 		}
 	}
 
+	@Test
+	public void testHasStatement() throws Exception {
+		ValueFactory valueFactory = REPOSITORY.getValueFactory();
+		Resource subj = valueFactory.createIRI("http://example.org/C");
+		IRI pred = valueFactory.createIRI("http://www.semanticweb.org/ontologies/test#p1");
+		try (RepositoryConnection con = REPOSITORY.getConnection()) {
+			Assert.assertTrue(con.hasStatement(subj, null, null, false));
+			Assert.assertTrue(con.hasStatement(null, pred, valueFactory.createLiteral("Cname"), false));
+			Assert.assertTrue(con.hasStatement(null, null, null, false));
+			Assert.assertFalse(con.hasStatement(subj, pred, valueFactory.createLiteral("other name"), false));
+			Assert.assertFalse(con.hasStatement(valueFactory.createIRI("http://example.org/D"), null, null, false));
+		}
+	}
+
+	@Test
+	public void testGetStatementsPartialIteration() throws Exception {
+		try (RepositoryConnection con = REPOSITORY.getConnection()) {
+			try (RepositoryResult<Statement> results = con.getStatements(null, null, null, false)) {
+				Assert.assertTrue(results.hasNext());
+				Assert.assertNotNull(results.next());
+			}
+			// the connection remains usable after closing a partially consumed result
+			Assert.assertEquals(4, Iterations.asList(con.getStatements(null, null, null, false)).size());
+		}
+	}
+
+	@Test
+	public void testSize() throws Exception {
+		ValueFactory valueFactory = REPOSITORY.getValueFactory();
+		try (RepositoryConnection con = REPOSITORY.getConnection()) {
+			Assert.assertEquals(4, con.size());
+			Assert.assertFalse(con.isEmpty());
+
+			OntopRepositoryConnection ontopCon = (OntopRepositoryConnection) con;
+			IRI p2 = valueFactory.createIRI("http://www.semanticweb.org/ontologies/test#p2");
+			Assert.assertEquals(2, ontopCon.count(null, p2, null));
+			Assert.assertEquals(1, ontopCon.count(null, p2, valueFactory.createIRI("http://example.org/D")));
+			Assert.assertEquals(0, ontopCon.count(valueFactory.createIRI("http://example.org/D"), null, null));
+		}
+	}
+
 }